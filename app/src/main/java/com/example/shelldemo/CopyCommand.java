@@ -0,0 +1,135 @@
+package com.example.shelldemo;
+
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.ParentCommand;
+
+import com.example.shelldemo.connection.ConnectionConfig;
+import com.example.shelldemo.connection.DatabaseConnectionFactory;
+import com.example.shelldemo.connection.JdbcDriverLoader;
+import com.example.shelldemo.copy.TableCopier;
+import com.example.shelldemo.load.BulkWriters;
+
+/**
+ * Copies a table from the database of the parent {@code db} command into a target database.
+ */
+@Command(name = "copy", mixinStandardHelpOptions = true, description = "Copy a table into another database in parallel ranges")
+public class CopyCommand implements Callable<Integer> {
+    private static final Logger logger = LogManager.getLogger(CopyCommand.class);
+
+    @ParentCommand
+    private UnifiedDatabaseRunner parent;
+
+    @Option(names = {"--table"}, required = true, description = "Source table")
+    private String table;
+
+    @Option(names = {"--target-table"}, description = "Target table (default: same as source)")
+    private String targetTable;
+
+    @Option(names = {"--columns"}, split = ",", description = "Columns to copy (default: all columns of the source table)")
+    private List<String> columns;
+
+    @Option(names = {"--split-column"}, description = "Numeric or date column to split on. Without it the source is split by ROWID/ctid.")
+    private String splitColumn;
+
+    @Option(names = {"--threads"}, defaultValue = "4", description = "Number of parallel range workers (default: 4)")
+    private int threads;
+
+    @Option(names = {"--ranges"}, defaultValue = "0", description = "Number of key ranges (default: 4 per worker)")
+    private int ranges;
+
+    @Option(names = {"--batch-size"}, defaultValue = "1000", description = "Rows per fetch and write batch (default: 1000)")
+    private int batchSize;
+
+    @Option(names = {"--queue-capacity"}, defaultValue = "4", description = "Batches buffered between reader and writer (default: 4)")
+    private int queueCapacity;
+
+    @Option(names = {"--checkpoint"}, description = "Checkpoint file for resuming an interrupted copy (requires --split-column)")
+    private File checkpoint;
+
+    @Option(names = {"--writer"}, description = "Bulk writer (jdbc-batch, oracle-direct-path, postgresql-copy); oracle-direct-path needs --threads 1. Defaults to the one configured for the target type.")
+    private String writer;
+
+    @Option(names = {"--target-type"}, description = "Target database type (default: source type)")
+    private String targetType;
+
+    @Option(names = {"--target-connection-type"}, description = "Target connection type for Oracle (thin, ldap)")
+    private String targetConnectionType;
+
+    @Option(names = {"--target-host"}, description = "Target database host")
+    private String targetHost;
+
+    @Option(names = {"--target-port"}, description = "Target database port")
+    private int targetPort;
+
+    @Option(names = {"--target-username"}, required = true, description = "Target database username")
+    private String targetUsername;
+
+    @Option(names = {"--target-password"}, description = "Target database password")
+    private String targetPassword;
+
+    @Option(names = {"--target-database"}, required = true, description = "Target database name")
+    private String targetDatabase;
+
+    @Override
+    public Integer call() {
+        if (!parent.resolvePassword()) {
+            return 2;
+        }
+        if (targetPassword == null || targetPassword.trim().isEmpty()) {
+            targetPassword = UnifiedDatabaseRunner.promptForPassword("Enter target database password: ");
+        }
+        if (parent.getDriverPath() != null) {
+            new JdbcDriverLoader().loadDriver(parent.getDriverPath());
+        }
+
+        try {
+            DatabaseConnectionFactory factory = new DatabaseConnectionFactory();
+            ConnectionConfig sourceConfig = parent.toConnectionConfig();
+            ConnectionConfig targetConfig = toTargetConnectionConfig();
+            TableCopier.builder()
+                .source(factory.connectionProvider(sourceConfig))
+                .sourceDbType(sourceConfig.getDbType())
+                .target(factory.connectionProvider(targetConfig))
+                .targetDbType(targetConfig.getDbType())
+                .table(table)
+                .targetTable(targetTable)
+                .columns(columns)
+                .splitColumn(splitColumn)
+                .parallelism(threads)
+                .ranges(ranges)
+                .batchSize(batchSize)
+                .queueCapacity(queueCapacity)
+                .checkpointFile(checkpoint != null ? checkpoint.toPath() : null)
+                .writer(writer != null ? BulkWriters.named(writer) : null)
+                .build()
+                .copy();
+            return 0;
+        } catch (IllegalArgumentException e) {
+            logger.error("Copy failed: {}", e.getMessage());
+            return 2;
+        } catch (Exception e) {
+            logger.error("Copy failed: {}", e.getMessage(), e);
+            return 1;
+        }
+    }
+
+    private ConnectionConfig toTargetConnectionConfig() {
+        ConnectionConfig connConfig = new ConnectionConfig();
+        connConfig.setDbType(targetType != null ? targetType : parent.getDbType());
+        connConfig.setHost(targetHost);
+        connConfig.setPort(targetPort);
+        connConfig.setUsername(targetUsername);
+        connConfig.setPassword(targetPassword);
+        connConfig.setServiceName(targetDatabase);
+        connConfig.setConnectionType(targetConnectionType);
+        return connConfig;
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.shelldemo;
+
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.Parameters;
+import picocli.CommandLine.ParentCommand;
+
+import com.example.shelldemo.connection.ConnectionConfig;
+import com.example.shelldemo.connection.DatabaseConnectionFactory;
+import com.example.shelldemo.connection.JdbcDriverLoader;
+import com.example.shelldemo.load.BulkLoader;
+import com.example.shelldemo.load.BulkWriters;
+import com.example.shelldemo.load.RecordFormat;
+
+/**
+ * Loads a CSV or JSONL file into a table using the connection options of the parent {@code db} command.
+ */
+@Command(name = "load", mixinStandardHelpOptions = true, description = "Bulk load a CSV or JSONL file into a table")
+public class LoadCommand implements Callable<Integer> {
+    private static final Logger logger = LogManager.getLogger(LoadCommand.class);
+
+    @ParentCommand
+    private UnifiedDatabaseRunner parent;
+
+    @Parameters(index = "0", paramLabel = "FILE", description = "CSV or JSONL file to load")
+    private File file;
+
+    @Option(names = {"--table"}, required = true, description = "Target table")
+    private String table;
+
+    @Option(names = {"--columns"}, split = ",", description = "Target columns in file order (default: CSV header or first JSON record)")
+    private List<String> columns;
+
+    @Option(names = {"--format"}, description = "Input format (csv, jsonl). Defaults to the file extension.")
+    private String format;
+
+    @Option(names = {"--no-header"}, description = "CSV file has no header line")
+    private boolean noHeader;
+
+    @Option(names = {"--threads"}, defaultValue = "4", description = "Number of parallel readers and connections (default: 4)")
+    private int threads;
+
+    @Option(names = {"--batch-size"}, defaultValue = "1000", description = "Rows per JDBC batch (default: 1000)")
+    private int batchSize;
+
+    @Option(names = {"--commit-interval"}, defaultValue = "10000", description = "Rows per commit and connection (default: 10000)")
+    private int commitInterval;
+
+    @Option(names = {"--disable-indexes"}, description = "Disable non-unique indexes during the load and rebuild them afterwards")
+    private boolean disableIndexes;
+
+    @Option(names = {"--writer"}, description = "Bulk writer (jdbc-batch, oracle-direct-path, postgresql-copy); oracle-direct-path needs --threads 1. Defaults to the one configured for the database type.")
+    private String writer;
+
+    @Override
+    public Integer call() {
+        if (!file.isFile()) {
+            logger.error("File not found: {}", file);
+            return 2;
+        }
+        if (!parent.resolvePassword()) {
+            return 2;
+        }
+        if (parent.getDriverPath() != null) {
+            new JdbcDriverLoader().loadDriver(parent.getDriverPath());
+        }
+
+        try {
+            ConnectionConfig connConfig = parent.toConnectionConfig();
+            BulkLoader.builder()
+                .connectionProvider(new DatabaseConnectionFactory().connectionProvider(connConfig))
+                .dbType(parent.getDbType())
+                .table(table)
+                .columns(columns)
+                .format(RecordFormat.resolve(format, file.getName()))
+                .header(!noHeader)
+                .parallelism(threads)
+                .batchSize(batchSize)
+                .commitInterval(commitInterval)
+                .disableIndexes(disableIndexes)
+                .writer(writer != null ? BulkWriters.named(writer) : null)
+                .build()
+                .load(file.toPath());
+            return 0;
+        } catch (IllegalArgumentException e) {
+            logger.error("Load failed: {}", e.getMessage());
+            return 2;
+        } catch (Exception e) {
+            logger.error("Load failed: {}", e.getMessage(), e);
+            return 1;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.shelldemo;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Runs the independent parts of CLI startup (configuration, Vault, driver loading, script parsing,
+ * connecting) concurrently on virtual threads. A stage starts as soon as the stages it depends on have
+ * finished, and the duration of every stage is logged.
+ */
+final class StartupStages implements AutoCloseable {
+    private static final Logger logger = LogManager.getLogger(StartupStages.class);
+    private static final String REPORT_PROPERTY = "db.startup.report";
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final long startNanos = System.nanoTime();
+    private final List<String> timings = new ArrayList<>();
+
+    /**
+     * Starts a stage without dependencies.
+     */
+    <T> CompletableFuture<T> start(String name, Callable<T> work) {
+        return CompletableFuture.supplyAsync(() -> run(name, work), executor);
+    }
+
+    /**
+     * Starts a stage once all dependencies have completed. If a dependency fails, the stage is skipped
+     * and completes with the same failure.
+     */
+    <T> CompletableFuture<T> after(String name, Callable<T> work, CompletableFuture<?>... dependencies) {
+        return CompletableFuture.allOf(dependencies).thenApplyAsync(ignored -> run(name, work), executor);
+    }
+
+    /**
+     * Waits for a stage and rethrows its original failure.
+     */
+    static <T> T join(CompletableFuture<T> stage) throws Exception {
+        try {
+            return stage.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() instanceof CompletionException completion ? completion.getCause() : e.getCause();
+            if (cause instanceof Exception exception) {
+                throw exception;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Logs how long each stage took and when startup was complete. With {@code -Ddb.startup.report=<file>}
+     * the same figures are appended to the file as one CSV line, which the startup benchmark collects.
+     */
+    void logSummary() {
+        long readyMillis = elapsedMillis();
+        String stageTimings;
+        synchronized (timings) {
+            stageTimings = String.join(", ", timings);
+        }
+        logger.info("Startup ready after {} ms ({})", readyMillis, stageTimings);
+
+        String report = System.getProperty(REPORT_PROPERTY);
+        if (report != null) {
+            writeReport(Path.of(report), readyMillis, stageTimings);
+        }
+    }
+
+    private static void writeReport(Path report, long readyMillis, String stageTimings) {
+        // The wall-clock ready time lets the caller include JVM boot and class loading before main
+        String line = System.currentTimeMillis() + "," + readyMillis + ",\"" + stageTimings + "\"" + System.lineSeparator();
+        try {
+            Files.writeString(report, line, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            logger.warn("Failed to write startup report {}: {}", report, e.getMessage());
+        }
+    }
+
+    private <T> T run(String name, Callable<T> work) {
+        long stageStart = System.nanoTime();
+        try {
+            return work.call();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new CompletionException(e);
+        } finally {
+            long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - stageStart);
+            logger.debug("Startup stage {} took {} ms, finished at +{} ms", name, millis, elapsedMillis());
+            synchronized (timings) {
+                timings.add(name + " " + millis + " ms");
+            }
+        }
+    }
+
+    private long elapsedMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Abandons stages that are still running, e.g. a connection attempt after the script failed to parse.
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
@@ -14,20 +14,38 @@ import java.io.File;
 import java.io.IOException;
 
 import com.example.shelldemo.parser.SqlScriptParser;
+import com.example.shelldemo.parser.StatementFingerprint;
+import com.example.shelldemo.parser.SqlTableExtractor;
 import com.example.shelldemo.parser.SqlScriptParser.StoredProcedureInfo;
 import com.example.shelldemo.exception.DatabaseException;
 import com.example.shelldemo.exception.DatabaseException.ErrorType;
 import com.example.shelldemo.connection.DatabaseConnectionFactory;
+import com.example.shelldemo.connection.JdbcInstrumentation;
 import com.example.shelldemo.connection.ConnectionConfig;
+import com.example.shelldemo.connection.ConnectionPool;
+import com.example.shelldemo.connection.ConnectionProvider;
+import com.example.shelldemo.cache.QueryResultCache;
+import com.example.shelldemo.partition.ParallelQueryExtractor;
 import com.example.shelldemo.config.ConfigurationHolder;
+import com.example.shelldemo.jfr.ResultFetchEvent;
+import com.example.shelldemo.jfr.StatementExecuteEvent;
+import com.example.shelldemo.jfr.TransactionEndEvent;
+import com.example.shelldemo.metrics.Phase;
+import com.example.shelldemo.metrics.RunMetrics;
 import com.example.shelldemo.validate.DatabaserOperationValidator;
 
 import com.example.shelldemo.sqlhandling.ResultSetProcessor;
 import com.example.shelldemo.sqlhandling.DatabaseErrorHandler;
 import com.example.shelldemo.sqlhandling.BatchExecutor;
+import com.example.shelldemo.sqlhandling.ConsoleTableRenderer;
 import com.example.shelldemo.sqlhandling.StatementExecutor;
 import com.example.shelldemo.sqlhandling.DatabaseConfig;
 import com.example.shelldemo.sqlhandling.ResultSetStreamer;
+import com.example.shelldemo.sqlhandling.KeysetPage;
+import com.example.shelldemo.sqlhandling.KeysetPaginator;
+import com.example.shelldemo.sqlhandling.SlowStatementLog;
+import com.example.shelldemo.validate.ParallelScriptValidator;
+import com.example.shelldemo.validate.ValidationCache;
 
 
 /**
@@ -40,23 +58,40 @@ public class UnifiedDatabaseOperation implements AutoCloseable {
     private static final Logger logger = LogManager.getLogger(UnifiedDatabaseOperation.class);
     
     private final Connection connection;
+    private final ConnectionProvider connectionProvider;
     private final StatementExecutor statementExecutor;
     private final BatchExecutor batchExecutor;
     private final DatabaseErrorHandler errorHandler;
     private final ResultSetProcessor resultSetProcessor;
+    private final KeysetPaginator keysetPaginator;
+    private final QueryResultCache queryCache;
+    private final String cacheDatabase;
+    // Statements written in the open transaction; their cache entries are dropped again once it ends
+    private final List<String> uncommittedWrites = new ArrayList<>();
+    private boolean inTransaction;
+    private final ConsoleTableRenderer resultRenderer;
+    private final RunMetrics metrics;
+    private final SlowStatementLog slowLog;
     private final String dbType;
 
     private static final int DEFAULT_BATCH_SIZE = 1000;
 
-    // Dedicated logger for result set output
-    private static final Logger resultSetLogger = LogManager.getLogger("com.example.shelldemo.resultset");
 
     /**
      * Use UnifiedDatabaseOperationBuilder to construct instances.
      */
-    private UnifiedDatabaseOperation(DatabaseConfig config) {
+    private UnifiedDatabaseOperation(DatabaseConfig config, QueryResultCache queryCache, ConnectionPool connectionPool,
+                                     ConsoleTableRenderer resultRenderer, RunMetrics metrics, SlowStatementLog slowLog) {
         this.dbType = config.getDbType().toLowerCase();
-        DatabaseConnectionFactory connectionFactory = new DatabaseConnectionFactory();
+        this.queryCache = queryCache;
+        this.cacheDatabase = String.format("%s://%s@%s:%d/%s", this.dbType, config.getUsername(),
+            config.getHost(), config.getPort(), config.getDatabase());
+        this.slowLog = slowLog;
+        this.metrics = metrics != null ? metrics : new RunMetrics();
+        this.resultRenderer = resultRenderer != null
+            ? resultRenderer
+            : ConsoleTableRenderer.builder().metrics(this.metrics).build();
+        DatabaseConnectionFactory connectionFactory = new DatabaseConnectionFactory(this.metrics.jdbcStats());
         
         try {
             ConnectionConfig connConfig = new ConnectionConfig();
@@ -68,11 +103,21 @@ public class UnifiedDatabaseOperation implements AutoCloseable {
             connConfig.setServiceName(config.getDatabase());
             connConfig.setConnectionType(config.getConnectionType());
             
-            this.connection = connectionFactory.createConnection(connConfig);
+            if (connectionPool != null) {
+                Connection pooled = connectionPool.getConnection();
+                this.connection = this.metrics.jdbcStats() != null
+                    ? JdbcInstrumentation.wrap(pooled, this.metrics.jdbcStats())
+                    : pooled;
+                this.connectionProvider = connectionPool;
+            } else {
+                this.connection = connectionFactory.createConnection(connConfig);
+                this.connectionProvider = connectionFactory.connectionProvider(connConfig);
+            }
             this.statementExecutor = new StatementExecutor(connection, new DatabaserOperationValidator(dbType));
             this.batchExecutor = new BatchExecutor(connection);
             this.errorHandler = new DatabaseErrorHandler(dbType);
             this.resultSetProcessor = new ResultSetProcessor();
+            this.keysetPaginator = new KeysetPaginator(dbType);
             
             logger.info("Database operation initialized successfully for {}", this.dbType);
         } catch (SQLException e) {
@@ -122,18 +167,22 @@ public class UnifiedDatabaseOperation implements AutoCloseable {
         boolean originalAutoCommit = connection.getAutoCommit();
         try {
             connection.setAutoCommit(false);
+            inTransaction = true;
             T result = work.apply(connection);
-            connection.commit();
+            long commitStart = System.nanoTime();
+            endTransaction("commit", connection::commit);
+            metrics.recordSince(Phase.COMMIT, commitStart);
             return result;
         } catch (SQLException e) {
             try {
-                connection.rollback();
+                endTransaction("rollback", connection::rollback);
                 logger.warn("Transaction rolled back due to error");
             } catch (SQLException rollbackEx) {
                 logger.error("Failed to roll back transaction after error", rollbackEx);
             }
             throw errorHandler.handleSQLException(e, "transaction");
         } finally {
+            endCacheTransaction();
             try {
                 connection.setAutoCommit(originalAutoCommit);
             } catch (SQLException e) {
@@ -142,10 +191,50 @@ public class UnifiedDatabaseOperation implements AutoCloseable {
         }
     }
 
+    /**
+     * Drops the cache entries of the tables written in the transaction again. Other runs may have cached the
+     * committed-before state between the write and the commit, and this connection may have cached rows that
+     * a rollback discarded.
+     */
+    private void endCacheTransaction() {
+        inTransaction = false;
+        if (queryCache != null) {
+            uncommittedWrites.forEach(sql -> queryCache.invalidateFor(cacheDatabase, sql));
+        }
+        uncommittedWrites.clear();
+    }
+
+    @FunctionalInterface
+    private interface SqlAction {
+        void run() throws SQLException;
+    }
+
+    private static void endTransaction(String outcome, SqlAction action) throws SQLException {
+        TransactionEndEvent event = new TransactionEndEvent();
+        event.begin();
+        try {
+            action.run();
+            event.succeeded = true;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.outcome = outcome;
+                event.commit();
+            }
+        }
+    }
+
     public List<Map<String, Object>> executeQuery(String sql, int pageSize, int pageNumber, Object... params) {
         logger.debug("Executing paginated query: {} with page size: {} and page number: {}", sql, pageSize, pageNumber);
         String paginatedSql = addPagination(sql, pageSize, pageNumber);
-        return execute(conn -> {
+        if (queryCache != null) {
+            List<Map<String, Object>> cached = queryCache.get(cacheDatabase, paginatedSql, params);
+            if (cached != null) {
+                logger.debug("Returning {} cached rows for page {}", cached.size(), pageNumber);
+                return new ArrayList<>(cached);
+            }
+        }
+        List<Map<String, Object>> rows = execute(conn -> {
             List<Map<String, Object>> results = new ArrayList<>();
             try (PreparedStatement stmt = conn.prepareStatement(paginatedSql)) {
                 for (int i = 0; i < params.length; i++) {
@@ -161,12 +250,67 @@ public class UnifiedDatabaseOperation implements AutoCloseable {
             }
             return results;
         });
+        if (queryCache != null) {
+            queryCache.put(cacheDatabase, paginatedSql, params, rows);
+        }
+        return rows;
     }
 
     public List<Map<String, Object>> executeQuery(String sql, Object... params) {
         return executeQuery(sql, DEFAULT_BATCH_SIZE, 1, params);
     }
 
+    /**
+     * Fetches one page of a query using keyset pagination. Unlike {@link #executeQuery(String, int, int, Object...)}
+     * the cost of a page does not grow with its position.
+     *
+     * @param sql query without ORDER BY or row limiting
+     * @param keyColumns non-null result columns that order the rows and together identify a row
+     * @param pageSize maximum rows per page
+     * @param token continuation token of the previous page, or null for the first page
+     * @return the page and the token for the next one
+     */
+    public KeysetPage executeQueryPage(String sql, List<String> keyColumns, int pageSize, String token, Object... params) {
+        logger.debug("Executing keyset page query on {} with page size {}: {}", keyColumns, pageSize, sql);
+        return execute(conn -> keysetPaginator.fetch(conn, sql, keyColumns, pageSize, token, params));
+    }
+
+    /**
+     * Extracts the rows of a query over {@code parallelism} additional connections, each reading one range of
+     * {@code partitionColumn}. Rows are passed to the handler on the calling thread in no particular order.
+     *
+     * @return number of rows extracted
+     */
+    public long executeParallelQuery(String sql, String partitionColumn, int parallelism,
+                                     ParallelQueryExtractor.RowHandler handler, Object... params) {
+        logger.debug("Executing parallel query on {} with {} connections: {}", partitionColumn, parallelism, sql);
+        return ParallelQueryExtractor.builder()
+            .connectionProvider(connectionProvider)
+            .query(sql)
+            .params(params)
+            .partitionColumn(partitionColumn)
+            .parallelism(parallelism)
+            .build()
+            .extract(handler);
+    }
+
+    /**
+     * Validates script statements over {@code parallelism} additional connections without executing them. All
+     * statements are checked; the report lists every failure in script order. Outcomes are reused from and stored
+     * in the validation cache if one is given.
+     */
+    public ParallelScriptValidator.Report validateScriptParallel(Map<Integer, String> statements, int parallelism,
+                                                                 boolean showExplainPlan, ValidationCache cache) {
+        return ParallelScriptValidator.builder()
+            .connectionProvider(connectionProvider)
+            .dbType(dbType)
+            .parallelism(parallelism)
+            .showExplainPlan(showExplainPlan)
+            .cache(cache)
+            .build()
+            .validate(statements);
+    }
+
     public int executeUpdate(String sql, Object... params) {
         logger.debug("Executing update: {}", sql);
         return execute(conn -> {
@@ -176,6 +320,7 @@ public class UnifiedDatabaseOperation implements AutoCloseable {
                 }
                 int affected = stmt.executeUpdate();
                 logger.debug("Update affected {} rows", affected);
+                invalidateCacheFor(sql);
                 return affected;
             }
         });
@@ -196,6 +341,8 @@ public class UnifiedDatabaseOperation implements AutoCloseable {
                 }
                 
                 boolean hasResultSet = stmt.execute();
+                // the tables a procedure writes are unknown
+                invalidateCacheFor(callString);
                 if (hasResultSet) {
                     logger.debug("Procedure returned a result set");
                     return stmt.getResultSet();
@@ -227,35 +374,44 @@ public class UnifiedDatabaseOperation implements AutoCloseable {
     }
 
     public void executeScript(File scriptFile, boolean transactional) {
-            Map<Integer, String> parsedScripts = parseScriptFile(scriptFile);
-        List<String> dmlStatements = new ArrayList<>();
-        List<String> otherStatements = new ArrayList<>();
-        for (String sql : parsedScripts.values()) {
-            if (isDmlStatement(sql)) {
-                dmlStatements.add(sql);
+        executeScript(parseScriptFile(scriptFile), transactional);
+    }
+
+    /**
+     * Executes statements that were already parsed, e.g. while the connection was being opened.
+     *
+     * @param parsedScripts statements keyed by their position in the script, as returned by
+     *                      {@link SqlScriptParser#parseSqlFile(File)}
+     */
+    public void executeScript(Map<Integer, String> parsedScripts, boolean transactional) {
+        List<Map.Entry<Integer, String>> dmlStatements = new ArrayList<>();
+        List<Map.Entry<Integer, String>> otherStatements = new ArrayList<>();
+        for (Map.Entry<Integer, String> statement : parsedScripts.entrySet()) {
+            if (isDmlStatement(statement.getValue())) {
+                dmlStatements.add(statement);
             } else {
-                otherStatements.add(sql);
+                otherStatements.add(statement);
             }
         }
         executeNonTransactionalStatements(otherStatements);
         executeDmlStatements(dmlStatements, transactional);
     }
 
-    private void executeNonTransactionalStatements(List<String> statements) {
-        for (String sql : statements) {
-            logger.info("Executing non-transactional statement: {}", sql);
-            executeSingleStatement(sql);
+    private void executeNonTransactionalStatements(List<Map.Entry<Integer, String>> statements) {
+        for (Map.Entry<Integer, String> statement : statements) {
+            logger.info("Executing non-transactional statement: {}", statement.getValue());
+            executeSingleStatement(statement.getKey(), statement.getValue());
         }
     }
 
-    private void executeDmlStatements(List<String> dmlStatements, boolean transactional) {
+    private void executeDmlStatements(List<Map.Entry<Integer, String>> dmlStatements, boolean transactional) {
         if (dmlStatements.isEmpty()) return;
             if (transactional) {
             logger.info("Executing DML statements in a transaction ({})", dmlStatements.size());
                 try {
             executeInTransaction(conn -> {
-                        for (String sql : dmlStatements) {
-                            executeSingleStatement(sql);
+                        for (Map.Entry<Integer, String> statement : dmlStatements) {
+                            executeSingleStatement(statement.getKey(), statement.getValue());
                         }
                 return null;
             });
@@ -265,8 +421,8 @@ public class UnifiedDatabaseOperation implements AutoCloseable {
                 }
             } else {
             logger.info("Executing DML statements non-transactionally ({})", dmlStatements.size());
-                for (String sql : dmlStatements) {
-                    executeSingleStatement(sql);
+                for (Map.Entry<Integer, String> statement : dmlStatements) {
+                    executeSingleStatement(statement.getKey(), statement.getValue());
             }
         }
     }
@@ -277,58 +433,103 @@ public class UnifiedDatabaseOperation implements AutoCloseable {
     }
 
 
-    private void executeSingleStatement(String sql) {
+    /**
+     * Executes one statement of a script and prints its result. The ordinal is the position of the statement in
+     * the script and is recorded in flight recorder events together with the statement fingerprint.
+     */
+    private void executeSingleStatement(int ordinal, String sql) {
+        boolean succeeded = false;
+        long[] executeStarted = {-1};
+        // Execute plus fetch time for the slow statement log, without time spent printing rows
+        long[] statementNanos = {-1};
+        StatementExecuteEvent executeEvent = new StatementExecuteEvent();
+        executeEvent.begin();
+        String sqlToExecute = statementExecutor.isPLSQL(sql)
+            ? sql
+            : stripTrailingSemicolon(sql);
         try {
-            String sqlToExecute = statementExecutor.isPLSQL(sql)
-                ? sql
-                : stripTrailingSemicolon(sql);
+            if (queryCache != null && SqlTableExtractor.isDeterministicQuery(sqlToExecute)) {
+                List<Map<String, Object>> cached = queryCache.get(cacheDatabase, sqlToExecute);
+                if (cached != null) {
+                    logger.debug("Using cached result for statement");
+                    ResultFetchEvent fetchEvent = new ResultFetchEvent();
+                    fetchEvent.begin();
+                    long rows = resultRenderer.render(cached);
+                    commitFetchEvent(fetchEvent, ordinal, sqlToExecute, rows, true);
+                    succeeded = true;
+                    return;
+                }
+            }
 
+            long prepareStart = System.nanoTime();
             statementExecutor.executeStatement(sqlToExecute, (stmt, sqlStatement) -> {
-                if (stmt.execute(sqlStatement)) {
+                metrics.recordSince(Phase.PREPARE, prepareStart);
+                long executeStart = System.nanoTime();
+                executeStarted[0] = executeStart;
+                boolean hasResultSet = stmt.execute(sqlStatement);
+                statementNanos[0] = System.nanoTime() - executeStart;
+                metrics.record(Phase.EXECUTE, statementNanos[0]);
+                executeEvent.end();
+                executeEvent.resultSet = hasResultSet;
+                if (hasResultSet) {
+                    ResultFetchEvent fetchEvent = new ResultFetchEvent();
+                    fetchEvent.begin();
+                    long rows;
                     try (ResultSet rs = stmt.getResultSet()) {
-                        List<Map<String, Object>> results = resultSetProcessor.processResultSet(rs);
-                        printQueryResults(results);
+                        if (queryCache != null && SqlTableExtractor.isDeterministicQuery(sqlStatement)) {
+                            // Caching needs the whole result; otherwise rows are streamed to the console
+                            long fetchStart = System.nanoTime();
+                            List<Map<String, Object>> results = resultSetProcessor.processResultSet(rs);
+                            long fetchNanos = System.nanoTime() - fetchStart;
+                            metrics.record(Phase.FETCH, fetchNanos);
+                            statementNanos[0] += fetchNanos;
+                            for (Map<String, Object> row : results) {
+                                metrics.rowFetched(row.values().toArray());
+                            }
+                            rows = resultRenderer.render(results);
+                            queryCache.put(cacheDatabase, sqlStatement, new Object[0], results);
+                        } else {
+                            rows = resultRenderer.render(rs, fetchNanos -> statementNanos[0] += fetchNanos);
+                        }
                     }
+                    commitFetchEvent(fetchEvent, ordinal, sqlStatement, rows, false);
                 } else {
                     int affected = stmt.getUpdateCount();
+                    executeEvent.updateCount = affected;
                     logger.info("Statement affected {} rows", affected);
                 }
+                invalidateCacheFor(sqlStatement);
             });
+            succeeded = true;
         } catch (SQLException e) {
             throw new DatabaseException("Failed to execute SQL statement", e, ErrorType.OP_QUERY);
+        } finally {
+            metrics.statementCompleted(succeeded);
+            if (slowLog != null && executeStarted[0] >= 0) {
+                long elapsed = statementNanos[0] >= 0 ? statementNanos[0] : System.nanoTime() - executeStarted[0];
+                slowLog.record(ordinal, sqlToExecute, elapsed);
+            }
+            if (executeEvent.shouldCommit()) {
+                executeEvent.ordinal = ordinal;
+                executeEvent.fingerprint = StatementFingerprint.of(sqlToExecute);
+                executeEvent.statementType = SqlTableExtractor.firstKeyword(sqlToExecute);
+                executeEvent.succeeded = succeeded;
+                executeEvent.commit();
+            }
         }
     }
 
-    private void printQueryResults(List<Map<String, Object>> results) {
-        if (results.isEmpty()) {
-            logger.info("No results.");
-            return;
-        }
-        StringBuilder output = new StringBuilder();
-        Map<String, Object> firstRow = results.get(0);
-        String[] headers = firstRow.keySet().toArray(new String[0]);
-        for (String header : headers) {
-            output.append(String.format("%-20s", header));
-        }
-        output.append(System.lineSeparator());
-        for (int i = 0; i < headers.length; i++) {
-            output.append("--------------------");
+    private static void commitFetchEvent(ResultFetchEvent event, int ordinal, String sql, long rows, boolean cached) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.ordinal = ordinal;
+            event.fingerprint = StatementFingerprint.of(sql);
+            event.rowCount = rows;
+            event.cached = cached;
+            event.commit();
         }
-        output.append(System.lineSeparator());
-        for (Map<String, Object> row : results) {
-            for (String header : headers) {
-                Object value = row.get(header);
-                output.append(String.format("%-20s", value != null ? value.toString() : "(null)"));
-            }
-            output.append(System.lineSeparator());
-        }
-        String table = System.lineSeparator() + output.toString() + System.lineSeparator();
-        resultSetLogger.info(table); // Only prints to console, not to file logs
     }
 
-
-
-
     public void executeDmlScriptWithBatching(File scriptFile, boolean printStatements) {
         logger.info("Executing DML script with batching: {}", scriptFile.getAbsolutePath());
         
@@ -350,6 +551,7 @@ public class UnifiedDatabaseOperation implements AutoCloseable {
         try {
             executeInTransaction(conn -> {
                 int totalExecuted = executeBatch(batchableStatements, printStatements);
+                batchableStatements.forEach(this::invalidateCacheFor);
                 logger.info("Batch execution completed successfully - {} DML statements executed", totalExecuted);
                 return null;
             });
@@ -374,6 +576,26 @@ public class UnifiedDatabaseOperation implements AutoCloseable {
         }
     }
 
+    /**
+     * Drops the cache entries a statement affects. Inside a transaction they are dropped again when it ends.
+     */
+    private void invalidateCacheFor(String sql) {
+        if (queryCache != null) {
+            queryCache.invalidateFor(cacheDatabase, sql);
+            if (inTransaction) {
+                uncommittedWrites.add(sql);
+            }
+        }
+    }
+
+    public QueryResultCache getQueryCache() {
+        return queryCache;
+    }
+
+    public RunMetrics getMetrics() {
+        return metrics;
+    }
+
     public StatementExecutor getStatementExecutor() {
         return statementExecutor;
     }
@@ -383,7 +605,12 @@ public class UnifiedDatabaseOperation implements AutoCloseable {
         if (sql.toLowerCase().contains("limit") || sql.toLowerCase().contains("offset")) {
             throw new IllegalArgumentException("SQL query already contains LIMIT or OFFSET clause");
         }
-        return String.format("%s LIMIT %d OFFSET %d", sql, pageSize, offset);
+        String template = ConfigurationHolder.getInstance()
+            .getDatabaseTemplate(dbType, "pagination", offset == 0 ? "first" : "offset");
+        if (template == null) {
+            template = "%1$s LIMIT %2$d OFFSET %3$d";
+        }
+        return String.format(template, stripTrailingSemicolon(sql), pageSize, offset);
     }
 
     private PreparedStatement prepareStatement(String sql, Object... params) throws SQLException {
@@ -407,6 +634,10 @@ public class UnifiedDatabaseOperation implements AutoCloseable {
     @Override
     public void close() {
         try {
+            if (slowLog != null) {
+                // The script is done, so its own connection can fetch the plans of its slow statements
+                slowLog.explainPending(connection != null && !connection.isClosed() ? connection : null, dbType);
+            }
             if (connection != null && !connection.isClosed()) {
                 connection.close();
                 logger.info("Database connection closed successfully");
@@ -427,6 +658,17 @@ public class UnifiedDatabaseOperation implements AutoCloseable {
      * Package-private factory for builder access.
      */
     static UnifiedDatabaseOperation create(DatabaseConfig config) {
-        return new UnifiedDatabaseOperation(config);
+        return new UnifiedDatabaseOperation(config, null, null, null, null, null);
+    }
+
+    /**
+     * Package-private factory for builder access with a shared query result cache and connection pool, the
+     * renderer that prints query results, the metrics the statements are recorded in and the log that slow
+     * statements are written to.
+     */
+    static UnifiedDatabaseOperation create(DatabaseConfig config, QueryResultCache queryCache,
+                                           ConnectionPool connectionPool, ConsoleTableRenderer resultRenderer,
+                                           RunMetrics metrics, SlowStatementLog slowLog) {
+        return new UnifiedDatabaseOperation(config, queryCache, connectionPool, resultRenderer, metrics, slowLog);
     }
 }
\ No newline at end of file
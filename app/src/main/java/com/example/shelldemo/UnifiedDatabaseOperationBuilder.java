@@ -1,6 +1,11 @@
 package com.example.shelldemo;
 
+import com.example.shelldemo.cache.QueryResultCache;
+import com.example.shelldemo.connection.ConnectionPool;
+import com.example.shelldemo.metrics.RunMetrics;
+import com.example.shelldemo.sqlhandling.ConsoleTableRenderer;
 import com.example.shelldemo.sqlhandling.DatabaseConfig;
+import com.example.shelldemo.sqlhandling.SlowStatementLog;
 public class UnifiedDatabaseOperationBuilder {
     private String host;
     private int port;
@@ -9,6 +14,11 @@ public class UnifiedDatabaseOperationBuilder {
     private String dbType;
     private String connectionType;
     private String serviceName;
+    private QueryResultCache queryCache;
+    private ConnectionPool connectionPool;
+    private ConsoleTableRenderer resultRenderer;
+    private RunMetrics metrics;
+    private SlowStatementLog slowLog;
 
     public UnifiedDatabaseOperationBuilder host(String host) { this.host = host; return this; }
     public UnifiedDatabaseOperationBuilder port(int port) { this.port = port; return this; }
@@ -17,6 +27,18 @@ public class UnifiedDatabaseOperationBuilder {
     public UnifiedDatabaseOperationBuilder dbType(String dbType) { this.dbType = dbType; return this; }
     public UnifiedDatabaseOperationBuilder connectionType(String connectionType) { this.connectionType = connectionType; return this; }
     public UnifiedDatabaseOperationBuilder serviceName(String serviceName) { this.serviceName = serviceName; return this; }
+    public UnifiedDatabaseOperationBuilder queryCache(QueryResultCache queryCache) { this.queryCache = queryCache; return this; }
+    /** Borrows the connection from a pool shared with other operations instead of opening one; close() returns it. */
+    public UnifiedDatabaseOperationBuilder connectionPool(ConnectionPool connectionPool) { this.connectionPool = connectionPool; return this; }
+
+    /** Renderer for query results; defaults to a table on standard output. */
+    public UnifiedDatabaseOperationBuilder resultRenderer(ConsoleTableRenderer resultRenderer) { this.resultRenderer = resultRenderer; return this; }
+
+    /** Records statement latencies and fetched rows; give the renderer the same instance to count streamed rows. */
+    public UnifiedDatabaseOperationBuilder metrics(RunMetrics metrics) { this.metrics = metrics; return this; }
+
+    /** Writes script statements slower than the log's threshold, with their plan, to the log. */
+    public UnifiedDatabaseOperationBuilder slowStatementLog(SlowStatementLog slowLog) { this.slowLog = slowLog; return this; }
 
     public UnifiedDatabaseOperation build() {
         DatabaseConfig config = new DatabaseConfig();
@@ -27,6 +49,6 @@ public class UnifiedDatabaseOperationBuilder {
         config.setPassword(password);
         config.setDatabase(serviceName);
         config.setConnectionType(connectionType);
-        return UnifiedDatabaseOperation.create(config);
+        return UnifiedDatabaseOperation.create(config, queryCache, connectionPool, resultRenderer, metrics, slowLog);
     }
 }
\ No newline at end of file
@@ -1,12 +1,14 @@
 package com.example.shelldemo;
 
 import java.io.File;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Callable;
 
-import org.apache.logging.log4j.core.config.Configurator;
-import org.apache.logging.log4j.core.config.builder.api.ConfigurationBuilder;
-import org.apache.logging.log4j.core.config.builder.api.ConfigurationBuilderFactory;
-import org.apache.logging.log4j.core.config.builder.impl.BuiltConfiguration;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -15,11 +17,34 @@ import picocli.CommandLine.Command;
 import picocli.CommandLine.Option;
 import picocli.CommandLine.Parameters;
 
+import com.example.shelldemo.cache.QueryResultCache;
+import com.example.shelldemo.config.ConfigurationHolder;
+import com.example.shelldemo.config.VaultConfig;
+import com.example.shelldemo.connection.ConnectionConfig;
+import com.example.shelldemo.connection.DatabaseConnectionFactory;
+import com.example.shelldemo.connection.JdbcDriverLoader;
+import com.example.shelldemo.exception.DatabaseException;
+import com.example.shelldemo.exception.DatabaseException.ErrorType;
+import com.example.shelldemo.jfr.VaultFetchEvent;
+import com.example.shelldemo.metrics.MetricsHttpServer;
+import com.example.shelldemo.metrics.Phase;
+import com.example.shelldemo.metrics.RunMetrics;
+import com.example.shelldemo.parser.SqlScriptParser;
+import com.example.shelldemo.sqlhandling.ConsoleTableRenderer;
+import com.example.shelldemo.sqlhandling.SlowStatementLog;
+import com.example.shelldemo.validate.ParallelScriptValidator;
+import com.example.shelldemo.validate.PlanBaseline;
+import com.example.shelldemo.validate.ValidationCache;
+import com.example.shelldemo.vault.VaultLeaseCache;
+import com.example.shelldemo.vault.VaultSecretFetcher;
 import com.example.shelldemo.vault.VaultSecretFetcherBuilder;
 
-@Command(name = "db", mixinStandardHelpOptions = true, version = "1.0",description = "Unified Database CLI Tool")
+@Command(name = "db", mixinStandardHelpOptions = true, version = "1.0",description = "Unified Database CLI Tool",
+         subcommands = {LoadCommand.class, CopyCommand.class})
 public class UnifiedDatabaseRunner implements Callable<Integer> {
     private static final Logger logger = LogManager.getLogger(UnifiedDatabaseRunner.class);
+    // ORA-01017: invalid username/password; logon denied
+    private static final int ORACLE_INVALID_LOGIN = 1017;
     
     @Option(names = {"-t", "--type"}, required = true,description = "Database type (oracle, sqlserver, postgresql, mysql)")
     private String dbType;
@@ -81,6 +106,30 @@ public class UnifiedDatabaseRunner implements Callable<Integer> {
     @Option(names = {"--validate-script"}, description = "Show execution plan and validate syntax for each statement during pre-flight")
     private boolean showExplainPlan;
 
+    @Option(names = {"--validate-parallelism"}, defaultValue = "1", description = "Connections used to validate statements during pre-flight; above 1 all failures are reported (default: 1)")
+    private int validateParallelism;
+
+    @Option(names = {"--validation-cache"}, description = "Reuse pre-flight outcomes of statements whose text and tables have not changed; not used with --plan-baseline")
+    private boolean validationCache;
+
+    @Option(names = {"--validation-cache-dir"}, description = "Directory of the validation cache (default: ~/.cache/dbscriptrunner/validation)")
+    private File validationCacheDir;
+
+    @Option(names = {"--plan-baseline"}, description = "JSON file of known-good execution plans; plans are checked against it before the script runs")
+    private File planBaselineFile;
+
+    @Option(names = {"--plan-cost-factor"}, defaultValue = "2", description = "Cost increase over the baseline that counts as a plan regression (default: 2, twice the cost)")
+    private double planCostFactor;
+
+    @Option(names = {"--accept-plan-changes"}, description = "Replace baseline plans by the changed plans instead of only reporting them")
+    private boolean acceptPlanChanges;
+
+    @Option(names = {"--fail-on-plan-regression"}, description = "Do not run the script, or fail the pre-flight, if a plan regressed")
+    private boolean failOnPlanRegression;
+
+    @Option(names = {"--validation-cache-ttl"}, defaultValue = "7", description = "Days a cached validation outcome stays valid (default: 7)")
+    private long validationCacheTtlDays;
+
     @Option(names = {"--transactional"}, defaultValue = "false", description = "Execute DML statements in a transaction (default: false)")
     private boolean transactional;
 
@@ -90,6 +139,41 @@ public class UnifiedDatabaseRunner implements Callable<Integer> {
     @Option(names = {"--secret"}, description = "Fetch Oracle password from Vault using secret name (mutually exclusive with -p/--password)")
     private String secretName;
 
+    @Option(names = {"--vault-cache"}, description = "Keep the Vault token and secret in an encrypted cache until their leases run out")
+    private boolean vaultCache;
+
+    // One fetcher per run, so that the Vault login and secret are shared by all fetches and can be invalidated
+    private VaultSecretFetcher vaultFetcher;
+
+    @Option(names = {"--query-cache"}, description = "Directory of a result cache for deterministic queries, shared between runs; any write clears the entries of the database")
+    private File queryCacheDir;
+
+    @Option(names = {"--query-cache-ttl"}, defaultValue = "300", description = "Seconds a cached query result stays valid (default: 300)")
+    private long queryCacheTtl;
+
+    @Option(names = {"--max-column-width"}, defaultValue = "40", description = "Maximum width of a result column; longer values are cut off (default: 40)")
+    private int maxColumnWidth;
+
+    @Option(names = {"--page-size"}, defaultValue = "0", description = "Repeat result headers every N rows, e.g. when piping into a pager (default: 0, never)")
+    private int pageSize;
+
+    @Option(names = {"--metrics-report"}, description = "Directory to write a performance report (metrics.json, metrics.prom) to at the end of the run")
+    private File metricsReportDir;
+
+    @Option(names = {"--metrics-port"}, description = "Serve live run metrics on this local port (/metrics, /metrics.json)")
+    private Integer metricsPort;
+
+    @Option(names = {"--jdbc-stats"}, description = "Time every JDBC call and count database round trips per statement")
+    private boolean jdbcStats;
+
+    @Option(names = {"--slow-log"}, description = "File to append statements slower than --slow-threshold to, with their execution plan")
+    private File slowLogFile;
+
+    @Option(names = {"--slow-threshold"}, defaultValue = "1000", description = "Milliseconds after which a script statement counts as slow (default: 1000)")
+    private long slowThresholdMillis;
+
+    private RunMetrics metrics = new RunMetrics();
+
     @Override
     public Integer call() throws Exception {
         logger.info("Starting database operation - type: {}, target: {}", dbType, target);
@@ -108,8 +192,23 @@ public class UnifiedDatabaseRunner implements Callable<Integer> {
             return 2;
         }
 
-        if (driverPath != null) {
-            logger.info("Loading custom JDBC driver from: {}", driverPath);
+        if ((password == null || password.trim().isEmpty()) && secretName == null) {
+            password = promptForPassword("Enter database password: ");
+        }
+
+        return runDatabaseOperation();
+    }
+
+    /**
+     * Resolves the password from Vault or the console when it was not given on the command line.
+     * Shared with subcommands, which inherit the connection options of this command.
+     *
+     * @return false if the password could not be resolved
+     */
+    boolean resolvePassword() {
+        if (secretName != null && password != null && !password.trim().isEmpty()) {
+            logger.error("--secret and -p/--password are mutually exclusive. Please specify only one.");
+            return false;
         }
 
         if (secretName != null) {
@@ -117,19 +216,21 @@ public class UnifiedDatabaseRunner implements Callable<Integer> {
                 password = fetchPasswordFromVault(secretName);
             } catch (Exception e) {
                 logger.error("Failed to fetch password from Vault: {}", e.getMessage());
-                return 2;
+                return false;
             }
         }
 
         if ((password == null || password.trim().isEmpty()) && secretName == null) {
-            password = promptForPassword();
+            password = promptForPassword("Enter database password: ");
         }
-
-        return runDatabaseOperation();
+        return true;
     }
 
-    private int showConnectString() {
-        com.example.shelldemo.connection.ConnectionConfig connConfig = new com.example.shelldemo.connection.ConnectionConfig();
+    /**
+     * Builds the connection configuration from the command line options.
+     */
+    ConnectionConfig toConnectionConfig() {
+        ConnectionConfig connConfig = new ConnectionConfig();
         connConfig.setDbType(dbType);
         connConfig.setHost(host);
         connConfig.setPort(port);
@@ -137,7 +238,20 @@ public class UnifiedDatabaseRunner implements Callable<Integer> {
         connConfig.setPassword(password);
         connConfig.setServiceName(database);
         connConfig.setConnectionType(connectionType);
-        String connectString = new com.example.shelldemo.connection.DatabaseConnectionFactory().buildConnectionUrl(connConfig);
+        return connConfig;
+    }
+
+    String getDbType() {
+        return dbType;
+    }
+
+    String getDriverPath() {
+        return driverPath;
+    }
+
+    private int showConnectString() {
+        ConnectionConfig connConfig = toConnectionConfig();
+        String connectString = new DatabaseConnectionFactory().buildConnectionUrl(connConfig);
         logger.info(connectString);
         if ("thin".equalsIgnoreCase(connectionType) && (host == null || host.trim().isEmpty())) {
             logger.error("Host is required for connection type 'thin'");
@@ -146,8 +260,8 @@ public class UnifiedDatabaseRunner implements Callable<Integer> {
         return 0;
     }
 
-    private String promptForPassword() {
-        System.out.print("Enter database password: ");
+    static String promptForPassword(String prompt) {
+        System.out.print(prompt);
         java.io.Console console = System.console();
         if (console != null) {
             char[] pwd = console.readPassword();
@@ -160,80 +274,302 @@ public class UnifiedDatabaseRunner implements Callable<Integer> {
         return "";
     }
 
+    /**
+     * Loads configuration, the Vault password and the JDBC driver, parses the script and connects
+     * concurrently; each stage waits only for the stages whose results it needs.
+     */
     private int runDatabaseOperation() {
-        try (UnifiedDatabaseOperation operation = UnifiedDatabaseOperation.builder()
-                .host(host)
-                .port(port)
-                .username(username)
-                .password(password)
-                .dbType(dbType)
-                .serviceName(database)
-                .connectionType(connectionType)
-                .build()
-            ) {
-            File scriptFile = new File(target);
-
-            if (scriptFile.isDirectory()) {
-                logger.error("Target '{}' is a directory, expected a file or procedure name", target);
+        File scriptFile = new File(target);
+        if (scriptFile.isDirectory()) {
+            logger.error("Target '{}' is a directory, expected a file or procedure name", target);
+            return 2;
+        }
+        boolean isScript = scriptFile.exists();
+        if (!isScript && (target.contains("/") || target.contains("\\"))) {
+            logger.error("File not found: {}", target);
+            return 2;
+        }
+
+        UnifiedDatabaseOperation operation = null;
+        metrics = new RunMetrics(jdbcStats);
+        MetricsHttpServer metricsServer = startMetricsServer();
+        try (StartupStages stages = new StartupStages()) {
+            CompletableFuture<ConfigurationHolder> config = stages.start("config", ConfigurationHolder::getInstance);
+            CompletableFuture<Void> driver = stages.start("driver", () -> {
+                if (driverPath != null) {
+                    logger.info("Loading custom JDBC driver from: {}", driverPath);
+                    new JdbcDriverLoader().loadDriver(driverPath);
+                }
+                return null;
+            });
+            CompletableFuture<String> vault = secretName != null
+                ? stages.after("vault", () -> fetchPasswordFromVault(secretName), config)
+                : CompletableFuture.completedFuture(password);
+            CompletableFuture<Map<Integer, String>> parse = isScript && !preFlight
+                ? stages.start("parse", () -> timed(Phase.PARSE, () -> SqlScriptParser.parseSqlFile(scriptFile)))
+                : CompletableFuture.completedFuture(null);
+            CompletableFuture<UnifiedDatabaseOperation> connect = stages.after("connect",
+                () -> timed(Phase.CONNECT, () -> buildOperation(vault.join())), config, driver, vault);
+
+            try {
+                password = StartupStages.join(vault);
+            } catch (Exception e) {
+                logger.error("Failed to fetch password from Vault: {}", e.getMessage());
                 return 2;
             }
-
-            if (!scriptFile.exists()) {
-                if (target.contains("/") || target.contains("\\")) {
-                    logger.error("File not found: {}", target);
-                    return 2;
+            UnifiedDatabaseOperation reconnected = null;
+            try {
+                try {
+                    operation = StartupStages.join(connect);
+                } catch (DatabaseException e) {
+                    if (secretName == null || !isInvalidLogin(e)) {
+                        throw e;
+                    }
+                    reconnected = reconnectWithFreshVaultPassword();
+                    operation = reconnected;
+                }
+                Map<Integer, String> statements = StartupStages.join(parse);
+                stages.logSummary();
+                return execute(operation, scriptFile, isScript, statements);
+            } finally {
+                // a connection that completes after another stage failed is closed as well
+                connect.thenAccept(UnifiedDatabaseOperation::close);
+                if (reconnected != null) {
+                    reconnected.close();
                 }
-                logger.debug("Executing as stored procedure: {}", target);
-                operation.executeStoredProcedure(target, isFunction);
-                return 0;
             }
+        } catch (Exception e) {
+            logger.error("Operation failed: {}", e.getMessage(), e);
+            return 1;
+        } finally {
+            if (operation != null && operation.getQueryCache() != null) {
+                logger.info("{}", operation.getQueryCache().stats());
+            }
+            finishMetrics(metricsServer);
+        }
+    }
+
+    private <T> T timed(Phase phase, Callable<T> work) throws Exception {
+        long start = System.nanoTime();
+        try {
+            return work.call();
+        } finally {
+            metrics.recordSince(phase, start);
+        }
+    }
+
+    private MetricsHttpServer startMetricsServer() {
+        if (metricsPort == null) {
+            return null;
+        }
+        try {
+            return MetricsHttpServer.start(metrics, metricsPort);
+        } catch (IOException e) {
+            logger.warn("Failed to start metrics endpoint on port {}: {}", metricsPort, e.getMessage());
+            return null;
+        }
+    }
 
-            if (preFlight) {
-                operation.getStatementExecutor().validateScript(scriptFile.getPath(), showExplainPlan);
-                return 0;
+    private void finishMetrics(MetricsHttpServer metricsServer) {
+        if (metricsServer != null) {
+            metricsServer.close();
+        }
+        if (metrics.jdbcStats() != null) {
+            logger.info("JDBC driver time {} ms in {} round trips", String.format("%.1f", metrics.jdbcStats().driverMillis()),
+                metrics.jdbcStats().roundTrips());
+            metrics.jdbcStats().summaries().stream().limit(5).forEach(summary ->
+                logger.info("  {} ms, {} round trips, {} executions: {}", String.format("%.1f", summary.driverMillis()),
+                    summary.roundTrips(), summary.executions(), summary.sql()));
+        }
+        if (metricsReportDir != null) {
+            try {
+                metrics.writeReport(metricsReportDir.toPath());
+            } catch (IOException e) {
+                logger.warn("Failed to write performance report to {}: {}", metricsReportDir, e.getMessage());
             }
+        }
+    }
+
+    private UnifiedDatabaseOperation buildOperation(String resolvedPassword) {
+        QueryResultCache queryCache = queryCacheDir == null ? null : QueryResultCache.builder()
+            .directory(queryCacheDir.toPath())
+            .ttl(Duration.ofSeconds(queryCacheTtl))
+            .build();
+        return UnifiedDatabaseOperation.builder()
+            .host(host)
+            .port(port)
+            .username(username)
+            .password(resolvedPassword)
+            .dbType(dbType)
+            .serviceName(database)
+            .connectionType(connectionType)
+            .queryCache(queryCache)
+            .metrics(metrics)
+            .slowStatementLog(slowLogFile == null ? null : SlowStatementLog.builder()
+                .file(slowLogFile.toPath())
+                .threshold(Duration.ofMillis(slowThresholdMillis))
+                .build())
+            .resultRenderer(ConsoleTableRenderer.builder()
+                .maxColumnWidth(maxColumnWidth)
+                .pageSize(pageSize)
+                .metrics(metrics)
+                .build())
+            .build();
+    }
 
-            logger.debug("Executing as script file: {}", scriptFile.getAbsolutePath());
-            operation.executeScript(scriptFile, transactional);
+    private int execute(UnifiedDatabaseOperation operation, File scriptFile, boolean isScript,
+                        Map<Integer, String> statements) throws SQLException {
+        if (!isScript) {
+            logger.debug("Executing as stored procedure: {}", target);
+            operation.executeStoredProcedure(target, isFunction);
             return 0;
-        } catch (Exception e) {
-            logger.error("Operation failed: {}", e.getMessage(), e);
-            return 1;
         }
+
+        if (preFlight && (validateParallelism > 1 || validationCache || planBaselineFile != null)) {
+            ParallelScriptValidator.Report report = validateInParallel(operation, SqlScriptParser.parseSqlFile(scriptFile));
+            List<ParallelScriptValidator.Result> failures = report.failures();
+            if (!failures.isEmpty()) {
+                logger.error("Validation failed for {} of {} statements", failures.size(), report.results().size());
+                return 1;
+            }
+            int skipped = report.skipped().size();
+            logger.info("Script validation completed successfully. {} statements validated, {} DDL statements not validated.",
+                report.results().size() - skipped, skipped);
+            return checkPlans(report, dbType) > 0 && failOnPlanRegression ? 1 : 0;
+        }
+        if (preFlight) {
+            operation.getStatementExecutor().validateScript(scriptFile.getPath(), showExplainPlan);
+            return 0;
+        }
+
+        if (planBaselineFile != null) {
+            // Statements that depend on objects the script creates cannot be explained yet and are skipped
+            ParallelScriptValidator.Report report = validateInParallel(operation, statements);
+            if (checkPlans(report, dbType) > 0 && failOnPlanRegression) {
+                logger.error("Script not executed because execution plans regressed");
+                return 1;
+            }
+        }
+        logger.debug("Executing as script file: {}", scriptFile.getAbsolutePath());
+        operation.executeScript(statements, transactional);
+        return 0;
+    }
+
+    private ParallelScriptValidator.Report validateInParallel(UnifiedDatabaseOperation operation,
+                                                              Map<Integer, String> statements) {
+        if (validationCache && planBaselineFile != null) {
+            // Plans change with optimizer statistics, which do not change the cache key
+            logger.info("Validation cache not used: plans are checked against the baseline and must be explained fresh");
+        }
+        ValidationCache cache = !validationCache || planBaselineFile != null ? null : new ValidationCache(
+            validationCacheDir != null ? validationCacheDir.toPath() : ValidationCache.defaultDirectory(),
+            Duration.ofDays(validationCacheTtlDays));
+        ParallelScriptValidator.Report report = operation.validateScriptParallel(statements, validateParallelism,
+            showExplainPlan || planBaselineFile != null, cache);
+        for (ParallelScriptValidator.Result result : report.results()) {
+            if (result.skipped()) {
+                logger.debug("Statement #{} not validated: DDL cannot be validated without executing it", result.ordinal());
+            } else if (!result.valid() && preFlight) {
+                logger.error("Statement #{} is invalid: {}\n{}", result.ordinal(), result.error(), result.sql());
+            } else if (!result.valid()) {
+                logger.debug("Statement #{} could not be explained: {}", result.ordinal(), result.error());
+            } else if (result.plan() != null && showExplainPlan) {
+                logger.info("Explain plan for statement #{}: \n{}", result.ordinal(), result.plan());
+            }
+        }
+        if (cache != null) {
+            logger.info("Validation cache: {} hits, {} misses", cache.hits(), cache.misses());
+        }
+        return report;
+    }
+
+    /**
+     * Compares the explained plans with the plan baseline, if one is configured.
+     *
+     * @return number of regressed plans
+     */
+    private int checkPlans(ParallelScriptValidator.Report report, String dbType) {
+        if (planBaselineFile == null) {
+            return 0;
+        }
+        try {
+            PlanBaseline baseline = PlanBaseline.load(planBaselineFile.toPath(),
+                PlanBaseline.target(dbType, username, host, port, database), planCostFactor, acceptPlanChanges);
+            int regressions = 0;
+            for (ParallelScriptValidator.Result result : report.results()) {
+                if (result.plan() == null) {
+                    continue;
+                }
+                PlanBaseline.Regression regression = baseline.check(dbType, result.ordinal(), result.sql(), result.plan());
+                if (regression != null) {
+                    regressions++;
+                    logger.warn("Plan regression in statement #{} ({}): {}\n{}", regression.ordinal(),
+                        regression.fingerprint(), String.join("; ", regression.reasons()), result.sql());
+                }
+            }
+            baseline.save();
+            logger.info("Checked plans against baseline of {} statements: {} regressed", baseline.size(), regressions);
+            return regressions;
+        } catch (IOException e) {
+            throw new DatabaseException("Failed to read or write plan baseline " + planBaselineFile, e,
+                ErrorType.CONFIG_INVALID);
+        }
+    }
+
+    /**
+     * Drops the Vault password the database rejected with ORA-01017, which a cached lease may still hold after the
+     * secret was rotated, and connects once more with the password Vault returns now.
+     */
+    private UnifiedDatabaseOperation reconnectWithFreshVaultPassword() throws Exception {
+        logger.warn("Database rejected the password of Vault secret {}; fetching it again", secretName);
+        VaultConfig vaultConfig = ConfigurationHolder.getInstance().getVaultConfig();
+        vaultFetcher().invalidateOraclePassword(
+            vaultConfig.baseUrl(), vaultConfig.roleId(), vaultConfig.secretId(), secretName, vaultConfig.ait());
+        password = fetchPasswordFromVault(secretName);
+        return timed(Phase.CONNECT, () -> buildOperation(password));
+    }
+
+    private static boolean isInvalidLogin(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException && sqlException.getErrorCode() == ORACLE_INVALID_LOGIN) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private synchronized VaultSecretFetcher vaultFetcher() {
+        if (vaultFetcher == null) {
+            vaultFetcher = new VaultSecretFetcherBuilder()
+                .leaseCache(vaultCache ? new VaultLeaseCache(VaultLeaseCache.defaultDirectory()) : null)
+                .build();
+        }
+        return vaultFetcher;
     }
 
     private String fetchPasswordFromVault(String secretName) throws Exception {
-        var config = com.example.shelldemo.config.ConfigurationHolder.getInstance();
-        var vaultConfig = config.getDatabaseConfig("vault");
-        String vaultBaseUrl = (String) vaultConfig.get("baseUrl");
-        String roleId = (String) vaultConfig.get("roleId");
-        String secretId = (String) vaultConfig.get("secretId");
-        String ait = (String) vaultConfig.get("ait");
-        return new VaultSecretFetcherBuilder()
-            .build()
-            .fetchOraclePassword(
-                vaultBaseUrl, roleId, secretId, secretName, ait
-            );
+        VaultConfig vaultConfig = ConfigurationHolder.getInstance().getVaultConfig();
+        VaultFetchEvent event = new VaultFetchEvent();
+        event.begin();
+        try {
+            String secret = vaultFetcher()
+                .fetchOraclePassword(
+                    vaultConfig.baseUrl(), vaultConfig.roleId(), vaultConfig.secretId(), secretName, vaultConfig.ait()
+                );
+            event.succeeded = true;
+            return secret;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.secretName = secretName;
+                event.commit();
+            }
+        }
     }
 
     public static void main(String[] args) {
-        // Configure Log4j programmatically
-        ConfigurationBuilder<BuiltConfiguration> log4jConfigBuilder = ConfigurationBuilderFactory.newConfigurationBuilder();
-        
-        // Create appenders
-        log4jConfigBuilder.add(log4jConfigBuilder.newAppender("Console", "CONSOLE").addAttribute("target", "SYSTEM_OUT")
-                                                 .add(log4jConfigBuilder.newLayout("PatternLayout")
-                                                 .addAttribute("pattern", "%d{HH:mm:ss.SSS} [%t] %-5level %logger{36} - %msg%n")));
-        
-        // Create root logger
-        log4jConfigBuilder.add(log4jConfigBuilder.newRootLogger(org.apache.logging.log4j.Level.INFO)
-                                                 .add(log4jConfigBuilder.newAppenderRef("Console")));
-        // Configure async logging
-        log4jConfigBuilder.add(log4jConfigBuilder.newAsyncLogger("com.example.shelldemo", org.apache.logging.log4j.Level.DEBUG)
-                                                 .addAttribute("includeLocation", "true"));
-        // Initialize Log4j
-        Configurator.initialize(log4jConfigBuilder.build());
-        
+        // Logging is configured by log4j2.xml or -Dlog4j.configurationFile; the context is already
+        // running once this class is loaded, so nothing is built programmatically here
         logger.info("Starting UnifiedDatabaseRunner...");
         int exitCode = new CommandLine(new UnifiedDatabaseRunner()).execute(args);
         logger.info("UnifiedDatabaseRunner completed with exit code: {}", exitCode);
@@ -0,0 +1,30 @@
+package com.example.shelldemo.cache;
+
+/**
+ * Point-in-time counters of a {@link QueryResultCache}.
+ *
+ * @param hits lookups answered from memory or disk
+ * @param diskHits lookups answered from the disk tier
+ * @param misses lookups that had to run the query
+ * @param evictions entries dropped to stay within the byte bound
+ * @param expirations entries dropped because their TTL passed
+ * @param invalidations entries dropped because a table they read was modified
+ * @param entries entries currently held in memory
+ * @param bytes estimated size of the entries held in memory
+ * @param maxBytes configured memory bound
+ */
+public record CacheStats(long hits, long diskHits, long misses, long evictions, long expirations,
+                         long invalidations, int entries, long bytes, long maxBytes) {
+
+    public double hitRate() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Query cache: %d hits (%d from disk), %d misses, %.1f%% hit rate, %d entries, "
+                + "%d/%d bytes, %d evicted, %d expired, %d invalidated",
+            hits, diskHits, misses, hitRate() * 100, entries, bytes, maxBytes, evictions, expirations, invalidations);
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.shelldemo.cache;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.NotSerializableException;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * File-based second cache tier shared by separate CLI runs.
+ *
+ * <p>Each entry is a serialized file named after the hash of its key, which includes the database. Table
+ * modifications are recorded per database as marker files holding the time of the last change, so an entry
+ * written before a change to one of its tables is treated as stale even if the change was made by another
+ * process. A change to {@link #ALL_TABLES} stales every entry of the database.</p>
+ */
+final class DiskCacheTier {
+    private static final Logger logger = LogManager.getLogger(DiskCacheTier.class);
+    static final String ALL_TABLES = "*";
+    private static final ObjectInputFilter FILTER =
+        ObjectInputFilter.Config.createFilter("java.base/*;java.sql/*;com.example.shelldemo.cache.*;!*");
+
+    private final Path entries;
+    private final Path markers;
+
+    record DiskEntry(String key, Set<String> tables, long createdAtMillis, long expiresAtMillis,
+                     ArrayList<LinkedHashMap<String, Object>> rows) implements Serializable {
+    }
+
+    DiskCacheTier(Path directory) throws IOException {
+        this.entries = Files.createDirectories(directory.resolve("entries"));
+        this.markers = Files.createDirectories(directory.resolve("tables"));
+    }
+
+    DiskEntry read(String database, String key) {
+        Path file = entries.resolve(fileName(key));
+        try (InputStream in = Files.newInputStream(file);
+             ObjectInputStream objects = new ObjectInputStream(in)) {
+            objects.setObjectInputFilter(FILTER);
+            DiskEntry entry = (DiskEntry) objects.readObject();
+            if (!entry.key().equals(key) || entry.expiresAtMillis() <= System.currentTimeMillis()
+                    || modifiedSince(database, entry.tables(), entry.createdAtMillis())) {
+                Files.deleteIfExists(file);
+                return null;
+            }
+            return entry;
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException | ClassNotFoundException | ClassCastException e) {
+            logger.debug("Discarding unreadable cache file {}: {}", file, e.getMessage());
+            deleteQuietly(file);
+            return null;
+        }
+    }
+
+    void write(String key, Set<String> tables, long createdAtMillis, long expiresAtMillis,
+               List<Map<String, Object>> rows) {
+        ArrayList<LinkedHashMap<String, Object>> copy = new ArrayList<>(rows.size());
+        for (Map<String, Object> row : rows) {
+            copy.add(new LinkedHashMap<>(row));
+        }
+        DiskEntry entry = new DiskEntry(key, Set.copyOf(tables), createdAtMillis, expiresAtMillis, copy);
+        Path file = entries.resolve(fileName(key));
+        Path temp = null;
+        try {
+            temp = Files.createTempFile(entries, "entry", ".tmp");
+            try (OutputStream out = Files.newOutputStream(temp);
+                 ObjectOutputStream objects = new ObjectOutputStream(out)) {
+                objects.writeObject(entry);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (NotSerializableException e) {
+            logger.debug("Result of {} holds non-serializable values and is kept in memory only", key);
+        } catch (IOException e) {
+            logger.warn("Failed to write cache file {}: {}", file, e.getMessage());
+        } finally {
+            if (temp != null) {
+                deleteQuietly(temp);
+            }
+        }
+    }
+
+    /**
+     * Records a modification of the given tables of a database for all processes sharing the directory.
+     */
+    void markModified(String database, Collection<String> tables) {
+        String now = Long.toString(System.currentTimeMillis());
+        for (String table : tables) {
+            try {
+                Files.writeString(markers.resolve(markerName(database, table)), now, StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                logger.warn("Failed to record modification of {} in cache directory: {}", table, e.getMessage());
+            }
+        }
+    }
+
+    void clear() {
+        try (var files = Files.list(entries)) {
+            files.forEach(DiskCacheTier::deleteQuietly);
+        } catch (IOException e) {
+            logger.warn("Failed to clear cache directory {}: {}", entries, e.getMessage());
+        }
+    }
+
+    private boolean modifiedSince(String database, Set<String> tables, long createdAtMillis) {
+        List<String> checked = new ArrayList<>(tables);
+        checked.add(ALL_TABLES);
+        for (String table : checked) {
+            try {
+                long modified = Long.parseLong(Files.readString(markers.resolve(markerName(database, table))).trim());
+                if (modified >= createdAtMillis) {
+                    return true;
+                }
+            } catch (NoSuchFileException e) {
+                // never modified
+            } catch (IOException | NumberFormatException e) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String fileName(String key) {
+        return sha256(key) + ".bin";
+    }
+
+    private static String markerName(String database, String table) {
+        return sha256(database + '\n' + table);
+    }
+
+    private static String sha256(String value) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.debug("Failed to delete {}: {}", file, e.getMessage());
+        }
+    }
+}
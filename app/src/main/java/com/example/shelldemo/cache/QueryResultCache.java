@@ -0,0 +1,306 @@
+package com.example.shelldemo.cache;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.example.shelldemo.exception.DatabaseException;
+import com.example.shelldemo.exception.DatabaseException.ErrorType;
+import com.example.shelldemo.parser.SqlTableExtractor;
+
+/**
+ * Caches query results keyed by database, SQL text and bound parameters.
+ *
+ * <p>The database is an identity string of the connection target, such as type, host, service and user, so
+ * that runs against different databases sharing a cache directory never see each other's rows. Entries are held
+ * in memory in least-recently-used order up to an estimated byte bound and expire after their TTL. With a cache
+ * directory, results are also written to disk so that separate runs share them.</p>
+ *
+ * <p>Only queries for which {@link SqlTableExtractor#isDeterministicQuery} holds are cached: locking reads,
+ * sequences, clock functions and calls of user functions give a different answer on the next execution. Each
+ * entry remembers the tables its query names, but a query may read a written table through a view or synonym
+ * that the lexical scan cannot resolve. {@link #invalidateFor(String, String)} therefore drops every entry of
+ * the database on any modifying statement; {@link #invalidate(String, Collection)} is for callers that know
+ * exactly which tables changed. Writes by other sessions are only bounded by the TTL.</p>
+ *
+ * <p>A cache may be shared by several {@code UnifiedDatabaseOperation}s and is only used where one is passed
+ * in explicitly, such as with the runner's {@code --query-cache}. Instances must be created via
+ * {@link #builder()}.</p>
+ */
+public final class QueryResultCache {
+    private static final Logger logger = LogManager.getLogger(QueryResultCache.class);
+
+    private final long maxBytes;
+    private final Duration defaultTtl;
+    private final DiskCacheTier disk;
+
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private final Map<String, Set<Key>> keysByTable = new HashMap<>();
+    private long bytes;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder diskHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    private record Key(String database, String sql, List<Object> params) {
+        @Override
+        public String toString() {
+            return database + "\n" + sql + " " + params;
+        }
+    }
+
+    private record Entry(List<Map<String, Object>> rows, Set<String> tables, long bytes, long expiresAtMillis) {
+    }
+
+    private QueryResultCache(Builder builder) {
+        this.maxBytes = builder.maxBytes;
+        this.defaultTtl = builder.ttl;
+        this.disk = builder.disk;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns the cached rows of a query, or null if there is no live entry.
+     */
+    public List<Map<String, Object>> get(String database, String sql, Object... params) {
+        Key key = new Key(database, sql, Arrays.asList(params));
+        long now = System.currentTimeMillis();
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                if (entry.expiresAtMillis() > now) {
+                    hits.increment();
+                    return entry.rows();
+                }
+                remove(key);
+                expirations.increment();
+            }
+        }
+        if (disk != null) {
+            DiskCacheTier.DiskEntry stored = disk.read(database, key.toString());
+            if (stored != null) {
+                List<Map<String, Object>> rows = freeze(stored.rows());
+                store(key, rows, stored.tables(), stored.expiresAtMillis());
+                hits.increment();
+                diskHits.increment();
+                return rows;
+            }
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Caches the rows of a query with the default TTL.
+     */
+    public void put(String database, String sql, Object[] params, List<Map<String, Object>> rows) {
+        put(database, sql, params, rows, defaultTtl);
+    }
+
+    /**
+     * Caches the rows of a query. Queries that are not deterministic, and queries whose tables cannot be
+     * determined, are not cached.
+     */
+    public void put(String database, String sql, Object[] params, List<Map<String, Object>> rows, Duration ttl) {
+        if (!SqlTableExtractor.isDeterministicQuery(sql)) {
+            logger.debug("Not caching query whose result may change without a write: {}", sql);
+            return;
+        }
+        Set<String> tables = SqlTableExtractor.referencedTables(sql);
+        if (tables.isEmpty()) {
+            logger.debug("Not caching query without identifiable tables: {}", sql);
+            return;
+        }
+        Key key = new Key(database, sql, Arrays.asList(params));
+        long now = System.currentTimeMillis();
+        long expiresAt = now + ttl.toMillis();
+        store(key, freeze(rows), tables, expiresAt);
+        if (disk != null) {
+            disk.write(key.toString(), tables, now, expiresAt, rows);
+        }
+    }
+
+    /**
+     * Drops the entries a statement executed in the given database may have changed. Queries change nothing;
+     * any other statement clears all entries of the database, since views and synonyms hide which cached
+     * queries read its targets.
+     */
+    public void invalidateFor(String database, String sql) {
+        if (SqlTableExtractor.isQuery(sql)) {
+            return;
+        }
+        logger.debug("Clearing query cache of {} after modifying statement", database);
+        clear(database);
+    }
+
+    /**
+     * Drops all entries of the database that read one of the given tables.
+     */
+    public void invalidate(String database, Collection<String> tables) {
+        int removed = 0;
+        synchronized (this) {
+            for (String table : tables) {
+                Set<Key> keys = keysByTable.get(tableKey(database, table.toLowerCase()));
+                if (keys == null) {
+                    continue;
+                }
+                for (Key key : new ArrayList<>(keys)) {
+                    if (remove(key)) {
+                        removed++;
+                    }
+                }
+            }
+        }
+        invalidations.add(removed);
+        if (disk != null) {
+            disk.markModified(database, tables.stream().map(String::toLowerCase).toList());
+        }
+        logger.debug("Invalidated {} cached results for tables {} of {}", removed, tables, database);
+    }
+
+    /**
+     * Drops all entries of one database.
+     */
+    public void clear(String database) {
+        synchronized (this) {
+            for (Key key : new ArrayList<>(entries.keySet())) {
+                if (key.database().equals(database) && remove(key)) {
+                    invalidations.increment();
+                }
+            }
+        }
+        if (disk != null) {
+            disk.markModified(database, List.of(DiskCacheTier.ALL_TABLES));
+        }
+    }
+
+    public void clear() {
+        synchronized (this) {
+            invalidations.add(entries.size());
+            entries.clear();
+            keysByTable.clear();
+            bytes = 0;
+        }
+        if (disk != null) {
+            disk.clear();
+        }
+    }
+
+    public CacheStats stats() {
+        synchronized (this) {
+            return new CacheStats(hits.sum(), diskHits.sum(), misses.sum(), evictions.sum(), expirations.sum(),
+                invalidations.sum(), entries.size(), bytes, maxBytes);
+        }
+    }
+
+    private void store(Key key, List<Map<String, Object>> rows, Set<String> tables, long expiresAtMillis) {
+        long size = RowSizeEstimator.estimate(key.sql(), rows);
+        if (size > maxBytes) {
+            logger.debug("Result of {} bytes exceeds the cache bound", size);
+            return;
+        }
+        synchronized (this) {
+            remove(key);
+            entries.put(key, new Entry(rows, tables, size, expiresAtMillis));
+            bytes += size;
+            for (String table : tables) {
+                keysByTable.computeIfAbsent(tableKey(key.database(), table), t -> new HashSet<>()).add(key);
+            }
+            evictToBound();
+        }
+    }
+
+    private void evictToBound() {
+        Iterator<Map.Entry<Key, Entry>> eldest = entries.entrySet().iterator();
+        while (bytes > maxBytes && eldest.hasNext()) {
+            Map.Entry<Key, Entry> next = eldest.next();
+            eldest.remove();
+            unindex(next.getKey(), next.getValue());
+            evictions.increment();
+        }
+    }
+
+    private boolean remove(Key key) {
+        Entry entry = entries.remove(key);
+        if (entry == null) {
+            return false;
+        }
+        unindex(key, entry);
+        return true;
+    }
+
+    private void unindex(Key key, Entry entry) {
+        bytes -= entry.bytes();
+        for (String table : entry.tables()) {
+            String tableKey = tableKey(key.database(), table);
+            Set<Key> keys = keysByTable.get(tableKey);
+            if (keys != null && keys.remove(key) && keys.isEmpty()) {
+                keysByTable.remove(tableKey);
+            }
+        }
+    }
+
+    private static String tableKey(String database, String table) {
+        return database + '\n' + table;
+    }
+
+    private static List<Map<String, Object>> freeze(List<? extends Map<String, Object>> rows) {
+        List<Map<String, Object>> frozen = new ArrayList<>(rows.size());
+        for (Map<String, Object> row : rows) {
+            frozen.add(Collections.unmodifiableMap(new LinkedHashMap<>(row)));
+        }
+        return Collections.unmodifiableList(frozen);
+    }
+
+    /**
+     * Builder for {@link QueryResultCache}.
+     */
+    public static class Builder {
+        private long maxBytes = 64L * 1024 * 1024;
+        private Duration ttl = Duration.ofMinutes(5);
+        private Path directory;
+        private DiskCacheTier disk;
+
+        public Builder maxBytes(long maxBytes) { this.maxBytes = maxBytes; return this; }
+        public Builder ttl(Duration ttl) { this.ttl = ttl; return this; }
+        public Builder directory(Path directory) { this.directory = directory; return this; }
+
+        public QueryResultCache build() {
+            if (maxBytes < 1) {
+                throw new IllegalArgumentException("Cache size must be positive");
+            }
+            if (ttl == null || ttl.isNegative() || ttl.isZero()) {
+                throw new IllegalArgumentException("Cache TTL must be positive");
+            }
+            if (directory != null) {
+                try {
+                    disk = new DiskCacheTier(directory);
+                } catch (IOException e) {
+                    throw new DatabaseException("Cannot use cache directory " + directory, e, ErrorType.CONFIG_INVALID);
+                }
+            }
+            return new QueryResultCache(this);
+        }
+    }
+}
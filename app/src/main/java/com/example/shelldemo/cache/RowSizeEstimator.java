@@ -0,0 +1,50 @@
+package com.example.shelldemo.cache;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rough heap size of cached rows, used to enforce the byte bound of the cache.
+ */
+final class RowSizeEstimator {
+    private static final int ROW_OVERHEAD = 64;
+    private static final int ENTRY_OVERHEAD = 40;
+    private static final int OBJECT_OVERHEAD = 16;
+
+    private RowSizeEstimator() {
+        throw new AssertionError("Utility class - do not instantiate");
+    }
+
+    static long estimate(String sql, List<Map<String, Object>> rows) {
+        long size = ROW_OVERHEAD + stringSize(sql);
+        for (Map<String, Object> row : rows) {
+            size += ROW_OVERHEAD;
+            for (Map.Entry<String, Object> entry : row.entrySet()) {
+                // column names are usually shared between rows, so count only the reference
+                size += ENTRY_OVERHEAD + valueSize(entry.getValue());
+            }
+        }
+        return size;
+    }
+
+    private static long valueSize(Object value) {
+        if (value == null) {
+            return 0;
+        }
+        if (value instanceof String text) {
+            return stringSize(text);
+        }
+        if (value instanceof byte[] bytes) {
+            return OBJECT_OVERHEAD + bytes.length;
+        }
+        if (value instanceof BigDecimal decimal) {
+            return OBJECT_OVERHEAD + 32 + decimal.unscaledValue().bitLength() / 8;
+        }
+        return OBJECT_OVERHEAD + 16;
+    }
+
+    private static long stringSize(String text) {
+        return 40 + 2L * text.length();
+    }
+}
@@ -0,0 +1,212 @@
+package com.example.shelldemo.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.example.shelldemo.exception.DatabaseException;
+import com.example.shelldemo.exception.DatabaseException.ErrorType;
+
+/**
+ * Immutable view of the application configuration, compiled once from the parsed YAML.
+ *
+ * <p>All maps and lists are unmodifiable, so a snapshot can be shared between threads without
+ * copying. {@link ConfigurationHolder} replaces the whole snapshot on reload.</p>
+ *
+ * @param dialects compiled database types keyed by lower-case name
+ * @param vault Vault settings, or {@code null} if the section is missing
+ * @param raw the whole configuration as an immutable map
+ */
+public record ConfigSnapshot(Map<String, DialectConfig> dialects, VaultConfig vault, Map<String, Object> raw) {
+    private static final Logger logger = LogManager.getLogger(ConfigSnapshot.class);
+
+    /**
+     * @return the dialect, or {@code null} if the type is not configured
+     */
+    public DialectConfig dialect(String dbType) {
+        return dbType != null ? dialects.get(dbType.toLowerCase()) : null;
+    }
+
+    /**
+     * Compiles parsed YAML into a snapshot.
+     *
+     * @throws DatabaseException with {@code CONFIG_INVALID} if a section has the wrong shape
+     */
+    public static ConfigSnapshot compile(Map<String, Object> yaml) {
+        Map<String, Object> raw = freezeMap(yaml);
+        Map<String, DialectConfig> dialects = new LinkedHashMap<>();
+        Map<String, Object> types = map(map(raw, "databases"), "types");
+        types.forEach((name, section) -> {
+            String dbType = name.toLowerCase();
+            dialects.put(dbType, compileDialect(dbType, asMap(section, name)));
+        });
+        return new ConfigSnapshot(Collections.unmodifiableMap(dialects), compileVault(map(raw, "vault"), map(types, "vault")), raw);
+    }
+
+    private static DialectConfig compileDialect(String name, Map<String, Object> section) {
+        Map<String, Map<String, String>> templates = new LinkedHashMap<>();
+        map(section, "templates").forEach((category, entries) -> {
+            if (entries instanceof Map<?, ?>) {
+                Map<String, String> byName = new LinkedHashMap<>();
+                flattenTemplates("", asMap(entries, category), byName);
+                templates.put(category, Collections.unmodifiableMap(byName));
+            }
+        });
+        Map<String, Object> ldap = map(map(section, "templates"), "ldap");
+        Object writer = map(section, "load").get("writer");
+        return new DialectConfig(
+            name,
+            intValue(section.get("defaultPort"), 0),
+            Collections.unmodifiableMap(templates),
+            strings(map(section, "properties")),
+            compileErrors(name, section),
+            ldap.isEmpty() ? null : compileLdap(ldap),
+            writer != null ? writer.toString() : null,
+            section);
+    }
+
+    private static ErrorMappings compileErrors(String name, Map<String, Object> section) {
+        Object pattern = section.get("error-code-pattern");
+        Map<String, Object> mappings = map(section, "error-mappings");
+        if (pattern == null && mappings.isEmpty()) {
+            return ErrorMappings.NONE;
+        }
+
+        Map<String, ErrorType> codes = new LinkedHashMap<>();
+        mappings.forEach((code, type) -> {
+            try {
+                codes.put(code, ErrorType.valueOf(String.valueOf(type)));
+            } catch (IllegalArgumentException e) {
+                logger.warn("Ignoring invalid error type mapping {} -> {} for {}", code, type, name);
+            }
+        });
+        try {
+            return new ErrorMappings(pattern != null ? Pattern.compile(pattern.toString()) : null, codes);
+        } catch (PatternSyntaxException e) {
+            throw new DatabaseException("Invalid error code pattern for " + name + ": " + pattern, e, ErrorType.CONFIG_INVALID);
+        }
+    }
+
+    private static LdapConfig compileLdap(Map<String, Object> ldap) {
+        List<String> servers = new ArrayList<>();
+        Object configured = ldap.get("servers");
+        if (configured instanceof List<?> list) {
+            list.forEach(server -> servers.add(String.valueOf(server)));
+        }
+        Map<String, Object> cache = map(ldap, "descriptorCache");
+        LdapConfig.DescriptorCache descriptorCache = cache.isEmpty()
+            ? LdapConfig.DescriptorCache.DISABLED
+            : new LdapConfig.DescriptorCache(
+                !Boolean.FALSE.equals(cache.get("enabled")),
+                Duration.ofSeconds(intValue(cache.get("ttlSeconds"), 3600)),
+                !Boolean.FALSE.equals(cache.get("disk")));
+        return new LdapConfig(
+            servers,
+            ldap.get("context") != null ? ldap.get("context").toString() : null,
+            intValue(ldap.get("port"), 389),
+            !Boolean.FALSE.equals(ldap.get("race")),
+            Duration.ofMillis(intValue(ldap.get("staggerMillis"), 250)),
+            Duration.ofSeconds(intValue(ldap.get("timeoutSeconds"), 30)),
+            descriptorCache);
+    }
+
+    /**
+     * Reads the top-level {@code vault} section, falling back to the deprecated {@code databases.types.vault}
+     * entry that earlier releases read.
+     */
+    private static VaultConfig compileVault(Map<String, Object> vault, Map<String, Object> legacy) {
+        if (vault.isEmpty() && !legacy.isEmpty()) {
+            logger.warn("Vault settings under databases.types.vault are deprecated; move them to a top-level vault section");
+            vault = legacy;
+        }
+        if (vault.isEmpty()) {
+            return null;
+        }
+        return new VaultConfig(string(vault, "baseUrl"), string(vault, "roleId"), string(vault, "secretId"), string(vault, "ait"));
+    }
+
+    private static Map<String, Object> map(Map<String, Object> parent, String key) {
+        Object value = parent.get(key);
+        return value == null ? Map.of() : asMap(value, key);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> asMap(Object value, String key) {
+        if (!(value instanceof Map<?, ?>)) {
+            throw new DatabaseException(
+                String.format("Expected Map configuration for '%s' but got: %s", key, value.getClass().getSimpleName()),
+                ErrorType.CONFIG_INVALID);
+        }
+        return (Map<String, Object>) value;
+    }
+
+    private static Map<String, String> strings(Map<String, Object> section) {
+        Map<String, String> result = new LinkedHashMap<>();
+        section.forEach((key, value) -> {
+            if (value != null && !(value instanceof Map<?, ?>) && !(value instanceof List<?>)) {
+                result.put(key, value.toString());
+            }
+        });
+        return Collections.unmodifiableMap(result);
+    }
+
+    /**
+     * Nested template groups such as {@code sql.validation} are kept under dotted names, e.g. {@code validation.explain}.
+     */
+    @SuppressWarnings("unchecked")
+    private static void flattenTemplates(String prefix, Map<String, Object> section, Map<String, String> result) {
+        section.forEach((key, value) -> {
+            if (value instanceof Map<?, ?> nested) {
+                flattenTemplates(prefix + key + ".", (Map<String, Object>) nested, result);
+            } else if (value != null && !(value instanceof List<?>)) {
+                result.put(prefix + key, value.toString());
+            }
+        });
+    }
+
+    private static String string(Map<String, Object> section, String key) {
+        Object value = section.get(key);
+        return value != null ? value.toString() : null;
+    }
+
+    private static int intValue(Object value, int defaultValue) {
+        if (value instanceof Number number) {
+            return number.intValue();
+        }
+        if (value != null) {
+            try {
+                return Integer.parseInt(value.toString().trim());
+            } catch (NumberFormatException e) {
+                throw new DatabaseException("Expected a number but got: " + value, ErrorType.CONFIG_INVALID);
+            }
+        }
+        return defaultValue;
+    }
+
+    private static Object freeze(Object value) {
+        if (value instanceof Map<?, ?> map) {
+            return freezeMap(map);
+        }
+        if (value instanceof List<?> list) {
+            List<Object> frozen = new ArrayList<>(list.size());
+            list.forEach(element -> frozen.add(freeze(element)));
+            return Collections.unmodifiableList(frozen);
+        }
+        return value;
+    }
+
+    private static Map<String, Object> freezeMap(Map<?, ?> map) {
+        Map<String, Object> frozen = new LinkedHashMap<>();
+        // YAML keys such as error codes may be parsed as numbers
+        map.forEach((key, value) -> frozen.put(String.valueOf(key), freeze(value)));
+        return Collections.unmodifiableMap(frozen);
+    }
+}
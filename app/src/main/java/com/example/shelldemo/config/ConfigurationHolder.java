@@ -9,56 +9,111 @@ import org.apache.logging.log4j.Logger;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * Singleton configuration holder that loads and caches application configuration at startup.
+ * Singleton configuration holder that loads the application configuration at startup.
+ *
+ * <p>The YAML is compiled once into an immutable {@link ConfigSnapshot} that is published through a
+ * volatile field, so lookups neither lock nor copy. When the configuration comes from a file given
+ * by {@code -Dapp.config} and {@code -Dapp.config.watch=true} is set, the file is watched and each
+ * change is compiled into a new snapshot that replaces the old one atomically. A file that is missing
+ * or fails to compile is logged and the previous snapshot stays in effect; the bundled classpath
+ * configuration is only used as a fallback at startup.</p>
  */
 public class ConfigurationHolder {
     private static final Logger logger = LogManager.getLogger(ConfigurationHolder.class);
     private static final String CONFIG_PATH = "application.yaml";
-    private static ConfigurationHolder instance;
-    
-    private final Map<String, Object> config;
+
     private final Map<String, String> runtimeProperties;
+    private final Path configFile;
+    private volatile ConfigSnapshot snapshot;
 
     private ConfigurationHolder() {
         this.runtimeProperties = new ConcurrentHashMap<>();
-        this.config = loadConfig();
+        String configPath = System.getProperty("app.config");
+        this.configFile = configPath != null ? Path.of(configPath) : null;
+        this.snapshot = ConfigSnapshot.compile(loadConfig(true));
+        if (configFile != null && Boolean.getBoolean("app.config.watch")) {
+            startWatching();
+        }
         logger.info("ConfigurationHolder initialized successfully");
     }
 
-    public static synchronized ConfigurationHolder getInstance() {
-        if (instance == null) {
-            instance = new ConfigurationHolder();
+    /** Created on first load and reused by reloads. */
+    private static final class YamlMapper {
+        static final ObjectMapper INSTANCE = new ObjectMapper(new YAMLFactory());
+    }
+
+    private static final class Holder {
+        static final ConfigurationHolder INSTANCE = new ConfigurationHolder();
+    }
+
+    public static ConfigurationHolder getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * @return the configuration currently in effect
+     */
+    public ConfigSnapshot snapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Re-reads and compiles the configuration, then publishes it in one step. When the
+     * configuration comes from an external file, a missing or invalid file keeps the previous
+     * snapshot in effect rather than switching to the bundled defaults.
+     *
+     * @return true if the new configuration is now in effect
+     */
+    public boolean reload() {
+        try {
+            snapshot = ConfigSnapshot.compile(loadConfig(false));
+            logger.info("Configuration reloaded");
+            return true;
+        } catch (RuntimeException e) {
+            logger.error("Configuration reload failed, keeping previous configuration: {}", e.getMessage());
+            return false;
         }
-        return instance;
     }
 
+    /**
+     * @param startup whether the classpath configuration may stand in for a missing external file
+     */
     @SuppressWarnings("unchecked")
-    private Map<String, Object> loadConfig() {
+    private Map<String, Object> loadConfig(boolean startup) {
         try {
-            ObjectMapper yamlMapper = new ObjectMapper(new YAMLFactory());
             InputStream inputStream = null;
-            String configPath = System.getProperty("app.config");
-            if (configPath != null) {
-                inputStream = openConfigFile(configPath);
+            if (configFile != null) {
+                inputStream = openConfigFile(configFile.toString());
+                if (inputStream == null && !startup) {
+                    throw new DatabaseException("Configuration file not found: " + configFile, ErrorType.CONFIG_NOT_FOUND);
+                }
             }
             if (inputStream == null) {
                 inputStream = getClass().getClassLoader().getResourceAsStream(CONFIG_PATH);
+            }
             if (inputStream == null) {
                 inputStream = Thread.currentThread().getContextClassLoader().getResourceAsStream(CONFIG_PATH);
-                }
             }
             if (inputStream == null) {
                 String errorMessage = "Configuration file not found: " + CONFIG_PATH;
                 logger.error(errorMessage);
                 throw new DatabaseException(errorMessage, ErrorType.CONFIG_NOT_FOUND);
             }
-            return yamlMapper.readValue(inputStream, Map.class);
+            try (InputStream in = inputStream) {
+                Map<String, Object> config = YamlMapper.INSTANCE.readValue(in, Map.class);
+                return config != null ? config : Map.of();
+            }
         } catch (IOException e) {
             String errorMessage = "Failed to load configuration";
             logger.error(errorMessage, e);
@@ -75,62 +130,93 @@ public class ConfigurationHolder {
         }
     }
 
-    @SuppressWarnings("unchecked")
-    private Map<String, Object> getDatabaseTypes() {
-        Map<String, Object> databases = (Map<String, Object>) config.get("databases");
-        if (databases == null) return Collections.emptyMap();
-        
-        Map<String, Object> types = (Map<String, Object>) databases.get("types");
-        return types != null ? types : Collections.emptyMap();
+    private void startWatching() {
+        Path file = configFile.toAbsolutePath();
+        Thread watcher = Thread.ofPlatform().daemon().name("config-watcher").unstarted(() -> watch(file));
+        watcher.start();
+        logger.info("Watching {} for configuration changes", file);
     }
 
-    @SuppressWarnings("unchecked")
-    public Map<String, Object> getDatabaseConfig(String dbType) {
-        if (!isValidDbType(dbType)) {
+    private void watch(Path file) {
+        try (WatchService watchService = file.getFileSystem().newWatchService()) {
+            file.getParent().register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+            while (!Thread.currentThread().isInterrupted()) {
+                WatchKey key = watchService.take();
+                boolean changed = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    changed |= event.context() instanceof Path name && name.equals(file.getFileName());
+                }
+                key.reset();
+                if (changed) {
+                    reload();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            logger.error("Stopped watching {} for configuration changes", file, e);
+        }
+    }
+
+    /**
+     * @return the compiled configuration of the database type
+     * @throws DatabaseException with {@code CONFIG_INVALID} if the type is not configured
+     */
+    public DialectConfig getDialect(String dbType) {
+        DialectConfig dialect = snapshot.dialect(dbType);
+        if (dialect == null) {
             String errorMessage = "Invalid database type: " + dbType;
             logger.error(errorMessage);
             throw new DatabaseException(errorMessage, ErrorType.CONFIG_INVALID);
         }
-        
-        Map<String, Object> types = getDatabaseTypes();
-        return new HashMap<>((Map<String, Object>) types.get(dbType.toLowerCase()));
+        return dialect;
+    }
+
+    /**
+     * Returns the database type's section as an immutable map.
+     */
+    public Map<String, Object> getDatabaseConfig(String dbType) {
+        return getDialect(dbType).raw();
+    }
+
+    /**
+     * @return the Vault settings
+     * @throws DatabaseException with {@code CONFIG_NOT_FOUND} if the {@code vault} section is missing or incomplete
+     */
+    public VaultConfig getVaultConfig() {
+        VaultConfig vault = snapshot.vault();
+        if (vault == null || !vault.isComplete()) {
+            throw new DatabaseException("Vault configuration (vault.baseUrl, roleId, secretId) is missing",
+                ErrorType.CONFIG_NOT_FOUND);
+        }
+        return vault;
     }
 
-    @SuppressWarnings("unchecked")
     public String getJdbcClientTemplate(String dbType, String templateName) {
-        Map<String, Object> dbConfig = getDatabaseConfig(dbType);
-        Map<String, Object> templates = (Map<String, Object>) dbConfig.get("templates");
-        if (templates == null) return null;
-        
-        Map<String, Object> jdbcTemplates = (Map<String, Object>) templates.get("jdbc");
-        if (jdbcTemplates == null) return null;
-        
-        Object template = jdbcTemplates.get(templateName);
+        DialectConfig dialect = getDialect(dbType);
+        String template = dialect.template("jdbc", templateName);
         if (template == null) {
-            template = jdbcTemplates.get("defaultTemplate");
+            template = dialect.template("jdbc", "defaultTemplate");
         }
         if (template == null) {
-            template = jdbcTemplates.get("default");
+            template = dialect.template("jdbc", "default");
         }
-        
-        return template != null ? template.toString() : null;
+        return template;
     }
 
     public String getSqlTemplate(String dbType, String templateName) {
         return getDatabaseTemplate(dbType, "sql", templateName);
     }
 
-    @SuppressWarnings("unchecked")
     public String getDatabaseTemplate(String dbType, String category, String templateName) {
-        Map<String, Object> dbConfig = getDatabaseConfig(dbType);
-        Map<String, Object> templates = (Map<String, Object>) dbConfig.get("templates");
-        if (templates == null) return null;
-        
-        Map<String, Object> categoryTemplates = (Map<String, Object>) templates.get(category);
-        if (categoryTemplates == null) return null;
-        
-        Object template = categoryTemplates.get(templateName);
-        return template != null ? template.toString() : null;
+        return getDialect(dbType).template(category, templateName);
+    }
+
+    /**
+     * Returns the name of the bulk writer configured under {@code load.writer}, or null if none is set.
+     */
+    public String getLoadWriter(String dbType) {
+        return getDialect(dbType).loadWriter();
     }
 
     public void setRuntimeProperty(String key, String value) {
@@ -146,33 +232,20 @@ public class ConfigurationHolder {
     }
 
     public boolean isValidDbType(String dbType) {
-        return dbType != null && getDatabaseTypes().containsKey(dbType.toLowerCase());
+        return snapshot.dialect(dbType) != null;
     }
 
     public int getDefaultPort(String dbType) {
-        Map<String, Object> dbConfig = getDatabaseConfig(dbType);
-        Object port = dbConfig.get("defaultPort");
-        return port instanceof Number number ? number.intValue() : 0;
+        return getDialect(dbType).defaultPort();
     }
 
-    @SuppressWarnings("unchecked")
     public Map<String, String> getDatabaseProperties(String dbType) {
-        Map<String, Object> dbConfig = getDatabaseConfig(dbType);
-        Map<String, Object> properties = (Map<String, Object>) dbConfig.get("properties");
-        
-        if (properties == null) {
-            return Collections.emptyMap();
-        }
-        
-        // Convert all values to strings as required by the database properties
-        Map<String, String> stringProperties = new HashMap<>();
-        properties.forEach((key, value) -> stringProperties.put(key, value.toString()));
-        return stringProperties;
+        return getDialect(dbType).properties();
     }
 
     @SuppressWarnings("unchecked")
     public Map<String, String> getLoggingConfig() {
-        Map<String, Object> logging = (Map<String, Object>) config.get("logging");
+        Map<String, Object> logging = (Map<String, Object>) snapshot.raw().get("logging");
         if (logging == null) {
             return Collections.emptyMap();
         }
@@ -198,7 +271,7 @@ public class ConfigurationHolder {
 
     @SuppressWarnings("unchecked")
     public Map<String, String> getSpringConfig() {
-        Map<String, Object> spring = (Map<String, Object>) config.get("spring");
+        Map<String, Object> spring = (Map<String, Object>) snapshot.raw().get("spring");
         if (spring == null) {
             return Collections.emptyMap();
         }
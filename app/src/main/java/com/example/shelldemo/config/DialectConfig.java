@@ -0,0 +1,29 @@
+package com.example.shelldemo.config;
+
+import java.util.Map;
+
+/**
+ * Compiled configuration of one database type.
+ *
+ * @param name lower-case database type
+ * @param defaultPort port used when none is given, or 0
+ * @param templates template strings by category and name, e.g. {@code sql} / {@code procedure}; nested groups
+ *                  use dotted names such as {@code sql} / {@code validation.explain}
+ * @param properties driver connection properties
+ * @param errors vendor error classification
+ * @param ldap directory settings, or {@code null} if the type has none
+ * @param loadWriter bulk writer name from {@code load.writer}, or {@code null}
+ * @param raw the dialect's section as an immutable map, for settings without a typed view
+ */
+public record DialectConfig(String name, int defaultPort, Map<String, Map<String, String>> templates,
+                            Map<String, String> properties, ErrorMappings errors, LdapConfig ldap,
+                            String loadWriter, Map<String, Object> raw) {
+
+    /**
+     * @return the template, or {@code null} if the category or name is not configured
+     */
+    public String template(String category, String name) {
+        Map<String, String> byName = templates.get(category);
+        return byName != null ? byName.get(name) : null;
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.shelldemo.config;
+
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.example.shelldemo.exception.DatabaseException.ErrorType;
+
+/**
+ * Vendor error code extraction and classification for one database type, compiled from the
+ * {@code error-code-pattern} and {@code error-mappings} keys of the configuration.
+ *
+ * @param pattern pattern whose first group captures the vendor code in an error message, or {@code null}
+ * @param codes error types by vendor code, exactly as extracted
+ */
+public record ErrorMappings(Pattern pattern, Map<String, ErrorType> codes) {
+    static final ErrorMappings NONE = new ErrorMappings(null, Map.of());
+
+    public ErrorMappings {
+        codes = Map.copyOf(codes);
+    }
+
+    /**
+     * @return the vendor code in the message, or {@code null} if there is none
+     */
+    public String extractCode(String message) {
+        if (pattern == null || message == null) {
+            return null;
+        }
+        Matcher matcher = pattern.matcher(message);
+        return matcher.find() ? matcher.group(1) : null;
+    }
+
+    /**
+     * @return the configured error type for the message, or {@code defaultType} if none matches
+     */
+    public ErrorType classify(String message, ErrorType defaultType) {
+        String code = extractCode(message);
+        if (code == null) {
+            return defaultType;
+        }
+        return forCode(code, defaultType);
+    }
+
+    /**
+     * @return the configured error type for a vendor code, or {@code defaultType} if it is not mapped
+     */
+    public ErrorType forCode(String code, ErrorType defaultType) {
+        return codes.getOrDefault(code, defaultType);
+    }
+}
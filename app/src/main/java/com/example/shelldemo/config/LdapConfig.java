@@ -0,0 +1,30 @@
+package com.example.shelldemo.config;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Directory servers and connect behaviour from a dialect's {@code templates.ldap} section.
+ *
+ * @param servers directory servers in configured order
+ * @param context directory context that holds the service entries
+ * @param port LDAP port of every server
+ * @param race whether descriptor lookups are raced across the servers
+ * @param stagger delay before the next server joins a race
+ * @param timeout overall limit for a raced lookup
+ * @param descriptorCache resolved connect descriptor caching
+ */
+public record LdapConfig(List<String> servers, String context, int port, boolean race,
+                         Duration stagger, Duration timeout, DescriptorCache descriptorCache) {
+
+    public LdapConfig {
+        servers = servers != null ? List.copyOf(servers) : List.of();
+    }
+
+    /**
+     * Settings of the {@code descriptorCache} subsection.
+     */
+    public record DescriptorCache(boolean enabled, Duration ttl, boolean disk) {
+        static final DescriptorCache DISABLED = new DescriptorCache(false, Duration.ZERO, false);
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.shelldemo.config;
+
+/**
+ * Vault AppRole settings from the top-level {@code vault} section of the configuration, or from the
+ * deprecated {@code databases.types.vault} entry.
+ */
+public record VaultConfig(String baseUrl, String roleId, String secretId, String ait) {
+
+    public boolean isComplete() {
+        return baseUrl != null && roleId != null && secretId != null;
+    }
+}
@@ -0,0 +1,177 @@
+package com.example.shelldemo.connection;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Caches Oracle connect descriptors resolved through LDAP, keyed by service and directory context.
+ *
+ * <p>Entries expire after {@code ttl}. When a directory is given, entries are also written there
+ * as one properties file per key so that later processes can connect without a directory round
+ * trip. Disk problems are logged and otherwise ignored; the cache is only an optimization.</p>
+ */
+public final class ConnectDescriptorCache {
+    private static final Logger logger = LogManager.getLogger(ConnectDescriptorCache.class);
+    private static final String DESCRIPTOR = "descriptor";
+    private static final String EXPIRES_AT = "expiresAt";
+    // ORA-12505/12514 unknown SID or service, ORA-12541 no listener, ORA-12170 connect timeout,
+    // ORA-12543 host unreachable, ORA-17002 network I/O error
+    private static final Set<Integer> ROUTE_ERRORS = Set.of(12505, 12514, 12541, 12170, 12543, 17002);
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Duration ttl;
+    private final Path directory;
+    private final Clock clock;
+
+    /**
+     * @param ttl how long a resolved descriptor may be used
+     * @param directory directory for the disk tier, or {@code null} for memory only
+     */
+    public ConnectDescriptorCache(Duration ttl, Path directory) {
+        this(ttl, directory, Clock.systemUTC());
+    }
+
+    ConnectDescriptorCache(Duration ttl, Path directory, Clock clock) {
+        this.ttl = ttl;
+        this.directory = directory;
+        this.clock = clock;
+    }
+
+    /**
+     * @return the default disk location, {@code $XDG_CACHE_HOME/dbscriptrunner/descriptors} or
+     *         {@code ~/.cache/dbscriptrunner/descriptors}
+     */
+    public static Path defaultDirectory() {
+        String xdgCache = System.getenv("XDG_CACHE_HOME");
+        Path base = xdgCache != null && !xdgCache.isBlank()
+            ? Path.of(xdgCache)
+            : Path.of(System.getProperty("user.home"), ".cache");
+        return base.resolve("dbscriptrunner").resolve("descriptors");
+    }
+
+    /**
+     * Tells whether a failed connect with a cached descriptor may mean that the descriptor is
+     * stale: connection-class SQLStates ({@code 08xxx}) and listener or network errors. Anything
+     * else, such as ORA-01017 for a wrong password, would fail the same way through LDAP.
+     */
+    public static boolean isRouteFailure(SQLException e) {
+        String sqlState = e.getSQLState();
+        return (sqlState != null && sqlState.startsWith("08")) || ROUTE_ERRORS.contains(e.getErrorCode());
+    }
+
+    public Optional<String> get(String service, String context) {
+        String key = key(service, context);
+        Entry entry = entries.get(key);
+        if (entry == null && directory != null) {
+            entry = readEntry(key);
+            if (entry != null) {
+                entries.put(key, entry);
+            }
+        }
+        if (entry == null) {
+            return Optional.empty();
+        }
+        if (entry.expiresAtMillis() <= clock.millis()) {
+            logger.debug("Cached connect descriptor for {} expired", service);
+            invalidate(service, context);
+            return Optional.empty();
+        }
+        return Optional.of(entry.descriptor());
+    }
+
+    public void put(String service, String context, String descriptor) {
+        String key = key(service, context);
+        Entry entry = new Entry(descriptor, clock.millis() + ttl.toMillis());
+        entries.put(key, entry);
+        if (directory != null) {
+            writeEntry(key, entry);
+        }
+    }
+
+    /**
+     * Drops a descriptor, typically because connecting with it failed.
+     */
+    public void invalidate(String service, String context) {
+        String key = key(service, context);
+        entries.remove(key);
+        if (directory != null) {
+            try {
+                Files.deleteIfExists(file(key));
+            } catch (IOException e) {
+                logger.warn("Failed to remove cached connect descriptor {}: {}", file(key), e.getMessage());
+            }
+        }
+    }
+
+    private Entry readEntry(String key) {
+        Path file = file(key);
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        Properties props = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            props.load(reader);
+            String descriptor = props.getProperty(DESCRIPTOR);
+            String expiresAt = props.getProperty(EXPIRES_AT);
+            return descriptor != null && expiresAt != null ? new Entry(descriptor, Long.parseLong(expiresAt)) : null;
+        } catch (IOException | NumberFormatException e) {
+            logger.warn("Ignoring unreadable cached connect descriptor {}: {}", file, e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeEntry(String key, Entry entry) {
+        Properties props = new Properties();
+        props.setProperty(DESCRIPTOR, entry.descriptor());
+        props.setProperty(EXPIRES_AT, Long.toString(entry.expiresAtMillis()));
+        try {
+            Files.createDirectories(directory);
+            Path temp = Files.createTempFile(directory, key, ".tmp");
+            try {
+                try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                    props.store(writer, null);
+                }
+                Files.move(temp, file(key), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to write connect descriptor cache in {}: {}", directory, e.getMessage());
+        }
+    }
+
+    private Path file(String key) {
+        return directory.resolve(key + ".properties");
+    }
+
+    private static String key(String service, String context) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest((service.toLowerCase() + '\n' + context.toLowerCase()).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private record Entry(String descriptor, long expiresAtMillis) {}
+}
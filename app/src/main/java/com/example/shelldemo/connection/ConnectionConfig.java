@@ -1,5 +1,7 @@
 package com.example.shelldemo.connection;
 
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -21,6 +23,7 @@ public class ConnectionConfig {
     private String serviceName;
     private String dbType;
     private String connectionType;
+    private final Map<String, String> driverProperties = new HashMap<>();
 
     // Getters and setters
     public String getHost() { return host; }
@@ -37,6 +40,9 @@ public class ConnectionConfig {
     public void setDbType(String dbType) { this.dbType = dbType; }
     public String getConnectionType() { return connectionType; }
     public void setConnectionType(String connectionType) { this.connectionType = connectionType; }
+    /** Driver properties of this connection, applied on top of the dialect's configured properties. */
+    public Map<String, String> getDriverProperties() { return Collections.unmodifiableMap(driverProperties); }
+    public void setDriverProperty(String key, String value) { driverProperties.put(key, value); }
 
     @SuppressWarnings("unchecked")
     public static Map<String, Object> getConfigMap(Object obj, String key) {
@@ -164,6 +170,7 @@ public class ConnectionConfig {
         public Builder serviceName(String serviceName) { config.setServiceName(serviceName); return this; }
         public Builder dbType(String dbType) { config.setDbType(dbType); return this; }
         public Builder connectionType(String connectionType) { config.setConnectionType(connectionType); return this; }
+        public Builder driverProperty(String key, String value) { config.setDriverProperty(key, value); return this; }
 
         public ConnectionConfig build() {
             return config.validateAndEnrich();
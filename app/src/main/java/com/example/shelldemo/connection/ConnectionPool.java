@@ -0,0 +1,440 @@
+package com.example.shelldemo.connection;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.example.shelldemo.exception.DatabaseException;
+import com.example.shelldemo.exception.DatabaseException.ErrorType;
+import com.example.shelldemo.jfr.ConnectionAcquireEvent;
+
+/**
+ * Small JDBC connection pool on top of a {@link ConnectionProvider}.
+ *
+ * <p>Idle connections sit in a lock-free deque and are handed out most-recently-used first; a semaphore
+ * caps the number of borrowed connections at {@code maxSize}. A connection that was idle longer than
+ * {@code validationInterval} is checked with {@link Connection#isValid(int)} before it is handed out.
+ * A daemon housekeeper closes connections idle longer than {@code idleTimeout} or older than
+ * {@code maxLifetime}, tops the pool up to {@code minIdle} and logs connections borrowed longer than
+ * {@code leakDetectionThreshold} together with the stack that borrowed them.</p>
+ *
+ * <p>Borrowed connections are proxies: {@code close()} rolls back uncommitted work, restores auto-commit
+ * and returns the physical connection to the pool. The pool is created and warmed up via {@link #builder()}.</p>
+ */
+public final class ConnectionPool implements ConnectionProvider, AutoCloseable {
+    private static final Logger logger = LogManager.getLogger(ConnectionPool.class);
+
+    private final String name;
+    private final ConnectionProvider source;
+    private final int minIdle;
+    private final int maxSize;
+    private final Duration borrowTimeout;
+    private final int validationTimeoutSeconds;
+    private final long validationIntervalNanos;
+    private final long idleTimeoutNanos;
+    private final long maxLifetimeNanos;
+    private final long leakThresholdNanos;
+
+    private final Deque<PooledConnection> idle = new ConcurrentLinkedDeque<>();
+    private final Map<PooledConnection, Borrow> borrowed = new ConcurrentHashMap<>();
+    private final Semaphore permits;
+    private final AtomicInteger total = new AtomicInteger();
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private final ScheduledExecutorService housekeeper;
+
+    private static final class PooledConnection {
+        final Connection physical;
+        final long createdNanos;
+        final boolean defaultAutoCommit;
+        volatile long lastUsedNanos;
+
+        PooledConnection(Connection physical) throws SQLException {
+            this.physical = physical;
+            this.createdNanos = System.nanoTime();
+            this.lastUsedNanos = createdNanos;
+            this.defaultAutoCommit = physical.getAutoCommit();
+        }
+    }
+
+    private record Borrow(long sinceNanos, Throwable stack, AtomicBoolean reported) {
+    }
+
+    private ConnectionPool(Builder builder) {
+        this.name = builder.name;
+        this.source = builder.connectionProvider;
+        this.minIdle = builder.minIdle;
+        this.maxSize = builder.maxSize;
+        this.borrowTimeout = builder.borrowTimeout;
+        this.validationTimeoutSeconds = (int) Math.max(1, builder.validationTimeout.toSeconds());
+        this.validationIntervalNanos = builder.validationInterval.toNanos();
+        this.idleTimeoutNanos = builder.idleTimeout.toNanos();
+        this.maxLifetimeNanos = builder.maxLifetime.toNanos();
+        this.leakThresholdNanos = builder.leakDetectionThreshold.toNanos();
+        this.permits = new Semaphore(maxSize);
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, name + "-housekeeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Borrows a connection, waiting up to the borrow timeout if all {@code maxSize} connections are in use.
+     * Closing the returned connection gives it back to the pool.
+     */
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (closed.get()) {
+            throw new SQLException("Connection pool " + name + " is closed");
+        }
+        ConnectionAcquireEvent event = new ConnectionAcquireEvent();
+        event.begin();
+        try {
+            Connection connection = borrow();
+            event.succeeded = true;
+            return connection;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.source = "pool " + name;
+                event.commit();
+            }
+        }
+    }
+
+    private Connection borrow() throws SQLException {
+        try {
+            if (!permits.tryAcquire(borrowTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                throw new SQLTransientConnectionException(String.format(
+                    "Timed out after %d ms waiting for a connection from pool %s (%d in use)",
+                    borrowTimeout.toMillis(), name, borrowed.size()));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a pooled connection", e);
+        }
+
+        try {
+            PooledConnection pooled;
+            // The permit guarantees a free slot, but the housekeeper may be filling it; its connection turns up idle
+            while ((pooled = takeIdle()) == null && (pooled = open()) == null) {
+                Thread.onSpinWait();
+            }
+            borrowed.put(pooled, new Borrow(System.nanoTime(),
+                leakThresholdNanos > 0 ? new Throwable("Connection borrowed here") : null, new AtomicBoolean()));
+            return proxy(pooled);
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    public int getTotalConnections() {
+        return total.get();
+    }
+
+    public int getIdleConnections() {
+        return idle.size();
+    }
+
+    public int getActiveConnections() {
+        return borrowed.size();
+    }
+
+    /**
+     * Closes idle connections and stops housekeeping. Borrowed connections are closed when returned.
+     */
+    @Override
+    public void close() {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+        housekeeper.shutdownNow();
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            closePhysical(pooled);
+        }
+        logger.info("Closed connection pool {} ({} connections still borrowed)", name, borrowed.size());
+    }
+
+    private PooledConnection takeIdle() {
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            long now = System.nanoTime();
+            if (maxLifetimeNanos > 0 && now - pooled.createdNanos > maxLifetimeNanos) {
+                closePhysical(pooled);
+                continue;
+            }
+            if (now - pooled.lastUsedNanos > validationIntervalNanos && !isValid(pooled)) {
+                logger.debug("Discarding broken connection from pool {}", name);
+                closePhysical(pooled);
+                continue;
+            }
+            return pooled;
+        }
+        return null;
+    }
+
+    private boolean isValid(PooledConnection pooled) {
+        try {
+            return pooled.physical.isValid(validationTimeoutSeconds);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Opens a physical connection if fewer than {@code maxSize} exist, reserving the slot before connecting so
+     * that borrowers and the housekeeper together never exceed the maximum.
+     *
+     * @return the new connection, or null if the pool is at its maximum size
+     */
+    private PooledConnection open() throws SQLException {
+        int current;
+        do {
+            current = total.get();
+            if (current >= maxSize) {
+                return null;
+            }
+        } while (!total.compareAndSet(current, current + 1));
+        try {
+            return new PooledConnection(source.getConnection());
+        } catch (SQLException | RuntimeException e) {
+            total.decrementAndGet();
+            throw e;
+        }
+    }
+
+    private void release(PooledConnection pooled) {
+        Borrow borrow = borrowed.remove(pooled);
+        if (borrow == null) {
+            return;
+        }
+        try {
+            boolean healthy = !pooled.physical.isClosed() && reset(pooled);
+            if (healthy && !closed.get()) {
+                pooled.lastUsedNanos = System.nanoTime();
+                idle.offerFirst(pooled);
+            } else {
+                closePhysical(pooled);
+            }
+        } catch (SQLException e) {
+            closePhysical(pooled);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private boolean reset(PooledConnection pooled) {
+        try {
+            Connection physical = pooled.physical;
+            if (!physical.getAutoCommit()) {
+                physical.rollback();
+            }
+            if (physical.getAutoCommit() != pooled.defaultAutoCommit) {
+                physical.setAutoCommit(pooled.defaultAutoCommit);
+            }
+            physical.clearWarnings();
+            return true;
+        } catch (SQLException e) {
+            logger.debug("Discarding connection that could not be reset: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private void closePhysical(PooledConnection pooled) {
+        total.decrementAndGet();
+        try {
+            pooled.physical.close();
+        } catch (SQLException e) {
+            logger.debug("Failed to close pooled connection: {}", e.getMessage());
+        }
+    }
+
+    private void housekeep() {
+        try {
+            long now = System.nanoTime();
+            // the least recently used connections are at the tail
+            int surplus = idle.size() - minIdle;
+            for (PooledConnection pooled : idle) {
+                boolean expired = (surplus > 0 && idleTimeoutNanos > 0 && now - pooled.lastUsedNanos > idleTimeoutNanos)
+                    || (maxLifetimeNanos > 0 && now - pooled.createdNanos > maxLifetimeNanos);
+                if (expired && idle.remove(pooled)) {
+                    closePhysical(pooled);
+                    surplus--;
+                }
+            }
+            fill();
+            detectLeaks(now);
+        } catch (RuntimeException e) {
+            logger.warn("Connection pool {} housekeeping failed: {}", name, e.getMessage());
+        }
+    }
+
+    private void fill() {
+        while (!closed.get() && idle.size() < minIdle) {
+            try {
+                PooledConnection pooled = open();
+                if (pooled == null) {
+                    return;
+                }
+                if (closed.get()) {
+                    closePhysical(pooled);
+                    return;
+                }
+                idle.offerLast(pooled);
+            } catch (SQLException | RuntimeException e) {
+                logger.warn("Failed to open connection for pool {}: {}", name, e.getMessage());
+                return;
+            }
+        }
+    }
+
+    private void detectLeaks(long now) {
+        if (leakThresholdNanos <= 0) {
+            return;
+        }
+        for (Borrow borrow : borrowed.values()) {
+            if (now - borrow.sinceNanos() > leakThresholdNanos && borrow.reported().compareAndSet(false, true)) {
+                logger.warn("Possible connection leak in pool {}: connection borrowed {} ms ago and not returned",
+                    name, TimeUnit.NANOSECONDS.toMillis(now - borrow.sinceNanos()), borrow.stack());
+            }
+        }
+    }
+
+    private void warmUp() {
+        List<Future<PooledConnection>> opening = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < minIdle; i++) {
+                opening.add(executor.submit(this::open));
+            }
+        }
+        Throwable failure = null;
+        for (Future<PooledConnection> future : opening) {
+            try {
+                idle.offerLast(future.get());
+            } catch (ExecutionException e) {
+                failure = failure != null ? failure : e.getCause();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failure = failure != null ? failure : e;
+            }
+        }
+        if (failure != null) {
+            close();
+            throw new DatabaseException("Failed to warm up connection pool " + name, failure, ErrorType.CONN_FAILED);
+        }
+        long period = Math.max(1000, Math.min(30_000, TimeUnit.NANOSECONDS.toMillis(
+            Math.min(idleTimeoutNanos > 0 ? idleTimeoutNanos : Long.MAX_VALUE,
+                     leakThresholdNanos > 0 ? leakThresholdNanos : Long.MAX_VALUE)) / 2));
+        housekeeper.scheduleWithFixedDelay(this::housekeep, period, period, TimeUnit.MILLISECONDS);
+        logger.info("Started connection pool {} with {} connections (max {})", name, idle.size(), maxSize);
+    }
+
+    private Connection proxy(PooledConnection pooled) {
+        InvocationHandler handler = new InvocationHandler() {
+            private final AtomicBoolean returned = new AtomicBoolean();
+
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                switch (method.getName()) {
+                    case "close":
+                        if (returned.compareAndSet(false, true)) {
+                            release(pooled);
+                        }
+                        return null;
+                    case "isClosed":
+                        return returned.get() || pooled.physical.isClosed();
+                    case "equals":
+                        return proxy == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "toString":
+                        return "Pooled" + pooled.physical;
+                    default:
+                        if (returned.get()) {
+                            throw new SQLException("Connection has been returned to the pool");
+                        }
+                        try {
+                            return method.invoke(pooled.physical, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                }
+            }
+        };
+        return (Connection) Proxy.newProxyInstance(ConnectionPool.class.getClassLoader(),
+            new Class<?>[] {Connection.class}, handler);
+    }
+
+    /**
+     * Builder for {@link ConnectionPool}.
+     */
+    public static class Builder {
+        private String name = "pool";
+        private ConnectionProvider connectionProvider;
+        private int minIdle = 1;
+        private int maxSize = 10;
+        private Duration borrowTimeout = Duration.ofSeconds(30);
+        private Duration validationTimeout = Duration.ofSeconds(5);
+        private Duration validationInterval = Duration.ofMillis(500);
+        private Duration idleTimeout = Duration.ofMinutes(10);
+        private Duration maxLifetime = Duration.ofMinutes(30);
+        private Duration leakDetectionThreshold = Duration.ZERO;
+
+        public Builder name(String name) { this.name = name; return this; }
+        public Builder connectionProvider(ConnectionProvider connectionProvider) { this.connectionProvider = connectionProvider; return this; }
+        public Builder minIdle(int minIdle) { this.minIdle = minIdle; return this; }
+        public Builder maxSize(int maxSize) { this.maxSize = maxSize; return this; }
+        public Builder borrowTimeout(Duration borrowTimeout) { this.borrowTimeout = borrowTimeout; return this; }
+        public Builder validationTimeout(Duration validationTimeout) { this.validationTimeout = validationTimeout; return this; }
+        public Builder validationInterval(Duration validationInterval) { this.validationInterval = validationInterval; return this; }
+        public Builder idleTimeout(Duration idleTimeout) { this.idleTimeout = idleTimeout; return this; }
+        public Builder maxLifetime(Duration maxLifetime) { this.maxLifetime = maxLifetime; return this; }
+        public Builder leakDetectionThreshold(Duration leakDetectionThreshold) { this.leakDetectionThreshold = leakDetectionThreshold; return this; }
+
+        /**
+         * Creates the pool and opens {@code minIdle} connections in parallel.
+         *
+         * @throws DatabaseException if a warm-up connection cannot be opened
+         */
+        public ConnectionPool build() {
+            if (connectionProvider == null) {
+                throw new IllegalArgumentException("Connection provider must be specified");
+            }
+            if (maxSize < 1 || minIdle < 0 || minIdle > maxSize) {
+                throw new IllegalArgumentException("Pool sizes must satisfy 0 <= minIdle <= maxSize and maxSize >= 1");
+            }
+            ConnectionPool pool = new ConnectionPool(this);
+            pool.warmUp();
+            return pool;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.shelldemo.connection;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Supplies connections to components that work with more than one session at a time.
+ * The caller owns each returned connection and is responsible for closing it.
+ */
+@FunctionalInterface
+public interface ConnectionProvider {
+    Connection getConnection() throws SQLException;
+}
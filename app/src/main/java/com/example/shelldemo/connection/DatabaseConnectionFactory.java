@@ -1,15 +1,28 @@
 package com.example.shelldemo.connection;
 
+import java.nio.file.Path;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Properties;
+
+import javax.naming.NamingException;
+
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import com.example.shelldemo.exception.DatabaseException;
 import com.example.shelldemo.exception.DatabaseException.ErrorType;
 import com.example.shelldemo.config.ConfigurationHolder;
+import com.example.shelldemo.config.DialectConfig;
+import com.example.shelldemo.config.LdapConfig;
+import com.example.shelldemo.jfr.ConnectionAcquireEvent;
+import com.example.shelldemo.metrics.JdbcCallStats;
 
 
 /**
@@ -17,10 +30,24 @@ import com.example.shelldemo.config.ConfigurationHolder;
  */
 public class DatabaseConnectionFactory {
     private static final Logger logger = LogManager.getLogger(DatabaseConnectionFactory.class);
+    // Shared so that every connection in the process benefits from earlier connect outcomes
+    private static final ServerHealthCache LDAP_HEALTH = new ServerHealthCache(Duration.ofMinutes(5));
+    private static ConnectDescriptorCache descriptorCache;
     private final JdbcDriverLoader driverLoader;
+    private final JdbcCallStats jdbcStats;
 
     public DatabaseConnectionFactory() {
+        this(null);
+    }
+
+    /**
+     * Creates a factory whose connections time every JDBC call into the given statistics.
+     *
+     * @param jdbcStats statistics to record into, or null for plain driver connections
+     */
+    public DatabaseConnectionFactory(JdbcCallStats jdbcStats) {
         this.driverLoader = new JdbcDriverLoader();
+        this.jdbcStats = jdbcStats;
         logger.debug("DatabaseConnectionFactory initialized");
     }
 
@@ -48,9 +75,23 @@ public class DatabaseConnectionFactory {
                         .orElse("none"));
             }
             
-            Connection conn = DriverManager.getConnection(url, props);
+            ConnectionAcquireEvent event = new ConnectionAcquireEvent();
+            event.begin();
+            boolean ldap = "ldap".equalsIgnoreCase(config.getConnectionType());
+            Connection conn;
+            try {
+                conn = ldap ? connectLdap(config, props, url) : DriverManager.getConnection(url, props);
+                event.succeeded = true;
+            } finally {
+                event.end();
+                if (event.shouldCommit()) {
+                    event.dbType = config.getDbType();
+                    event.source = ldap ? "ldap" : "direct";
+                    event.commit();
+                }
+            }
             logger.info("Successfully established connection to {} database at {}:{}",config.getDbType(), config.getHost(), config.getPort());
-            return conn;
+            return jdbcStats != null ? JdbcInstrumentation.wrap(conn, jdbcStats) : conn;
         } catch (SQLException e) {
             String context = String.format("host=%s, port=%d, service=%s", config.getHost(), config.getPort(), config.getServiceName());
            
@@ -93,89 +134,198 @@ public class DatabaseConnectionFactory {
         return createConnection(config);
     }
 
+    /**
+     * Returns a provider that opens a new connection for the given configuration on each call.
+     * 
+     * @param config The connection configuration
+     * @return A connection provider backed by this factory
+     */
+    public ConnectionProvider connectionProvider(ConnectionConfig config) {
+        return () -> createConnection(config);
+    }
+
     public String buildConnectionUrl(ConnectionConfig config) {
-        Map<String, Object> dbmsConfig = ConfigurationHolder.getInstance().getDatabaseConfig(config.getDbType());
-        @SuppressWarnings("unchecked")
-        Map<String, Object> templates = (Map<String, Object>) dbmsConfig.get("templates");
-        if (templates != null) {
-            logger.info("Available templates configuration:");
-            templates.forEach((key, value) -> logger.info("  {} -> {}", key, value));
-        }
-        @SuppressWarnings("unchecked")
-        Map<String, Object> jdbc = templates != null ? (Map<String, Object>) templates.get("jdbc") : null;
-        
+        DialectConfig dialect = ConfigurationHolder.getInstance().getDialect(config.getDbType());
+        if (logger.isDebugEnabled()) {
+            logger.debug("Available templates configuration:");
+            dialect.templates().forEach((key, value) -> logger.debug("  {} -> {}", key, value));
+        }
+
         if ("ldap".equalsIgnoreCase(config.getConnectionType())) {
-            return buildLdapConnectionUrl(config, templates, jdbc);
+            return buildLdapConnectionUrl(config, dialect);
         } else {
-        String urlTemplate = jdbc != null ? (String) jdbc.get("defaultTemplate") : null;
+            String urlTemplate = dialect.template("jdbc", "defaultTemplate");
             if (urlTemplate == null) {
-                urlTemplate = jdbc != null ? (String) jdbc.get("default") : null;
+                urlTemplate = dialect.template("jdbc", "default");
             }
-        if (urlTemplate == null) {
-            throw new DatabaseException(
-                String.format("Missing URL template for database type: %s", config.getDbType()),
-                ErrorType.CONFIG_NOT_FOUND
+            if (urlTemplate == null) {
+                throw new DatabaseException(
+                    String.format("Missing URL template for database type: %s", config.getDbType()),
+                    ErrorType.CONFIG_NOT_FOUND
+                );
+            }
+            String url = String.format(
+                urlTemplate,
+                config.getHost(),
+                config.getPort(),
+                config.getServiceName()
             );
-        }
-        String url = String.format(
-            urlTemplate,
-            config.getHost(),
-            config.getPort(),
-            config.getServiceName()
-        );
-        logger.debug("Built connection URL: {}", url);
+            logger.debug("Built connection URL: {}", url);
             return url;
         }
     }
 
-    private String buildLdapConnectionUrl(ConnectionConfig config, Map<String, Object> templates, Map<String, Object> jdbc) {
-        String urlTemplate = jdbc != null ? (String) jdbc.get("ldap") : null;
+    private String buildLdapConnectionUrl(ConnectionConfig config, DialectConfig dialect) {
+        String urlTemplate = ldapUrlTemplate(dialect);
+        List<String> hosts = ldapServerDescriptors(config, ldapConfig(dialect)).values().stream().toList();
+        String url = String.format(urlTemplate, String.join(" ", hosts));
+        logger.debug("Built LDAP connection URL: {}", url);
+        return url;
+    }
+
+    /**
+     * Connects through the configured directory servers. With more than one server the descriptor
+     * lookups are raced so that a slow or unreachable server does not delay every connect; the
+     * database login itself happens once, with the winning descriptor.
+     */
+    private Connection connectLdap(ConnectionConfig config, Properties props, String combinedUrl) throws SQLException {
+        DialectConfig dialect = ConfigurationHolder.getInstance().getDialect(config.getDbType());
+        LdapConfig ldapConfig = ldapConfig(dialect);
+        ConnectDescriptorCache cache = ldapConfig.descriptorCache().enabled()
+            ? descriptorCache(ldapConfig.descriptorCache()) : null;
+        String service = config.getServiceName();
+        String context = ldapConfig.context();
+
+        if (cache != null) {
+            Optional<String> cached = cache.get(service, context);
+            if (cached.isPresent()) {
+                Connection direct = connectWithCachedDescriptor(cache, config, props, dialect, cached.get());
+                if (direct != null) {
+                    return direct;
+                }
+            }
+        }
+
+        boolean race = ldapConfig.race() && ldapServerDescriptors(config, ldapConfig).size() > 1;
+        if (cache == null && !race) {
+            // Let the driver walk the server list itself
+            return DriverManager.getConnection(combinedUrl, props);
+        }
+        String descriptor = resolveDescriptor(config, props, ldapConfig, race);
+        if (descriptor == null) {
+            return DriverManager.getConnection(combinedUrl, props);
+        }
+        if (cache != null) {
+            cache.put(service, context, descriptor);
+        }
+        Connection conn = DriverManager.getConnection(String.format(ldapUrlTemplate(dialect), descriptor), props);
+        logger.debug("Connected to {} with resolved connect descriptor", service);
+        return conn;
+    }
+
+    /**
+     * Connects straight to the database with a connect descriptor that was resolved through LDAP
+     * earlier. Returns {@code null} when the database could not be reached on that route, so that
+     * the caller resolves the descriptor again; other failures, such as a wrong password, are
+     * rethrown because LDAP would not fix them.
+     */
+    private Connection connectWithCachedDescriptor(ConnectDescriptorCache cache, ConnectionConfig config,
+                                                   Properties props, DialectConfig dialect, String descriptor)
+            throws SQLException {
+        String service = config.getServiceName();
+        try {
+            Connection conn = DriverManager.getConnection(String.format(ldapUrlTemplate(dialect), descriptor), props);
+            logger.debug("Connected to {} with cached connect descriptor", service);
+            return conn;
+        } catch (SQLException e) {
+            if (!ConnectDescriptorCache.isRouteFailure(e)) {
+                throw e;
+            }
+            logger.warn("Direct connect to {} failed, falling back to LDAP: {}", service, e.getMessage());
+            cache.invalidate(service, dialect.ldap().context());
+            return null;
+        }
+    }
+
+    private String resolveDescriptor(ConnectionConfig config, Properties props, LdapConfig ldapConfig, boolean race) {
+        Map<String, String> environment = new HashMap<>();
+        for (String key : props.stringPropertyNames()) {
+            if (key.startsWith("java.naming.")) {
+                environment.put(key, props.getProperty(key));
+            }
+        }
+        LdapDescriptorResolver resolver = new LdapDescriptorResolver(environment);
+        String service = config.getServiceName();
+        try {
+            if (race) {
+                LdapLookupRacer racer = LdapLookupRacer.builder()
+                    .stagger(ldapConfig.stagger())
+                    .timeout(ldapConfig.timeout())
+                    .health(LDAP_HEALTH)
+                    .build();
+                return racer.lookup(ldapConfig.servers(),
+                    server -> resolver.lookup(server, ldapConfig.port(), service, ldapConfig.context()));
+            }
+            return resolver.resolve(
+                LDAP_HEALTH.prioritize(ldapConfig.servers(), server -> server),
+                ldapConfig.port(),
+                service,
+                ldapConfig.context());
+        } catch (NamingException e) {
+            logger.warn("Could not resolve connect descriptor for {}: {}", service, e.getMessage());
+            return null;
+        }
+    }
+
+    private static synchronized ConnectDescriptorCache descriptorCache(LdapConfig.DescriptorCache settings) {
+        if (descriptorCache == null) {
+            Path directory = settings.disk() ? ConnectDescriptorCache.defaultDirectory() : null;
+            descriptorCache = new ConnectDescriptorCache(settings.ttl(), directory);
+        }
+        return descriptorCache;
+    }
+
+    private static String ldapUrlTemplate(DialectConfig dialect) {
+        String urlTemplate = dialect.template("jdbc", "ldap");
         if (urlTemplate == null) {
             throw new DatabaseException("Missing LDAP URL template for Oracle", ErrorType.CONFIG_NOT_FOUND);
         }
-        @SuppressWarnings("unchecked")
-        Map<String, Object> ldapConfig = (Map<String, Object>) templates.get("ldap");
-        if (ldapConfig == null) {
+        return urlTemplate;
+    }
+
+    private static LdapConfig ldapConfig(DialectConfig dialect) {
+        if (dialect.ldap() == null) {
             throw new DatabaseException("Missing LDAP config for Oracle", ErrorType.CONFIG_NOT_FOUND);
         }
-        @SuppressWarnings("unchecked")
-        java.util.List<String> servers = (java.util.List<String>) ldapConfig.get("servers");
-        String context = (String) ldapConfig.get("context");
-        Object portObj = ldapConfig.get("port");
-        int port = (portObj instanceof Number number) ? number.intValue() : 389;
-        String service = config.getServiceName();
+        return dialect.ldap();
+    }
 
-        if (servers == null || servers.isEmpty() || context == null || service == null) {
+    /**
+     * @return the {@code ldap://} descriptor for each configured server, keyed by server and in configured order
+     */
+    private static Map<String, String> ldapServerDescriptors(ConnectionConfig config, LdapConfig ldapConfig) {
+        String service = config.getServiceName();
+        if (ldapConfig.servers().isEmpty() || ldapConfig.context() == null || service == null) {
             throw new DatabaseException("Incomplete LDAP configuration for Oracle", ErrorType.CONFIG_INVALID);
         }
 
-        StringBuilder hosts = new StringBuilder();
-        for (int i = 0; i < servers.size(); i++) {
-            if (i > 0) hosts.append(" ");
-            hosts.append(String.format("ldap://%s:%d/%s,%s", servers.get(i), port, service, context));
+        Map<String, String> descriptors = new LinkedHashMap<>();
+        for (String server : ldapConfig.servers()) {
+            descriptors.put(server, String.format("ldap://%s:%d/%s,%s", server, ldapConfig.port(), service, ldapConfig.context()));
         }
-        String url = String.format(urlTemplate, hosts.toString());
-        logger.debug("Built LDAP connection URL: {}", url);
-        return url;
+        return descriptors;
     }
 
     private Properties buildConnectionProperties(ConnectionConfig config) {
         Properties props = new Properties();
-        Map<String, Object> dbmsConfig = ConfigurationHolder.getInstance().getDatabaseConfig(config.getDbType());
-        
-        // Make connection-properties optional
-        try {
-            Map<String, Object> connProps = ConnectionConfig.getConfigMap(dbmsConfig, "properties");
-            if (connProps != null) {
-                logger.debug("Applying {} database-specific connection properties", connProps.size());
-                for (Map.Entry<String, Object> entry : connProps.entrySet()) {
-                    props.setProperty(entry.getKey(), entry.getValue().toString());
-                }
-            }
-        } catch (DatabaseException e) {
-            // Log as debug since this is optional
+        Map<String, String> connProps = ConfigurationHolder.getInstance().getDatabaseProperties(config.getDbType());
+        if (!connProps.isEmpty()) {
+            logger.debug("Applying {} database-specific connection properties", connProps.size());
+            props.putAll(connProps);
+        } else {
             logger.debug("No additional connection properties found for database type: {}", config.getDbType());
         }
+        props.putAll(config.getDriverProperties());
         
         // Always set these required properties
         props.setProperty("user", config.getUsername());
@@ -0,0 +1,224 @@
+package com.example.shelldemo.connection;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Set;
+
+import com.example.shelldemo.metrics.JdbcCallStats;
+import com.example.shelldemo.metrics.JdbcCallStats.StatementStats;
+
+/**
+ * Wraps a JDBC connection in proxies that time every call into the driver.
+ *
+ * <p>Statements created through the connection and result sets returned by them are wrapped as well, and each
+ * call is attributed to the SQL of its statement in {@link JdbcCallStats}. Calls that normally need a round
+ * trip to the database are counted separately: executing, committing, rolling back and every
+ * {@link ResultSet#next()} that crosses a fetch-size boundary. The boundary is derived from the fetch size the
+ * driver reports, so the count is an estimate for drivers that prefetch adaptively.</p>
+ */
+public final class JdbcInstrumentation {
+    private static final Set<String> EXECUTE_METHODS = Set.of(
+        "execute", "executeQuery", "executeUpdate", "executeLargeUpdate", "executeBatch", "executeLargeBatch");
+    private static final Set<String> CONNECTION_ROUND_TRIPS = Set.of(
+        "commit", "rollback", "setAutoCommit", "isValid", "setTransactionIsolation");
+
+    private JdbcInstrumentation() {
+        throw new AssertionError("Utility class - do not instantiate");
+    }
+
+    /**
+     * Returns an instrumented view of the connection; closing it closes the connection.
+     */
+    public static Connection wrap(Connection connection, JdbcCallStats stats) {
+        if (Proxy.isProxyClass(connection.getClass())
+                && Proxy.getInvocationHandler(connection) instanceof ConnectionHandler) {
+            return connection;
+        }
+        return proxy(Connection.class, new ConnectionHandler(connection, stats));
+    }
+
+    /**
+     * Base handler: forwards to the target and records the time spent in the driver.
+     */
+    private abstract static class TimingHandler implements InvocationHandler {
+        final Object target;
+        final JdbcCallStats stats;
+
+        TimingHandler(Object target, JdbcCallStats stats) {
+            this.target = target;
+            this.stats = stats;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Instrumented" + target;
+                case "unwrap":
+                    return ((Class<?>) args[0]).isInstance(proxy) ? proxy : method.invoke(target, args);
+                case "isWrapperFor":
+                    return ((Class<?>) args[0]).isInstance(proxy) || (Boolean) method.invoke(target, args);
+                default:
+                    break;
+            }
+            beforeCall(method, args);
+            long start = System.nanoTime();
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                afterCall(proxy, method, System.nanoTime() - start);
+                throw e.getCause();
+            }
+            afterCall(proxy, method, System.nanoTime() - start);
+            stats.countMethod(method.getDeclaringClass().getSimpleName() + "." + method.getName());
+            return wrapResult(proxy, method, result);
+        }
+
+        void beforeCall(Method method, Object[] args) {
+        }
+
+        abstract void afterCall(Object proxy, Method method, long nanos) throws SQLException;
+
+        Object wrapResult(Object proxy, Method method, Object result) {
+            return result;
+        }
+    }
+
+    private static final class ConnectionHandler extends TimingHandler {
+        private String preparedSql;
+
+        ConnectionHandler(Connection connection, JdbcCallStats stats) {
+            super(connection, stats);
+        }
+
+        @Override
+        void beforeCall(Method method, Object[] args) {
+            preparedSql = method.getName().startsWith("prepare") && args != null && args[0] instanceof String sql
+                ? sql : null;
+        }
+
+        @Override
+        void afterCall(Object proxy, Method method, long nanos) {
+            // Preparing is attributed to the statement being prepared, everything else to the connection
+            if (preparedSql != null) {
+                stats.statement(preparedSql).record(nanos, false);
+            } else {
+                stats.connection().record(nanos, CONNECTION_ROUND_TRIPS.contains(method.getName()));
+            }
+        }
+
+        @Override
+        Object wrapResult(Object proxy, Method method, Object result) {
+            if (!(result instanceof Statement statement)) {
+                return result;
+            }
+            StatementHandler handler = new StatementHandler(statement, stats, (Connection) proxy, preparedSql);
+            if (result instanceof CallableStatement) {
+                return proxy(CallableStatement.class, handler);
+            }
+            if (result instanceof PreparedStatement) {
+                return proxy(PreparedStatement.class, handler);
+            }
+            return proxy(Statement.class, handler);
+        }
+    }
+
+    private static final class StatementHandler extends TimingHandler {
+        private final Connection connection;
+        private volatile StatementStats current;
+
+        StatementHandler(Statement statement, JdbcCallStats stats, Connection connection, String preparedSql) {
+            super(statement, stats);
+            this.connection = connection;
+            this.current = stats.statement(preparedSql);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if ("getConnection".equals(method.getName())) {
+                return connection;
+            }
+            return super.invoke(proxy, method, args);
+        }
+
+        @Override
+        void beforeCall(Method method, Object[] args) {
+            // Plain statements get their SQL with each execute call
+            if (args != null && args.length > 0 && args[0] instanceof String sql
+                    && (EXECUTE_METHODS.contains(method.getName()) || "addBatch".equals(method.getName()))) {
+                current = stats.statement(sql);
+            }
+        }
+
+        @Override
+        void afterCall(Object proxy, Method method, long nanos) {
+            boolean execute = EXECUTE_METHODS.contains(method.getName());
+            if (execute) {
+                current.executed();
+            }
+            current.record(nanos, execute || "getMoreResults".equals(method.getName()));
+        }
+
+        @Override
+        Object wrapResult(Object proxy, Method method, Object result) {
+            if (result instanceof ResultSet resultSet) {
+                return JdbcInstrumentation.proxy(ResultSet.class,
+                    new ResultSetHandler(resultSet, stats, (Statement) proxy, current));
+            }
+            return result;
+        }
+    }
+
+    private static final class ResultSetHandler extends TimingHandler {
+        private final Statement statement;
+        private final StatementStats owner;
+        private long rowsRead;
+        private int fetchSize = -1;
+
+        ResultSetHandler(ResultSet resultSet, JdbcCallStats stats, Statement statement, StatementStats owner) {
+            super(resultSet, stats);
+            this.statement = statement;
+            this.owner = owner;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if ("getStatement".equals(method.getName())) {
+                return statement;
+            }
+            return super.invoke(proxy, method, args);
+        }
+
+        @Override
+        void afterCall(Object proxy, Method method, long nanos) throws SQLException {
+            boolean roundTrip = false;
+            if ("next".equals(method.getName())) {
+                if (fetchSize < 0) {
+                    fetchSize = ((ResultSet) target).getFetchSize();
+                }
+                // The first row of every fetch-size block needs another fetch from the server
+                roundTrip = fetchSize > 0 ? rowsRead % fetchSize == 0 : rowsRead == 0;
+                rowsRead++;
+            }
+            owner.record(nanos, roundTrip);
+        }
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(JdbcInstrumentation.class.getClassLoader(),
+            new Class<?>[] {type}, handler));
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.shelldemo.connection;
+
+import java.util.Hashtable;
+import java.util.List;
+import java.util.Map;
+
+import javax.naming.Context;
+import javax.naming.NamingException;
+import javax.naming.directory.Attribute;
+import javax.naming.directory.Attributes;
+import javax.naming.directory.DirContext;
+import javax.naming.directory.InitialDirContext;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Looks up the {@code orclNetDescString} of a service entry in an Oracle Internet Directory,
+ * trying the servers in the given order until one answers.
+ */
+public class LdapDescriptorResolver {
+    private static final Logger logger = LogManager.getLogger(LdapDescriptorResolver.class);
+    private static final String DESCRIPTOR_ATTRIBUTE = "orclNetDescString";
+
+    private final Map<String, String> environment;
+
+    /**
+     * @param environment JNDI environment ({@code java.naming.*} settings) used for every lookup
+     */
+    public LdapDescriptorResolver(Map<String, String> environment) {
+        this.environment = environment;
+    }
+
+    /**
+     * @return the connect descriptor of {@code cn=<service>,<context>}
+     * @throws NamingException the last lookup failure if no server returned a descriptor
+     */
+    public String resolve(List<String> servers, int port, String service, String context) throws NamingException {
+        NamingException failure = new NamingException("No directory servers configured");
+        for (String server : servers) {
+            try {
+                return lookup(server, port, service, context);
+            } catch (NamingException e) {
+                logger.warn("Descriptor lookup for {} through {} failed: {}", service, server, e.getMessage());
+                failure = e;
+            }
+        }
+        throw failure;
+    }
+
+    protected String lookup(String server, int port, String service, String context) throws NamingException {
+        Hashtable<String, String> env = new Hashtable<>(environment);
+        env.putIfAbsent(Context.INITIAL_CONTEXT_FACTORY, "com.sun.jndi.ldap.LdapCtxFactory");
+        // Keep an unreachable server from stalling the lookup for the OS connect timeout
+        env.putIfAbsent("com.sun.jndi.ldap.connect.timeout", "3000");
+        env.put(Context.PROVIDER_URL, String.format("ldap://%s:%d", server, port));
+
+        DirContext ctx = new InitialDirContext(env);
+        try {
+            Attributes attributes = ctx.getAttributes("cn=" + service + "," + context, new String[] {DESCRIPTOR_ATTRIBUTE});
+            Attribute descriptor = attributes.get(DESCRIPTOR_ATTRIBUTE);
+            if (descriptor == null || descriptor.get() == null) {
+                throw new NamingException("No " + DESCRIPTOR_ATTRIBUTE + " for service " + service);
+            }
+            logger.debug("Resolved {} through {}", service, server);
+            return descriptor.get().toString();
+        } finally {
+            ctx.close();
+        }
+    }
+}
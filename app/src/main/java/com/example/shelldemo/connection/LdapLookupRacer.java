@@ -0,0 +1,193 @@
+package com.example.shelldemo.connection;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import javax.naming.AuthenticationException;
+import javax.naming.NameNotFoundException;
+import javax.naming.NamingException;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Looks up a connect descriptor through whichever directory server answers first.
+ *
+ * <p>Each server gets its own lookup. Lookups start in health order, the next one after
+ * {@code stagger} or as soon as the previous lookup fails, so a slow or dead server costs at
+ * most one stagger interval. The first descriptor wins. Only the directory lookup is raced; the
+ * caller logs in to the database once with the winning descriptor, so a wrong database password
+ * costs one failed login instead of one per server.</p>
+ *
+ * <p>Every outcome is recorded in the {@link ServerHealthCache}, except answers every server would
+ * give alike: rejected directory credentials and a service name without an entry. They end the
+ * race at once and say nothing about the health of the server that reported them.</p>
+ *
+ * <p>Instances must be created via {@link #builder()}.</p>
+ */
+public final class LdapLookupRacer {
+    private static final Logger logger = LogManager.getLogger(LdapLookupRacer.class);
+
+    private final Duration stagger;
+    private final Duration timeout;
+    private final ServerHealthCache health;
+
+    private LdapLookupRacer(Builder builder) {
+        this.stagger = builder.stagger;
+        this.timeout = builder.timeout;
+        this.health = builder.health;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Looks up the connect descriptor through one directory server.
+     */
+    @FunctionalInterface
+    public interface Lookup {
+        String lookup(String server) throws NamingException;
+    }
+
+    /**
+     * Races lookups across the servers and returns the first descriptor found.
+     *
+     * @param servers directory servers in configured order
+     * @param lookup looks up the descriptor through one server
+     * @return the winning connect descriptor
+     * @throws NamingException the first failure, with the others suppressed, if no server answers;
+     *         or the authentication failure or missing entry that ended the race
+     */
+    public String lookup(List<String> servers, Lookup lookup) throws NamingException {
+        if (servers.isEmpty()) {
+            throw new NamingException("No directory servers configured");
+        }
+        List<String> ordered = health.prioritize(servers, server -> server);
+        logger.debug("Racing descriptor lookup across directory servers {}", ordered);
+
+        BlockingQueue<Attempt> outcomes = new LinkedBlockingQueue<>();
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        long deadline = System.nanoTime() + timeout.toNanos();
+        NamingException failure = null;
+        int started = 0;
+        int finished = 0;
+        try {
+            start(executor, ordered.get(started++), lookup, outcomes);
+            while (finished < started) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    break;
+                }
+                long wait = started < ordered.size() ? Math.min(stagger.toNanos(), remaining) : remaining;
+                Attempt attempt = outcomes.poll(wait, TimeUnit.NANOSECONDS);
+                if (attempt == null) {
+                    // The running lookups are slow; give the next server a chance alongside them
+                    if (started < ordered.size()) {
+                        start(executor, ordered.get(started++), lookup, outcomes);
+                    }
+                    continue;
+                }
+                finished++;
+                if (attempt.descriptor() != null) {
+                    logger.info("Resolved connect descriptor through directory server {} in {} ms",
+                        attempt.server(), attempt.elapsed().toMillis());
+                    return attempt.descriptor();
+                }
+                if (isTerminal(attempt.error())) {
+                    throw attempt.error();
+                }
+                if (failure == null) {
+                    failure = attempt.error();
+                } else {
+                    failure.addSuppressed(attempt.error());
+                }
+                if (started < ordered.size()) {
+                    start(executor, ordered.get(started++), lookup, outcomes);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            NamingException interrupted = new NamingException("Interrupted while querying directory servers");
+            interrupted.setRootCause(e);
+            throw interrupted;
+        } finally {
+            // Lookups still running hold no resources worth waiting for
+            executor.shutdownNow();
+        }
+        if (failure == null || finished < started) {
+            NamingException timedOut = new NamingException(
+                String.format("No directory server answered within %d ms", timeout.toMillis()));
+            if (failure != null) {
+                timedOut.addSuppressed(failure);
+            }
+            throw timedOut;
+        }
+        throw failure;
+    }
+
+    private void start(ExecutorService executor, String server, Lookup lookup, BlockingQueue<Attempt> outcomes) {
+        logger.debug("Starting descriptor lookup through {}", server);
+        executor.execute(() -> {
+            long startNanos = System.nanoTime();
+            try {
+                String descriptor = lookup.lookup(server);
+                Duration elapsed = Duration.ofNanos(System.nanoTime() - startNanos);
+                health.recordSuccess(server, elapsed);
+                outcomes.add(new Attempt(server, descriptor, null, elapsed));
+            } catch (AuthenticationException | NameNotFoundException e) {
+                logger.warn("Directory server {} answered the lookup with an error: {}", server, e.getMessage());
+                outcomes.add(new Attempt(server, null, e, Duration.ofNanos(System.nanoTime() - startNanos)));
+            } catch (NamingException e) {
+                logger.warn("Descriptor lookup through directory server {} failed: {}", server, e.getMessage());
+                health.recordFailure(server);
+                outcomes.add(new Attempt(server, null, e, Duration.ofNanos(System.nanoTime() - startNanos)));
+            } catch (RuntimeException e) {
+                health.recordFailure(server);
+                NamingException wrapped = new NamingException("Descriptor lookup through " + server + " failed");
+                wrapped.setRootCause(e);
+                outcomes.add(new Attempt(server, null, wrapped, Duration.ofNanos(System.nanoTime() - startNanos)));
+            }
+        });
+    }
+
+    /**
+     * Whether every server would answer the same, so that asking the others is pointless.
+     */
+    private static boolean isTerminal(NamingException e) {
+        return e instanceof AuthenticationException || e instanceof NameNotFoundException;
+    }
+
+    private record Attempt(String server, String descriptor, NamingException error, Duration elapsed) {}
+
+    /**
+     * Builder for {@link LdapLookupRacer}.
+     */
+    public static class Builder {
+        private Duration stagger = Duration.ofMillis(250);
+        private Duration timeout = Duration.ofSeconds(30);
+        private ServerHealthCache health;
+
+        public Builder stagger(Duration stagger) { this.stagger = stagger; return this; }
+        public Builder timeout(Duration timeout) { this.timeout = timeout; return this; }
+        public Builder health(ServerHealthCache health) { this.health = health; return this; }
+
+        public LdapLookupRacer build() {
+            if (stagger == null || stagger.isNegative()) {
+                throw new IllegalArgumentException("Stagger must not be negative");
+            }
+            if (timeout == null || timeout.isNegative() || timeout.isZero()) {
+                throw new IllegalArgumentException("Timeout must be positive");
+            }
+            if (health == null) {
+                health = new ServerHealthCache(Duration.ofMinutes(5));
+            }
+            return new LdapLookupRacer(this);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.shelldemo.connection;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Remembers recent connect outcomes per directory server so that racing connectors try
+ * healthy servers first.
+ *
+ * <p>A server that failed within the last {@code failureTtl} is sorted behind every server
+ * without a recent failure. Servers that connected successfully come first, fastest first, and
+ * servers without history keep their configured order.</p>
+ */
+public final class ServerHealthCache {
+    private final Map<String, Health> health = new ConcurrentHashMap<>();
+    private final Duration failureTtl;
+    private final Clock clock;
+
+    public ServerHealthCache(Duration failureTtl) {
+        this(failureTtl, Clock.systemUTC());
+    }
+
+    ServerHealthCache(Duration failureTtl, Clock clock) {
+        this.failureTtl = failureTtl;
+        this.clock = clock;
+    }
+
+    public void recordSuccess(String server, Duration latency) {
+        health.put(server, new Health(0, 0L, latency.toMillis()));
+    }
+
+    public void recordFailure(String server) {
+        long now = clock.millis();
+        health.merge(server, new Health(1, now, -1L),
+            (old, ignored) -> new Health(old.failures() + 1, now, old.latencyMillis()));
+    }
+
+    /**
+     * @return consecutive failures of the server since its last successful connect
+     */
+    public int failures(String server) {
+        Health entry = health.get(server);
+        return entry != null ? entry.failures() : 0;
+    }
+
+    public boolean isSuspect(String server) {
+        Health entry = health.get(server);
+        return entry != null && entry.failures() > 0
+            && clock.millis() - entry.lastFailureMillis() < failureTtl.toMillis();
+    }
+
+    /**
+     * Returns the servers in the order they should be tried.
+     */
+    public <T> List<T> prioritize(List<T> servers, Function<T, String> name) {
+        List<T> ordered = new ArrayList<>(servers);
+        // List.sort is stable, so servers with equal rank keep their configured order
+        ordered.sort(Comparator.<T>comparingInt(s -> isSuspect(name.apply(s)) ? 1 : 0)
+            .thenComparingLong(s -> knownLatency(name.apply(s))));
+        return ordered;
+    }
+
+    public void clear() {
+        health.clear();
+    }
+
+    private long knownLatency(String server) {
+        Health entry = health.get(server);
+        return entry != null && entry.failures() == 0 ? entry.latencyMillis() : Long.MAX_VALUE;
+    }
+
+    private record Health(int failures, long lastFailureMillis, long latencyMillis) {}
+}
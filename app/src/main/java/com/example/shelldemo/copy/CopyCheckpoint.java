@@ -0,0 +1,112 @@
+package com.example.shelldemo.copy;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import com.example.shelldemo.partition.KeyRange;
+
+/**
+ * Range plan and completed ranges of a table copy, persisted as JSON so an interrupted copy
+ * can resume. The file is rewritten atomically after every completed range.
+ */
+final class CopyCheckpoint {
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private final Path file;
+    private final State state;
+
+    /**
+     * Serialized form of the checkpoint.
+     *
+     * @param table source table
+     * @param targetTable target table
+     * @param splitColumn partition column
+     * @param ranges the range plan
+     * @param completed indexes of ranges that were copied and committed
+     */
+    record State(String table, String targetTable, String splitColumn, List<KeyRange> ranges, Set<Integer> completed) {
+    }
+
+    private CopyCheckpoint(Path file, State state) {
+        this.file = file;
+        this.state = state;
+    }
+
+    /**
+     * Loads an existing checkpoint, or returns null if there is none.
+     */
+    static CopyCheckpoint load(Path file) throws IOException {
+        if (file == null || !Files.exists(file)) {
+            return null;
+        }
+        State state = MAPPER.readValue(file.toFile(), State.class);
+        return new CopyCheckpoint(file, new State(state.table(), state.targetTable(), state.splitColumn(),
+            state.ranges(), new TreeSet<>(state.completed())));
+    }
+
+    /**
+     * Creates and writes a new checkpoint for a range plan. A null file keeps the checkpoint in memory only.
+     */
+    static CopyCheckpoint create(Path file, String table, String targetTable, String splitColumn, List<KeyRange> ranges)
+            throws IOException {
+        CopyCheckpoint checkpoint = new CopyCheckpoint(file,
+            new State(table, targetTable, splitColumn, ranges, new TreeSet<>()));
+        checkpoint.save();
+        return checkpoint;
+    }
+
+    /**
+     * Whether the checkpoint was written by a copy of the same table into the same target, split on the same
+     * column. Checkpoints without a target table or split column predate these checks and never match.
+     */
+    boolean matches(String table, String targetTable, String splitColumn) {
+        return state.table().equalsIgnoreCase(table)
+            && targetTable.equalsIgnoreCase(state.targetTable())
+            && splitColumn.equalsIgnoreCase(state.splitColumn());
+    }
+
+    List<KeyRange> ranges() {
+        return state.ranges();
+    }
+
+    synchronized boolean isCompleted(KeyRange range) {
+        return state.completed().contains(range.index());
+    }
+
+    synchronized void markCompleted(KeyRange range) throws IOException {
+        state.completed().add(range.index());
+        save();
+    }
+
+    /**
+     * Removes the checkpoint file after a successful copy.
+     */
+    void delete() throws IOException {
+        if (file != null) {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private void save() throws IOException {
+        if (file == null) {
+            return;
+        }
+        Path parent = file.toAbsolutePath().getParent();
+        Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+        try {
+            MAPPER.writeValue(temp.toFile(), state);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+}
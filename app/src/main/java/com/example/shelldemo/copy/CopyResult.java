@@ -0,0 +1,27 @@
+package com.example.shelldemo.copy;
+
+import java.time.Duration;
+
+/**
+ * Outcome of a table copy.
+ *
+ * @param table source table
+ * @param rows rows copied by this run
+ * @param ranges ranges in the plan
+ * @param skippedRanges ranges already completed by an earlier, interrupted run
+ * @param parallelism number of range workers
+ * @param elapsed wall-clock time of this run
+ */
+public record CopyResult(String table, long rows, int ranges, int skippedRanges, int parallelism, Duration elapsed) {
+
+    public double rowsPerSecond() {
+        long nanos = elapsed.toNanos();
+        return nanos == 0 ? rows : rows * 1_000_000_000d / nanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Copied %d rows of %s in %d ms (%.0f rows/sec, %d ranges, %d resumed, %d workers)",
+            rows, table, elapsed.toMillis(), rowsPerSecond(), ranges, skippedRanges, parallelism);
+    }
+}
@@ -0,0 +1,420 @@
+package com.example.shelldemo.copy;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.example.shelldemo.connection.ConnectionProvider;
+import com.example.shelldemo.exception.DatabaseException;
+import com.example.shelldemo.exception.DatabaseException.ErrorType;
+import com.example.shelldemo.load.BulkWriter;
+import com.example.shelldemo.load.BulkWriters;
+import com.example.shelldemo.partition.KeyRange;
+import com.example.shelldemo.partition.KeyRangeSplitter;
+import com.example.shelldemo.partition.PhysicalRangeSplitter;
+import com.example.shelldemo.partition.RangeSplitter;
+
+/**
+ * Copies a table from one database to another.
+ *
+ * <p>The source is split into key ranges of {@code splitColumn}, or into physical ROWID/ctid ranges when no
+ * split column is given. {@code parallelism} range workers each own a source and a target connection. For every
+ * range a reader streams rows in batches through a bounded queue to the worker, which writes them with a
+ * {@link BulkWriter} and commits once the range is done.</p>
+ *
+ * <p>With a checkpoint file the range plan and completed ranges are persisted, so an interrupted copy
+ * resumes with the remaining ranges. On resume every remaining range is deleted from the target before it is
+ * copied again, which removes rows of a range that was committed but not yet recorded as completed, and batches
+ * that a writer committing after every write left behind. A checkpoint therefore needs a split column: physical
+ * ROWID/ctid ranges differ between runs and do not exist on the target.</p>
+ *
+ * <p>Instances must be created via {@link #builder()}.</p>
+ */
+public final class TableCopier {
+    private static final Logger logger = LogManager.getLogger(TableCopier.class);
+    private static final List<Object[]> END_OF_RANGE = List.of();
+
+    private final ConnectionProvider source;
+    private final String sourceDbType;
+    private final ConnectionProvider target;
+    private final String table;
+    private final String targetTable;
+    private final List<String> columns;
+    private final String splitColumn;
+    private final int parallelism;
+    private final int ranges;
+    private final int batchSize;
+    private final int queueCapacity;
+    private final Path checkpointFile;
+    private final BulkWriter writer;
+
+    private TableCopier(Builder builder) {
+        this.source = builder.source;
+        this.sourceDbType = builder.sourceDbType;
+        this.target = builder.target;
+        this.table = builder.table;
+        this.targetTable = builder.targetTable;
+        this.columns = builder.columns;
+        this.splitColumn = builder.splitColumn;
+        this.parallelism = builder.parallelism;
+        this.ranges = builder.ranges;
+        this.batchSize = builder.batchSize;
+        this.queueCapacity = builder.queueCapacity;
+        this.checkpointFile = builder.checkpointFile;
+        this.writer = builder.writer;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Copies all ranges that are not yet completed.
+     *
+     * @return row count and throughput of this run
+     * @throws DatabaseException if reading, writing or checkpointing fails
+     */
+    public CopyResult copy() {
+        long startNanos = System.nanoTime();
+        RangeSplitter splitter = splitColumn != null
+            ? new KeyRangeSplitter(table, splitColumn, ranges)
+            : new PhysicalRangeSplitter(sourceDbType, table);
+
+        try {
+            List<String> copyColumns = resolveColumns();
+            CopyCheckpoint checkpoint = CopyCheckpoint.load(checkpointFile);
+            boolean resumed = checkpoint != null;
+            if (resumed && !checkpoint.matches(table, targetTable, splitColumn)) {
+                throw new DatabaseException("Checkpoint " + checkpointFile + " belongs to a different copy",
+                    ErrorType.OP_COPY);
+            }
+            if (!resumed) {
+                try (Connection conn = source.getConnection()) {
+                    checkpoint = CopyCheckpoint.create(checkpointFile, table, targetTable, splitColumn, splitter.split(conn));
+                }
+            }
+
+            List<KeyRange> plan = checkpoint.ranges();
+            Queue<KeyRange> pending = new ConcurrentLinkedQueue<>();
+            for (KeyRange range : plan) {
+                if (!checkpoint.isCompleted(range)) {
+                    pending.add(range);
+                }
+            }
+            int skipped = plan.size() - pending.size();
+            logger.info("Copying {} to {}: {} of {} ranges pending with {} workers",
+                table, targetTable, pending.size(), plan.size(), parallelism);
+
+            long rows = copyRanges(pending, splitter, copyColumns, checkpoint, resumed);
+            checkpoint.delete();
+
+            CopyResult result = new CopyResult(table, rows, plan.size(), skipped, parallelism,
+                Duration.ofNanos(System.nanoTime() - startNanos));
+            logger.info("{}", result);
+            return result;
+        } catch (IOException e) {
+            throw new DatabaseException("Failed to access copy checkpoint: " + checkpointFile, e, ErrorType.OP_COPY);
+        } catch (SQLException e) {
+            throw new DatabaseException("Failed to copy " + table + " to " + targetTable, e, ErrorType.OP_COPY);
+        }
+    }
+
+    private List<String> resolveColumns() throws SQLException {
+        if (columns != null && !columns.isEmpty()) {
+            return columns;
+        }
+        List<String> found = new ArrayList<>();
+        try (Connection conn = source.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT * FROM " + table + " WHERE 1 = 0")) {
+            ResultSetMetaData metaData = rs.getMetaData();
+            for (int i = 1; i <= metaData.getColumnCount(); i++) {
+                found.add(metaData.getColumnName(i));
+            }
+        }
+        return found;
+    }
+
+    private long copyRanges(Queue<KeyRange> pending, RangeSplitter splitter, List<String> copyColumns,
+                            CopyCheckpoint checkpoint, boolean resumed) throws SQLException {
+        LongAdder rows = new LongAdder();
+        AtomicBoolean failed = new AtomicBoolean();
+        int workers = Math.max(1, Math.min(parallelism, pending.size()));
+        ExecutorService executor = Executors.newFixedThreadPool(workers);
+        ExecutorService readers = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            List<Future<Void>> futures = new ArrayList<>();
+            for (int i = 0; i < workers; i++) {
+                futures.add(executor.submit(() -> {
+                    try {
+                        runWorker(pending, splitter, copyColumns, checkpoint, resumed, readers, rows, failed);
+                    } catch (Exception e) {
+                        failed.set(true);
+                        throw e;
+                    }
+                    return null;
+                }));
+            }
+            awaitAll(futures);
+        } finally {
+            executor.shutdownNow();
+            readers.shutdownNow();
+        }
+        return rows.sum();
+    }
+
+    private void runWorker(Queue<KeyRange> pending, RangeSplitter splitter, List<String> copyColumns,
+                           CopyCheckpoint checkpoint, boolean resumed, ExecutorService readers,
+                           LongAdder rows, AtomicBoolean failed) throws Exception {
+        String selectSql = String.format("SELECT %s FROM %s WHERE ", String.join(", ", copyColumns), table);
+        BulkWriter.LoadTarget loadTarget = new BulkWriter.LoadTarget(targetTable, copyColumns);
+
+        try (Connection sourceConn = source.getConnection();
+             Connection targetConn = target.getConnection()) {
+            targetConn.setAutoCommit(false);
+            try (BulkWriter.Sink sink = writer.open(targetConn, loadTarget)) {
+                KeyRange range;
+                while (!failed.get() && (range = pending.poll()) != null) {
+                    if (resumed) {
+                        clearRange(targetConn, splitter, range);
+                    }
+                    long copied = copyRange(sourceConn, selectSql + splitter.predicate(range), range,
+                        targetConn, sink, readers, failed);
+                    // A failure before the range is marked leaves it pending, and a resume clears it again
+                    targetConn.commit();
+                    checkpoint.markCompleted(range);
+                    rows.add(copied);
+                    logger.debug("Copied range {} of {} ({} rows)", range, table, copied);
+                }
+            } catch (Exception e) {
+                rollbackQuietly(targetConn);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Streams one range from the source through a bounded queue into the sink.
+     */
+    private long copyRange(Connection sourceConn, String sql, KeyRange range, Connection targetConn,
+                           BulkWriter.Sink sink, ExecutorService readers, AtomicBoolean failed) throws Exception {
+        BlockingQueue<List<Object[]>> queue = new ArrayBlockingQueue<>(queueCapacity);
+        AtomicBoolean cancelled = new AtomicBoolean();
+        Future<Long> reader = readers.submit(() -> readRange(sourceConn, sql, range, queue, cancelled));
+
+        long written = 0;
+        try {
+            while (true) {
+                List<Object[]> batch = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (batch == null) {
+                    if (reader.isDone() && queue.isEmpty()) {
+                        reader.get(); // surfaces the reader's failure
+                        break;
+                    }
+                    if (failed.get()) {
+                        throw new DatabaseException("Copy of " + table + " aborted by another worker", ErrorType.OP_COPY);
+                    }
+                    continue;
+                }
+                if (batch == END_OF_RANGE) {
+                    reader.get(); // the source connection is reused for the next range
+                    break;
+                }
+                sink.write(batch);
+                written += batch.size();
+                if (sink.requiresCommitAfterWrite()) {
+                    targetConn.commit();
+                }
+            }
+            return written;
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        } finally {
+            cancelled.set(true);
+        }
+    }
+
+    private long readRange(Connection sourceConn, String sql, KeyRange range,
+                           BlockingQueue<List<Object[]>> queue, AtomicBoolean cancelled) throws Exception {
+        long read = 0;
+        try (PreparedStatement stmt = sourceConn.prepareStatement(sql)) {
+            stmt.setFetchSize(batchSize);
+            range.bind(stmt, 1);
+            try (ResultSet rs = stmt.executeQuery()) {
+                int columnCount = rs.getMetaData().getColumnCount();
+                List<Object[]> batch = new ArrayList<>(batchSize);
+                while (rs.next()) {
+                    Object[] row = new Object[columnCount];
+                    for (int i = 0; i < columnCount; i++) {
+                        row[i] = rs.getObject(i + 1);
+                    }
+                    batch.add(row);
+                    if (batch.size() >= batchSize) {
+                        if (!offer(queue, batch, cancelled)) {
+                            return read;
+                        }
+                        read += batch.size();
+                        batch = new ArrayList<>(batchSize);
+                    }
+                }
+                if (!batch.isEmpty() && offer(queue, batch, cancelled)) {
+                    read += batch.size();
+                }
+                offer(queue, END_OF_RANGE, cancelled);
+            }
+        }
+        return read;
+    }
+
+    private static boolean offer(BlockingQueue<List<Object[]>> queue, List<Object[]> batch, AtomicBoolean cancelled)
+            throws InterruptedException {
+        while (!cancelled.get()) {
+            if (queue.offer(batch, 100, TimeUnit.MILLISECONDS)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void clearRange(Connection targetConn, RangeSplitter splitter, KeyRange range) throws SQLException {
+        String sql = "DELETE FROM " + targetTable + " WHERE " + splitter.predicate(range);
+        try (PreparedStatement stmt = targetConn.prepareStatement(sql)) {
+            range.bind(stmt, 1);
+            int deleted = stmt.executeUpdate();
+            if (deleted > 0) {
+                logger.info("Removed {} rows of partially copied range {} from {}", deleted, range, targetTable);
+            }
+        }
+    }
+
+    private void awaitAll(List<Future<Void>> futures) throws SQLException {
+        Throwable failure = null;
+        for (Future<Void> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new DatabaseException("Table copy interrupted", e, ErrorType.OP_COPY);
+            } catch (ExecutionException e) {
+                if (failure == null) {
+                    failure = e.getCause();
+                }
+            }
+        }
+        if (failure instanceof SQLException sqlException) {
+            throw sqlException;
+        }
+        if (failure instanceof DatabaseException databaseException) {
+            throw databaseException;
+        }
+        if (failure != null) {
+            throw new DatabaseException("Copy of " + table + " failed", failure, ErrorType.OP_COPY);
+        }
+    }
+
+    private static void rollbackQuietly(Connection conn) {
+        try {
+            conn.rollback();
+        } catch (SQLException e) {
+            logger.warn("Failed to roll back uncommitted copy range", e);
+        }
+    }
+
+    /**
+     * Builder for {@link TableCopier}.
+     */
+    public static class Builder {
+        private ConnectionProvider source;
+        private String sourceDbType;
+        private ConnectionProvider target;
+        private String targetDbType;
+        private String table;
+        private String targetTable;
+        private List<String> columns;
+        private String splitColumn;
+        private int parallelism = 4;
+        private int ranges;
+        private int batchSize = 1000;
+        private int queueCapacity = 4;
+        private Path checkpointFile;
+        private BulkWriter writer;
+
+        public Builder source(ConnectionProvider source) { this.source = source; return this; }
+        public Builder sourceDbType(String sourceDbType) { this.sourceDbType = sourceDbType; return this; }
+        public Builder target(ConnectionProvider target) { this.target = target; return this; }
+        public Builder targetDbType(String targetDbType) { this.targetDbType = targetDbType; return this; }
+        public Builder table(String table) { this.table = table; return this; }
+        public Builder targetTable(String targetTable) { this.targetTable = targetTable; return this; }
+        public Builder columns(List<String> columns) { this.columns = columns; return this; }
+        public Builder splitColumn(String splitColumn) { this.splitColumn = splitColumn; return this; }
+        public Builder parallelism(int parallelism) { this.parallelism = parallelism; return this; }
+        public Builder ranges(int ranges) { this.ranges = ranges; return this; }
+        public Builder batchSize(int batchSize) { this.batchSize = batchSize; return this; }
+        public Builder queueCapacity(int queueCapacity) { this.queueCapacity = queueCapacity; return this; }
+        public Builder checkpointFile(Path checkpointFile) { this.checkpointFile = checkpointFile; return this; }
+        public Builder writer(BulkWriter writer) { this.writer = writer; return this; }
+
+        public TableCopier build() {
+            if (source == null || target == null) {
+                throw new IllegalArgumentException("Source and target connection providers must be specified");
+            }
+            if (sourceDbType == null || targetDbType == null) {
+                throw new IllegalArgumentException("Source and target database types must be specified");
+            }
+            if (table == null || table.isBlank()) {
+                throw new IllegalArgumentException("Source table must be specified");
+            }
+            if (parallelism < 1 || batchSize < 1 || queueCapacity < 1) {
+                throw new IllegalArgumentException("Parallelism, batch size and queue capacity must be positive");
+            }
+            if (ranges < 0) {
+                throw new IllegalArgumentException("Range count must not be negative");
+            }
+            sourceDbType = sourceDbType.toLowerCase();
+            targetDbType = targetDbType.toLowerCase();
+            if (targetTable == null || targetTable.isBlank()) {
+                targetTable = table;
+            }
+            if (splitColumn != null && splitColumn.isBlank()) {
+                splitColumn = null;
+            }
+            if (checkpointFile != null && splitColumn == null) {
+                throw new IllegalArgumentException(
+                    "A checkpoint requires a split column; physical ROWID/ctid ranges cannot be resumed");
+            }
+            if (ranges == 0) {
+                ranges = parallelism * 4;
+            }
+            if (writer == null) {
+                writer = BulkWriters.forDialect(targetDbType);
+            }
+            if (writer.requiresSingleWriter() && parallelism > 1) {
+                throw new IllegalArgumentException(String.format(
+                    "Bulk writer %s locks the table and cannot run with %d parallel workers", writer.name(), parallelism));
+            }
+            return new TableCopier(this);
+        }
+    }
+}
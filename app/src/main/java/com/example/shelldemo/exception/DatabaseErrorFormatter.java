@@ -2,41 +2,14 @@
 package com.example.shelldemo.exception;
 
 import java.sql.SQLException;
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.stream.Collectors;
 
 import com.example.shelldemo.config.ConfigurationHolder;
 
 public class DatabaseErrorFormatter {
     private final String dbType;
-    private final Map<String, Map<Integer, DatabaseException.ErrorType>> vendorErrorMappings;
 
     public DatabaseErrorFormatter(String dbType) {
         this.dbType = dbType.toLowerCase();
-        this.vendorErrorMappings = loadVendorMappings();
-    }
-
-    @SuppressWarnings("unchecked")
-    private Map<String, Map<Integer, DatabaseException.ErrorType>> loadVendorMappings() {
-        Map<String, Object> config = ConfigurationHolder.getInstance().getDatabaseConfig(dbType);
-        Map<String, Object> errorMappings = (Map<String, Object>) config.get("error-mappings");
-        
-        if (errorMappings == null) {
-            return Collections.emptyMap();
-        }
-
-        Map<String, Map<Integer, DatabaseException.ErrorType>> mappings = new HashMap<>();
-        errorMappings.forEach((vendor, codes) -> {
-            Map<Integer, String> vendorCodes = (Map<Integer, String>) codes;
-            mappings.put(vendor, vendorCodes.entrySet().stream()
-                .collect(Collectors.toMap(
-                    Map.Entry::getKey,
-                    e -> DatabaseException.ErrorType.valueOf(e.getValue())
-                )));
-        });
-        return mappings;
     }
 
     public DatabaseException format(SQLException e) {
@@ -75,9 +48,9 @@ public class DatabaseErrorFormatter {
     }
 
     private DatabaseException.ErrorType handleVendorSpecific(SQLException e) {
-        return vendorErrorMappings
-            .getOrDefault(dbType, Collections.emptyMap())
-            .getOrDefault(e.getErrorCode(), DatabaseException.ErrorType.UNKNOWN);
+        // Mappings are compiled with the configuration, so nothing is built until an error needs them
+        return ConfigurationHolder.getInstance().getDialect(dbType).errors()
+            .forCode(Integer.toString(e.getErrorCode()), DatabaseException.ErrorType.UNKNOWN);
     }
 
     private String determineContext(SQLException e) {
@@ -1,19 +1,14 @@
 package com.example.shelldemo.exception;
 
 import java.sql.SQLException;
-import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-import org.apache.logging.log4j.LogManager;
-import org.apache.logging.log4j.Logger;
 import com.example.shelldemo.config.ConfigurationHolder;
+import com.example.shelldemo.config.ErrorMappings;
 
 /**
  * Base exception class for all database-related exceptions.
  * Provides common logging and context handling functionality.
  */
 public class DatabaseException extends RuntimeException {
-    private static final Logger logger = LogManager.getLogger(DatabaseException.class);
 
     public enum ErrorType {
         // Configuration errors
@@ -29,6 +24,8 @@ public class DatabaseException extends RuntimeException {
         OP_TRANSACTION("OP_001", "Transaction failed"),
         OP_QUERY("OP_002", "Query execution failed"),
         OP_PROCEDURE("OP_003", "Stored procedure execution failed"),
+        OP_LOAD("OP_004", "Bulk load failed"),
+        OP_COPY("OP_005", "Table copy failed"),
         
         // Parser errors
         PARSE_SQL("PARSE_001", "SQL parsing failed"),
@@ -121,38 +118,14 @@ public class DatabaseException extends RuntimeException {
     }
 
     private static ErrorType determineErrorType(SQLException e, String dbType) {
-        Map<String, Object> dbmsConfig = ConfigurationHolder.getInstance().getDatabaseConfig(dbType);
-        Object mappings = dbmsConfig.get("error-mappings");
-        
-        if (mappings instanceof Map<?,?> errorMappings) {
-            String errorCode = extractErrorCode(e, dbType);
-            if (errorCode != null && errorMappings.containsKey(errorCode)) {
-                Object errorTypeObj = errorMappings.get(errorCode);
-                if (errorTypeObj instanceof String errorType) {
-                    try {
-                        return ErrorType.valueOf(errorType);
-                    } catch (IllegalArgumentException ex) {
-                        logger.warn("Invalid error type mapping: {}", errorType);
-                    }
-                }
-            }
-        }
-        
-        return ErrorType.CONN_FAILED;
+        return errorMappings(dbType).classify(e.getMessage(), ErrorType.CONN_FAILED);
     }
 
     private static String extractErrorCode(SQLException e, String dbType) {
-        if (e.getMessage() == null) return null;
-        
-        Map<String, Object> dbmsConfig = ConfigurationHolder.getInstance().getDatabaseConfig(dbType);
-        String errorPattern = (String) dbmsConfig.get("error-code-pattern");
-        
-        if (errorPattern != null) {
-            Pattern pattern = Pattern.compile(errorPattern);
-            Matcher matcher = pattern.matcher(e.getMessage());
-            return matcher.find() ? matcher.group(1) : null;
-        }
-        
-        return null;
+        return errorMappings(dbType).extractCode(e.getMessage());
+    }
+
+    private static ErrorMappings errorMappings(String dbType) {
+        return ConfigurationHolder.getInstance().getDialect(dbType).errors();
     }
 } 
\ No newline at end of file
@@ -0,0 +1,27 @@
+package com.example.shelldemo.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Sending a JDBC batch to the database.
+ */
+@Name(EventNames.PREFIX + "BatchFlush")
+@Label("Batch Flush")
+@Category(EventNames.CATEGORY)
+@Description("Sending a JDBC batch to the database.")
+@StackTrace(false)
+public final class BatchFlushEvent extends Event {
+    @Label("Target")
+    public String target;
+
+    @Label("Batched Rows")
+    public int rowCount;
+
+    @Label("Update Count")
+    public long updateCount;
+}
@@ -0,0 +1,27 @@
+package com.example.shelldemo.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Opening a connection or borrowing one from a pool.
+ */
+@Name(EventNames.PREFIX + "ConnectionAcquire")
+@Label("Connection Acquire")
+@Category(EventNames.CATEGORY)
+@Description("Opening a connection or borrowing one from a pool.")
+@StackTrace(false)
+public final class ConnectionAcquireEvent extends Event {
+    @Label("Database Type")
+    public String dbType;
+
+    @Label("Source")
+    public String source;
+
+    @Label("Succeeded")
+    public boolean succeeded;
+}
@@ -0,0 +1,13 @@
+package com.example.shelldemo.jfr;
+
+/**
+ * Names shared by the flight recorder events of this application.
+ */
+final class EventNames {
+    static final String CATEGORY = "DB Script Runner";
+    static final String PREFIX = "com.example.dbscriptrunner.";
+
+    private EventNames() {
+        throw new AssertionError("Utility class - do not instantiate");
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.shelldemo.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Reading and printing the rows of a query result.
+ */
+@Name(EventNames.PREFIX + "ResultFetch")
+@Label("Result Fetch")
+@Category(EventNames.CATEGORY)
+@Description("Reading and printing the rows of a query result.")
+@StackTrace(false)
+public final class ResultFetchEvent extends Event {
+    @Label("Ordinal")
+    public int ordinal;
+
+    @Label("Fingerprint")
+    public String fingerprint;
+
+    @Label("Rows")
+    public long rowCount;
+
+    @Label("From Cache")
+    public boolean cached;
+}
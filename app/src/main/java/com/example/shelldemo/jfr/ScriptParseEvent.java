@@ -0,0 +1,24 @@
+package com.example.shelldemo.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Reading a SQL script and splitting it into statements.
+ */
+@Name(EventNames.PREFIX + "ScriptParse")
+@Label("Script Parse")
+@Category(EventNames.CATEGORY)
+@Description("Reading a SQL script and splitting it into statements.")
+@StackTrace(false)
+public final class ScriptParseEvent extends Event {
+    @Label("Script")
+    public String script;
+
+    @Label("Statements")
+    public int statementCount;
+}
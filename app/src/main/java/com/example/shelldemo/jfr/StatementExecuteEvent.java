@@ -0,0 +1,36 @@
+package com.example.shelldemo.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Executing one SQL statement, from creating the JDBC statement until the driver returned.
+ */
+@Name(EventNames.PREFIX + "StatementExecute")
+@Label("Statement Execute")
+@Category(EventNames.CATEGORY)
+@Description("Executing one SQL statement, from creating the JDBC statement until the driver returned.")
+@StackTrace(false)
+public final class StatementExecuteEvent extends Event {
+    @Label("Ordinal")
+    public int ordinal;
+
+    @Label("Fingerprint")
+    public String fingerprint;
+
+    @Label("Statement Type")
+    public String statementType;
+
+    @Label("Returned Result Set")
+    public boolean resultSet;
+
+    @Label("Update Count")
+    public long updateCount;
+
+    @Label("Succeeded")
+    public boolean succeeded;
+}
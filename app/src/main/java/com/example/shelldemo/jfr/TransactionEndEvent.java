@@ -0,0 +1,24 @@
+package com.example.shelldemo.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Ending a transaction with a commit or a rollback.
+ */
+@Name(EventNames.PREFIX + "TransactionEnd")
+@Label("Commit or Rollback")
+@Category(EventNames.CATEGORY)
+@Description("Ending a transaction with a commit or a rollback.")
+@StackTrace(false)
+public final class TransactionEndEvent extends Event {
+    @Label("Outcome")
+    public String outcome;
+
+    @Label("Succeeded")
+    public boolean succeeded;
+}
@@ -0,0 +1,24 @@
+package com.example.shelldemo.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Fetching a database password from Vault.
+ */
+@Name(EventNames.PREFIX + "VaultFetch")
+@Label("Vault Fetch")
+@Category(EventNames.CATEGORY)
+@Description("Fetching a database password from Vault.")
+@StackTrace(false)
+public final class VaultFetchEvent extends Event {
+    @Label("Secret")
+    public String secretName;
+
+    @Label("Succeeded")
+    public boolean succeeded;
+}
@@ -0,0 +1,9 @@
+/**
+ * Java Flight Recorder events for the execution pipeline.
+ *
+ * <p>Events are only filled in and written while a recording is running, e.g. with
+ * {@code -XX:StartFlightRecording:filename=run.jfr}; otherwise {@code shouldCommit()} is false and creating an
+ * event costs next to nothing. All events are in the {@value EventNames#CATEGORY} category so that JDBC waits can
+ * be lined up with GC, CPU and I/O events of the same recording.</p>
+ */
+package com.example.shelldemo.jfr;
@@ -0,0 +1,318 @@
+package com.example.shelldemo.load;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.example.shelldemo.connection.ConnectionProvider;
+import com.example.shelldemo.exception.DatabaseException;
+import com.example.shelldemo.exception.DatabaseException.ErrorType;
+import com.example.shelldemo.jfr.BatchFlushEvent;
+
+/**
+ * Loads a CSV or JSONL file into a table.
+ *
+ * <p>The file is split into newline-aligned chunks that are read through memory-mapped buffers
+ * by {@code parallelism} workers. Each worker owns one connection and hands its rows in batches to a
+ * {@link BulkWriter}, committing every {@code commitInterval} rows. Unless a writer is set explicitly,
+ * the one configured for the database type is used. Rows committed before a failure stay in the table.</p>
+ *
+ * <p>Instances must be created via {@link #builder()}.</p>
+ */
+public final class BulkLoader {
+    private static final Logger logger = LogManager.getLogger(BulkLoader.class);
+
+    private final ConnectionProvider connectionProvider;
+    private final String dbType;
+    private final String table;
+    private final List<String> columns;
+    private final RecordFormat format;
+    private final boolean header;
+    private final int parallelism;
+    private final int batchSize;
+    private final int commitInterval;
+    private final boolean disableIndexes;
+    private final BulkWriter writer;
+
+    private BulkLoader(Builder builder) {
+        this.connectionProvider = builder.connectionProvider;
+        this.dbType = builder.dbType;
+        this.table = builder.table;
+        this.columns = builder.columns;
+        this.format = builder.format;
+        this.header = builder.header;
+        this.parallelism = builder.parallelism;
+        this.batchSize = builder.batchSize;
+        this.commitInterval = builder.commitInterval;
+        this.disableIndexes = builder.disableIndexes;
+        this.writer = builder.writer;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Loads the file into the target table.
+     *
+     * @param file CSV or JSONL input file
+     * @return row count and throughput of the load
+     * @throws DatabaseException if reading or writing fails
+     */
+    public LoadResult load(Path file) {
+        logger.info("Loading {} into {} with {} writers", file, table, parallelism);
+        long startNanos = System.nanoTime();
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            RecordFormat resolvedFormat = format != null ? format : RecordFormat.resolve(null, file.toString());
+            // JSONL records are self-describing, so only CSV files carry a header line
+            long dataStart = header && resolvedFormat == RecordFormat.CSV ? MappedFileChunks.endOfFirstLine(channel) : 0;
+            List<String> targetColumns = resolveColumns(channel, resolvedFormat);
+            List<MappedFileChunks.Chunk> chunks = MappedFileChunks.split(channel, dataStart, parallelism);
+            logger.debug("Split {} into {} chunks for columns {}", file, chunks.size(), targetColumns);
+
+            IndexMaintenance indexMaintenance = new IndexMaintenance(dbType, table);
+            if (disableIndexes) {
+                try (Connection conn = connectionProvider.getConnection()) {
+                    indexMaintenance.disable(conn);
+                }
+            }
+
+            long rows;
+            try {
+                rows = writeChunks(channel, chunks, resolvedFormat, targetColumns);
+            } finally {
+                if (disableIndexes) {
+                    try (Connection conn = connectionProvider.getConnection()) {
+                        indexMaintenance.rebuild(conn);
+                    }
+                }
+            }
+
+            LoadResult result = new LoadResult(table, rows, chunks.size(), parallelism,
+                Duration.ofNanos(System.nanoTime() - startNanos));
+            logger.info("{}", result);
+            return result;
+        } catch (IOException e) {
+            throw new DatabaseException("Failed to read load file: " + file, e, ErrorType.OP_LOAD);
+        } catch (SQLException e) {
+            throw new DatabaseException("Failed to load " + file + " into " + table, e, ErrorType.OP_LOAD);
+        }
+    }
+
+    private List<String> resolveColumns(FileChannel channel, RecordFormat resolvedFormat) throws IOException {
+        if (columns != null && !columns.isEmpty()) {
+            return columns;
+        }
+        if (resolvedFormat == RecordFormat.CSV && !header) {
+            throw new DatabaseException("Columns must be specified for a CSV file without a header", ErrorType.OP_LOAD);
+        }
+        List<String> derived = resolvedFormat.columnsFromHeader(MappedFileChunks.readLine(channel, 0));
+        if (derived.isEmpty()) {
+            throw new DatabaseException("Could not determine target columns from input file", ErrorType.OP_LOAD);
+        }
+        return derived;
+    }
+
+    private long writeChunks(FileChannel channel, List<MappedFileChunks.Chunk> chunks,
+                             RecordFormat resolvedFormat, List<String> targetColumns) throws SQLException {
+        Queue<MappedFileChunks.Chunk> pending = new ConcurrentLinkedQueue<>(chunks);
+        LongAdder rows = new LongAdder();
+        AtomicBoolean failed = new AtomicBoolean();
+        BulkWriter.LoadTarget target = new BulkWriter.LoadTarget(table, targetColumns);
+        int workers = Math.max(1, Math.min(parallelism, chunks.size()));
+        logger.debug("Writing with {} bulk writer", writer.name());
+
+        ExecutorService executor = Executors.newFixedThreadPool(workers);
+        try {
+            List<Future<Void>> futures = new ArrayList<>();
+            for (int i = 0; i < workers; i++) {
+                futures.add(executor.submit(() -> {
+                    try {
+                        runWorker(channel, pending, resolvedFormat, target, rows, failed);
+                    } catch (Exception e) {
+                        failed.set(true);
+                        throw e;
+                    }
+                    return null;
+                }));
+            }
+            awaitAll(futures);
+        } finally {
+            executor.shutdownNow();
+        }
+        return rows.sum();
+    }
+
+    private void runWorker(FileChannel channel, Queue<MappedFileChunks.Chunk> pending, RecordFormat resolvedFormat,
+                           BulkWriter.LoadTarget target, LongAdder rows, AtomicBoolean failed) throws Exception {
+        RecordFormat.RecordParser parser = resolvedFormat.newParser(target.columns());
+        try (Connection conn = connectionProvider.getConnection()) {
+            conn.setAutoCommit(false);
+            try (BulkWriter.Sink sink = writer.open(conn, target)) {
+                // A sink that commits every write gets whole commit intervals, so that commits stay large
+                int writeSize = sink.requiresCommitAfterWrite() ? Math.max(batchSize, commitInterval) : batchSize;
+                WorkerState state = new WorkerState(writeSize);
+                MappedFileChunks.Chunk chunk;
+                while (!failed.get() && (chunk = pending.poll()) != null) {
+                    MappedFileChunks.Chunk current = chunk;
+                    MappedFileChunks.readLines(channel, current, line -> {
+                        state.batch.add(parseLine(parser, line, current));
+                        if (state.batch.size() >= writeSize) {
+                            flush(conn, sink, state, rows);
+                        }
+                    });
+                }
+                flush(conn, sink, state, rows);
+                conn.commit();
+            } catch (Exception e) {
+                rollbackQuietly(conn);
+                throw e;
+            }
+        }
+    }
+
+    private Object[] parseLine(RecordFormat.RecordParser parser, String line, MappedFileChunks.Chunk chunk) {
+        try {
+            return parser.parse(line);
+        } catch (IOException e) {
+            throw new DatabaseException(
+                String.format("Invalid record in chunk #%d: %s", chunk.index(), e.getMessage()), e, ErrorType.OP_LOAD);
+        }
+    }
+
+    private void flush(Connection conn, BulkWriter.Sink sink, WorkerState state, LongAdder rows) throws SQLException {
+        if (state.batch.isEmpty()) {
+            return;
+        }
+        BatchFlushEvent event = new BatchFlushEvent();
+        event.begin();
+        sink.write(state.batch);
+        event.end();
+        if (event.shouldCommit()) {
+            event.target = table;
+            event.rowCount = state.batch.size();
+            event.updateCount = state.batch.size();
+            event.commit();
+        }
+        rows.add(state.batch.size());
+        state.uncommitted += state.batch.size();
+        state.batch.clear();
+        if (state.uncommitted >= commitInterval || sink.requiresCommitAfterWrite()) {
+            conn.commit();
+            state.uncommitted = 0;
+        }
+    }
+
+    private void awaitAll(List<Future<Void>> futures) throws SQLException {
+        Throwable failure = null;
+        for (Future<Void> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new DatabaseException("Bulk load interrupted", e, ErrorType.OP_LOAD);
+            } catch (ExecutionException e) {
+                if (failure == null) {
+                    failure = e.getCause();
+                }
+            }
+        }
+        if (failure instanceof SQLException sqlException) {
+            throw sqlException;
+        }
+        if (failure instanceof DatabaseException databaseException) {
+            throw databaseException;
+        }
+        if (failure != null) {
+            throw new DatabaseException("Bulk load into " + table + " failed", failure, ErrorType.OP_LOAD);
+        }
+    }
+
+    private static void rollbackQuietly(Connection conn) {
+        try {
+            conn.rollback();
+        } catch (SQLException e) {
+            logger.warn("Failed to roll back uncommitted load batch", e);
+        }
+    }
+
+    private static final class WorkerState {
+        final List<Object[]> batch;
+        long uncommitted;
+
+        WorkerState(int batchSize) {
+            this.batch = new ArrayList<>(batchSize);
+        }
+    }
+
+    /**
+     * Builder for {@link BulkLoader}.
+     */
+    public static class Builder {
+        private ConnectionProvider connectionProvider;
+        private String dbType;
+        private String table;
+        private List<String> columns;
+        private RecordFormat format;
+        private boolean header = true;
+        private int parallelism = Runtime.getRuntime().availableProcessors();
+        private int batchSize = 1000;
+        private int commitInterval = 10_000;
+        private boolean disableIndexes;
+        private BulkWriter writer;
+
+        public Builder connectionProvider(ConnectionProvider connectionProvider) { this.connectionProvider = connectionProvider; return this; }
+        public Builder dbType(String dbType) { this.dbType = dbType; return this; }
+        public Builder table(String table) { this.table = table; return this; }
+        public Builder columns(List<String> columns) { this.columns = columns; return this; }
+        public Builder format(RecordFormat format) { this.format = format; return this; }
+        public Builder header(boolean header) { this.header = header; return this; }
+        public Builder parallelism(int parallelism) { this.parallelism = parallelism; return this; }
+        public Builder batchSize(int batchSize) { this.batchSize = batchSize; return this; }
+        public Builder commitInterval(int commitInterval) { this.commitInterval = commitInterval; return this; }
+        public Builder disableIndexes(boolean disableIndexes) { this.disableIndexes = disableIndexes; return this; }
+        public Builder writer(BulkWriter writer) { this.writer = writer; return this; }
+
+        public BulkLoader build() {
+            if (connectionProvider == null) {
+                throw new IllegalArgumentException("Connection provider must be specified");
+            }
+            if (dbType == null || dbType.isBlank()) {
+                throw new IllegalArgumentException("Database type must be specified");
+            }
+            if (table == null || table.isBlank()) {
+                throw new IllegalArgumentException("Target table must be specified");
+            }
+            if (parallelism < 1 || batchSize < 1 || commitInterval < 1) {
+                throw new IllegalArgumentException("Parallelism, batch size and commit interval must be positive");
+            }
+            dbType = dbType.toLowerCase();
+            if (writer == null) {
+                writer = BulkWriters.forDialect(dbType);
+            }
+            if (writer.requiresSingleWriter() && parallelism > 1) {
+                throw new IllegalArgumentException(String.format(
+                    "Bulk writer %s locks the table and cannot run with %d parallel writers", writer.name(), parallelism));
+            }
+            return new BulkLoader(this);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.shelldemo.load;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Service provider interface for the write side of a bulk load.
+ *
+ * <p>Implementations are discovered with {@link java.util.ServiceLoader} and selected per database type
+ * through the {@code load.writer} entry of the application configuration, so each database can use its
+ * fastest ingest path. See {@link BulkWriters}.</p>
+ */
+public interface BulkWriter {
+
+    /**
+     * Name used to select this writer in the configuration.
+     */
+    String name();
+
+    /**
+     * Opens a sink that writes batches of rows to the target over the given connection.
+     * The caller owns the connection and the transaction.
+     */
+    Sink open(Connection connection, LoadTarget target) throws SQLException;
+
+    /**
+     * Whether only one connection at a time can write to a table, e.g. because a direct-path insert takes an
+     * exclusive table lock. Loads and copies refuse to run such a writer in parallel.
+     */
+    default boolean requiresSingleWriter() {
+        return false;
+    }
+
+    /**
+     * Target table and column order of a load.
+     */
+    record LoadTarget(String table, List<String> columns) {}
+
+    /**
+     * Writes batches of rows for one connection. Not thread-safe.
+     */
+    interface Sink extends AutoCloseable {
+
+        /**
+         * Writes one batch; each row holds values in target column order.
+         */
+        void write(List<Object[]> rows) throws SQLException;
+
+        /**
+         * Whether the transaction must be committed after every write,
+         * e.g. because a direct-path insert locks the table until commit.
+         */
+        default boolean requiresCommitAfterWrite() {
+            return false;
+        }
+
+        @Override
+        void close() throws SQLException;
+    }
+}
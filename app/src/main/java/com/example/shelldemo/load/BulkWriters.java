@@ -0,0 +1,47 @@
+package com.example.shelldemo.load;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ServiceLoader;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.example.shelldemo.config.ConfigurationHolder;
+
+/**
+ * Looks up {@link BulkWriter} implementations by name or by database type.
+ */
+public final class BulkWriters {
+    private static final Logger logger = LogManager.getLogger(BulkWriters.class);
+
+    private BulkWriters() {
+        throw new AssertionError("Utility class - do not instantiate");
+    }
+
+    /**
+     * Returns the writer configured for the database type, or the generic JDBC batch writer.
+     */
+    public static BulkWriter forDialect(String dbType) {
+        String name = ConfigurationHolder.getInstance().getLoadWriter(dbType);
+        return name != null ? named(name) : new JdbcBatchBulkWriter();
+    }
+
+    /**
+     * Returns the writer with the given name.
+     *
+     * @throws IllegalArgumentException if no writer has that name
+     */
+    public static BulkWriter named(String name) {
+        List<String> available = new ArrayList<>();
+        for (BulkWriter writer : ServiceLoader.load(BulkWriter.class, BulkWriters.class.getClassLoader())) {
+            if (writer.name().equalsIgnoreCase(name)) {
+                logger.debug("Using bulk writer: {}", writer.name());
+                return writer;
+            }
+            available.add(writer.name());
+        }
+        throw new IllegalArgumentException(
+            "Unknown bulk writer '" + name + "', available writers: " + String.join(", ", available));
+    }
+}
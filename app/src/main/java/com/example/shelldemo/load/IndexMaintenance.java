@@ -0,0 +1,85 @@
+package com.example.shelldemo.load;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.example.shelldemo.config.ConfigurationHolder;
+
+/**
+ * Disables and rebuilds the non-unique indexes of a load target using the
+ * dialect's {@code templates.index} statements from the application configuration.
+ * Unique indexes are left alone so constraints stay enforced during the load.
+ */
+final class IndexMaintenance {
+    private static final Logger logger = LogManager.getLogger(IndexMaintenance.class);
+
+    private final String dbType;
+    private final String table;
+    private final Set<String> indexes = new LinkedHashSet<>();
+
+    IndexMaintenance(String dbType, String table) {
+        this.dbType = dbType;
+        this.table = table;
+    }
+
+    void disable(Connection conn) throws SQLException {
+        String template = ConfigurationHolder.getInstance().getDatabaseTemplate(dbType, "index", "disable");
+        if (template == null) {
+            logger.warn("Index disable is not supported for {}, loading with indexes in place", dbType);
+            return;
+        }
+        indexes.addAll(findNonUniqueIndexes(conn.getMetaData()));
+        executeAll(conn, template);
+        logger.info("Disabled {} indexes on {}", indexes.size(), table);
+    }
+
+    void rebuild(Connection conn) throws SQLException {
+        if (indexes.isEmpty()) {
+            return;
+        }
+        String template = ConfigurationHolder.getInstance().getDatabaseTemplate(dbType, "index", "rebuild");
+        executeAll(conn, template);
+        logger.info("Rebuilt {} indexes on {}", indexes.size(), table);
+    }
+
+    private void executeAll(Connection conn, String template) throws SQLException {
+        // Per-table templates (e.g. DISABLE KEYS) collapse into a single statement
+        Set<String> statements = new LinkedHashSet<>();
+        for (String index : indexes) {
+            statements.add(String.format(template, index, table));
+        }
+        try (Statement stmt = conn.createStatement()) {
+            for (String sql : statements) {
+                logger.debug("Executing index maintenance: {}", sql);
+                stmt.execute(sql);
+            }
+        }
+    }
+
+    private Set<String> findNonUniqueIndexes(DatabaseMetaData metaData) throws SQLException {
+        Set<String> found = new LinkedHashSet<>();
+        for (String name : new String[] {table, table.toUpperCase(), table.toLowerCase()}) {
+            try (ResultSet rs = metaData.getIndexInfo(null, null, name, false, true)) {
+                while (rs.next()) {
+                    String index = rs.getString("INDEX_NAME");
+                    if (index != null && rs.getBoolean("NON_UNIQUE")
+                            && rs.getShort("TYPE") != DatabaseMetaData.tableIndexStatistic) {
+                        found.add(index);
+                    }
+                }
+            }
+            if (!found.isEmpty()) {
+                break;
+            }
+        }
+        return found;
+    }
+}
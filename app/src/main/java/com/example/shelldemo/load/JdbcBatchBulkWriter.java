@@ -0,0 +1,59 @@
+package com.example.shelldemo.load;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Generic writer that inserts rows with {@link PreparedStatement} batches. Works with any JDBC driver.
+ */
+public class JdbcBatchBulkWriter implements BulkWriter {
+    static final String NAME = "jdbc-batch";
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public Sink open(Connection connection, LoadTarget target) throws SQLException {
+        PreparedStatement stmt = connection.prepareStatement(insertSql(target));
+        return new Sink() {
+            @Override
+            public void write(List<Object[]> rows) throws SQLException {
+                for (Object[] row : rows) {
+                    for (int i = 0; i < row.length; i++) {
+                        stmt.setObject(i + 1, row[i]);
+                    }
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+            }
+
+            @Override
+            public boolean requiresCommitAfterWrite() {
+                return JdbcBatchBulkWriter.this.requiresCommitAfterWrite();
+            }
+
+            @Override
+            public void close() throws SQLException {
+                stmt.close();
+            }
+        };
+    }
+
+    /**
+     * Builds the INSERT statement; subclasses may add vendor hints.
+     */
+    protected String insertSql(LoadTarget target) {
+        String placeholders = String.join(",", Collections.nCopies(target.columns().size(), "?"));
+        return String.format("INSERT INTO %s (%s) VALUES (%s)",
+            target.table(), String.join(", ", target.columns()), placeholders);
+    }
+
+    protected boolean requiresCommitAfterWrite() {
+        return false;
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.shelldemo.load;
+
+import java.time.Duration;
+
+/**
+ * Outcome of a bulk load.
+ */
+public record LoadResult(String table, long rows, int chunks, int parallelism, Duration elapsed) {
+
+    public double rowsPerSecond() {
+        long nanos = elapsed.toNanos();
+        return nanos == 0 ? rows : rows * 1_000_000_000d / nanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Loaded %d rows into %s in %d ms (%.0f rows/sec, %d chunks, %d writers)",
+            rows, table, elapsed.toMillis(), rowsPerSecond(), chunks, parallelism);
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.shelldemo.load;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Splits a line-oriented file into newline-aligned chunks and reads each chunk
+ * through a memory-mapped buffer, so several readers can parse one file in parallel.
+ *
+ * <p>Records must not span lines; quoted CSV fields with embedded newlines are not supported.</p>
+ */
+final class MappedFileChunks {
+    /** Upper bound for a single mapping, keeping each chunk well below the 2 GB map limit. */
+    static final long MAX_CHUNK_BYTES = 64L * 1024 * 1024;
+
+    private MappedFileChunks() {
+        throw new AssertionError("Utility class - do not instantiate");
+    }
+
+    /**
+     * A newline-aligned byte range of the file.
+     */
+    record Chunk(int index, long offset, long length) {}
+
+    @FunctionalInterface
+    interface LineHandler {
+        void handle(String line) throws Exception;
+    }
+
+    /**
+     * Returns the offset just past the first line, or the file size if there is only one line.
+     */
+    static long endOfFirstLine(FileChannel channel) throws IOException {
+        return nextLineStart(channel, 0);
+    }
+
+    /**
+     * Reads the first line of the file starting at the given offset.
+     */
+    static String readLine(FileChannel channel, long offset) throws IOException {
+        long end = nextLineStart(channel, offset);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, offset, end - offset);
+        byte[] bytes = new byte[(int) (end - offset)];
+        buffer.get(bytes);
+        return trimLineEnd(new String(bytes, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Splits the data region [start, size) into at least {@code minChunks} chunks, each aligned
+     * to a line boundary and no larger than {@link #MAX_CHUNK_BYTES} (unless a single line is).
+     */
+    static List<Chunk> split(FileChannel channel, long start, int minChunks) throws IOException {
+        long size = channel.size();
+        List<Chunk> chunks = new ArrayList<>();
+        long dataLength = size - start;
+        if (dataLength <= 0) {
+            return chunks;
+        }
+        long chunkCount = Math.max(minChunks, (dataLength + MAX_CHUNK_BYTES - 1) / MAX_CHUNK_BYTES);
+        long target = Math.max(1, dataLength / chunkCount);
+
+        long offset = start;
+        while (offset < size) {
+            long end = offset + target >= size ? size : nextLineStart(channel, offset + target - 1);
+            chunks.add(new Chunk(chunks.size(), offset, end - offset));
+            offset = end;
+        }
+        return chunks;
+    }
+
+    /**
+     * Maps the chunk and passes each non-blank line to the handler.
+     */
+    static void readLines(FileChannel channel, Chunk chunk, LineHandler handler) throws Exception {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, chunk.offset(), chunk.length());
+        byte[] line = new byte[256];
+        int length = 0;
+        while (buffer.hasRemaining()) {
+            byte b = buffer.get();
+            if (b == '\n') {
+                emit(line, length, handler);
+                length = 0;
+            } else {
+                if (length == line.length) {
+                    line = Arrays.copyOf(line, line.length * 2);
+                }
+                line[length++] = b;
+            }
+        }
+        emit(line, length, handler);
+    }
+
+    private static void emit(byte[] line, int length, LineHandler handler) throws Exception {
+        if (length > 0 && line[length - 1] == '\r') {
+            length--;
+        }
+        if (length == 0) {
+            return;
+        }
+        String text = new String(line, 0, length, StandardCharsets.UTF_8);
+        if (!text.isBlank()) {
+            handler.handle(text);
+        }
+    }
+
+    /**
+     * Returns the offset following the first newline at or after {@code from}, or the file size.
+     */
+    private static long nextLineStart(FileChannel channel, long from) throws IOException {
+        long size = channel.size();
+        long position = from;
+        int window = 64 * 1024;
+        while (position < size) {
+            long length = Math.min(window, size - position);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+            for (int i = 0; i < length; i++) {
+                if (buffer.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += length;
+        }
+        return size;
+    }
+
+    private static String trimLineEnd(String line) {
+        int end = line.length();
+        while (end > 0 && (line.charAt(end - 1) == '\n' || line.charAt(end - 1) == '\r')) {
+            end--;
+        }
+        return line.substring(0, end);
+    }
+}
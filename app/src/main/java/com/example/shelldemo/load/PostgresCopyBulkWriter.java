@@ -0,0 +1,103 @@
+package com.example.shelldemo.load;
+
+import java.io.Reader;
+import java.io.StringReader;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * PostgreSQL writer that streams each batch through {@code COPY ... FROM STDIN} using the driver's
+ * {@code CopyManager}.
+ *
+ * <p>The PostgreSQL driver is not a compile-time dependency and is usually loaded at runtime from
+ * {@code --driver-path}, so the copy API is reached reflectively through the connection's class loader.</p>
+ */
+public class PostgresCopyBulkWriter implements BulkWriter {
+    private static final String PG_CONNECTION = "org.postgresql.PGConnection";
+
+    @Override
+    public String name() {
+        return "postgresql-copy";
+    }
+
+    @Override
+    public Sink open(Connection connection, LoadTarget target) throws SQLException {
+        Object copyManager = copyManager(connection);
+        Method copyIn = copyInMethod(copyManager);
+        String copySql = String.format("COPY %s (%s) FROM STDIN WITH (FORMAT csv)",
+            target.table(), String.join(", ", target.columns()));
+
+        return new Sink() {
+            @Override
+            public void write(List<Object[]> rows) throws SQLException {
+                StringBuilder csv = new StringBuilder(rows.size() * 64);
+                for (Object[] row : rows) {
+                    appendCsvRow(csv, row);
+                }
+                try {
+                    copyIn.invoke(copyManager, copySql, new StringReader(csv.toString()));
+                } catch (InvocationTargetException e) {
+                    throw unwrap(e);
+                } catch (IllegalAccessException e) {
+                    throw new SQLException("Cannot access PostgreSQL copy API", e);
+                }
+            }
+
+            @Override
+            public void close() {
+                // CopyManager holds no resources beyond the connection
+            }
+        };
+    }
+
+    private static Object copyManager(Connection connection) throws SQLException {
+        try {
+            // Pooled and instrumented connections are proxies of the application class loader, while a driver
+            // loaded from --driver-path lives in its own; the metadata leads back to the driver's connection
+            Connection driverConnection = connection.getMetaData().getConnection();
+            if (driverConnection == null) {
+                driverConnection = connection;
+            }
+            Class<?> pgConnectionClass = Class.forName(PG_CONNECTION, true, driverConnection.getClass().getClassLoader());
+            Object pgConnection = driverConnection.unwrap(pgConnectionClass);
+            return pgConnectionClass.getMethod("getCopyAPI").invoke(pgConnection);
+        } catch (ClassNotFoundException | NoSuchMethodException | IllegalAccessException e) {
+            throw new SQLException("PostgreSQL copy API is not available for this connection", e);
+        } catch (InvocationTargetException e) {
+            throw unwrap(e);
+        }
+    }
+
+    private static Method copyInMethod(Object copyManager) throws SQLException {
+        try {
+            return copyManager.getClass().getMethod("copyIn", String.class, Reader.class);
+        } catch (NoSuchMethodException e) {
+            throw new SQLException("PostgreSQL CopyManager.copyIn(String, Reader) not found", e);
+        }
+    }
+
+    private static void appendCsvRow(StringBuilder csv, Object[] row) {
+        for (int i = 0; i < row.length; i++) {
+            if (i > 0) {
+                csv.append(',');
+            }
+            Object value = row[i];
+            if (value == null) {
+                continue; // an unquoted empty field is NULL in CSV format
+            }
+            String text = value.toString();
+            csv.append('"').append(text.replace("\"", "\"\"")).append('"');
+        }
+        csv.append('\n');
+    }
+
+    private static SQLException unwrap(InvocationTargetException e) {
+        Throwable cause = e.getCause();
+        return cause instanceof SQLException sqlException
+            ? sqlException
+            : new SQLException("PostgreSQL COPY failed", cause);
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.shelldemo.load;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.opencsv.CSVParser;
+import com.opencsv.CSVParserBuilder;
+
+/**
+ * Supported input file formats for bulk loads.
+ * Each format turns a single line of input into column values in target column order.
+ */
+public enum RecordFormat {
+    CSV {
+        @Override
+        RecordParser newParser(List<String> columns) {
+            CSVParser parser = new CSVParserBuilder().build();
+            return line -> {
+                String[] fields = parser.parseLine(line);
+                if (fields.length != columns.size()) {
+                    throw new IOException(String.format(
+                        "Expected %d fields but found %d", columns.size(), fields.length));
+                }
+                Object[] values = new Object[fields.length];
+                for (int i = 0; i < fields.length; i++) {
+                    values[i] = fields[i].isEmpty() ? null : fields[i];
+                }
+                return values;
+            };
+        }
+
+        @Override
+        List<String> columnsFromHeader(String headerLine) throws IOException {
+            List<String> columns = new ArrayList<>();
+            for (String column : new CSVParserBuilder().build().parseLine(headerLine)) {
+                columns.add(column.trim());
+            }
+            return columns;
+        }
+    },
+
+    JSONL {
+        @Override
+        RecordParser newParser(List<String> columns) {
+            return line -> {
+                JsonNode node = JSON.readTree(line);
+                Object[] values = new Object[columns.size()];
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = toValue(node.get(columns.get(i)));
+                }
+                return values;
+            };
+        }
+
+        @Override
+        List<String> columnsFromHeader(String firstRecord) throws IOException {
+            List<String> columns = new ArrayList<>();
+            Iterator<String> names = JSON.readTree(firstRecord).fieldNames();
+            names.forEachRemaining(columns::add);
+            return columns;
+        }
+    };
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    /**
+     * Parses one line of input into values ordered like the target columns.
+     */
+    @FunctionalInterface
+    interface RecordParser {
+        Object[] parse(String line) throws IOException;
+    }
+
+    /**
+     * Creates a parser for the given target columns. Parsers are not thread-safe.
+     */
+    abstract RecordParser newParser(List<String> columns);
+
+    /**
+     * Derives the target column names from the first line of the file.
+     */
+    abstract List<String> columnsFromHeader(String line) throws IOException;
+
+    /**
+     * Resolves the format from an explicit name or, when absent, from the file extension.
+     */
+    public static RecordFormat resolve(String name, String fileName) {
+        if (name != null && !name.isBlank()) {
+            return valueOf(name.trim().toUpperCase());
+        }
+        String lower = fileName.toLowerCase();
+        if (lower.endsWith(".jsonl") || lower.endsWith(".ndjson") || lower.endsWith(".json")) {
+            return JSONL;
+        }
+        return CSV;
+    }
+
+    private static Object toValue(JsonNode node) {
+        if (node == null || node.isNull()) {
+            return null;
+        }
+        if (node.isNumber()) {
+            return node.numberValue();
+        }
+        if (node.isBoolean()) {
+            return node.booleanValue();
+        }
+        if (node.isTextual()) {
+            return node.textValue();
+        }
+        return node.toString();
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.shelldemo.metrics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.example.shelldemo.parser.StatementFingerprint;
+
+/**
+ * Time spent inside the JDBC driver and the number of database round trips, attributed to the statement that
+ * caused them.
+ *
+ * <p>Filled in by the instrumenting proxies of {@code JdbcInstrumentation}. Statements are grouped by
+ * {@link StatementFingerprint}, so repeated executions with different literals add up. Calls that do not belong
+ * to a statement, such as commits, are grouped under {@link #CONNECTION}. Comparing driver time with the
+ * execute and fetch phases of {@link RunMetrics} shows whether a run waits for the database or for its own
+ * processing.</p>
+ */
+public final class JdbcCallStats {
+    public static final String CONNECTION = "(connection)";
+    private static final int SQL_SAMPLE_LENGTH = 200;
+
+    private final Map<String, StatementStats> statements = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> callsByMethod = new ConcurrentHashMap<>();
+    private final StatementStats connection = new StatementStats(CONNECTION, CONNECTION);
+
+    /**
+     * Counters of one statement shape. Handed to the proxies once so that recording a call needs no lookup.
+     */
+    public static final class StatementStats {
+        private final String fingerprint;
+        private final String sql;
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder roundTrips = new LongAdder();
+        private final LongAdder driverNanos = new LongAdder();
+        private final LongAdder executions = new LongAdder();
+
+        private StatementStats(String fingerprint, String sql) {
+            this.fingerprint = fingerprint;
+            this.sql = sql;
+        }
+
+        public void record(long nanos, boolean roundTrip) {
+            calls.increment();
+            driverNanos.add(nanos);
+            if (roundTrip) {
+                roundTrips.increment();
+            }
+        }
+
+        public void executed() {
+            executions.increment();
+        }
+
+        public Summary summary() {
+            return new Summary(fingerprint, sql, executions.sum(), calls.sum(), roundTrips.sum(),
+                TimeUnit.NANOSECONDS.toMicros(driverNanos.sum()) / 1000.0);
+        }
+    }
+
+    /**
+     * Totals of one statement shape; {@code sql} is the first statement seen with the fingerprint.
+     */
+    public record Summary(String fingerprint, String sql, long executions, long calls, long roundTrips,
+                          double driverMillis) {
+    }
+
+    /**
+     * Returns the counters for a statement, creating them on first use.
+     */
+    public StatementStats statement(String sql) {
+        if (sql == null) {
+            return connection;
+        }
+        return statements.computeIfAbsent(StatementFingerprint.of(sql), fingerprint -> new StatementStats(fingerprint,
+            sql.length() > SQL_SAMPLE_LENGTH ? sql.substring(0, SQL_SAMPLE_LENGTH) + "..." : sql));
+    }
+
+    public StatementStats connection() {
+        return connection;
+    }
+
+    public void countMethod(String method) {
+        callsByMethod.computeIfAbsent(method, key -> new LongAdder()).increment();
+    }
+
+    /**
+     * Statement totals ordered by driver time, most expensive first, followed by the connection-level calls.
+     */
+    public List<Summary> summaries() {
+        List<Summary> summaries = new ArrayList<>(statements.values().stream()
+            .map(StatementStats::summary)
+            .sorted(Comparator.comparingDouble(Summary::driverMillis).reversed())
+            .toList());
+        Summary connectionSummary = connection.summary();
+        if (connectionSummary.calls() > 0) {
+            summaries.add(connectionSummary);
+        }
+        return summaries;
+    }
+
+    public Map<String, Long> callsByMethod() {
+        Map<String, Long> counts = new TreeMap<>();
+        callsByMethod.forEach((method, count) -> counts.put(method, count.sum()));
+        return counts;
+    }
+
+    public long roundTrips() {
+        return summaries().stream().mapToLong(Summary::roundTrips).sum();
+    }
+
+    public double driverMillis() {
+        return summaries().stream().mapToDouble(Summary::driverMillis).sum();
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.shelldemo.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram with log-linear buckets, in the style of HdrHistogram.
+ *
+ * <p>Values are recorded in microseconds. Every power of two is split into 16 linear sub-buckets, so a
+ * percentile is reported within about 6% of the recorded value while the histogram stays
+ * a fixed array of counters from one microsecond up to about a year. Recording is a few atomic increments
+ * and never blocks; readers may see a recording that is still in progress.</p>
+ */
+public final class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAGNITUDES = 40;
+    private static final int BUCKETS = (MAGNITUDES + 2) * (SUB_BUCKETS / 2);
+    private static final long MAX_MICROS = (1L << (MAGNITUDES + SUB_BUCKET_BITS)) - 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Counts and percentiles of a histogram at one point in time.
+     */
+    public record Snapshot(long count, long totalNanos, long maxNanos, long p50Nanos, long p90Nanos, long p99Nanos) {
+        public double meanMillis() {
+            return count == 0 ? 0 : totalNanos / 1_000_000.0 / count;
+        }
+    }
+
+    public void record(long nanos) {
+        long value = Math.max(nanos, 0);
+        counts.incrementAndGet(bucketIndex(TimeUnit.NANOSECONDS.toMicros(value)));
+        count.increment();
+        totalNanos.add(value);
+        maxNanos.accumulate(value);
+    }
+
+    public long count() {
+        return count.sum();
+    }
+
+    public long totalNanos() {
+        return totalNanos.sum();
+    }
+
+    public long maxNanos() {
+        return maxNanos.get();
+    }
+
+    /**
+     * Returns the value at the given percentile (0-100), or 0 if nothing was recorded. The result is the
+     * upper bound of the bucket holding the value, capped at the largest recorded value.
+     */
+    public long percentileNanos(double percentile) {
+        long[] buckets = bucketCounts();
+        long total = 0;
+        for (long bucket : buckets) {
+            total += bucket;
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * total));
+        long seen = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            seen += buckets[i];
+            if (seen >= rank) {
+                return Math.min(TimeUnit.MICROSECONDS.toNanos(upperBoundMicros(i)), maxNanos());
+            }
+        }
+        return maxNanos();
+    }
+
+    /**
+     * Returns how many recorded values are at or below the given bound, for cumulative histogram buckets.
+     */
+    public long countAtOrBelow(long nanos) {
+        long micros = TimeUnit.NANOSECONDS.toMicros(nanos);
+        long below = 0;
+        for (int i = 0; i < BUCKETS && upperBoundMicros(i) <= micros; i++) {
+            below += counts.get(i);
+        }
+        return below;
+    }
+
+    public Snapshot snapshot() {
+        return new Snapshot(count(), totalNanos(), maxNanos(),
+            percentileNanos(50), percentileNanos(90), percentileNanos(99));
+    }
+
+    private long[] bucketCounts() {
+        long[] copy = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            copy[i] = counts.get(i);
+        }
+        return copy;
+    }
+
+    /**
+     * Values below {@value #SUB_BUCKETS} microseconds get a bucket each; above that, the magnitude selects a
+     * group of sub-buckets and the bits after the leading one select the sub-bucket.
+     */
+    static int bucketIndex(long micros) {
+        long value = Math.min(micros, MAX_MICROS);
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int magnitude = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS + 1;
+        int subBucket = (int) (value >>> magnitude) - SUB_BUCKETS / 2;
+        return magnitude * SUB_BUCKETS / 2 + SUB_BUCKETS / 2 + subBucket;
+    }
+
+    /**
+     * Largest value that maps to the bucket, the inverse of {@link #bucketIndex(long)}.
+     */
+    static long upperBoundMicros(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int magnitude = (index - SUB_BUCKETS / 2) / (SUB_BUCKETS / 2);
+        long subBucket = (index - SUB_BUCKETS / 2) % (SUB_BUCKETS / 2) + SUB_BUCKETS / 2;
+        return ((subBucket + 1) << magnitude) - 1;
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.shelldemo.metrics;
+
+/**
+ * Parts of a run whose latency is recorded per statement, or once per run for parsing and connecting.
+ */
+public enum Phase {
+    PARSE,
+    CONNECT,
+    PREPARE,
+    EXECUTE,
+    FETCH,
+    COMMIT;
+
+    /**
+     * Name used in reports and metric labels.
+     */
+    public String label() {
+        return name().toLowerCase();
+    }
+}
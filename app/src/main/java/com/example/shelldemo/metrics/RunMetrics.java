@@ -0,0 +1,262 @@
+package com.example.shelldemo.metrics;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Performance figures of one CLI run: a {@link LatencyHistogram} per {@link Phase}, statement counts and the
+ * number of rows and bytes fetched.
+ *
+ * <p>All recorders are lock-free and may be updated from several threads, e.g. startup stages or parallel
+ * extraction. At the end of a run {@link #writeReport(Path)} writes the figures as JSON and in the Prometheus
+ * text format; {@link MetricsHttpServer} serves the same data while the run is in progress.</p>
+ */
+public final class RunMetrics {
+    private static final Logger logger = LogManager.getLogger(RunMetrics.class);
+    private static final String PREFIX = "dbscriptrunner_";
+    private static final double[] BUCKET_SECONDS = {0.001, 0.005, 0.01, 0.05, 0.1, 0.5, 1, 5, 10, 30, 60};
+    private static final ObjectMapper JSON = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private final Map<Phase, LatencyHistogram> phases = new EnumMap<>(Phase.class);
+    private final LongAdder statements = new LongAdder();
+    private final LongAdder failedStatements = new LongAdder();
+    private final LongAdder rows = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+    private final long startNanos = System.nanoTime();
+    private final long startMillis = System.currentTimeMillis();
+    private final JdbcCallStats jdbcStats;
+
+    public RunMetrics() {
+        this(false);
+    }
+
+    /**
+     * @param jdbcStats whether JDBC calls are instrumented to collect {@link JdbcCallStats}
+     */
+    public RunMetrics(boolean jdbcStats) {
+        for (Phase phase : Phase.values()) {
+            phases.put(phase, new LatencyHistogram());
+        }
+        this.jdbcStats = jdbcStats ? new JdbcCallStats() : null;
+    }
+
+    /**
+     * Returns the JDBC call statistics, or {@code null} when JDBC calls are not instrumented.
+     */
+    public JdbcCallStats jdbcStats() {
+        return jdbcStats;
+    }
+
+    public void record(Phase phase, long nanos) {
+        phases.get(phase).record(nanos);
+    }
+
+    /**
+     * Records the time elapsed since a {@link System#nanoTime()} reading.
+     */
+    public void recordSince(Phase phase, long startNanos) {
+        record(phase, System.nanoTime() - startNanos);
+    }
+
+    public LatencyHistogram histogram(Phase phase) {
+        return phases.get(phase);
+    }
+
+    public void statementCompleted(boolean succeeded) {
+        statements.increment();
+        if (!succeeded) {
+            failedStatements.increment();
+        }
+    }
+
+    /**
+     * Counts one fetched row and the estimated size of its values.
+     */
+    public void rowFetched(Object[] values) {
+        long size = 0;
+        for (Object value : values) {
+            size += estimateBytes(value);
+        }
+        rows.increment();
+        bytes.add(size);
+    }
+
+    public void rowsFetched(long count, long estimatedBytes) {
+        rows.add(count);
+        bytes.add(estimatedBytes);
+    }
+
+    public long statements() {
+        return statements.sum();
+    }
+
+    public long failedStatements() {
+        return failedStatements.sum();
+    }
+
+    public long rows() {
+        return rows.sum();
+    }
+
+    public long bytes() {
+        return bytes.sum();
+    }
+
+    /**
+     * Rows per second of wall-clock time since the run started.
+     */
+    public double rowsPerSecond() {
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        return seconds <= 0 ? 0 : rows() / seconds;
+    }
+
+    /**
+     * Approximate size of a fetched value as transferred, not as held on the heap.
+     */
+    public static long estimateBytes(Object value) {
+        if (value == null) {
+            return 0;
+        }
+        if (value instanceof String text) {
+            return text.length();
+        }
+        if (value instanceof byte[] data) {
+            return data.length;
+        }
+        if (value instanceof BigDecimal decimal) {
+            return decimal.unscaledValue().bitLength() / 8 + 2;
+        }
+        if (value instanceof Number || value instanceof Boolean) {
+            return 8;
+        }
+        if (value instanceof java.util.Date || value instanceof java.time.temporal.Temporal) {
+            return 12;
+        }
+        return value.toString().length();
+    }
+
+    public String toJson() {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("startedAt", startMillis);
+        report.put("elapsedMillis", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        report.put("statements", statements());
+        report.put("failedStatements", failedStatements());
+        report.put("rowsFetched", rows());
+        report.put("bytesFetched", bytes());
+        report.put("rowsPerSecond", Math.round(rowsPerSecond() * 10) / 10.0);
+
+        Map<String, Object> latencies = new LinkedHashMap<>();
+        for (Phase phase : Phase.values()) {
+            LatencyHistogram.Snapshot snapshot = phases.get(phase).snapshot();
+            if (snapshot.count() == 0) {
+                continue;
+            }
+            Map<String, Object> figures = new LinkedHashMap<>();
+            figures.put("count", snapshot.count());
+            figures.put("totalMillis", millis(snapshot.totalNanos()));
+            figures.put("meanMillis", Math.round(snapshot.meanMillis() * 1000) / 1000.0);
+            figures.put("p50Millis", millis(snapshot.p50Nanos()));
+            figures.put("p90Millis", millis(snapshot.p90Nanos()));
+            figures.put("p99Millis", millis(snapshot.p99Nanos()));
+            figures.put("maxMillis", millis(snapshot.maxNanos()));
+            latencies.put(phase.label(), figures);
+        }
+        report.put("phases", latencies);
+        if (jdbcStats != null) {
+            Map<String, Object> jdbc = new LinkedHashMap<>();
+            jdbc.put("driverMillis", Math.round(jdbcStats.driverMillis() * 1000) / 1000.0);
+            jdbc.put("roundTrips", jdbcStats.roundTrips());
+            jdbc.put("callsByMethod", jdbcStats.callsByMethod());
+            jdbc.put("statements", jdbcStats.summaries());
+            report.put("jdbc", jdbc);
+        }
+        try {
+            return JSON.writeValueAsString(report);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Renders the figures in the Prometheus text exposition format, version 0.0.4.
+     */
+    public String toPrometheus() {
+        StringBuilder out = new StringBuilder();
+        String latency = PREFIX + "phase_duration_seconds";
+        out.append("# HELP ").append(latency).append(" Duration of run phases per statement.\n");
+        out.append("# TYPE ").append(latency).append(" histogram\n");
+        for (Phase phase : Phase.values()) {
+            LatencyHistogram histogram = phases.get(phase);
+            long count = histogram.count();
+            String label = "phase=\"" + phase.label() + "\"";
+            for (double bound : BUCKET_SECONDS) {
+                long below = histogram.countAtOrBelow((long) (bound * 1e9));
+                out.append(latency).append("_bucket{").append(label).append(",le=\"").append(format(bound))
+                    .append("\"} ").append(below).append('\n');
+            }
+            out.append(latency).append("_bucket{").append(label).append(",le=\"+Inf\"} ").append(count).append('\n');
+            out.append(latency).append("_sum{").append(label).append("} ")
+                .append(format(histogram.totalNanos() / 1e9)).append('\n');
+            out.append(latency).append("_count{").append(label).append("} ").append(count).append('\n');
+        }
+
+        counter(out, "statements_total", "Statements executed.", "result=\"ok\"", statements() - failedStatements());
+        out.append(PREFIX).append("statements_total{result=\"failed\"} ").append(failedStatements()).append('\n');
+        counter(out, "rows_fetched_total", "Rows fetched from query results.", null, rows());
+        counter(out, "bytes_fetched_total", "Estimated bytes of fetched values.", null, bytes());
+        out.append("# HELP ").append(PREFIX).append("rows_per_second Rows fetched per second since the run started.\n");
+        out.append("# TYPE ").append(PREFIX).append("rows_per_second gauge\n");
+        out.append(PREFIX).append("rows_per_second ").append(format(rowsPerSecond())).append('\n');
+        if (jdbcStats != null) {
+            out.append("# HELP ").append(PREFIX).append("jdbc_driver_seconds_total Time spent inside JDBC calls.\n");
+            out.append("# TYPE ").append(PREFIX).append("jdbc_driver_seconds_total counter\n");
+            out.append(PREFIX).append("jdbc_driver_seconds_total ").append(format(jdbcStats.driverMillis() / 1000))
+                .append('\n');
+            counter(out, "jdbc_round_trips_total", "Estimated database round trips.", null, jdbcStats.roundTrips());
+        }
+        return out.toString();
+    }
+
+    /**
+     * Writes {@code metrics.json} and {@code metrics.prom} to the directory.
+     */
+    public void writeReport(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        Files.writeString(directory.resolve("metrics.json"), toJson());
+        Files.writeString(directory.resolve("metrics.prom"), toPrometheus());
+        logger.info("Performance report written to {}", directory.toAbsolutePath());
+    }
+
+    private static void counter(StringBuilder out, String name, String help, String labels, long value) {
+        out.append("# HELP ").append(PREFIX).append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(PREFIX).append(name).append(" counter\n");
+        out.append(PREFIX).append(name);
+        if (labels != null) {
+            out.append('{').append(labels).append('}');
+        }
+        out.append(' ').append(value).append('\n');
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / 1000.0) / 1000.0;
+    }
+
+    private static String format(double value) {
+        return Double.toString(value);
+    }
+}
@@ -15,6 +15,7 @@ import java.util.regex.Pattern;
 
 import com.example.shelldemo.exception.DatabaseException;
 import com.example.shelldemo.exception.DatabaseException.ErrorType;
+import com.example.shelldemo.jfr.ScriptParseEvent;
 
 /**
  * Unified SQL parsing utility class.
@@ -150,10 +151,19 @@ public final class SqlScriptParser {
         
         logger.debug("Starting SQL file parsing: {}", scriptFile.getName());
 
+        ScriptParseEvent event = new ScriptParseEvent();
+        event.begin();
         try {
             String content = new String(Files.readAllBytes(scriptFile.toPath()));
             String processedContent = removeComments(content);
-            return parseStatements(processedContent);
+            Map<Integer, String> statements = parseStatements(processedContent);
+            event.end();
+            if (event.shouldCommit()) {
+                event.script = scriptFile.getPath();
+                event.statementCount = statements.size();
+                event.commit();
+            }
+            return statements;
         } catch (IOException e) {
             throw new DatabaseException(
                 "Failed to parse SQL file: " + scriptFile.getName(), 
@@ -0,0 +1,280 @@
+package com.example.shelldemo.parser;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Finds the tables a SQL statement reads or modifies. This is a lightweight scan rather than a full
+ * parser: comments and string literals are skipped and identifiers following FROM, JOIN, USING, INTO,
+ * UPDATE and TABLE are collected. Names are returned lower-case without schema prefix or quotes. A view or
+ * synonym is reported under its own name rather than the tables behind it, so the result can miss tables a
+ * statement depends on and must not be used as a complete dependency list.
+ */
+public final class SqlTableExtractor {
+    private static final Set<String> VOLATILE = Set.of(
+        "sysdate", "systimestamp", "current_date", "current_time", "current_timestamp", "localtime",
+        "localtimestamp", "nextval", "currval", "sample", "tablesample");
+
+    /**
+     * Words that may precede a parenthesis in a read whose result depends only on the data: keywords,
+     * type names and built-in functions without side effects or dependence on time, randomness or session.
+     */
+    private static final Set<String> DETERMINISTIC_CALLS = Set.of(
+        "select", "from", "join", "on", "using", "where", "and", "or", "not", "in", "exists", "any", "all", "some",
+        "as", "is", "like", "between", "case", "when", "then", "else", "by", "having", "union", "intersect",
+        "except", "minus", "distinct", "over", "within", "filter", "keep", "lateral", "partition", "values", "with",
+        "char", "nchar", "varchar", "varchar2", "nvarchar", "nvarchar2", "number", "numeric", "decimal", "float",
+        "timestamp",
+        "count", "sum", "avg", "min", "max", "stddev", "variance", "median", "listagg", "string_agg",
+        "group_concat", "array_agg", "row_number", "rank", "dense_rank", "ntile", "lag", "lead", "first_value",
+        "last_value", "coalesce", "nvl", "nvl2", "nullif", "ifnull", "isnull", "iif", "decode", "greatest", "least",
+        "upper", "lower", "initcap", "trim", "ltrim", "rtrim", "lpad", "rpad", "substr", "substring", "instr",
+        "position", "length", "len", "char_length", "replace", "translate", "concat", "left", "right",
+        "regexp_like", "regexp_substr", "regexp_replace", "round", "trunc", "floor", "ceil", "ceiling", "abs",
+        "mod", "power", "sqrt", "sign", "exp", "ln", "log", "cast", "convert", "extract", "to_char", "to_number",
+        "to_date", "to_timestamp", "date_trunc");
+
+    private SqlTableExtractor() {
+        throw new AssertionError("Utility class - do not instantiate");
+    }
+
+    /**
+     * Returns all tables referenced by the statement.
+     */
+    public static Set<String> referencedTables(String sql) {
+        Set<String> tables = new LinkedHashSet<>();
+        String[] tokens = tokenize(sql);
+        // whether the FROM clause is open at each parenthesis depth, for comma-separated table lists
+        boolean[] inFrom = new boolean[tokens.length + 1];
+        int depth = 0;
+        for (int i = 0; i < tokens.length; i++) {
+            String token = tokens[i];
+            if (token.equals("(")) {
+                inFrom[++depth] = false;
+            } else if (token.equals(")")) {
+                depth = Math.max(0, depth - 1);
+            } else if (token.equals("from")) {
+                inFrom[depth] = true;
+                addTable(tokens, i + 1, tables);
+            } else if (token.equals("join") || token.equals("using")) {
+                addTable(tokens, i + 1, tables);
+            } else if (token.equals(",") && inFrom[depth]) {
+                addTable(tokens, i + 1, tables);
+            } else if (isTargetKeyword(tokens, i)) {
+                addTable(tokens, targetIndex(tokens, i), tables);
+            } else if (endsFromClause(token)) {
+                inFrom[depth] = false;
+            }
+        }
+        return tables;
+    }
+
+    /**
+     * Returns the tables written by a DML or DDL statement, or an empty set for queries
+     * and statements whose targets cannot be determined (e.g. procedure calls or PL/SQL blocks).
+     */
+    public static Set<String> modifiedTables(String sql) {
+        Set<String> tables = new LinkedHashSet<>();
+        String[] tokens = tokenize(sql);
+        if (tokens.length == 0) {
+            return tables;
+        }
+        switch (tokens[0]) {
+            case "insert", "merge", "update", "truncate", "create", "alter", "drop" -> {
+                for (int i = 0; i < tokens.length; i++) {
+                    if (isTargetKeyword(tokens, i)) {
+                        addTable(tokens, targetIndex(tokens, i), tables);
+                        break;
+                    }
+                }
+            }
+            case "delete" -> {
+                int index = tokens.length > 1 && tokens[1].equals("from") ? 2 : 1;
+                addTable(tokens, index, tables);
+            }
+            default -> {
+                // queries and unknown statements modify nothing we can name
+            }
+        }
+        return tables;
+    }
+
+    /**
+     * Returns true for statements that only read data. A {@code WITH} clause in front of an INSERT, UPDATE,
+     * DELETE or MERGE makes the statement a write.
+     */
+    public static boolean isQuery(String sql) {
+        return isQuery(tokenize(sql));
+    }
+
+    /**
+     * Returns true for queries whose result depends only on the data they read, so that it can be reused
+     * until those tables change. Locking reads ({@code FOR UPDATE}, {@code FOR SHARE}), sequences, clock and
+     * sampling expressions, and calls of anything other than well-known built-in functions are excluded;
+     * a user function may read other tables or have side effects.
+     */
+    public static boolean isDeterministicQuery(String sql) {
+        String[] tokens = tokenize(sql);
+        if (!isQuery(tokens)) {
+            return false;
+        }
+        for (int i = 0; i < tokens.length; i++) {
+            String token = tokens[i];
+            String next = i + 1 < tokens.length ? tokens[i + 1] : "";
+            // Oracle allows DBMS_RANDOM.VALUE and sequence pseudo-columns without parentheses
+            if (VOLATILE.contains(token) || token.startsWith("dbms_random.")
+                    || token.endsWith(".nextval") || token.endsWith(".currval")) {
+                return false;
+            }
+            boolean lockingRead = (token.equals("for") && (next.equals("update") || next.equals("share")
+                    || next.equals("no") || next.equals("key")))
+                || (token.equals("lock") && next.equals("in"));
+            // NEXT VALUE FOR draws from a sequence
+            if (lockingRead || (token.equals("next") && next.equals("value"))) {
+                return false;
+            }
+            if (next.equals("(") && isIdentifier(token) && !DETERMINISTIC_CALLS.contains(token)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isQuery(String[] tokens) {
+        if (tokens.length == 0 || !(tokens[0].equals("select") || tokens[0].equals("with"))) {
+            return false;
+        }
+        for (int i = 1; i < tokens.length; i++) {
+            switch (tokens[i]) {
+                case "insert", "delete", "merge" -> {
+                    return false;
+                }
+                case "update" -> {
+                    // FOR UPDATE and FOR NO KEY UPDATE lock rows but write nothing
+                    if (!tokens[i - 1].equals("for") && !tokens[i - 1].equals("key")) {
+                        return false;
+                    }
+                }
+                default -> {
+                    // other words do not change what the statement does
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the leading keyword in lower case, e.g. {@code select} or {@code insert}, or an empty string.
+     */
+    public static String firstKeyword(String sql) {
+        String[] tokens = tokenize(sql);
+        return tokens.length > 0 ? tokens[0] : "";
+    }
+
+    private static boolean isTargetKeyword(String[] tokens, int i) {
+        String token = tokens[i];
+        return token.equals("into")
+            || (token.equals("update") && i == 0)
+            || (token.equals("table") && i > 0 && isTableVerb(tokens[i - 1]));
+    }
+
+    private static boolean isTableVerb(String token) {
+        return token.equals("truncate") || token.equals("create") || token.equals("alter") || token.equals("drop");
+    }
+
+    private static int targetIndex(String[] tokens, int keyword) {
+        int index = keyword + 1;
+        // CREATE TABLE IF NOT EXISTS / DROP TABLE IF EXISTS
+        while (index < tokens.length && (tokens[index].equals("if") || tokens[index].equals("not")
+                || tokens[index].equals("exists"))) {
+            index++;
+        }
+        return index;
+    }
+
+    private static boolean endsFromClause(String token) {
+        return switch (token) {
+            case "select", "where", "group", "order", "having", "union", "intersect", "except", "minus",
+                 "set", "values", "limit", "offset", "fetch", "connect", "start", "window", "returning" -> true;
+            default -> false;
+        };
+    }
+
+    private static boolean addTable(String[] tokens, int index, Set<String> tables) {
+        if (index >= tokens.length || !isIdentifier(tokens[index]) || isClauseKeyword(tokens[index])) {
+            return false;
+        }
+        String name = tokens[index];
+        int dot = name.lastIndexOf('.');
+        tables.add(dot >= 0 ? name.substring(dot + 1) : name);
+        return true;
+    }
+
+    private static boolean isIdentifier(String token) {
+        char first = token.charAt(0);
+        return Character.isLetter(first) || first == '_';
+    }
+
+    private static boolean isClauseKeyword(String token) {
+        return switch (token) {
+            case "select", "where", "group", "order", "having", "union", "intersect", "except", "minus",
+                 "join", "inner", "left", "right", "full", "outer", "cross", "natural", "on", "using",
+                 "set", "values", "limit", "offset", "fetch", "for", "connect", "start", "window",
+                 "lateral", "table", "only", "returning" -> true;
+            default -> false;
+        };
+    }
+
+    /**
+     * Splits the statement into lower-case words and single punctuation characters,
+     * dropping comments and string literals and unquoting quoted identifiers.
+     */
+    private static String[] tokenize(String sql) {
+        List<String> tokens = new ArrayList<>();
+        int length = sql.length();
+        int i = 0;
+        while (i < length) {
+            char c = sql.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '-' && i + 1 < length && sql.charAt(i + 1) == '-') {
+                while (i < length && sql.charAt(i) != '\n') i++;
+            } else if (c == '/' && i + 1 < length && sql.charAt(i + 1) == '*') {
+                int end = sql.indexOf("*/", i + 2);
+                i = end < 0 ? length : end + 2;
+            } else if (c == '\'') {
+                i++;
+                while (i < length && !(sql.charAt(i) == '\'' && (i + 1 >= length || sql.charAt(i + 1) != '\''))) {
+                    i += sql.charAt(i) == '\'' ? 2 : 1;
+                }
+                i++;
+                tokens.add("'");
+            } else if (Character.isLetterOrDigit(c) || c == '_' || c == '"' || c == '`' || c == '[') {
+                StringBuilder word = new StringBuilder();
+                while (i < length) {
+                    char ch = sql.charAt(i);
+                    if (ch == '"' || ch == '`' || ch == '[') {
+                        char close = ch == '[' ? ']' : ch;
+                        int end = sql.indexOf(close, i + 1);
+                        end = end < 0 ? length : end;
+                        word.append(sql, i + 1, end);
+                        i = Math.min(length, end + 1);
+                    } else if (Character.isLetterOrDigit(ch) || ch == '_' || ch == '$' || ch == '#' || ch == '.') {
+                        word.append(ch);
+                        i++;
+                    } else {
+                        break;
+                    }
+                }
+                tokens.add(word.toString().toLowerCase(Locale.ROOT));
+            } else {
+                tokens.add(String.valueOf(c));
+                i++;
+            }
+        }
+        return tokens.stream().filter(token -> !token.isEmpty()).toArray(String[]::new);
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.shelldemo.parser;
+
+/**
+ * Identifies statements that differ only in literal values, comments, whitespace or keyword case.
+ *
+ * <p>{@link #normalize(String)} replaces string and numeric literals with {@code ?}, drops comments, collapses
+ * whitespace and lower-cases everything outside quoted identifiers. {@link #of(String)} hashes the normalized
+ * text to a short hex string that can be logged, recorded in events or used as a cache key.</p>
+ */
+public final class StatementFingerprint {
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private StatementFingerprint() {
+        throw new AssertionError("Utility class - do not instantiate");
+    }
+
+    /**
+     * Returns the 64-bit FNV-1a hash of the normalized statement as 16 hex digits.
+     */
+    public static String of(String sql) {
+        String normalized = normalize(sql);
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = 0; i < normalized.length(); i++) {
+            char ch = normalized.charAt(i);
+            hash = (hash ^ (ch & 0xff)) * FNV_PRIME;
+            hash = (hash ^ (ch >>> 8)) * FNV_PRIME;
+        }
+        return String.format("%016x", hash);
+    }
+
+    public static String normalize(String sql) {
+        StringBuilder out = new StringBuilder(sql.length());
+        boolean pendingSpace = false;
+        int length = sql.length();
+        int i = 0;
+        while (i < length) {
+            char ch = sql.charAt(i);
+            char next = i + 1 < length ? sql.charAt(i + 1) : 0;
+            if (Character.isWhitespace(ch)) {
+                pendingSpace = true;
+                i++;
+            } else if (ch == '-' && next == '-') {
+                i = skipTo(sql, i + 2, "\n");
+                pendingSpace = true;
+            } else if (ch == '/' && next == '*') {
+                i = skipTo(sql, i + 2, "*/");
+                pendingSpace = true;
+            } else if (ch == '\'') {
+                i = skipStringLiteral(sql, i + 1);
+                pendingSpace = append(out, '?', pendingSpace);
+            } else if (ch == '"') {
+                int end = skipTo(sql, i + 1, "\"");
+                pendingSpace = appendSpace(out, pendingSpace);
+                out.append(sql, i, end);
+                i = end;
+            } else if (Character.isDigit(ch) && (pendingSpace || !endsWithIdentifier(out))) {
+                i = skipNumber(sql, i);
+                pendingSpace = append(out, '?', pendingSpace);
+            } else {
+                pendingSpace = append(out, Character.toLowerCase(ch), pendingSpace);
+                i++;
+            }
+        }
+        int end = out.length();
+        while (end > 0 && out.charAt(end - 1) == ';') {
+            end--;
+        }
+        return out.substring(0, end).trim();
+    }
+
+    private static boolean append(StringBuilder out, char ch, boolean pendingSpace) {
+        appendSpace(out, pendingSpace);
+        out.append(ch);
+        return false;
+    }
+
+    private static boolean appendSpace(StringBuilder out, boolean pendingSpace) {
+        if (pendingSpace && !out.isEmpty()) {
+            out.append(' ');
+        }
+        return false;
+    }
+
+    private static boolean endsWithIdentifier(StringBuilder out) {
+        if (out.isEmpty()) {
+            return false;
+        }
+        char last = out.charAt(out.length() - 1);
+        return Character.isLetterOrDigit(last) || last == '_' || last == '$' || last == '#';
+    }
+
+    /**
+     * Returns the index after the terminator, or the end of the text if it is missing.
+     */
+    private static int skipTo(String sql, int from, String terminator) {
+        int end = sql.indexOf(terminator, from);
+        return end < 0 ? sql.length() : end + terminator.length();
+    }
+
+    private static int skipStringLiteral(String sql, int from) {
+        int i = from;
+        while (i < sql.length()) {
+            if (sql.charAt(i) == '\'') {
+                // a doubled quote is an escaped quote inside the literal
+                if (i + 1 < sql.length() && sql.charAt(i + 1) == '\'') {
+                    i += 2;
+                    continue;
+                }
+                return i + 1;
+            }
+            i++;
+        }
+        return i;
+    }
+
+    private static int skipNumber(String sql, int from) {
+        int i = from;
+        while (i < sql.length()) {
+            char ch = sql.charAt(i);
+            boolean exponentSign = (ch == '+' || ch == '-') && i > from
+                && Character.toLowerCase(sql.charAt(i - 1)) == 'e';
+            if (!Character.isLetterOrDigit(ch) && ch != '.' && !exponentSign) {
+                break;
+            }
+            i++;
+        }
+        return i;
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.shelldemo.partition;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+/**
+ * One slice of a partitioned table or query. Bounds are kept as strings so a range plan
+ * can be persisted and reloaded unchanged, e.g. for resuming a copy.
+ *
+ * @param index position of the range within its plan
+ * @param type how the bounds are interpreted when bound to a statement
+ * @param lower inclusive lower bound, null for {@link BoundType#NULL} and for a range open below
+ * @param upper upper bound, null for {@link BoundType#NULL} and for a range open above
+ * @param upperInclusive whether the upper bound is inclusive
+ */
+public record KeyRange(int index, BoundType type, String lower, String upper, boolean upperInclusive) {
+
+    public enum BoundType {
+        /** Numeric key column */
+        NUMBER,
+        /** Date or timestamp key column */
+        TIMESTAMP,
+        /** Opaque physical locators such as ROWID or ctid */
+        TEXT,
+        /** Rows whose key column is NULL */
+        NULL
+    }
+
+    public boolean isNullRange() {
+        return type == BoundType.NULL;
+    }
+
+    /**
+     * Binds the bounds that are present, lower before upper, starting at the given parameter index.
+     *
+     * @return the next free parameter index
+     */
+    public int bind(PreparedStatement stmt, int parameterIndex) throws SQLException {
+        int next = parameterIndex;
+        if (lower != null) {
+            stmt.setObject(next++, toValue(lower));
+        }
+        if (upper != null) {
+            stmt.setObject(next++, toValue(upper));
+        }
+        return next;
+    }
+
+    private Object toValue(String bound) {
+        return switch (type) {
+            case NUMBER -> new BigDecimal(bound);
+            case TIMESTAMP -> Timestamp.valueOf(bound);
+            default -> bound;
+        };
+    }
+
+    @Override
+    public String toString() {
+        return isNullRange()
+            ? String.format("#%d [NULL]", index)
+            : String.format("#%d %s, %s", index,
+                lower != null ? "[" + lower : "(-inf",
+                upper != null ? upper + (upperInclusive ? "]" : ")") : "+inf)");
+    }
+}
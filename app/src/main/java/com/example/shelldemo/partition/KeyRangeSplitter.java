@@ -0,0 +1,188 @@
+package com.example.shelldemo.partition;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.example.shelldemo.exception.DatabaseException;
+import com.example.shelldemo.exception.DatabaseException.ErrorType;
+
+/**
+ * Splits a table or query into equal-width ranges of a numeric or date/timestamp column.
+ * Bounds come from MIN/MAX of the column unless given explicitly; they only set the width of the
+ * ranges. The first range is open below and the last open above, so rows outside the bounds, or
+ * added after MIN/MAX was read, still belong to a range. Rows with a NULL key are covered by an
+ * extra range so nothing is skipped.
+ */
+public class KeyRangeSplitter implements RangeSplitter {
+    private static final Logger logger = LogManager.getLogger(KeyRangeSplitter.class);
+
+    private final String source;
+    private final String column;
+    private final int partitions;
+    private final Object[] sourceParams;
+    private Object lowerBound;
+    private Object upperBound;
+
+    /**
+     * @param source table name or parenthesized subquery with alias
+     * @param column partition column
+     * @param partitions number of non-NULL ranges to produce
+     * @param sourceParams bind values for placeholders in the source query
+     */
+    public KeyRangeSplitter(String source, String column, int partitions, Object... sourceParams) {
+        if (partitions < 1) {
+            throw new IllegalArgumentException("Partition count must be positive");
+        }
+        this.source = source;
+        this.column = column;
+        this.partitions = partitions;
+        this.sourceParams = sourceParams;
+    }
+
+    /**
+     * Uses explicit bounds instead of querying MIN/MAX. Both must be numbers or both timestamps.
+     * The bounds do not filter: keys below or above them fall into the first or last range.
+     */
+    public KeyRangeSplitter withBounds(Object lower, Object upper) {
+        this.lowerBound = lower;
+        this.upperBound = upper;
+        return this;
+    }
+
+    @Override
+    public List<KeyRange> split(Connection conn) throws SQLException {
+        Object min = lowerBound;
+        Object max = upperBound;
+        if (min == null || max == null) {
+            Object[] bounds = queryBounds(conn);
+            min = bounds[0];
+            max = bounds[1];
+        }
+
+        List<KeyRange> ranges = new ArrayList<>();
+        if (min instanceof BigDecimal || min instanceof Number) {
+            splitNumbers(toBigDecimal(min), toBigDecimal(max), ranges);
+        } else if (min instanceof Timestamp || min instanceof java.util.Date) {
+            splitTimestamps(toTimestamp(min), toTimestamp(max), ranges);
+        } else if (min != null) {
+            throw new DatabaseException(
+                "Partition column must be numeric or a date/timestamp: " + column, ErrorType.OP_QUERY);
+        }
+        openEnds(ranges);
+        ranges.add(new KeyRange(ranges.size(), KeyRange.BoundType.NULL, null, null, false));
+        logger.debug("Split {} on {} into {} ranges between {} and {}", source, column, ranges.size(), min, max);
+        return ranges;
+    }
+
+    @Override
+    public String predicate(KeyRange range) {
+        if (range.isNullRange()) {
+            return column + " IS NULL";
+        }
+        if (range.lower() == null && range.upper() == null) {
+            return column + " IS NOT NULL";
+        }
+        String upper = column + (range.upperInclusive() ? " <= ?" : " < ?");
+        if (range.lower() == null) {
+            return upper;
+        }
+        return range.upper() == null ? column + " >= ?" : column + " >= ? AND " + upper;
+    }
+
+    @Override
+    public boolean isPortable() {
+        return true;
+    }
+
+    private Object[] queryBounds(Connection conn) throws SQLException {
+        String sql = String.format("SELECT MIN(%1$s), MAX(%1$s) FROM %2$s", column, source);
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (int i = 0; i < sourceParams.length; i++) {
+                stmt.setObject(i + 1, sourceParams[i]);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                rs.next();
+                int type = rs.getMetaData().getColumnType(1);
+                return switch (type) {
+                    case Types.DATE, Types.TIMESTAMP, Types.TIMESTAMP_WITH_TIMEZONE ->
+                        new Object[] {rs.getTimestamp(1), rs.getTimestamp(2)};
+                    default -> new Object[] {rs.getBigDecimal(1), rs.getBigDecimal(2)};
+                };
+            }
+        }
+    }
+
+    private void splitNumbers(BigDecimal min, BigDecimal max, List<KeyRange> ranges) {
+        boolean integral = isIntegral(min) && isIntegral(max);
+        BigDecimal width = max.subtract(min);
+        BigDecimal step = integral
+            ? width.add(BigDecimal.ONE).divide(BigDecimal.valueOf(partitions), 0, RoundingMode.CEILING).max(BigDecimal.ONE)
+            : width.divide(BigDecimal.valueOf(partitions), 10, RoundingMode.HALF_UP);
+
+        BigDecimal lower = min;
+        for (int i = 0; i < partitions && lower.compareTo(max) <= 0; i++) {
+            BigDecimal upper = lower.add(step);
+            boolean last = i == partitions - 1 || upper.compareTo(max) > 0 || step.signum() == 0;
+            ranges.add(new KeyRange(ranges.size(), KeyRange.BoundType.NUMBER,
+                lower.toPlainString(), (last ? max : upper).toPlainString(), last));
+            if (last) {
+                break;
+            }
+            lower = upper;
+        }
+    }
+
+    private void splitTimestamps(Timestamp min, Timestamp max, List<KeyRange> ranges) {
+        long start = min.getTime();
+        long end = max.getTime();
+        long step = Math.max(1, (end - start + partitions - 1) / partitions);
+
+        long lower = start;
+        for (int i = 0; i < partitions && lower <= end; i++) {
+            long upper = lower + step;
+            boolean last = i == partitions - 1 || upper > end;
+            ranges.add(new KeyRange(ranges.size(), KeyRange.BoundType.TIMESTAMP,
+                new Timestamp(lower).toString(), (last ? max : new Timestamp(upper)).toString(), last));
+            if (last) {
+                break;
+            }
+            lower = upper;
+        }
+    }
+
+    /**
+     * Drops the lower bound of the first range and the upper bound of the last one.
+     */
+    private static void openEnds(List<KeyRange> ranges) {
+        if (ranges.isEmpty()) {
+            return;
+        }
+        KeyRange first = ranges.get(0);
+        ranges.set(0, new KeyRange(first.index(), first.type(), null, first.upper(), first.upperInclusive()));
+        KeyRange last = ranges.get(ranges.size() - 1);
+        ranges.set(ranges.size() - 1, new KeyRange(last.index(), last.type(), last.lower(), null, false));
+    }
+
+    private static boolean isIntegral(BigDecimal value) {
+        return value.signum() == 0 || value.stripTrailingZeros().scale() <= 0;
+    }
+
+    private static BigDecimal toBigDecimal(Object value) {
+        return value instanceof BigDecimal decimal ? decimal : new BigDecimal(value.toString());
+    }
+
+    private static Timestamp toTimestamp(Object value) {
+        return value instanceof Timestamp timestamp ? timestamp : new Timestamp(((java.util.Date) value).getTime());
+    }
+}
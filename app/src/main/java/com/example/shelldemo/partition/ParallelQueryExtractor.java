@@ -0,0 +1,253 @@
+package com.example.shelldemo.partition;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.example.shelldemo.connection.ConnectionProvider;
+import com.example.shelldemo.exception.DatabaseException;
+import com.example.shelldemo.exception.DatabaseException.ErrorType;
+import com.example.shelldemo.sqlhandling.ResultSetProcessor;
+
+/**
+ * Reads the result of a query over several connections at once.
+ *
+ * <p>The query is wrapped as {@code SELECT * FROM (query) src WHERE <range predicate>} and split into
+ * {@code parallelism} ranges of a numeric or date column of its result, using MIN/MAX of that column or
+ * explicit bounds. The bounds only set the width of the ranges; rows outside them are read by the first and
+ * last range. Each range is fetched on its own connection and the rows of all ranges are handed to a
+ * single {@link RowHandler} on the calling thread through a bounded queue. Rows arrive in no particular order.</p>
+ *
+ * <p>Instances must be created via {@link #builder()}.</p>
+ */
+public final class ParallelQueryExtractor {
+    private static final Logger logger = LogManager.getLogger(ParallelQueryExtractor.class);
+    private static final List<Map<String, Object>> END_OF_STREAM = List.of();
+
+    private final ConnectionProvider connectionProvider;
+    private final String query;
+    private final Object[] params;
+    private final String partitionColumn;
+    private final int parallelism;
+    private final Object lowerBound;
+    private final Object upperBound;
+    private final int fetchSize;
+    private final int queueCapacity;
+
+    /**
+     * Receives the merged rows of all ranges.
+     */
+    @FunctionalInterface
+    public interface RowHandler {
+        void accept(Map<String, Object> row) throws Exception;
+    }
+
+    private ParallelQueryExtractor(Builder builder) {
+        this.connectionProvider = builder.connectionProvider;
+        this.query = builder.query;
+        this.params = builder.params;
+        this.partitionColumn = builder.partitionColumn;
+        this.parallelism = builder.parallelism;
+        this.lowerBound = builder.lowerBound;
+        this.upperBound = builder.upperBound;
+        this.fetchSize = builder.fetchSize;
+        this.queueCapacity = builder.queueCapacity;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Runs the range queries and passes every row to the handler.
+     *
+     * @return number of rows extracted
+     * @throws DatabaseException if a range query or the handler fails
+     */
+    public long extract(RowHandler handler) {
+        KeyRangeSplitter splitter = new KeyRangeSplitter("(" + query + ") src", partitionColumn, parallelism, params);
+        if (lowerBound != null && upperBound != null) {
+            splitter.withBounds(lowerBound, upperBound);
+        }
+
+        List<KeyRange> ranges;
+        try (Connection conn = connectionProvider.getConnection()) {
+            ranges = splitter.split(conn);
+        } catch (SQLException e) {
+            throw new DatabaseException("Failed to compute partition ranges on " + partitionColumn, e, ErrorType.OP_QUERY);
+        }
+        logger.debug("Extracting {} ranges with {} connections", ranges.size(), parallelism);
+
+        String rangeSql = "SELECT * FROM (" + query + ") src WHERE ";
+        Queue<KeyRange> pending = new ConcurrentLinkedQueue<>(ranges);
+        BlockingQueue<List<Map<String, Object>>> merged = new ArrayBlockingQueue<>(queueCapacity);
+        AtomicBoolean cancelled = new AtomicBoolean();
+        int workers = Math.min(parallelism, ranges.size());
+
+        ExecutorService executor = Executors.newFixedThreadPool(workers);
+        try {
+            List<Future<Void>> futures = new ArrayList<>();
+            for (int i = 0; i < workers; i++) {
+                futures.add(executor.submit(() -> {
+                    try {
+                        readRanges(pending, splitter, rangeSql, merged, cancelled);
+                    } finally {
+                        offer(merged, END_OF_STREAM, cancelled);
+                    }
+                    return null;
+                }));
+            }
+
+            long rows = 0;
+            int running = workers;
+            while (running > 0) {
+                List<Map<String, Object>> batch = merged.take();
+                if (batch == END_OF_STREAM) {
+                    running--;
+                    continue;
+                }
+                for (Map<String, Object> row : batch) {
+                    handler.accept(row);
+                }
+                rows += batch.size();
+            }
+            awaitAll(futures);
+            logger.info("Parallel extract returned {} rows from {} ranges", rows, ranges.size());
+            return rows;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DatabaseException("Parallel extract interrupted", e, ErrorType.OP_QUERY);
+        } catch (DatabaseException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new DatabaseException("Failed to process extracted rows", e, ErrorType.OP_QUERY);
+        } finally {
+            cancelled.set(true);
+            executor.shutdownNow();
+        }
+    }
+
+    private void readRanges(Queue<KeyRange> pending, RangeSplitter splitter, String rangeSql,
+                            BlockingQueue<List<Map<String, Object>>> merged, AtomicBoolean cancelled) throws Exception {
+        ResultSetProcessor processor = new ResultSetProcessor();
+        try (Connection conn = connectionProvider.getConnection()) {
+            KeyRange range;
+            while (!cancelled.get() && (range = pending.poll()) != null) {
+                try (PreparedStatement stmt = conn.prepareStatement(rangeSql + splitter.predicate(range))) {
+                    stmt.setFetchSize(fetchSize);
+                    for (int i = 0; i < params.length; i++) {
+                        stmt.setObject(i + 1, params[i]);
+                    }
+                    range.bind(stmt, params.length + 1);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        List<Map<String, Object>> batch = new ArrayList<>(fetchSize);
+                        while (rs.next()) {
+                            batch.add(processor.processRow(rs));
+                            if (batch.size() >= fetchSize) {
+                                if (!offer(merged, batch, cancelled)) {
+                                    return;
+                                }
+                                batch = new ArrayList<>(fetchSize);
+                            }
+                        }
+                        if (!batch.isEmpty() && !offer(merged, batch, cancelled)) {
+                            return;
+                        }
+                    }
+                }
+                logger.debug("Finished extract range {}", range);
+            }
+        }
+    }
+
+    private static boolean offer(BlockingQueue<List<Map<String, Object>>> queue, List<Map<String, Object>> batch,
+                                 AtomicBoolean cancelled) throws InterruptedException {
+        while (!cancelled.get()) {
+            if (queue.offer(batch, 100, TimeUnit.MILLISECONDS)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void awaitAll(List<Future<Void>> futures) throws InterruptedException {
+        for (Future<Void> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof DatabaseException databaseException) {
+                    throw databaseException;
+                }
+                throw new DatabaseException("Parallel extract range query failed", cause, ErrorType.OP_QUERY);
+            }
+        }
+    }
+
+    /**
+     * Builder for {@link ParallelQueryExtractor}.
+     */
+    public static class Builder {
+        private ConnectionProvider connectionProvider;
+        private String query;
+        private Object[] params = new Object[0];
+        private String partitionColumn;
+        private int parallelism = 4;
+        private Object lowerBound;
+        private Object upperBound;
+        private int fetchSize = 1000;
+        private int queueCapacity = 16;
+
+        public Builder connectionProvider(ConnectionProvider connectionProvider) { this.connectionProvider = connectionProvider; return this; }
+        public Builder query(String query) { this.query = query; return this; }
+        public Builder params(Object... params) { this.params = params; return this; }
+        public Builder partitionColumn(String partitionColumn) { this.partitionColumn = partitionColumn; return this; }
+        public Builder parallelism(int parallelism) { this.parallelism = parallelism; return this; }
+        public Builder bounds(Object lowerBound, Object upperBound) { this.lowerBound = lowerBound; this.upperBound = upperBound; return this; }
+        public Builder fetchSize(int fetchSize) { this.fetchSize = fetchSize; return this; }
+        public Builder queueCapacity(int queueCapacity) { this.queueCapacity = queueCapacity; return this; }
+
+        public ParallelQueryExtractor build() {
+            if (connectionProvider == null) {
+                throw new IllegalArgumentException("Connection provider must be specified");
+            }
+            if (query == null || query.isBlank()) {
+                throw new IllegalArgumentException("Query must be specified");
+            }
+            if (partitionColumn == null || partitionColumn.isBlank()) {
+                throw new IllegalArgumentException("Partition column must be specified");
+            }
+            if (parallelism < 1 || fetchSize < 1 || queueCapacity < 1) {
+                throw new IllegalArgumentException("Parallelism, fetch size and queue capacity must be positive");
+            }
+            if ((lowerBound == null) != (upperBound == null)) {
+                throw new IllegalArgumentException("Both partition bounds must be specified");
+            }
+            if (params == null) {
+                params = new Object[0];
+            }
+            query = query.trim();
+            if (query.endsWith(";")) {
+                query = query.substring(0, query.length() - 1);
+            }
+            return new ParallelQueryExtractor(this);
+        }
+    }
+}
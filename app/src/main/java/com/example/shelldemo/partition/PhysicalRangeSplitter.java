@@ -0,0 +1,65 @@
+package com.example.shelldemo.partition;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.example.shelldemo.config.ConfigurationHolder;
+import com.example.shelldemo.exception.DatabaseException;
+import com.example.shelldemo.exception.DatabaseException.ErrorType;
+
+/**
+ * Splits a table by physical row location (Oracle ROWID ranges per extent, PostgreSQL ctid page ranges)
+ * using the dialect's {@code templates.partition} queries. Useful for tables without a suitable key column.
+ * Physical locators only make sense on the source database.
+ */
+public class PhysicalRangeSplitter implements RangeSplitter {
+    private static final Logger logger = LogManager.getLogger(PhysicalRangeSplitter.class);
+
+    private final String table;
+    private final String rangesSql;
+    private final String predicate;
+
+    public PhysicalRangeSplitter(String dbType, String table) {
+        ConfigurationHolder config = ConfigurationHolder.getInstance();
+        String rangesTemplate = config.getDatabaseTemplate(dbType, "partition", "ranges");
+        String predicateTemplate = config.getDatabaseTemplate(dbType, "partition", "predicate");
+        if (rangesTemplate == null || predicateTemplate == null) {
+            throw new DatabaseException(
+                "Physical range splitting is not supported for " + dbType + "; specify a split column",
+                ErrorType.CONFIG_INVALID);
+        }
+        this.table = table;
+        this.rangesSql = String.format(rangesTemplate, table);
+        this.predicate = predicateTemplate;
+    }
+
+    @Override
+    public List<KeyRange> split(Connection conn) throws SQLException {
+        List<KeyRange> ranges = new ArrayList<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(rangesSql)) {
+            while (rs.next()) {
+                ranges.add(new KeyRange(ranges.size(), KeyRange.BoundType.TEXT, rs.getString(1), rs.getString(2), true));
+            }
+        }
+        logger.debug("Split {} into {} physical ranges", table, ranges.size());
+        return ranges;
+    }
+
+    @Override
+    public String predicate(KeyRange range) {
+        return predicate;
+    }
+
+    @Override
+    public boolean isPortable() {
+        return false;
+    }
+}
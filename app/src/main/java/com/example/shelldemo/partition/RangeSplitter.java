@@ -0,0 +1,27 @@
+package com.example.shelldemo.partition;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Divides a table or query into ranges that can be read independently on separate connections.
+ */
+public interface RangeSplitter {
+
+    /**
+     * Computes the ranges using the given source connection.
+     */
+    List<KeyRange> split(Connection conn) throws SQLException;
+
+    /**
+     * Returns the WHERE predicate selecting one range; its placeholders are bound by {@link KeyRange#bind}.
+     */
+    String predicate(KeyRange range);
+
+    /**
+     * Whether the same predicate selects the same rows on another database, so a partially
+     * written range can be deleted from a copy target before it is written again.
+     */
+    boolean isPortable();
+}
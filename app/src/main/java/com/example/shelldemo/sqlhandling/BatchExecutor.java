@@ -7,6 +7,7 @@ import java.util.List;
 import java.util.Arrays;
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.LogManager;
+import com.example.shelldemo.jfr.BatchFlushEvent;
 
 public class BatchExecutor {
     private static final Logger logger = LogManager.getLogger(BatchExecutor.class);
@@ -25,10 +26,19 @@ public class BatchExecutor {
                 stmt.addBatch(sql);
             }
             
+            BatchFlushEvent event = new BatchFlushEvent();
+            event.begin();
             int[] results = stmt.executeBatch();
+            event.end();
             int totalAffected = Arrays.stream(results)
                 .filter(r -> r != Statement.SUCCESS_NO_INFO)
                 .sum();
+            if (event.shouldCommit()) {
+                event.target = "script";
+                event.rowCount = statements.size();
+                event.updateCount = totalAffected;
+                event.commit();
+            }
             
             logger.debug("Batch execution completed. Total rows affected: {}", totalAffected);
             return statements.size();
@@ -0,0 +1,342 @@
+package com.example.shelldemo.sqlhandling;
+
+import java.io.BufferedWriter;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongConsumer;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.example.shelldemo.metrics.Phase;
+import com.example.shelldemo.metrics.RunMetrics;
+
+/**
+ * Writes query results to the console as a plain text table while rows are read.
+ *
+ * <p>Column widths are taken from the first {@code sampleRows} rows, which are the only rows held in memory;
+ * later rows are written as they arrive. Text wider than a column is cut off and line breaks are replaced, so
+ * every row is one line.
+ * Output contains no escape sequences and can be piped into a pager. With a page size, the header is repeated
+ * every page. If the reader goes away, e.g. the pager is closed, the remaining rows are skipped instead of
+ * failing the statement.</p>
+ *
+ * <p>Instances must be created via {@link #builder()}.</p>
+ */
+public final class ConsoleTableRenderer implements ResultSetStreamer {
+    private static final Logger logger = LogManager.getLogger(ConsoleTableRenderer.class);
+    private static final String NEWLINE = System.lineSeparator();
+    private static final String ELLIPSIS = "...";
+    private static final String COLUMN_GAP = "  ";
+
+    private final Writer out;
+    private final int sampleRows;
+    private final int maxColumnWidth;
+    private final int pageSize;
+    private final String nullText;
+    private final RunMetrics metrics;
+    private volatile boolean outputClosed;
+
+    /**
+     * Supplies rows one at a time; returns null after the last row.
+     */
+    @FunctionalInterface
+    private interface RowSource {
+        Object[] next() throws SQLException;
+    }
+
+    private ConsoleTableRenderer(Builder builder) {
+        OutputStream stream = builder.output != null ? builder.output : new FileOutputStream(FileDescriptor.out);
+        this.out = new BufferedWriter(new OutputStreamWriter(stream, builder.charset), builder.bufferSize);
+        this.sampleRows = builder.sampleRows;
+        this.maxColumnWidth = builder.maxColumnWidth;
+        this.pageSize = builder.pageSize;
+        this.nullText = builder.nullText;
+        this.metrics = builder.metrics;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Renders the remaining rows of a result set. Reading stops early if the console output was closed.
+     * With metrics, the time spent reading rows is recorded as one {@link Phase#FETCH} sample.
+     *
+     * @return number of rows read
+     */
+    public long render(ResultSet rs) throws SQLException {
+        return render(rs, fetchNanos -> { });
+    }
+
+    /**
+     * Renders the remaining rows of a result set like {@link #render(ResultSet)}.
+     *
+     * @param fetchTime receives the time spent reading rows, without the time spent printing them
+     * @return number of rows read
+     */
+    public long render(ResultSet rs, LongConsumer fetchTime) throws SQLException {
+        ResultSetMetaData metaData = rs.getMetaData();
+        int columnCount = metaData.getColumnCount();
+        String[] headers = new String[columnCount];
+        for (int i = 1; i <= columnCount; i++) {
+            String label = metaData.getColumnLabel(i);
+            headers[i - 1] = label == null || label.isEmpty() ? metaData.getColumnName(i) : label;
+        }
+        long[] fetchNanos = new long[1];
+        try {
+            return render(headers, () -> {
+                long start = System.nanoTime();
+                if (!rs.next()) {
+                    fetchNanos[0] += System.nanoTime() - start;
+                    return null;
+                }
+                Object[] row = new Object[columnCount];
+                for (int i = 0; i < columnCount; i++) {
+                    row[i] = rs.getObject(i + 1);
+                }
+                fetchNanos[0] += System.nanoTime() - start;
+                if (metrics != null) {
+                    metrics.rowFetched(row);
+                }
+                return row;
+            });
+        } finally {
+            if (metrics != null) {
+                metrics.record(Phase.FETCH, fetchNanos[0]);
+            }
+            fetchTime.accept(fetchNanos[0]);
+        }
+    }
+
+    /**
+     * Renders rows that are already in memory, e.g. a cached result. Columns are taken from the first row.
+     *
+     * @return number of rows
+     */
+    public long render(List<Map<String, Object>> rows) {
+        String[] headers = rows.isEmpty() ? new String[0] : rows.get(0).keySet().toArray(new String[0]);
+        Iterator<Map<String, Object>> iterator = rows.iterator();
+        try {
+            return render(headers, () -> {
+                if (!iterator.hasNext()) {
+                    return null;
+                }
+                Map<String, Object> row = iterator.next();
+                Object[] values = new Object[headers.length];
+                for (int i = 0; i < headers.length; i++) {
+                    values[i] = row.get(headers[i]);
+                }
+                return values;
+            });
+        } catch (SQLException e) {
+            throw new IllegalStateException("Unexpected SQL error rendering cached rows", e);
+        }
+    }
+
+    /**
+     * Streams the result set to the console. Rows are written as they are read, so no batch size applies.
+     */
+    @Override
+    public void stream(ResultSet rs, int batchSize) throws SQLException {
+        render(rs);
+    }
+
+    private long render(String[] headers, RowSource rows) throws SQLException {
+        List<Object[]> sample = new ArrayList<>(Math.min(sampleRows, 1024));
+        Object[] row;
+        while (sample.size() < sampleRows && (row = rows.next()) != null) {
+            sample.add(row);
+        }
+
+        // Keep the log output written so far ahead of the table
+        System.out.flush();
+        long count = 0;
+        try {
+            if (sample.isEmpty()) {
+                write("No results." + NEWLINE);
+                return 0;
+            }
+
+            int[] widths = new int[headers.length];
+            boolean[] rightAligned = new boolean[headers.length];
+            measure(headers, sample, widths, rightAligned);
+
+            writeHeader(headers, widths);
+            for (Object[] sampled : sample) {
+                writeRow(headers, sampled, widths, rightAligned, count++);
+            }
+            sample.clear();
+            while (!outputClosed && (row = rows.next()) != null) {
+                writeRow(headers, row, widths, rightAligned, count++);
+            }
+            write(NEWLINE + "(" + count + (count == 1 ? " row)" : " rows)") + NEWLINE);
+            return count;
+        } finally {
+            flush();
+        }
+    }
+
+    private void measure(String[] headers, List<Object[]> sample, int[] widths, boolean[] rightAligned) {
+        for (int c = 0; c < headers.length; c++) {
+            int width = headers[c].length();
+            boolean numeric = true;
+            for (Object[] row : sample) {
+                Object value = row[c];
+                width = Math.max(width, text(value).length());
+                numeric &= value == null || value instanceof Number;
+            }
+            widths[c] = Math.min(width, maxColumnWidth);
+            rightAligned[c] = numeric;
+        }
+    }
+
+    private void writeHeader(String[] headers, int[] widths) {
+        StringBuilder line = new StringBuilder();
+        StringBuilder rule = new StringBuilder();
+        for (int c = 0; c < headers.length; c++) {
+            boolean last = c == headers.length - 1;
+            appendCell(line, headers[c], widths[c], false, last);
+            rule.append("-".repeat(widths[c]));
+            if (!last) {
+                rule.append(COLUMN_GAP);
+            }
+        }
+        write(line.append(NEWLINE).append(rule).append(NEWLINE).toString());
+    }
+
+    private void writeRow(String[] headers, Object[] row, int[] widths, boolean[] rightAligned, long rowsBefore) {
+        if (pageSize > 0 && rowsBefore > 0 && rowsBefore % pageSize == 0) {
+            writeHeader(headers, widths);
+        }
+        StringBuilder line = new StringBuilder();
+        for (int c = 0; c < row.length; c++) {
+            // Numbers are never cut off, a wider number shifts the rest of its line instead
+            int width = row[c] instanceof Number ? Math.max(widths[c], text(row[c]).length()) : widths[c];
+            appendCell(line, text(row[c]), width, rightAligned[c], c == row.length - 1);
+        }
+        write(line.append(NEWLINE).toString());
+    }
+
+    private static void appendCell(StringBuilder line, String value, int width, boolean rightAligned, boolean last) {
+        if (value.length() > width) {
+            value = width > ELLIPSIS.length()
+                ? value.substring(0, width - ELLIPSIS.length()) + ELLIPSIS
+                : value.substring(0, width);
+        }
+        int padding = width - value.length();
+        if (rightAligned) {
+            line.append(" ".repeat(padding)).append(value);
+        } else {
+            line.append(value);
+            if (!last) {
+                line.append(" ".repeat(padding));
+            }
+        }
+        if (!last) {
+            line.append(COLUMN_GAP);
+        }
+    }
+
+    private String text(Object value) {
+        if (value == null) {
+            return nullText;
+        }
+        String text = value.toString();
+        // Line breaks and tabs would break the table layout
+        for (int i = 0; i < text.length(); i++) {
+            if (Character.isISOControl(text.charAt(i))) {
+                return replaceControlCharacters(text);
+            }
+        }
+        return text;
+    }
+
+    private static String replaceControlCharacters(String text) {
+        StringBuilder replaced = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char ch = text.charAt(i);
+            replaced.append(Character.isISOControl(ch) ? ' ' : ch);
+        }
+        return replaced.toString();
+    }
+
+    private void write(String text) {
+        if (outputClosed) {
+            return;
+        }
+        try {
+            out.write(text);
+        } catch (IOException e) {
+            markClosed(e);
+        }
+    }
+
+    private void flush() {
+        if (outputClosed) {
+            return;
+        }
+        try {
+            out.flush();
+        } catch (IOException e) {
+            markClosed(e);
+        }
+    }
+
+    private void markClosed(IOException e) {
+        outputClosed = true;
+        logger.debug("Console output closed, remaining rows are not printed: {}", e.getMessage());
+    }
+
+    public static class Builder {
+        private OutputStream output;
+        private Charset charset = System.out.charset();
+        private int bufferSize = 64 * 1024;
+        private int sampleRows = 100;
+        private int maxColumnWidth = 40;
+        private int pageSize;
+        private String nullText = "(null)";
+        private RunMetrics metrics;
+
+        /** Stream to write to instead of the process standard output. */
+        public Builder output(OutputStream output) { this.output = output; return this; }
+        public Builder charset(Charset charset) { this.charset = charset; return this; }
+        public Builder bufferSize(int bufferSize) { this.bufferSize = bufferSize; return this; }
+        /** Number of leading rows used to size the columns. */
+        public Builder sampleRows(int sampleRows) { this.sampleRows = sampleRows; return this; }
+        public Builder maxColumnWidth(int maxColumnWidth) { this.maxColumnWidth = maxColumnWidth; return this; }
+        /** Repeats the header every given number of rows; 0 prints it once. */
+        public Builder pageSize(int pageSize) { this.pageSize = pageSize; return this; }
+        public Builder nullText(String nullText) { this.nullText = nullText; return this; }
+        /** Counts fetched rows and bytes and records fetch time of streamed results. */
+        public Builder metrics(RunMetrics metrics) { this.metrics = metrics; return this; }
+
+        public ConsoleTableRenderer build() {
+            if (sampleRows < 1) {
+                throw new IllegalArgumentException("sampleRows must be positive");
+            }
+            if (maxColumnWidth < 1) {
+                throw new IllegalArgumentException("maxColumnWidth must be positive");
+            }
+            if (pageSize < 0) {
+                throw new IllegalArgumentException("pageSize must not be negative");
+            }
+            if (bufferSize < 1) {
+                throw new IllegalArgumentException("bufferSize must be positive");
+            }
+            return new ConsoleTableRenderer(this);
+        }
+    }
+}
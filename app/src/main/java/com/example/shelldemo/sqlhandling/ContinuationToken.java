@@ -0,0 +1,93 @@
+package com.example.shelldemo.sqlhandling;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import com.example.shelldemo.exception.DatabaseException;
+import com.example.shelldemo.exception.DatabaseException.ErrorType;
+
+/**
+ * Opaque keyset pagination token: the ordering key values of the last row of a page, tagged with their
+ * type so they bind with the same JDBC type on the next request, plus a hash of the query they belong to.
+ * Encoded as URL-safe Base64 JSON.
+ */
+final class ContinuationToken {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private ContinuationToken() {
+        throw new AssertionError("Utility class - do not instantiate");
+    }
+
+    static String encode(int queryHash, List<Object> keyValues) {
+        ObjectNode root = MAPPER.createObjectNode();
+        root.put("q", queryHash);
+        ArrayNode keys = root.putArray("k");
+        for (Object value : keyValues) {
+            ObjectNode key = keys.addObject();
+            if (value instanceof Number) {
+                key.put("t", "n").put("v", new BigDecimal(value.toString()).toPlainString());
+            } else if (value instanceof Timestamp timestamp) {
+                key.put("t", "ts").put("v", timestamp.toString());
+            } else if (value instanceof LocalDateTime dateTime) {
+                key.put("t", "ts").put("v", Timestamp.valueOf(dateTime).toString());
+            } else if (value instanceof Date || value instanceof LocalDate) {
+                key.put("t", "d").put("v", value.toString());
+            } else if (value instanceof Time) {
+                key.put("t", "tm").put("v", value.toString());
+            } else if (value instanceof Boolean bool) {
+                key.put("t", "b").put("v", bool.toString());
+            } else {
+                key.put("t", "s").put("v", value.toString());
+            }
+        }
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(MAPPER.writeValueAsBytes(root));
+        } catch (java.io.IOException e) {
+            throw new DatabaseException("Failed to encode continuation token", e, ErrorType.OP_QUERY);
+        }
+    }
+
+    /**
+     * Decodes the key values of a token issued for the same query.
+     *
+     * @throws DatabaseException if the token is malformed or belongs to another query
+     */
+    static List<Object> decode(String token, int queryHash, int keyCount) {
+        JsonNode root;
+        try {
+            root = MAPPER.readTree(new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException | java.io.IOException e) {
+            throw new DatabaseException("Invalid continuation token", e, ErrorType.OP_QUERY);
+        }
+        JsonNode keys = root.path("k");
+        if (root.path("q").asInt() != queryHash || !keys.isArray() || keys.size() != keyCount) {
+            throw new DatabaseException("Continuation token does not belong to this query", ErrorType.OP_QUERY);
+        }
+        List<Object> values = new ArrayList<>(keyCount);
+        for (JsonNode key : keys) {
+            String value = key.path("v").asText();
+            values.add(switch (key.path("t").asText()) {
+                case "n" -> new BigDecimal(value);
+                case "ts" -> Timestamp.valueOf(value);
+                case "d" -> Date.valueOf(value);
+                case "tm" -> Time.valueOf(value);
+                case "b" -> Boolean.valueOf(value);
+                default -> value;
+            });
+        }
+        return values;
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.shelldemo.sqlhandling;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One page of a keyset-paginated query.
+ *
+ * @param rows rows of this page
+ * @param nextToken token for the following page, or null if this is the last page
+ */
+public record KeysetPage(List<Map<String, Object>> rows, String nextToken) {
+
+    public boolean hasNext() {
+        return nextToken != null;
+    }
+}
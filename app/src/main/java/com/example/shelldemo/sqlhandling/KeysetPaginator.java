@@ -0,0 +1,130 @@
+package com.example.shelldemo.sqlhandling;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.example.shelldemo.config.ConfigurationHolder;
+import com.example.shelldemo.exception.DatabaseException;
+import com.example.shelldemo.exception.DatabaseException.ErrorType;
+
+/**
+ * Keyset (seek) pagination over an arbitrary query.
+ *
+ * <p>The query is wrapped as a subselect, ordered by the key columns and limited with the dialect's
+ * {@code templates.pagination.first} template. Later pages continue after the key of the previous page's
+ * last row, e.g. {@code a > ? OR (a = ? AND b > ?)}, so every page costs the same as the first one given an
+ * index on the keys. The key columns must be non-null and together unique.</p>
+ */
+public class KeysetPaginator {
+    private static final Logger logger = LogManager.getLogger(KeysetPaginator.class);
+
+    private final String dbType;
+    private final ResultSetProcessor resultSetProcessor = new ResultSetProcessor();
+
+    public KeysetPaginator(String dbType) {
+        this.dbType = dbType.toLowerCase();
+    }
+
+    /**
+     * Fetches the page following the given token.
+     *
+     * @param sql query without ORDER BY or row limiting
+     * @param keyColumns ordering key columns of the query result, in order
+     * @param pageSize maximum rows per page
+     * @param token continuation token from the previous page, or null for the first page
+     * @param params bind values for placeholders in the query
+     */
+    public KeysetPage fetch(Connection conn, String sql, List<String> keyColumns, int pageSize,
+                            String token, Object... params) throws SQLException {
+        if (keyColumns == null || keyColumns.isEmpty()) {
+            throw new IllegalArgumentException("At least one key column is required for keyset pagination");
+        }
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("Page size must be positive");
+        }
+        int queryHash = (sql + keyColumns).hashCode();
+        List<Object> after = token != null ? ContinuationToken.decode(token, queryHash, keyColumns.size()) : List.of();
+        String pageSql = buildSql(sql, keyColumns, pageSize + 1, !after.isEmpty());
+        logger.debug("Fetching keyset page: {}", pageSql);
+
+        try (PreparedStatement stmt = conn.prepareStatement(pageSql)) {
+            int index = 1;
+            for (Object param : params) {
+                stmt.setObject(index++, param);
+            }
+            for (int i = 0; i < after.size(); i++) {
+                // a > ? OR (a = ? AND b > ?) binds a prefix of equalities followed by one comparison
+                for (int j = 0; j <= i; j++) {
+                    stmt.setObject(index++, after.get(j));
+                }
+            }
+            stmt.setFetchSize(pageSize + 1);
+
+            List<Map<String, Object>> rows = new ArrayList<>(pageSize);
+            List<Object> lastKey = null;
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    if (rows.size() == pageSize) {
+                        return new KeysetPage(rows, ContinuationToken.encode(queryHash, lastKey));
+                    }
+                    rows.add(resultSetProcessor.processRow(rs));
+                    lastKey = readKey(rs, keyColumns);
+                }
+            }
+            return new KeysetPage(rows, null);
+        }
+    }
+
+    String buildSql(String sql, List<String> keyColumns, int limit, boolean seek) {
+        StringBuilder query = new StringBuilder("SELECT * FROM (").append(stripTrailingSemicolon(sql)).append(") page_src");
+        if (seek) {
+            query.append(" WHERE ").append(seekPredicate(keyColumns));
+        }
+        query.append(" ORDER BY ").append(String.join(", ", keyColumns));
+
+        String template = ConfigurationHolder.getInstance().getDatabaseTemplate(dbType, "pagination", "first");
+        if (template == null) {
+            throw new DatabaseException("No pagination template configured for " + dbType, ErrorType.CONFIG_INVALID);
+        }
+        return String.format(template, query, limit, 0);
+    }
+
+    private static String seekPredicate(List<String> keyColumns) {
+        List<String> terms = new ArrayList<>(keyColumns.size());
+        for (int i = 0; i < keyColumns.size(); i++) {
+            StringBuilder term = new StringBuilder("(");
+            for (int j = 0; j < i; j++) {
+                term.append(keyColumns.get(j)).append(" = ? AND ");
+            }
+            term.append(keyColumns.get(i)).append(" > ?)");
+            terms.add(term.toString());
+        }
+        return "(" + String.join(" OR ", terms) + ")";
+    }
+
+    private static List<Object> readKey(ResultSet rs, List<String> keyColumns) throws SQLException {
+        List<Object> key = new ArrayList<>(keyColumns.size());
+        for (String column : keyColumns) {
+            Object value = rs.getObject(column);
+            if (value == null) {
+                throw new DatabaseException("Key column " + column + " is NULL; keyset pagination requires non-null keys",
+                    ErrorType.OP_QUERY);
+            }
+            key.add(value);
+        }
+        return key;
+    }
+
+    private static String stripTrailingSemicolon(String sql) {
+        String trimmed = sql.trim();
+        return trimmed.endsWith(";") ? trimmed.substring(0, trimmed.length() - 1) : trimmed;
+    }
+}
@@ -0,0 +1,194 @@
+package com.example.shelldemo.sqlhandling;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.example.shelldemo.config.ConfigurationHolder;
+import com.example.shelldemo.parser.StatementFingerprint;
+
+/**
+ * Appends statements that ran longer than a threshold to a log file together with their execution plan.
+ *
+ * <p>Slow statements are only noted while the script runs. Their plans are fetched together by
+ * {@link #explainPending}, once the script is done, on the script's own connection, so that a slow run neither
+ * stalls on an extra round trip after every slow statement nor opens a connection per slow statement. Plans are
+ * requested with the dialect's {@code sql} / {@code validation.explain} template; if the dialect also configures
+ * {@code validation.explainOutput}, that query reads the plan the explain statement stored, as Oracle's
+ * {@code DBMS_XPLAN} requires. A plan that cannot be fetched, e.g. for DDL, is noted in the entry instead of
+ * failing the run.</p>
+ *
+ * <p>Entries are plain text, each headed by a comment line with the time, the statement's position in the script,
+ * its {@link StatementFingerprint} and the elapsed time, so that repeated offenders can be grepped by fingerprint.</p>
+ *
+ * <p>Instances must be created via {@link #builder()}.</p>
+ */
+public final class SlowStatementLog {
+    private static final Logger logger = LogManager.getLogger(SlowStatementLog.class);
+    private static final String NEWLINE = System.lineSeparator();
+
+    private final Path file;
+    private final long thresholdNanos;
+    private final Duration explainTimeout;
+    private final List<SlowStatement> pending = new ArrayList<>();
+
+    private SlowStatementLog(Builder builder) {
+        this.file = builder.file;
+        this.thresholdNanos = builder.threshold.toNanos();
+        this.explainTimeout = builder.explainTimeout;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public Path file() {
+        return file;
+    }
+
+    public boolean isSlow(long elapsedNanos) {
+        return elapsedNanos >= thresholdNanos;
+    }
+
+    /**
+     * Notes the statement for {@link #explainPending} if it exceeded the threshold.
+     *
+     * @param ordinal position of the statement in the script
+     * @param sql the statement as executed
+     * @param elapsedNanos time the statement took to execute and fetch its result, without console output
+     * @return true if the statement will be logged
+     */
+    public boolean record(int ordinal, String sql, long elapsedNanos) {
+        if (!isSlow(elapsedNanos)) {
+            return false;
+        }
+        String fingerprint = StatementFingerprint.of(sql);
+        double millis = TimeUnit.NANOSECONDS.toMicros(elapsedNanos) / 1000.0;
+        logger.warn("Slow statement #{} ({}) took {} ms, plan will be written to {}", ordinal, fingerprint,
+            String.format("%.1f", millis), file);
+        synchronized (pending) {
+            pending.add(new SlowStatement(Instant.now(), ordinal, fingerprint, sql, millis));
+        }
+        return true;
+    }
+
+    /**
+     * Fetches the plans of the statements noted so far and appends their entries to the log file.
+     *
+     * @param connection connection to explain on, normally the script's own once it is done;
+     *        {@code null} writes the entries without plans
+     * @param dbType database type whose explain templates are used
+     * @return number of entries written
+     */
+    public int explainPending(Connection connection, String dbType) {
+        List<SlowStatement> statements;
+        synchronized (pending) {
+            statements = new ArrayList<>(pending);
+            pending.clear();
+        }
+        StringBuilder entries = new StringBuilder();
+        for (SlowStatement statement : statements) {
+            entries.append("-- ").append(statement.loggedAt()).append(" statement #").append(statement.ordinal())
+                .append(" fingerprint ").append(statement.fingerprint())
+                .append(String.format(" %.1f ms", statement.millis())).append(NEWLINE);
+            entries.append(statement.sql().strip()).append(NEWLINE);
+            entries.append("-- plan:").append(NEWLINE);
+            entries.append(connection == null ? "-- not available: no connection" : explain(connection, dbType, statement.sql()))
+                .append(NEWLINE).append(NEWLINE);
+        }
+        if (!statements.isEmpty()) {
+            append(entries.toString());
+        }
+        return statements.size();
+    }
+
+    private String explain(Connection connection, String dbType, String sql) {
+        ConfigurationHolder config = ConfigurationHolder.getInstance();
+        String explainTemplate = config.getSqlTemplate(dbType, "validation.explain");
+        if (explainTemplate == null) {
+            return "-- not available: no explain template configured for " + dbType;
+        }
+        String outputQuery = config.getSqlTemplate(dbType, "validation.explainOutput");
+        try (Statement stmt = connection.createStatement()) {
+            stmt.setQueryTimeout((int) explainTimeout.toSeconds());
+            boolean hasResultSet = stmt.execute(String.format(explainTemplate, sql));
+            if (outputQuery != null) {
+                try (ResultSet rs = stmt.executeQuery(outputQuery)) {
+                    return readPlan(rs);
+                }
+            }
+            // Some dialects wrap the statement in settings, so the plan is not necessarily the first result
+            while (!hasResultSet && stmt.getUpdateCount() != -1) {
+                hasResultSet = stmt.getMoreResults();
+            }
+            if (!hasResultSet) {
+                return "-- not available: explain returned no plan";
+            }
+            try (ResultSet rs = stmt.getResultSet()) {
+                return readPlan(rs);
+            }
+        } catch (SQLException e) {
+            logger.debug("Failed to fetch plan for slow statement", e);
+            return "-- not available: " + e.getMessage().split("\n")[0];
+        }
+    }
+
+    private static String readPlan(ResultSet rs) throws SQLException {
+        StringBuilder plan = new StringBuilder();
+        while (rs.next()) {
+            plan.append(rs.getString(1)).append(NEWLINE);
+        }
+        return plan.toString().stripTrailing();
+    }
+
+    private synchronized void append(String entry) {
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            Files.writeString(file, entry, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            logger.warn("Failed to write slow statement log {}: {}", file, e.getMessage());
+        }
+    }
+
+    private record SlowStatement(Instant loggedAt, int ordinal, String fingerprint, String sql, double millis) {}
+
+    public static class Builder {
+        private Path file;
+        private Duration threshold = Duration.ofSeconds(1);
+        private Duration explainTimeout = Duration.ofSeconds(20);
+
+        public Builder file(Path file) { this.file = file; return this; }
+        /** Statements taking at least this long are logged. */
+        public Builder threshold(Duration threshold) { this.threshold = threshold; return this; }
+        public Builder explainTimeout(Duration explainTimeout) { this.explainTimeout = explainTimeout; return this; }
+
+        public SlowStatementLog build() {
+            if (file == null) {
+                throw new IllegalArgumentException("file is required");
+            }
+            if (threshold == null || threshold.isNegative()) {
+                throw new IllegalArgumentException("threshold must not be negative");
+            }
+            if (explainTimeout == null || explainTimeout.isNegative()) {
+                throw new IllegalArgumentException("explainTimeout must not be negative");
+            }
+            return new SlowStatementLog(this);
+        }
+    }
+}
@@ -50,8 +50,9 @@ public class StatementExecutor {
     }
     
     private void executeRegular(String sql, StatementHandler handler) throws SQLException {
-        logger.debug("Creating prepared statement for regular SQL execution");
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+        logger.debug("Creating statement for regular SQL execution");
+        // Handlers call execute(String), which JDBC forbids on a PreparedStatement
+        try (Statement stmt = connection.createStatement()) {
             handler.handle(stmt, sql);
             logger.debug("Regular SQL statement executed successfully");
         } catch (SQLException e) {
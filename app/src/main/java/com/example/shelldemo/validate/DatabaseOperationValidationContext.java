@@ -7,6 +7,7 @@ public class DatabaseOperationValidationContext {
     private final Connection connection;
     private final boolean showExplainPlan;
     private int statementCount;
+    private int skippedCount;
     private String currentUsername;
 
     public DatabaseOperationValidationContext(Connection connection, boolean showExplainPlan) 
@@ -36,4 +37,12 @@ public class DatabaseOperationValidationContext {
     public int getStatementCount() {
         return statementCount;
     }
+
+    public void skipped() {
+        skippedCount++;
+    }
+
+    public int getSkippedCount() {
+        return skippedCount;
+    }
 }
\ No newline at end of file
@@ -1,7 +1,9 @@
 package com.example.shelldemo.validate;
 
 
+import com.example.shelldemo.config.ConfigurationHolder;
 import com.example.shelldemo.parser.SqlScriptParser;
+import com.example.shelldemo.parser.SqlTableExtractor;
 import com.example.shelldemo.exception.DatabaseException;
 import com.example.shelldemo.exception.DatabaseException.ErrorType;
 import org.apache.logging.log4j.LogManager;
@@ -9,6 +11,7 @@ import org.apache.logging.log4j.Logger;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.io.File;
+import java.sql.SQLFeatureNotSupportedException;
 import java.sql.Statement;
 
 public class DatabaserOperationValidator {
@@ -34,8 +37,8 @@ public class DatabaserOperationValidator {
                 validateStatement(statement.trim(), context);
             }
             
-            logger.info("Validation completed successfully. {} statements validated.", 
-                context.getStatementCount());
+            logger.info("Validation completed successfully. {} statements validated, {} not validated.",
+                context.getStatementCount() - context.getSkippedCount(), context.getSkippedCount());
         } catch (Exception e) {
             logger.error("Failed to validate script: {}", scriptPath, e);
             throw new DatabaseException(
@@ -56,6 +59,11 @@ public class DatabaserOperationValidator {
         }
 
         int statementNum = context.incrementAndGetCount();
+        if (!canValidate(statement)) {
+            context.skipped();
+            logger.warn("Statement {} not validated: DDL cannot be validated without executing it", statementNum);
+            return;
+        }
         logger.info("Validating statement {}", statementNum);
 
         try {
@@ -75,6 +83,52 @@ public class DatabaserOperationValidator {
         }
     }
 
+    /**
+     * Checks one statement on the given connection without executing it and without wrapping the driver's error.
+     * DDL cannot be checked this way, see {@link #canValidate}.
+     *
+     * @return the execution plan if {@code showExplainPlan} is set and the statement has one, otherwise null
+     * @throws SQLFeatureNotSupportedException if the statement is DDL
+     * @throws SQLException if the database rejects the statement
+     */
+    public String checkStatement(Connection conn, String statement, boolean showExplainPlan) throws SQLException {
+        if (!canValidate(statement)) {
+            throw new SQLFeatureNotSupportedException("DDL cannot be validated without executing it");
+        }
+        if (isPLSQL(statement)) {
+            validateSyntax(conn, statement, true);
+            return null;
+        }
+        if (showExplainPlan) {
+            try {
+                return getExplainPlan(conn, statement);
+            } catch (DatabaseException e) {
+                if (e.getCause() instanceof SQLException sqlException) {
+                    throw sqlException;
+                }
+                throw e;
+            }
+        }
+        validateSyntax(conn, statement, false);
+        return null;
+    }
+
+    /**
+     * Tells whether a statement can be checked without executing it. DDL cannot: it has no plan to explain,
+     * preparing it proves nothing with most drivers, and parsing it with {@code DBMS_SQL.PARSE} runs it.
+     */
+    public static boolean canValidate(String statement) {
+        return !isDdl(statement);
+    }
+
+    private static boolean isDdl(String statement) {
+        String keyword = SqlTableExtractor.firstKeyword(statement);
+        return switch (keyword) {
+            case "create", "alter", "drop", "truncate", "grant", "revoke", "comment", "rename" -> true;
+            default -> false;
+        };
+    }
+
     /**
      * Validates PL/SQL specific statements
      */
@@ -124,7 +178,7 @@ public class DatabaserOperationValidator {
             case "postgresql" -> "EXPLAIN " + sql;
             case "mysql" -> "EXPLAIN FORMAT=TREE " + sql;
             case "sqlserver" -> "SET PARSEONLY ON; " + sql + "; SET PARSEONLY OFF;";
-            default -> throw new SQLException("Syntax validation not supported for " + dbType);
+            default -> configuredTemplate("validation.sql", sql, "Syntax validation");
         };
 
         try (Statement stmt = conn.createStatement()) {
@@ -132,6 +186,18 @@ public class DatabaserOperationValidator {
         }
     }
 
+    /**
+     * Applies a dialect's validation template for database types without built-in support.
+     */
+    private String configuredTemplate(String templateName, String sql, String purpose) throws SQLException {
+        ConfigurationHolder config = ConfigurationHolder.getInstance();
+        String template = config.isValidDbType(dbType) ? config.getSqlTemplate(dbType, templateName) : null;
+        if (template == null) {
+            throw new SQLException(purpose + " not supported for " + dbType);
+        }
+        return String.format(template, sql);
+    }
+
     /**
      * Formats validation error message
      */
@@ -160,7 +226,7 @@ public class DatabaserOperationValidator {
             case "postgresql" -> "EXPLAIN (ANALYZE false, COSTS true, FORMAT TEXT) " + sql;
             case "mysql" -> "EXPLAIN FORMAT=TREE " + sql;
             case "sqlserver" -> "SET SHOWPLAN_XML ON; " + sql + "; SET SHOWPLAN_XML OFF;";
-            default -> throw new SQLException("Explain plan not supported for " + dbType);
+            default -> configuredTemplate("validation.explain", sql, "Explain plan");
         };
         
         try (Statement stmt = conn.createStatement()) {
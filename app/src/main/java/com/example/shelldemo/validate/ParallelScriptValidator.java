@@ -0,0 +1,237 @@
+package com.example.shelldemo.validate;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.example.shelldemo.connection.ConnectionProvider;
+import com.example.shelldemo.exception.DatabaseException;
+import com.example.shelldemo.exception.DatabaseException.ErrorType;
+
+/**
+ * Validates the statements of a script over several connections at once.
+ *
+ * <p>Each of {@code parallelism} virtual threads opens its own connection and takes statements from a shared
+ * queue until it is empty, checking them with {@link DatabaserOperationValidator#checkStatement}. Nothing is
+ * executed. Unlike the serial pre-flight, a rejected statement does not stop validation: every failure is
+ * collected and the {@link Report} lists the results in script order.</p>
+ *
+ * <p>Statements are checked independently, so a statement that depends on an object created earlier in the same
+ * script is reported as invalid unless the object already exists. DDL is reported as skipped, since it cannot be
+ * checked without executing it.</p>
+ *
+ * <p>With a {@link ValidationCache}, outcomes of earlier runs are reused for statements whose text and referenced
+ * tables have not changed, and only the remaining statements are sent to the database.</p>
+ *
+ * <p>Instances must be created via {@link #builder()}.</p>
+ */
+public final class ParallelScriptValidator {
+    private static final Logger logger = LogManager.getLogger(ParallelScriptValidator.class);
+
+    private final ConnectionProvider connectionProvider;
+    private final String dbType;
+    private final DatabaserOperationValidator validator;
+    private final int parallelism;
+    private final boolean showExplainPlan;
+    private final ValidationCache cache;
+
+    /**
+     * Outcome of one statement; {@code error} is null if it is valid and {@code plan} is only set when requested.
+     * {@code cached} results were taken from the {@link ValidationCache}. {@code skipped} statements, i.e. DDL,
+     * were not checked at all and are neither valid nor failed.
+     */
+    public record Result(int ordinal, String sql, String error, String plan, boolean cached, boolean skipped) {
+        static Result skipped(int ordinal, String sql) {
+            return new Result(ordinal, sql, null, null, false, true);
+        }
+
+        public boolean valid() {
+            return error == null && !skipped;
+        }
+    }
+
+    /**
+     * Results of all statements in script order.
+     */
+    public record Report(List<Result> results) {
+        public List<Result> failures() {
+            return results.stream().filter(result -> result.error() != null).toList();
+        }
+
+        /** Statements that could not be validated without executing them. */
+        public List<Result> skipped() {
+            return results.stream().filter(Result::skipped).toList();
+        }
+
+        /** Whether no statement failed; skipped statements do not count either way. */
+        public boolean valid() {
+            return failures().isEmpty();
+        }
+    }
+
+    private ParallelScriptValidator(Builder builder) {
+        this.connectionProvider = builder.connectionProvider;
+        this.dbType = builder.dbType;
+        this.validator = new DatabaserOperationValidator(builder.dbType);
+        this.parallelism = builder.parallelism;
+        this.showExplainPlan = builder.showExplainPlan;
+        this.cache = builder.cache;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Checks all statements and waits for the result.
+     *
+     * @param statements statements by their position in the script
+     * @throws DatabaseException if a connection cannot be opened or validation is interrupted
+     */
+    public Report validate(Map<Integer, String> statements) {
+        Queue<Result> results = new ConcurrentLinkedQueue<>();
+        Set<Integer> transientFailures = ConcurrentHashMap.newKeySet();
+        Map<Integer, String> keys = cacheKeys(statements);
+        Queue<Map.Entry<Integer, String>> pending = new ConcurrentLinkedQueue<>();
+        for (Map.Entry<Integer, String> entry : statements.entrySet()) {
+            if (!DatabaserOperationValidator.canValidate(entry.getValue())) {
+                results.add(Result.skipped(entry.getKey(), entry.getValue().trim()));
+                continue;
+            }
+            String key = keys.get(entry.getKey());
+            ValidationCache.Outcome outcome = key != null ? cache.get(key) : null;
+            if (outcome != null) {
+                results.add(new Result(entry.getKey(), entry.getValue().trim(), outcome.error(), outcome.plan(), true, false));
+            } else {
+                pending.add(entry);
+            }
+        }
+        if (cache != null) {
+            logger.info("Validation cache answered {} of {} statements", results.size(), statements.size());
+        }
+
+        int workers = Math.min(parallelism, pending.size());
+        logger.info("Validating {} statements on {} connections", pending.size(), workers);
+
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            List<Future<Void>> futures = new ArrayList<>();
+            for (int i = 0; i < workers; i++) {
+                futures.add(executor.submit(() -> {
+                    checkAll(pending, results, transientFailures);
+                    return null;
+                }));
+            }
+            awaitAll(futures);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DatabaseException("Script validation interrupted", e, ErrorType.PARSE_SQL);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        List<Result> ordered = new ArrayList<>(results);
+        ordered.sort(Comparator.comparingInt(Result::ordinal));
+        for (Result result : ordered) {
+            String key = keys.get(result.ordinal());
+            if (key != null && !result.cached() && !result.skipped() && !transientFailures.contains(result.ordinal())) {
+                cache.put(key, new ValidationCache.Outcome(result.error(), result.plan()));
+            }
+        }
+        return new Report(ordered);
+    }
+
+    private Map<Integer, String> cacheKeys(Map<Integer, String> statements) {
+        if (cache == null || statements.isEmpty()) {
+            return Map.of();
+        }
+        try (Connection conn = connectionProvider.getConnection()) {
+            return cache.keys(conn, dbType, statements, showExplainPlan);
+        } catch (SQLException e) {
+            logger.warn("Validation cache not used, schema versions could not be read: {}", e.getMessage());
+            return Map.of();
+        }
+    }
+
+    private void checkAll(Queue<Map.Entry<Integer, String>> pending, Queue<Result> results,
+                          Set<Integer> transientFailures) throws SQLException {
+        try (Connection conn = connectionProvider.getConnection()) {
+            Map.Entry<Integer, String> entry;
+            while ((entry = pending.poll()) != null) {
+                String sql = entry.getValue().trim();
+                try {
+                    String plan = validator.checkStatement(conn, sql, showExplainPlan);
+                    results.add(new Result(entry.getKey(), sql, null, plan, false, false));
+                } catch (SQLException | DatabaseException e) {
+                    SQLException cause = e instanceof SQLException sqlException ? sqlException
+                        : e.getCause() instanceof SQLException sqlException ? sqlException : null;
+                    if (cause == null || !ValidationCache.isDeterministic(cause)) {
+                        // Timeouts and connection problems say nothing about the statement
+                        transientFailures.add(entry.getKey());
+                    }
+                    results.add(new Result(entry.getKey(), sql, firstLine(e), null, false, false));
+                }
+            }
+        }
+    }
+
+    private static String firstLine(Exception e) {
+        Throwable cause = e instanceof DatabaseException && e.getCause() != null ? e.getCause() : e;
+        String message = cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+        return message.split("\n")[0];
+    }
+
+    private static void awaitAll(List<Future<Void>> futures) throws InterruptedException {
+        for (Future<Void> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                throw new DatabaseException("Failed to open a validation connection", e.getCause(), ErrorType.CONN_FAILED);
+            }
+        }
+    }
+
+    public static class Builder {
+        private ConnectionProvider connectionProvider;
+        private String dbType;
+        private int parallelism = 4;
+        private boolean showExplainPlan;
+        private ValidationCache cache;
+
+        /** Source of the validation connections; each worker opens and closes one. */
+        public Builder connectionProvider(ConnectionProvider connectionProvider) { this.connectionProvider = connectionProvider; return this; }
+        public Builder dbType(String dbType) { this.dbType = dbType; return this; }
+        public Builder parallelism(int parallelism) { this.parallelism = parallelism; return this; }
+        /** Fetches the execution plan of each statement instead of only checking its syntax. */
+        public Builder showExplainPlan(boolean showExplainPlan) { this.showExplainPlan = showExplainPlan; return this; }
+        /** Reuses outcomes of earlier runs for unchanged statements. */
+        public Builder cache(ValidationCache cache) { this.cache = cache; return this; }
+
+        public ParallelScriptValidator build() {
+            if (connectionProvider == null) {
+                throw new IllegalArgumentException("connectionProvider is required");
+            }
+            if (dbType == null) {
+                throw new IllegalArgumentException("dbType is required");
+            }
+            if (parallelism < 1) {
+                throw new IllegalArgumentException("parallelism must be positive");
+            }
+            return new ParallelScriptValidator(this);
+        }
+    }
+}
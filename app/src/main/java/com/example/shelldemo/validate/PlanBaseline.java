@@ -0,0 +1,176 @@
+package com.example.shelldemo.validate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.example.shelldemo.parser.StatementFingerprint;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Execution plans known to be good, stored in a JSON file, and the check of new plans against them.
+ *
+ * <p>Plans are kept per connection target (database type, host, service and user), since the same script may
+ * rightly get different plans on different databases, and within a target per statement position and
+ * {@link StatementFingerprint}, so that two statements of the same shape in one script keep separate baselines.</p>
+ *
+ * <p>{@link #check} compares a freshly explained plan with the baseline of its statement. A plan whose access
+ * paths differ, e.g. a full scan where an index was used before, or whose estimated cost grew by at least
+ * {@code costFactor}, is reported as a {@link Regression}. Statements seen for the first time are added to the
+ * baseline. A regressed plan replaces the baseline only when {@code acceptChanges} is set, so a flip keeps being
+ * reported until someone accepts it.</p>
+ */
+public final class PlanBaseline {
+    private static final Logger logger = LogManager.getLogger(PlanBaseline.class);
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+        .enable(SerializationFeature.INDENT_OUTPUT)
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private final Path file;
+    private final double costFactor;
+    private final boolean acceptChanges;
+    private final Map<String, Map<String, Entry>> targets;
+    private final Map<String, Entry> statements;
+    private boolean modified;
+
+    /**
+     * Baseline of one statement shape.
+     *
+     * @param sql the statement the plan was captured for
+     * @param accessPaths see {@link PlanShape#accessPaths()}
+     * @param cost see {@link PlanShape#cost()}
+     * @param plan the plan text as returned by the database
+     * @param capturedAt when the plan was captured, ISO-8601
+     */
+    public record Entry(String sql, List<String> accessPaths, Double cost, String plan, String capturedAt) {
+    }
+
+    /**
+     * A plan that differs from its baseline.
+     *
+     * @param reasons human readable differences, e.g. changed access paths or the cost increase
+     */
+    public record Regression(int ordinal, String fingerprint, List<String> reasons, Entry baseline, Entry current) {
+    }
+
+    /**
+     * @param targets baselines by connection target, each keyed by {@code <ordinal>:<fingerprint>}
+     */
+    record State(Map<String, Map<String, Entry>> targets) {
+    }
+
+    private PlanBaseline(Path file, double costFactor, boolean acceptChanges,
+                         Map<String, Map<String, Entry>> targets, String target) {
+        this.file = file;
+        this.costFactor = costFactor;
+        this.acceptChanges = acceptChanges;
+        this.targets = targets;
+        this.statements = targets.computeIfAbsent(target, key -> new TreeMap<>());
+    }
+
+    /**
+     * @return the name under which the plans of a connection are kept, e.g. {@code oracle://scott@db1:1521/orcl}
+     */
+    public static String target(String dbType, String user, String host, int port, String service) {
+        return String.format("%s://%s@%s:%d/%s", dbType.toLowerCase(Locale.ROOT), user, host, port, service);
+    }
+
+    /**
+     * Loads the baseline file, or starts an empty baseline if it does not exist yet.
+     *
+     * @param target connection target whose plans are checked, see {@link #target}
+     * @param costFactor cost ratio from which a plan counts as regressed, e.g. 2 for twice the baseline cost
+     * @param acceptChanges whether regressed plans replace their baseline
+     */
+    public static PlanBaseline load(Path file, String target, double costFactor, boolean acceptChanges)
+            throws IOException {
+        if (costFactor <= 1) {
+            throw new IllegalArgumentException("costFactor must be greater than 1");
+        }
+        Map<String, Map<String, Entry>> targets = new TreeMap<>();
+        if (Files.exists(file)) {
+            State state = MAPPER.readValue(file.toFile(), State.class);
+            if (state.targets() != null) {
+                state.targets().forEach((name, entries) -> targets.put(name, new TreeMap<>(entries)));
+            }
+        }
+        return new PlanBaseline(file, costFactor, acceptChanges, targets, target);
+    }
+
+    /**
+     * @return number of statements in the baseline of this target
+     */
+    public int size() {
+        return statements.size();
+    }
+
+    /**
+     * Compares a plan with the baseline of its statement.
+     *
+     * @param dbType database type that produced the plan
+     * @param ordinal position of the statement in the script, for reporting
+     * @return the regression, or null if the plan matches or is new
+     */
+    public synchronized Regression check(String dbType, int ordinal, String sql, String plan) {
+        String fingerprint = StatementFingerprint.of(sql);
+        PlanShape shape = PlanShape.parse(dbType, plan);
+        Entry current = new Entry(sql, shape.accessPaths(), shape.cost(), plan, Instant.now().toString());
+        String key = ordinal + ":" + fingerprint;
+        Entry baseline = statements.get(key);
+        if (baseline == null) {
+            statements.put(key, current);
+            modified = true;
+            return null;
+        }
+
+        List<String> reasons = new ArrayList<>();
+        if (!baseline.accessPaths().equals(current.accessPaths())) {
+            reasons.add("access paths changed from " + baseline.accessPaths() + " to " + current.accessPaths());
+        }
+        if (baseline.cost() != null && current.cost() != null && baseline.cost() > 0
+                && current.cost() >= baseline.cost() * costFactor) {
+            reasons.add(String.format("cost rose from %.0f to %.0f (%.1fx)", baseline.cost(), current.cost(),
+                current.cost() / baseline.cost()));
+        }
+        if (reasons.isEmpty()) {
+            return null;
+        }
+        if (acceptChanges) {
+            statements.put(key, current);
+            modified = true;
+        }
+        return new Regression(ordinal, fingerprint, reasons, baseline, current);
+    }
+
+    /**
+     * Writes the baseline if statements were added or replaced.
+     */
+    public synchronized void save() throws IOException {
+        if (!modified) {
+            return;
+        }
+        Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+        try {
+            MAPPER.writeValue(temp.toFile(), new State(targets));
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        modified = false;
+        logger.info("Plan baseline with {} statements written to {}", statements.size(), file);
+    }
+}
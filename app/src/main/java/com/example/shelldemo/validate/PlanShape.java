@@ -0,0 +1,147 @@
+package com.example.shelldemo.validate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The parts of an execution plan that matter when comparing plans of the same statement over time: the access
+ * paths in plan order and the estimated total cost.
+ *
+ * <p>Plans are read from the text the dialect's explain statement returns. Predicates and row estimates are left
+ * out, since they differ between executions of one statement shape with different literals. Dialects that do
+ * not report a cost, such as H2, have a {@code null} cost.</p>
+ *
+ * @param accessPaths operations with the objects they read, e.g. {@code TABLE ACCESS FULL EMP} or
+ *                    {@code Index Scan using orders_pkey on orders}
+ * @param cost estimated total cost of the statement, or {@code null} if the plan has none
+ */
+public record PlanShape(List<String> accessPaths, Double cost) {
+    private static final Pattern POSTGRES_NODE = Pattern.compile("^\\s*(?:->\\s*)?(.+?)\\s+\\(cost=[\\d.]+\\.\\.([\\d.]+)");
+    private static final Pattern MYSQL_NODE = Pattern.compile("->\\s*([^(:]+?)\\s*(?:\\(|:|$)");
+    private static final Pattern MYSQL_COST = Pattern.compile("cost=([\\d.]+)");
+    private static final Pattern SQLSERVER_OP = Pattern.compile("PhysicalOp=\"([^\"]+)\"");
+    private static final Pattern SQLSERVER_COST = Pattern.compile("StatementSubTreeCost=\"([^\"]+)\"");
+    private static final Pattern H2_ACCESS = Pattern.compile("/\\*\\s*([\\w.\"]+?)(?::[^*]*)?\\s*\\*/");
+
+    public static PlanShape parse(String dbType, String plan) {
+        if (plan == null || plan.isBlank()) {
+            return new PlanShape(List.of(), null);
+        }
+        return switch (dbType.toLowerCase(Locale.ROOT)) {
+            case "oracle" -> parseOracle(plan);
+            case "postgresql" -> parsePostgres(plan);
+            case "mysql" -> parseMySql(plan);
+            case "sqlserver" -> parseSqlServer(plan);
+            case "h2" -> new PlanShape(matches(H2_ACCESS, plan), null);
+            default -> new PlanShape(plan.lines().map(String::strip).filter(line -> !line.isEmpty())
+                .map(line -> line.replaceAll("\\d+(\\.\\d+)?", "#")).toList(), null);
+        };
+    }
+
+    /**
+     * Reads the table printed by {@code DBMS_XPLAN.DISPLAY}; the cost of the statement is the cost of operation 0.
+     */
+    private static PlanShape parseOracle(String plan) {
+        List<String> paths = new ArrayList<>();
+        Double cost = null;
+        int operation = -1;
+        int name = -1;
+        int costColumn = -1;
+        for (String line : plan.lines().toList()) {
+            if (!line.startsWith("|")) {
+                continue;
+            }
+            String[] cells = line.split("\\|", -1);
+            if (operation < 0) {
+                for (int i = 0; i < cells.length; i++) {
+                    String header = cells[i].strip();
+                    if (header.equals("Operation")) {
+                        operation = i;
+                    } else if (header.equals("Name")) {
+                        name = i;
+                    } else if (header.startsWith("Cost")) {
+                        costColumn = i;
+                    }
+                }
+                continue;
+            }
+            String id = cells[1].replace("*", "").strip();
+            if (operation >= cells.length || !id.matches("\\d+")) {
+                continue;
+            }
+            String object = name > 0 && name < cells.length ? cells[name].strip() : "";
+            paths.add(object.isEmpty() ? cells[operation].strip() : cells[operation].strip() + " " + object);
+            if (id.equals("0") && costColumn > 0 && costColumn < cells.length) {
+                cost = oracleNumber(cells[costColumn].strip().split("\\s+")[0]);
+            }
+        }
+        return new PlanShape(paths, cost);
+    }
+
+    private static PlanShape parsePostgres(String plan) {
+        List<String> paths = new ArrayList<>();
+        Double cost = null;
+        for (String line : plan.lines().toList()) {
+            Matcher node = POSTGRES_NODE.matcher(line);
+            if (node.find()) {
+                paths.add(node.group(1).strip());
+                if (cost == null) {
+                    cost = Double.valueOf(node.group(2));
+                }
+            }
+        }
+        return new PlanShape(paths, cost);
+    }
+
+    private static PlanShape parseMySql(String plan) {
+        Matcher cost = MYSQL_COST.matcher(plan);
+        return new PlanShape(matches(MYSQL_NODE, plan), cost.find() ? Double.valueOf(cost.group(1)) : null);
+    }
+
+    private static PlanShape parseSqlServer(String plan) {
+        Matcher cost = SQLSERVER_COST.matcher(plan);
+        Double total = null;
+        if (cost.find()) {
+            try {
+                total = Double.valueOf(cost.group(1));
+            } catch (NumberFormatException e) {
+                // leave the cost unknown
+            }
+        }
+        return new PlanShape(matches(SQLSERVER_OP, plan), total);
+    }
+
+    private static List<String> matches(Pattern pattern, String plan) {
+        List<String> found = new ArrayList<>();
+        Matcher matcher = pattern.matcher(plan);
+        while (matcher.find()) {
+            found.add(matcher.group(1).strip());
+        }
+        return found;
+    }
+
+    /**
+     * Parses Oracle's abbreviated numbers such as {@code 12K} or {@code 3M}.
+     */
+    private static Double oracleNumber(String text) {
+        if (text.isEmpty()) {
+            return null;
+        }
+        double factor = switch (Character.toUpperCase(text.charAt(text.length() - 1))) {
+            case 'K' -> 1e3;
+            case 'M' -> 1e6;
+            case 'G' -> 1e9;
+            case 'T' -> 1e12;
+            default -> 1;
+        };
+        String digits = factor == 1 ? text : text.substring(0, text.length() - 1);
+        try {
+            return Double.parseDouble(digits) * factor;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
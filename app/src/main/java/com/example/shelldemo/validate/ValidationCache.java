@@ -0,0 +1,280 @@
+package com.example.shelldemo.validate;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.example.shelldemo.config.ConfigurationHolder;
+import com.example.shelldemo.parser.SqlTableExtractor;
+import com.example.shelldemo.parser.StatementFingerprint;
+
+/**
+ * Remembers pre-flight validation outcomes between runs so that unchanged statements are not sent to the
+ * database again.
+ *
+ * <p>An outcome is keyed by the {@link StatementFingerprint} of the statement, the connection it was validated on
+ * (URL and user) and a schema version of every object the statement names: its tables, and the functions,
+ * packages and sequences it calls. The versions come from the dialect's {@code sql} /
+ * {@code validation.schemaVersion} template, a data dictionary query such as Oracle's {@code LAST_DDL_TIME},
+ * which {@link #keys} runs once for all objects of a script. Changing a referenced object, or creating one that
+ * was missing, therefore changes the key. Dialects without the template, and statements whose objects cannot be
+ * named such as PL/SQL blocks, are not cached.</p>
+ *
+ * <p>Only outcomes that depend on nothing but the statement and the schema are worth caching: successes and
+ * errors for which {@link #isDeterministic} holds. A timeout or a dropped connection says nothing about the
+ * statement and is checked again on the next run.</p>
+ *
+ * <p>Entries are stored as one properties file per key and expire after {@code ttl}. Disk problems are logged
+ * and otherwise ignored; the cache is only an optimization.</p>
+ */
+public final class ValidationCache {
+    private static final Logger logger = LogManager.getLogger(ValidationCache.class);
+    private static final String KEY = "key";
+    private static final String ERROR = "error";
+    private static final String PLAN = "plan";
+    private static final String EXPIRES_AT = "expiresAt";
+    private static final String MISSING = "-";
+    // Stays well below Oracle's limit of 1000 expressions in an IN list
+    private static final int TABLES_PER_QUERY = 500;
+    // A possibly qualified name followed by an argument list, e.g. pkg.fn(, or a sequence pseudo-column
+    private static final Pattern CALLED_NAME = Pattern.compile(
+        "([A-Za-z_][\\w$#]*(?:\\s*\\.\\s*[A-Za-z_][\\w$#]*)*)\\s*(?:\\(|\\.\\s*(?i:nextval|currval)\\b)");
+
+    private final Path directory;
+    private final Duration ttl;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Validation result of a statement; {@code error} is null if it was valid.
+     */
+    public record Outcome(String error, String plan) {
+    }
+
+    /**
+     * @param directory directory holding the entries; created on first write
+     * @param ttl how long an outcome may be reused
+     */
+    public ValidationCache(Path directory, Duration ttl) {
+        this.directory = directory;
+        this.ttl = ttl;
+    }
+
+    /**
+     * @return the default disk location, {@code $XDG_CACHE_HOME/dbscriptrunner/validation} or
+     *         {@code ~/.cache/dbscriptrunner/validation}
+     */
+    public static Path defaultDirectory() {
+        String xdgCache = System.getenv("XDG_CACHE_HOME");
+        Path base = xdgCache != null && !xdgCache.isBlank()
+            ? Path.of(xdgCache)
+            : Path.of(System.getProperty("user.home"), ".cache");
+        return base.resolve("dbscriptrunner").resolve("validation");
+    }
+
+    /**
+     * Computes the cache keys of the statements that can be cached, reading the schema versions of all their
+     * tables in one query.
+     *
+     * @param conn connection the statements are validated on
+     * @param dbType database type whose schema version template is used
+     * @param statements statements by their position in the script
+     * @param showExplainPlan whether the outcomes include execution plans
+     * @return cache keys by position; statements without a key are validated as usual
+     */
+    public Map<Integer, String> keys(Connection conn, String dbType, Map<Integer, String> statements,
+                                     boolean showExplainPlan) throws SQLException {
+        ConfigurationHolder config = ConfigurationHolder.getInstance();
+        String versionQuery = config.isValidDbType(dbType)
+            ? config.getSqlTemplate(dbType, "validation.schemaVersion")
+            : null;
+        if (versionQuery == null) {
+            logger.info("Validation cache disabled: no schema version template configured for {}", dbType);
+            return Map.of();
+        }
+
+        Map<Integer, Set<String>> tablesByStatement = new HashMap<>();
+        Set<String> allTables = new TreeSet<>();
+        for (Map.Entry<Integer, String> statement : statements.entrySet()) {
+            Set<String> tables = tablesOf(statement.getValue());
+            if (tables != null) {
+                tablesByStatement.put(statement.getKey(), tables);
+                allTables.addAll(tables);
+            }
+        }
+        Map<String, String> versions = schemaVersions(conn, versionQuery, allTables);
+
+        DatabaseMetaData metaData = conn.getMetaData();
+        String scope = dbType + '\n' + metaData.getURL() + '\n' + metaData.getUserName() + '\n' + showExplainPlan;
+        Map<Integer, String> keys = new HashMap<>();
+        tablesByStatement.forEach((ordinal, tables) -> {
+            StringBuilder key = new StringBuilder(scope).append('\n')
+                .append(StatementFingerprint.of(statements.get(ordinal)));
+            for (String table : tables) {
+                key.append('\n').append(table).append('=').append(versions.getOrDefault(table, MISSING));
+            }
+            keys.put(ordinal, key.toString());
+        });
+        return keys;
+    }
+
+    public Outcome get(String key) {
+        Path file = file(key);
+        Properties props = new Properties();
+        if (Files.isRegularFile(file)) {
+            try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                props.load(reader);
+                String expiresAt = props.getProperty(EXPIRES_AT);
+                if (key.equals(props.getProperty(KEY)) && expiresAt != null
+                        && Long.parseLong(expiresAt) > System.currentTimeMillis()) {
+                    hits.increment();
+                    return new Outcome(props.getProperty(ERROR), props.getProperty(PLAN));
+                }
+            } catch (IOException | NumberFormatException e) {
+                logger.warn("Ignoring unreadable validation cache entry {}: {}", file, e.getMessage());
+            }
+        }
+        misses.increment();
+        return null;
+    }
+
+    public void put(String key, Outcome outcome) {
+        Properties props = new Properties();
+        props.setProperty(KEY, key);
+        props.setProperty(EXPIRES_AT, Long.toString(System.currentTimeMillis() + ttl.toMillis()));
+        if (outcome.error() != null) {
+            props.setProperty(ERROR, outcome.error());
+        }
+        if (outcome.plan() != null) {
+            props.setProperty(PLAN, outcome.plan());
+        }
+        try {
+            Files.createDirectories(directory);
+            Path temp = Files.createTempFile(directory, "entry", ".tmp");
+            try {
+                try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                    props.store(writer, null);
+                }
+                Files.move(temp, file(key), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to write validation cache in {}: {}", directory, e.getMessage());
+        }
+    }
+
+    /**
+     * Tells whether a validation error depends only on the statement and the schema: syntax and access
+     * errors (SQLState {@code 42xxx}) and Oracle's parse errors ORA-00900 to ORA-00999, which include
+     * ORA-00904 invalid identifier and ORA-00942 table or view does not exist.
+     */
+    public static boolean isDeterministic(SQLException e) {
+        String sqlState = e.getSQLState();
+        int code = e.getErrorCode();
+        return (sqlState != null && sqlState.startsWith("42")) || (code >= 900 && code <= 999);
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the unqualified, lower-case names of the tables a statement uses and of the functions, packages and
+     * sequences it may call, or null if it cannot be cached. Built-in functions are named too; they have no
+     * schema version and only add a constant to the key.
+     */
+    private static Set<String> tablesOf(String sql) {
+        String keyword = SqlTableExtractor.firstKeyword(sql);
+        if (keyword.equals("begin") || keyword.equals("declare") || keyword.equals("call") || keyword.equals("exec")
+                || (keyword.equals("create") && sql.toLowerCase(Locale.ROOT).contains(" or replace "))) {
+            return null;
+        }
+        Set<String> tables = new TreeSet<>();
+        for (String table : SqlTableExtractor.referencedTables(sql)) {
+            tables.add(unqualified(table));
+        }
+        for (String table : SqlTableExtractor.modifiedTables(sql)) {
+            tables.add(unqualified(table));
+        }
+        Matcher called = CALLED_NAME.matcher(sql);
+        while (called.find()) {
+            // Any part may be the versioned object: schema.package.function or schema.sequence
+            for (String part : called.group(1).split("\\s*\\.\\s*")) {
+                tables.add(unqualified(part));
+            }
+        }
+        return Collections.unmodifiableSet(tables);
+    }
+
+    private static String unqualified(String table) {
+        String name = table.substring(table.lastIndexOf('.') + 1);
+        return name.replace("\"", "").toLowerCase(Locale.ROOT);
+    }
+
+    private static Map<String, String> schemaVersions(Connection conn, String template, Set<String> tables)
+            throws SQLException {
+        Map<String, Set<String>> versions = new HashMap<>();
+        List<String> names = new ArrayList<>(tables);
+        for (int from = 0; from < names.size(); from += TABLES_PER_QUERY) {
+            List<String> chunk = names.subList(from, Math.min(names.size(), from + TABLES_PER_QUERY));
+            String placeholders = String.join(", ", Collections.nCopies(chunk.size(), "?"));
+            try (PreparedStatement stmt = conn.prepareStatement(String.format(template, placeholders))) {
+                for (int i = 0; i < chunk.size(); i++) {
+                    stmt.setString(i + 1, chunk.get(i));
+                }
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        // Objects of the same name in several schemas all contribute to the version
+                        versions.computeIfAbsent(rs.getString(1).toLowerCase(Locale.ROOT), name -> new TreeSet<>())
+                            .add(String.valueOf(rs.getString(2)));
+                    }
+                }
+            }
+        }
+        Map<String, String> joined = new HashMap<>();
+        versions.forEach((table, tableVersions) -> joined.put(table, String.join(",", tableVersions)));
+        return joined;
+    }
+
+    private Path file(String key) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+            return directory.resolve(HexFormat.of().formatHex(hash, 0, 16) + ".properties");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
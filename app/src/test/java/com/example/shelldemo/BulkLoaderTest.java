@@ -0,0 +1,147 @@
+package com.example.shelldemo;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import picocli.CommandLine;
+
+import com.example.shelldemo.connection.ConnectionConfig;
+import com.example.shelldemo.connection.ConnectionProvider;
+import com.example.shelldemo.connection.DatabaseConnectionFactory;
+import com.example.shelldemo.exception.DatabaseException;
+import com.example.shelldemo.load.BulkLoader;
+import com.example.shelldemo.load.BulkWriters;
+import com.example.shelldemo.load.LoadResult;
+import com.example.shelldemo.load.RecordFormat;
+
+@DisplayName("Bulk Loader Tests")
+class BulkLoaderTest {
+    private static final String DATABASE = "bulkload";
+    private static final int ROWS = 25_000;
+
+    @TempDir
+    Path tempDir;
+
+    private ConnectionProvider connections;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        ConnectionConfig config = new ConnectionConfig();
+        config.setDbType("h2");
+        config.setHost("localhost");
+        config.setUsername("sa");
+        config.setPassword("sa");
+        config.setServiceName(DATABASE);
+        connections = new DatabaseConnectionFactory().connectionProvider(config);
+
+        try (Connection conn = connections.getConnection(); Statement stmt = conn.createStatement()) {
+            stmt.execute("DROP TABLE IF EXISTS load_target");
+            stmt.execute("CREATE TABLE load_target (id INT PRIMARY KEY, name VARCHAR(50), amount DECIMAL(10,2))");
+            stmt.execute("CREATE INDEX load_target_name_idx ON load_target (name)");
+        }
+    }
+
+    @Test
+    @DisplayName("Should load a CSV file with a header through parallel readers")
+    void testLoadCsvWithHeader() throws Exception {
+        Path file = tempDir.resolve("rows.csv");
+        try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+            writer.write("id,name,amount\n");
+            for (int i = 1; i <= ROWS; i++) {
+                writer.write(i + ",\"name, " + i + "\"," + (i % 100) + ".50\n");
+            }
+        }
+
+        LoadResult result = newLoader().build().load(file);
+
+        assertEquals(ROWS, result.rows(), "Should report every row as loaded");
+        assertTrue(result.rowsPerSecond() > 0, "Should report throughput");
+        assertEquals(ROWS, queryLong("SELECT COUNT(*) FROM load_target"));
+        assertEquals((long) ROWS * (ROWS + 1) / 2, queryLong("SELECT SUM(id) FROM load_target"),
+            "Every row should be loaded exactly once");
+        assertEquals(1, queryLong("SELECT COUNT(*) FROM load_target WHERE name = 'name, 42'"),
+            "Quoted fields should keep embedded delimiters");
+    }
+
+    @Test
+    @DisplayName("Should load a JSONL file with columns taken from the first record")
+    void testLoadJsonLines() throws Exception {
+        Path file = tempDir.resolve("rows.jsonl");
+        try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+            for (int i = 1; i <= ROWS; i++) {
+                writer.write("{\"id\":" + i + ",\"name\":\"n" + i + "\",\"amount\":" + (i % 7) + "}\n");
+            }
+        }
+
+        LoadResult result = newLoader().format(RecordFormat.JSONL).build().load(file);
+
+        assertEquals(ROWS, result.rows());
+        assertEquals(ROWS, queryLong("SELECT COUNT(*) FROM load_target"));
+    }
+
+    @Test
+    @DisplayName("Should fail with a load error for malformed records")
+    void testMalformedRecord() throws Exception {
+        Path file = tempDir.resolve("bad.csv");
+        Files.writeString(file, "1,a,1.0\n2,b\n");
+
+        BulkLoader loader = newLoader().columns(List.of("id", "name", "amount")).header(false).build();
+
+        DatabaseException e = assertThrows(DatabaseException.class, () -> loader.load(file));
+        assertEquals(DatabaseException.ErrorType.OP_LOAD, e.getErrorType());
+    }
+
+    @Test
+    @DisplayName("Should refuse a table-locking writer with parallel writers")
+    void testSingleWriterOnly() {
+        BulkLoader.Builder builder = newLoader().writer(BulkWriters.named("oracle-direct-path"));
+        assertThrows(IllegalArgumentException.class, builder::build);
+        assertNotNull(builder.parallelism(1).build());
+    }
+
+    @Test
+    @DisplayName("Should run the load subcommand with the parent connection options")
+    void testLoadSubcommand() throws Exception {
+        Path file = tempDir.resolve("cli.csv");
+        Files.writeString(file, "id,name,amount\n1,a,1.00\n2,b,2.00\n3,c,3.00\n");
+
+        int exitCode = new CommandLine(new UnifiedDatabaseRunner()).execute(
+            "-t", "h2", "-H", "localhost", "-u", "sa", "-p", "sa", "-d", DATABASE,
+            "load", file.toString(), "--table", "load_target", "--threads", "2");
+
+        assertEquals(0, exitCode, "Load subcommand should succeed");
+        assertEquals(3, queryLong("SELECT COUNT(*) FROM load_target"));
+    }
+
+    private BulkLoader.Builder newLoader() {
+        return BulkLoader.builder()
+            .connectionProvider(connections)
+            .dbType("h2")
+            .table("load_target")
+            .parallelism(4)
+            .batchSize(500)
+            .commitInterval(2_000);
+    }
+
+    private long queryLong(String sql) throws SQLException {
+        try (Connection conn = connections.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            assertTrue(rs.next());
+            return rs.getLong(1);
+        }
+    }
+}
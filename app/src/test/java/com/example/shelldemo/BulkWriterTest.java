@@ -0,0 +1,74 @@
+package com.example.shelldemo;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.example.shelldemo.load.BulkWriter;
+import com.example.shelldemo.load.BulkWriters;
+import com.example.shelldemo.load.JdbcBatchBulkWriter;
+
+@DisplayName("Bulk Writer SPI Tests")
+class BulkWriterTest {
+    private static final String URL = "jdbc:h2:mem:bulkwriter;DB_CLOSE_DELAY=-1";
+
+    @Test
+    @DisplayName("Should resolve writers by name and by database type")
+    void testWriterResolution() {
+        assertEquals("jdbc-batch", BulkWriters.forDialect("h2").name(),
+            "Databases without a configured writer should use the generic writer");
+        assertEquals("postgresql-copy", BulkWriters.forDialect("postgresql").name());
+        assertEquals("jdbc-batch", BulkWriters.forDialect("oracle").name(),
+            "Direct path locks the table and is not the default with parallel writers");
+        assertEquals("oracle-direct-path", BulkWriters.named("oracle-direct-path").name());
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+            () -> BulkWriters.named("no-such-writer"));
+        assertTrue(e.getMessage().contains("jdbc-batch") && e.getMessage().contains("postgresql-copy"),
+            "Unknown writers should be rejected with the available names: " + e.getMessage());
+    }
+
+    @Test
+    @DisplayName("Should write batches through the generic JDBC writer")
+    void testGenericWriter() throws SQLException {
+        try (Connection conn = DriverManager.getConnection(URL, "sa", "sa")) {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("DROP TABLE IF EXISTS writer_target");
+                stmt.execute("CREATE TABLE writer_target (id INT PRIMARY KEY, label VARCHAR(20), amount DECIMAL(8,2))");
+            }
+            conn.setAutoCommit(false);
+
+            BulkWriter writer = new JdbcBatchBulkWriter();
+            BulkWriter.LoadTarget target = new BulkWriter.LoadTarget("writer_target", List.of("id", "label", "amount"));
+            try (BulkWriter.Sink sink = writer.open(conn, target)) {
+                assertFalse(sink.requiresCommitAfterWrite());
+                for (int batch = 0; batch < 3; batch++) {
+                    List<Object[]> rows = new ArrayList<>();
+                    for (int i = 0; i < 100; i++) {
+                        int id = batch * 100 + i;
+                        rows.add(new Object[] {id, id % 2 == 0 ? null : "row" + id, new BigDecimal("1.25")});
+                    }
+                    sink.write(rows);
+                }
+            }
+            conn.commit();
+
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery(
+                     "SELECT COUNT(*), COUNT(label), SUM(amount) FROM writer_target")) {
+                assertTrue(rs.next());
+                assertEquals(300, rs.getInt(1));
+                assertEquals(150, rs.getInt(2), "Null values should be written as NULL");
+                assertEquals(0, new BigDecimal("375.00").compareTo(rs.getBigDecimal(3)));
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.shelldemo;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import com.example.shelldemo.config.ConfigSnapshot;
+import com.example.shelldemo.config.ConfigurationHolder;
+import com.example.shelldemo.config.DialectConfig;
+import com.example.shelldemo.config.ErrorMappings;
+import com.example.shelldemo.config.VaultConfig;
+import com.example.shelldemo.exception.DatabaseException;
+import com.example.shelldemo.exception.DatabaseException.ErrorType;
+
+@DisplayName("Configuration Snapshot Tests")
+class ConfigSnapshotTest {
+
+    @Test
+    @DisplayName("Should expose dialect settings as typed values")
+    void testTypedDialect() {
+        DialectConfig oracle = ConfigurationHolder.getInstance().getDialect("ORACLE");
+
+        assertEquals("oracle", oracle.name());
+        assertEquals(1521, oracle.defaultPort());
+        assertEquals("{ ? = call %s(%s) }", oracle.template("sql", "procedure"));
+        assertNull(oracle.template("sql", "no-such-template"));
+        assertEquals("jdbc-batch", oracle.loadWriter());
+        assertEquals("simple", oracle.properties().get("java.naming.security.authentication"));
+    }
+
+    @Test
+    @DisplayName("Should share immutable configuration maps instead of copying them")
+    void testImmutableSnapshot() {
+        ConfigurationHolder holder = ConfigurationHolder.getInstance();
+        Map<String, Object> config = holder.getDatabaseConfig("h2");
+
+        assertSame(config, holder.getDatabaseConfig("h2"), "Lookups should not copy the dialect map");
+        assertThrows(UnsupportedOperationException.class, () -> config.put("defaultPort", 1));
+        assertThrows(UnsupportedOperationException.class,
+            () -> holder.getDialect("oracle").templates().get("sql").put("procedure", "x"));
+    }
+
+    @Test
+    @DisplayName("Should classify vendor errors with the configured mappings")
+    void testErrorMappings() {
+        ErrorMappings mappings = new ErrorMappings(Pattern.compile("ORA-(\\d+)"),
+            Map.of("01017", ErrorType.ORACLE_INVALID_USER));
+
+        assertEquals(ErrorType.ORACLE_INVALID_USER,
+            mappings.classify("ORA-01017: invalid username/password; logon denied", ErrorType.CONN_FAILED));
+        assertEquals(ErrorType.CONN_FAILED,
+            mappings.classify("ORA-00942: table or view does not exist", ErrorType.CONN_FAILED));
+        assertEquals(ErrorType.CONN_FAILED, mappings.classify("no vendor code", ErrorType.CONN_FAILED));
+    }
+
+    @Test
+    @DisplayName("Should fall back to the deprecated Vault location")
+    void testLegacyVaultLocation() {
+        Map<String, Object> vault = Map.of("baseUrl", "https://vault", "roleId", "role", "secretId", "secret");
+
+        VaultConfig legacy = ConfigSnapshot.compile(Map.of("databases", Map.of("types", Map.of("vault", vault)))).vault();
+        assertEquals("https://vault", legacy.baseUrl());
+        assertTrue(legacy.isComplete());
+
+        VaultConfig current = ConfigSnapshot.compile(Map.of(
+            "vault", Map.of("baseUrl", "https://new", "roleId", "r", "secretId", "s"),
+            "databases", Map.of("types", Map.of("vault", vault)))).vault();
+        assertEquals("https://new", current.baseUrl(), "The top-level section should take precedence");
+
+        assertNull(ConfigSnapshot.compile(Map.of()).vault());
+    }
+
+    @Test
+    @DisplayName("Should publish a new snapshot on reload")
+    void testReload() {
+        ConfigurationHolder holder = ConfigurationHolder.getInstance();
+        ConfigSnapshot before = holder.snapshot();
+
+        assertTrue(holder.reload());
+
+        assertNotSame(before, holder.snapshot());
+        assertEquals(before.dialects().keySet(), holder.snapshot().dialects().keySet());
+        assertThrows(DatabaseException.class, () -> holder.getDialect("no-such-db"));
+    }
+}
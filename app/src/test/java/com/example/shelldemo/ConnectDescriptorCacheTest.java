@@ -0,0 +1,86 @@
+package com.example.shelldemo;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import javax.naming.NamingException;
+
+import com.example.shelldemo.connection.ConnectDescriptorCache;
+import com.example.shelldemo.connection.LdapDescriptorResolver;
+
+@DisplayName("Connect Descriptor Cache Tests")
+class ConnectDescriptorCacheTest {
+    private static final String CONTEXT = "cn=OracleContext,dc=example,dc=com";
+    private static final String DESCRIPTOR =
+        "(DESCRIPTION=(ADDRESS=(PROTOCOL=TCP)(HOST=db1)(PORT=1521))(CONNECT_DATA=(SERVICE_NAME=orders)))";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Should share descriptors between cache instances through the disk tier")
+    void testDiskTier() {
+        new ConnectDescriptorCache(Duration.ofHours(1), tempDir).put("ORDERS", CONTEXT, DESCRIPTOR);
+
+        ConnectDescriptorCache later = new ConnectDescriptorCache(Duration.ofHours(1), tempDir);
+        assertEquals(Optional.of(DESCRIPTOR), later.get("orders", CONTEXT), "Service names should match case-insensitively");
+        assertEquals(Optional.empty(), later.get("billing", CONTEXT));
+
+        later.invalidate("orders", CONTEXT);
+        assertEquals(Optional.empty(), new ConnectDescriptorCache(Duration.ofHours(1), tempDir).get("orders", CONTEXT),
+            "Invalidation should remove the disk entry");
+    }
+
+    @Test
+    @DisplayName("Should expire descriptors after the TTL")
+    void testExpiry() throws Exception {
+        ConnectDescriptorCache cache = new ConnectDescriptorCache(Duration.ofMillis(50), tempDir);
+        cache.put("orders", CONTEXT, DESCRIPTOR);
+        assertTrue(cache.get("orders", CONTEXT).isPresent());
+
+        Thread.sleep(100);
+
+        assertTrue(cache.get("orders", CONTEXT).isEmpty());
+        assertTrue(new ConnectDescriptorCache(Duration.ofMillis(50), tempDir).get("orders", CONTEXT).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should resolve through the next directory server when one fails")
+    void testResolverFallsBackToNextServer() throws Exception {
+        List<String> tried = new ArrayList<>();
+        LdapDescriptorResolver resolver = new LdapDescriptorResolver(Map.of()) {
+            @Override
+            protected String lookup(String server, int port, String service, String context) throws NamingException {
+                tried.add(server);
+                if (server.equals("oid1")) {
+                    throw new NamingException("Connection refused");
+                }
+                return DESCRIPTOR;
+            }
+        };
+
+        assertEquals(DESCRIPTOR, resolver.resolve(List.of("oid1", "oid2", "oid3"), 389, "orders", CONTEXT));
+        assertEquals(List.of("oid1", "oid2"), tried);
+    }
+
+    @Test
+    @DisplayName("Should only treat network and listener errors as a stale descriptor")
+    void testRouteFailures() {
+        assertTrue(ConnectDescriptorCache.isRouteFailure(new SQLException("IO Error", "08006", 17002)));
+        assertTrue(ConnectDescriptorCache.isRouteFailure(new SQLException("ORA-12514: listener does not know of service", null, 12514)));
+        assertTrue(ConnectDescriptorCache.isRouteFailure(new SQLException("ORA-12541: no listener", null, 12541)));
+        assertTrue(ConnectDescriptorCache.isRouteFailure(new SQLException("ORA-12170: connect timeout", null, 12170)));
+        assertFalse(ConnectDescriptorCache.isRouteFailure(new SQLException("ORA-01017: invalid username/password", "72000", 1017)));
+        assertFalse(ConnectDescriptorCache.isRouteFailure(new SQLException("ORA-28000: the account is locked", "99999", 28000)));
+    }
+}
@@ -0,0 +1,184 @@
+package com.example.shelldemo;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.example.shelldemo.connection.ConnectionPool;
+
+@DisplayName("Connection Pool Tests")
+class ConnectionPoolTest {
+    private static final String URL = "jdbc:h2:mem:pool;DB_CLOSE_DELAY=-1";
+
+    private final AtomicInteger opened = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        try (Connection conn = DriverManager.getConnection(URL, "sa", "sa"); Statement stmt = conn.createStatement()) {
+            stmt.execute("DROP TABLE IF EXISTS pooled");
+            stmt.execute("CREATE TABLE pooled (id INT)");
+        }
+    }
+
+    @Test
+    @DisplayName("Should warm up and reuse connections across operations")
+    void testSharedAcrossOperations() {
+        try (ConnectionPool pool = newPool().minIdle(2).build()) {
+            assertEquals(2, opened.get(), "Warm-up should open minIdle connections");
+
+            for (int i = 0; i < 20; i++) {
+                try (UnifiedDatabaseOperation operation = UnifiedDatabaseOperation.builder()
+                        .dbType("h2")
+                        .connectionPool(pool)
+                        .build()) {
+                    assertEquals(1, operation.executeQuery("SELECT 1 AS one").size());
+                    assertEquals(1, pool.getActiveConnections());
+                }
+            }
+
+            assertEquals(2, opened.get(), "Operations should borrow instead of opening connections");
+            assertEquals(0, pool.getActiveConnections());
+            assertEquals(2, pool.getIdleConnections());
+        }
+    }
+
+    @Test
+    @DisplayName("Should time out when all connections are borrowed")
+    void testMaxSize() throws SQLException {
+        try (ConnectionPool pool = newPool().maxSize(2).borrowTimeout(Duration.ofMillis(100)).build();
+             Connection first = pool.getConnection()) {
+            // Returned explicitly below; the pool closes it if an assertion fails first
+            Connection second = pool.getConnection();
+            assertNotNull(first);
+            assertNotNull(second);
+            assertThrows(SQLTransientConnectionException.class, pool::getConnection);
+
+            second.close();
+            try (Connection third = pool.getConnection()) {
+                assertFalse(third.isClosed(), "A returned connection should be available again");
+            }
+            assertEquals(2, pool.getTotalConnections());
+        }
+    }
+
+    @Test
+    @DisplayName("Should roll back and reset returned connections")
+    void testResetOnReturn() throws SQLException {
+        try (ConnectionPool pool = newPool().maxSize(1).build()) {
+            Connection conn = pool.getConnection();
+            conn.setAutoCommit(false);
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("INSERT INTO pooled VALUES (1)");
+            }
+            conn.close();
+            assertTrue(conn.isClosed());
+            assertThrows(SQLException.class, conn::createStatement, "A returned connection must not be usable");
+
+            try (Connection again = pool.getConnection();
+                 Statement stmt = again.createStatement();
+                 ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM pooled")) {
+                assertTrue(again.getAutoCommit(), "Auto-commit should be restored");
+                assertTrue(rs.next());
+                assertEquals(0, rs.getInt(1), "Uncommitted work should be rolled back");
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should replace connections that were closed underneath the pool")
+    void testBrokenConnection() throws SQLException {
+        try (ConnectionPool pool = newPool().validationInterval(Duration.ZERO).build()) {
+            Connection conn = pool.getConnection();
+            conn.unwrap(Connection.class).close();
+            conn.close();
+            assertEquals(0, pool.getIdleConnections(), "Closed physical connections should not be pooled");
+
+            try (Connection replacement = pool.getConnection()) {
+                assertTrue(replacement.isValid(1));
+            }
+            assertEquals(1, pool.getTotalConnections());
+        }
+    }
+
+    @Test
+    @DisplayName("Should never hold more physical connections than maxSize while replacing broken ones")
+    void testMaxSizeWhileRefilling() {
+        AtomicInteger live = new AtomicInteger();
+        AtomicInteger maxLive = new AtomicInteger();
+        ConnectionPool.Builder builder = ConnectionPool.builder()
+            .name("refill")
+            .connectionProvider(() -> {
+                Connection physical = DriverManager.getConnection(URL, "sa", "sa");
+                maxLive.accumulateAndGet(live.incrementAndGet(), Math::max);
+                AtomicBoolean closed = new AtomicBoolean();
+                return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {Connection.class},
+                    (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "unwrap":
+                                return proxy;
+                            case "close":
+                                if (closed.compareAndSet(false, true)) {
+                                    live.decrementAndGet();
+                                }
+                                break;
+                            case "isClosed":
+                                return closed.get();
+                            case "isValid":
+                                return !closed.get();
+                            default:
+                                break;
+                        }
+                        try {
+                            return method.invoke(physical, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    });
+            })
+            .maxSize(3)
+            .minIdle(3)
+            .validationInterval(Duration.ZERO);
+        try (ConnectionPool pool = builder.build();
+             ExecutorService borrowers = Executors.newVirtualThreadPerTaskExecutor()) {
+            long end = System.nanoTime() + Duration.ofMillis(1500).toNanos();
+            for (int i = 0; i < 8; i++) {
+                borrowers.submit(() -> {
+                    while (System.nanoTime() < end) {
+                        try (Connection conn = pool.getConnection()) {
+                            if (ThreadLocalRandom.current().nextInt(3) == 0) {
+                                conn.unwrap(Connection.class).close();
+                            }
+                        }
+                    }
+                    return null;
+                });
+            }
+        }
+        assertTrue(maxLive.get() <= 3, "Physical connections open at once: " + maxLive.get());
+    }
+
+    private ConnectionPool.Builder newPool() {
+        return ConnectionPool.builder()
+            .name("test")
+            .connectionProvider(() -> {
+                opened.incrementAndGet();
+                return DriverManager.getConnection(URL, "sa", "sa");
+            });
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.shelldemo;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.example.shelldemo.sqlhandling.ConsoleTableRenderer;
+
+@DisplayName("Console Table Renderer Tests")
+class ConsoleTableRendererTest {
+    private static final String URL = "jdbc:h2:mem:render;DB_CLOSE_DELAY=-1";
+    private static final int ROWS = 5_000;
+
+    @BeforeAll
+    static void setUp() throws SQLException {
+        try (Connection conn = DriverManager.getConnection(URL, "sa", "sa");
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("DROP TABLE IF EXISTS render_items");
+            stmt.execute("CREATE TABLE render_items (id INT PRIMARY KEY, name VARCHAR(200))");
+            stmt.execute("INSERT INTO render_items SELECT x, CASE WHEN x = 5000 THEN REPEAT('x', 200) "
+                + "ELSE 'item ' || x END FROM SYSTEM_RANGE(1, " + ROWS + ")");
+        }
+    }
+
+    @Test
+    @DisplayName("Should size columns from the sampled rows and cut off wider values")
+    void testColumnWidths() throws SQLException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ConsoleTableRenderer renderer = ConsoleTableRenderer.builder()
+            .output(output)
+            .sampleRows(10)
+            .maxColumnWidth(12)
+            .build();
+
+        assertEquals(ROWS, render(renderer, "SELECT id, name FROM render_items ORDER BY id"));
+
+        List<String> lines = output.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals("ID  NAME", lines.get(0));
+        assertEquals("--  -------", lines.get(1));
+        assertEquals(" 1  item 1", lines.get(2));
+        // Wider than the sampled values: text is cut to the sampled width, numbers are kept whole
+        assertEquals("5000  xxxx...", lines.get(ROWS + 1));
+        assertEquals("(5000 rows)", lines.get(lines.size() - 1));
+    }
+
+    @Test
+    @DisplayName("Should repeat the header every page and render cached rows")
+    void testPagedCachedRows() {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ConsoleTableRenderer renderer = ConsoleTableRenderer.builder().output(output).pageSize(2).build();
+        assertEquals(3, renderer.render(List.of(row("a", "b"), row("c", "d"), row(null, "two\nlines"))));
+
+        List<String> lines = output.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(List.of(
+            "NAME    NOTE", "------  ---------", "a       b", "c       d",
+            "NAME    NOTE", "------  ---------", "(null)  two lines",
+            "", "(3 rows)"), lines);
+
+        output.reset();
+        assertEquals(0, renderer.render(List.of()));
+        assertEquals("No results.", output.toString(StandardCharsets.UTF_8).trim());
+    }
+
+    @Test
+    @DisplayName("Should stop reading rows when the output is closed")
+    void testClosedOutput() throws SQLException {
+        OutputStream closedPipe = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+        ConsoleTableRenderer renderer = ConsoleTableRenderer.builder()
+            .output(closedPipe)
+            .bufferSize(256)
+            .sampleRows(10)
+            .build();
+
+        long rows = assertDoesNotThrow(() -> render(renderer, "SELECT id, name FROM render_items ORDER BY id"));
+        assertTrue(rows < ROWS, "Rendering should stop after the output failed, read " + rows + " rows");
+    }
+
+    private static Map<String, Object> row(String name, String note) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("NAME", name);
+        row.put("NOTE", note);
+        return row;
+    }
+
+    private static long render(ConsoleTableRenderer renderer, String sql) throws SQLException {
+        try (Connection conn = DriverManager.getConnection(URL, "sa", "sa");
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            return renderer.render(rs);
+        }
+    }
+}
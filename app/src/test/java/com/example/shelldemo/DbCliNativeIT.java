@@ -0,0 +1,99 @@
+package com.example.shelldemo;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Smoke test for the native {@code db} executable, run by failsafe in the {@code native} profile.
+ * Skipped when {@code native.image.path} does not point to a built executable.
+ */
+@DisplayName("Native Executable Smoke Tests")
+class DbCliNativeIT {
+    private static final String CONFIG = """
+        databases:
+          types:
+            h2:
+              defaultPort: 0
+              templates:
+                jdbc:
+                  default: "jdbc:h2:file:%3$s"
+              defaults:
+                port: 0
+        """;
+
+    @TempDir
+    Path tempDir;
+
+    private Path executable;
+    private Path config;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        String path = System.getProperty("native.image.path");
+        assumeTrue(path != null && Files.isExecutable(Path.of(path)), "Native executable not built");
+        executable = Path.of(path);
+        config = Files.writeString(tempDir.resolve("application.yaml"), CONFIG);
+    }
+
+    @Test
+    @DisplayName("Should start and print usage quickly")
+    void testHelp() throws Exception {
+        long start = System.nanoTime();
+        Result result = run("--help");
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertEquals(0, result.exitCode());
+        assertTrue(result.output().contains("Usage"));
+        assertTrue(elapsedMillis < 2000, "Native startup should be fast, took " + elapsedMillis + " ms");
+    }
+
+    @Test
+    @DisplayName("Should run a script against an embedded database")
+    void testScriptAgainstEmbeddedDatabase() throws Exception {
+        Path database = tempDir.resolve("smoke");
+        Path script = Files.writeString(tempDir.resolve("smoke.sql"), """
+            CREATE TABLE smoke_items (id INT PRIMARY KEY, name VARCHAR(20));
+            INSERT INTO smoke_items VALUES (1, 'one');
+            INSERT INTO smoke_items VALUES (2, 'two');
+            """);
+
+        Result result = run("-t", "h2", "-H", "localhost", "-u", "sa", "-p", "sa",
+            "-d", database.toString(), script.toString());
+
+        assertEquals(0, result.exitCode(), result.output());
+        try (Connection conn = DriverManager.getConnection("jdbc:h2:file:" + database, "sa", "sa");
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM smoke_items")) {
+            assertTrue(rs.next());
+            assertEquals(2, rs.getInt(1));
+        }
+    }
+
+    private record Result(int exitCode, String output) {}
+
+    private Result run(String... args) throws Exception {
+        List<String> command = new ArrayList<>();
+        command.add(executable.toString());
+        // Native executables accept system properties at run time
+        command.add("-Dapp.config=" + config);
+        command.addAll(List.of(args));
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        String output = new String(process.getInputStream().readAllBytes());
+        assertTrue(process.waitFor(60, TimeUnit.SECONDS), "Native executable did not finish");
+        return new Result(process.exitValue(), output);
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.shelldemo;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import com.example.shelldemo.parser.StatementFingerprint;
+
+import picocli.CommandLine;
+
+@DisplayName("Flight Recorder Event Tests")
+class FlightRecorderEventsTest {
+    private static final String PREFIX = "com.example.dbscriptrunner.";
+
+    @Test
+    @DisplayName("Should record parse, connect, execute, fetch and commit events of a script run")
+    void testScriptRunEvents(@TempDir Path tempDir) throws Exception {
+        Path script = Files.writeString(tempDir.resolve("jfr.sql"), """
+            CREATE TABLE jfr_items (id INT PRIMARY KEY, name VARCHAR(20));
+            SELECT x FROM SYSTEM_RANGE(1, 3);
+            INSERT INTO jfr_items VALUES (1, 'one');
+            """);
+        Path dump = tempDir.resolve("run.jfr");
+
+        try (Recording recording = new Recording()) {
+            for (String event : List.of("ScriptParse", "ConnectionAcquire", "StatementExecute", "ResultFetch",
+                    "TransactionEnd")) {
+                recording.enable(PREFIX + event).withThreshold(java.time.Duration.ZERO);
+            }
+            recording.start();
+            int exitCode = new CommandLine(new UnifiedDatabaseRunner()).execute(
+                "-t", "h2", "-H", "localhost", "-u", "sa", "-p", "sa", "-d", "jfr", "--transactional",
+                script.toString());
+            recording.stop();
+            recording.dump(dump);
+            assertEquals(0, exitCode);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(dump);
+        assertEquals(1, count(events, "ScriptParse"));
+        assertEquals(3, events(events, "ScriptParse").get(0).getInt("statementCount"));
+        assertTrue(count(events, "ConnectionAcquire") >= 1);
+        assertEquals(1, count(events, "TransactionEnd"));
+        assertEquals("commit", events(events, "TransactionEnd").get(0).getString("outcome"));
+
+        List<RecordedEvent> executes = events(events, "StatementExecute");
+        assertEquals(3, executes.size());
+        RecordedEvent select = executes.stream()
+            .filter(e -> "select".equals(e.getString("statementType"))).findFirst().orElseThrow();
+        assertEquals(2, select.getInt("ordinal"));
+        assertEquals(StatementFingerprint.of("SELECT x FROM SYSTEM_RANGE(9, 9)"), select.getString("fingerprint"));
+        assertTrue(select.getBoolean("resultSet"));
+
+        RecordedEvent fetch = events(events, "ResultFetch").get(0);
+        assertEquals(3, fetch.getLong("rowCount"));
+        assertEquals(select.getString("fingerprint"), fetch.getString("fingerprint"));
+    }
+
+    private static List<RecordedEvent> events(List<RecordedEvent> events, String name) {
+        return events.stream().filter(e -> e.getEventType().getName().equals(PREFIX + name)).toList();
+    }
+
+    private static long count(List<RecordedEvent> events, String name) {
+        return events(events, name).size();
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.shelldemo;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+
+import com.example.shelldemo.connection.JdbcInstrumentation;
+import com.example.shelldemo.metrics.JdbcCallStats;
+import com.example.shelldemo.parser.StatementFingerprint;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import picocli.CommandLine;
+
+@DisplayName("JDBC Instrumentation Tests")
+class JdbcInstrumentationTest {
+
+    @Test
+    @DisplayName("Should attribute driver calls and round trips to the executed statement")
+    void testAttributesCallsToStatements() throws Exception {
+        JdbcCallStats stats = new JdbcCallStats();
+        String insert = "INSERT INTO items VALUES (?)";
+        String select = "SELECT id FROM items WHERE id > 0";
+        try (Connection connection = JdbcInstrumentation.wrap(
+                DriverManager.getConnection("jdbc:h2:mem:instrumented", "sa", "sa"), stats)) {
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("CREATE TABLE items (id INT)");
+            }
+            try (PreparedStatement statement = connection.prepareStatement(insert)) {
+                for (int i = 1; i <= 3; i++) {
+                    statement.setInt(1, i);
+                    statement.executeUpdate();
+                }
+                assertSame(connection, statement.getConnection());
+            }
+            connection.commit();
+            try (PreparedStatement statement = connection.prepareStatement(select)) {
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    int rows = 0;
+                    while (resultSet.next()) {
+                        rows++;
+                    }
+                    assertEquals(3, rows);
+                    assertSame(statement, resultSet.getStatement());
+                }
+            }
+        }
+
+        JdbcCallStats.Summary inserts = summary(stats, insert);
+        assertEquals(3, inserts.executions());
+        assertEquals(3, inserts.roundTrips());
+        // embedded H2 reports no fetch size, so only the execute and the first fetch count
+        JdbcCallStats.Summary selects = summary(stats, select);
+        assertEquals(1, selects.executions());
+        assertEquals(2, selects.roundTrips());
+        JdbcCallStats.Summary connection = summary(stats, null);
+        assertEquals(2, connection.roundTrips(), "setAutoCommit and commit");
+        assertEquals(3, stats.callsByMethod().get("PreparedStatement.executeUpdate"));
+        assertTrue(stats.driverMillis() > 0);
+    }
+
+    @Test
+    @DisplayName("Should add JDBC figures to the run report when enabled")
+    void testReportWithJdbcStats(@TempDir Path tempDir) throws Exception {
+        Path script = Files.writeString(tempDir.resolve("jdbc.sql"), """
+            CREATE TABLE jdbc_items AS SELECT x AS id FROM SYSTEM_RANGE(1, 10);
+            SELECT id FROM jdbc_items;
+            """);
+        Path reportDir = tempDir.resolve("report");
+
+        int exitCode = new CommandLine(new UnifiedDatabaseRunner()).execute(
+            "-t", "h2", "-H", "localhost", "-u", "sa", "-p", "sa", "-d", "jdbcstats",
+            "--jdbc-stats", "--metrics-report", reportDir.toString(), script.toString());
+
+        assertEquals(0, exitCode);
+        JsonNode jdbc = new ObjectMapper().readTree(reportDir.resolve("metrics.json").toFile()).get("jdbc");
+        assertNotNull(jdbc);
+        assertTrue(jdbc.get("roundTrips").asLong() >= 3);
+        assertTrue(jdbc.get("statements").size() >= 2);
+        assertTrue(Files.readString(reportDir.resolve("metrics.prom")).contains("dbscriptrunner_jdbc_round_trips_total"));
+    }
+
+    private static JdbcCallStats.Summary summary(JdbcCallStats stats, String sql) {
+        String fingerprint = sql == null ? JdbcCallStats.CONNECTION : StatementFingerprint.of(sql);
+        List<JdbcCallStats.Summary> matches = stats.summaries().stream()
+            .filter(summary -> summary.fingerprint().equals(fingerprint))
+            .toList();
+        assertEquals(1, matches.size(), "Expected statistics for " + sql);
+        return matches.get(0);
+    }
+}
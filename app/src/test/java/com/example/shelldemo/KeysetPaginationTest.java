@@ -0,0 +1,115 @@
+package com.example.shelldemo;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.example.shelldemo.exception.DatabaseException;
+import com.example.shelldemo.sqlhandling.KeysetPage;
+
+@DisplayName("Keyset Pagination Tests")
+class KeysetPaginationTest {
+    private static final String DATABASE = "keyset";
+    private static final int ROWS = 2_500;
+
+    @BeforeAll
+    static void setUp() throws SQLException {
+        try (Connection conn = DriverManager.getConnection("jdbc:h2:mem:" + DATABASE + ";DB_CLOSE_DELAY=-1", "sa", "sa");
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("DROP TABLE IF EXISTS items");
+            stmt.execute("CREATE TABLE items (grp INT, id INT, created TIMESTAMP, PRIMARY KEY (grp, id))");
+            stmt.execute("INSERT INTO items SELECT MOD(x, 7), x, DATEADD('SECOND', x, TIMESTAMP '2024-01-01 00:00:00') "
+                + "FROM SYSTEM_RANGE(1, " + ROWS + ")");
+        }
+    }
+
+    @Test
+    @DisplayName("Should walk all pages in key order with a composite key")
+    void testCompositeKeyPages() {
+        try (UnifiedDatabaseOperation operation = newOperation()) {
+            List<Map<String, Object>> all = new ArrayList<>();
+            String token = null;
+            int pages = 0;
+            do {
+                KeysetPage page = operation.executeQueryPage(
+                    "SELECT grp, id FROM items WHERE id > ?", List.of("grp", "id"), 100, token, 0);
+                all.addAll(page.rows());
+                token = page.nextToken();
+                pages++;
+            } while (token != null);
+
+            assertEquals(ROWS, all.size());
+            assertEquals(ROWS / 100, pages, "The last full page should not be followed by an empty one");
+            Set<Object> ids = new HashSet<>();
+            for (int i = 0; i < all.size(); i++) {
+                ids.add(all.get(i).get("ID"));
+                if (i > 0) {
+                    int previousGroup = (Integer) all.get(i - 1).get("GRP");
+                    int group = (Integer) all.get(i).get("GRP");
+                    assertTrue(previousGroup < group
+                        || (previousGroup == group && (Integer) all.get(i - 1).get("ID") < (Integer) all.get(i).get("ID")),
+                        "Rows should be ordered by the key columns");
+                }
+            }
+            assertEquals(ROWS, ids.size());
+        }
+    }
+
+    @Test
+    @DisplayName("Should continue after a timestamp key")
+    void testTimestampKey() {
+        try (UnifiedDatabaseOperation operation = newOperation()) {
+            KeysetPage first = operation.executeQueryPage("SELECT id, created FROM items", List.of("created"), 10, null);
+            KeysetPage second = operation.executeQueryPage("SELECT id, created FROM items", List.of("created"), 10,
+                first.nextToken());
+
+            assertEquals(1, first.rows().get(0).get("ID"));
+            assertEquals(11, second.rows().get(0).get("ID"));
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject a token issued for another query")
+    void testForeignToken() {
+        try (UnifiedDatabaseOperation operation = newOperation()) {
+            String token = operation.executeQueryPage("SELECT id FROM items", List.of("id"), 5, null).nextToken();
+
+            assertThrows(DatabaseException.class, () -> operation.executeQueryPage(
+                "SELECT grp, id FROM items", List.of("grp", "id"), 5, token));
+            assertThrows(DatabaseException.class, () -> operation.executeQueryPage(
+                "SELECT id FROM items", List.of("id"), 5, "not-a-token"));
+        }
+    }
+
+    @Test
+    @DisplayName("Should page with the dialect's offset template")
+    void testOffsetPagination() {
+        try (UnifiedDatabaseOperation operation = newOperation()) {
+            List<Map<String, Object>> page = operation.executeQuery("SELECT id FROM items ORDER BY id", 50, 3, new Object[0]);
+
+            assertEquals(50, page.size());
+            assertEquals(101, page.get(0).get("ID"));
+        }
+    }
+
+    private static UnifiedDatabaseOperation newOperation() {
+        return UnifiedDatabaseOperation.builder()
+            .dbType("h2")
+            .host("localhost")
+            .username("sa")
+            .password("sa")
+            .serviceName(DATABASE)
+            .build();
+    }
+}
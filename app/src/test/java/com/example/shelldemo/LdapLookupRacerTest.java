@@ -0,0 +1,130 @@
+package com.example.shelldemo;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.naming.AuthenticationException;
+import javax.naming.CommunicationException;
+import javax.naming.NameNotFoundException;
+import javax.naming.NamingException;
+
+import com.example.shelldemo.connection.LdapLookupRacer;
+import com.example.shelldemo.connection.ServerHealthCache;
+
+@DisplayName("LDAP Lookup Racer Tests")
+class LdapLookupRacerTest {
+    private static final String DESCRIPTOR = "(DESCRIPTION=(ADDRESS=(PROTOCOL=TCP)(HOST=db)(PORT=1521))"
+        + "(CONNECT_DATA=(SERVICE_NAME=orcl)))";
+
+    private final List<String> servers = List.of("slow", "dead", "good");
+
+    @Test
+    @DisplayName("Should resolve through the first server that answers without waiting for slow ones")
+    void testSlowServerDoesNotDelayLookup() throws Exception {
+        ServerHealthCache health = new ServerHealthCache(Duration.ofMinutes(5));
+
+        long start = System.nanoTime();
+        String descriptor = racer(health).lookup(servers, LdapLookupRacerTest::lookup);
+        long elapsedMillis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+
+        assertEquals(DESCRIPTOR, descriptor);
+        assertTrue(elapsedMillis < 2500, "Lookup should not wait for the slow server, took " + elapsedMillis + " ms");
+        assertEquals(1, health.failures("dead"));
+        assertTrue(health.isSuspect("dead"));
+        assertFalse(health.isSuspect("good"));
+    }
+
+    @Test
+    @DisplayName("Should try healthy servers first on later lookups")
+    void testKnownBadServersAreDeprioritized() throws Exception {
+        ServerHealthCache health = new ServerHealthCache(Duration.ofMinutes(5));
+        health.recordFailure("slow");
+        health.recordFailure("dead");
+        Map<String, AtomicInteger> attempts = new ConcurrentHashMap<>();
+
+        String descriptor = racer(health).lookup(servers, server -> {
+            attempts.computeIfAbsent(server, k -> new AtomicInteger()).incrementAndGet();
+            return lookup(server);
+        });
+
+        assertEquals(DESCRIPTOR, descriptor);
+        assertEquals(List.of("good", "slow", "dead"), health.prioritize(servers, server -> server));
+        assertEquals(1, attempts.get("good").get());
+        assertFalse(attempts.containsKey("dead"), "Suspect servers should not be tried when a healthy one answers");
+    }
+
+    @Test
+    @DisplayName("Should report every failure when no server answers")
+    void testAllServersFail() {
+        LdapLookupRacer racer = racer(new ServerHealthCache(Duration.ofMinutes(5)));
+
+        NamingException e = assertThrows(NamingException.class,
+            () -> racer.lookup(List.of("dead", "dead"), LdapLookupRacerTest::lookup));
+        assertEquals(1, e.getSuppressed().length, "The second failure should be attached to the first");
+    }
+
+    @Test
+    @DisplayName("Should stop at rejected credentials without blaming the server")
+    void testAuthenticationFailureIsTerminal() {
+        ServerHealthCache health = new ServerHealthCache(Duration.ofMinutes(5));
+        Map<String, AtomicInteger> attempts = new ConcurrentHashMap<>();
+
+        assertThrows(AuthenticationException.class, () -> racer(health).lookup(List.of("a", "b"), server -> {
+            attempts.computeIfAbsent(server, k -> new AtomicInteger()).incrementAndGet();
+            throw new AuthenticationException("[LDAP: error code 49 - Invalid Credentials]");
+        }));
+
+        assertEquals(1, attempts.get("a").get());
+        assertFalse(attempts.containsKey("b"), "Other servers would reject the same credentials");
+        assertEquals(0, health.failures("a"));
+    }
+
+    @Test
+    @DisplayName("Should stop at a missing descriptor without blaming the server")
+    void testMissingEntryIsTerminal() {
+        ServerHealthCache health = new ServerHealthCache(Duration.ofMinutes(5));
+        Map<String, AtomicInteger> attempts = new ConcurrentHashMap<>();
+
+        assertThrows(NameNotFoundException.class, () -> racer(health).lookup(List.of("a", "b"), server -> {
+            attempts.computeIfAbsent(server, k -> new AtomicInteger()).incrementAndGet();
+            throw new NameNotFoundException("[LDAP: error code 32 - No Such Object]");
+        }));
+
+        assertEquals(1, attempts.get("a").get());
+        assertFalse(attempts.containsKey("b"), "Other servers hold the same entries");
+        assertEquals(0, health.failures("a"));
+        assertFalse(health.isSuspect("a"));
+    }
+
+    private static LdapLookupRacer racer(ServerHealthCache health) {
+        return LdapLookupRacer.builder()
+            .stagger(Duration.ofMillis(100))
+            .timeout(Duration.ofSeconds(10))
+            .health(health)
+            .build();
+    }
+
+    private static String lookup(String server) throws NamingException {
+        switch (server) {
+            case "slow" -> {
+                try {
+                    Thread.sleep(3000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                throw new CommunicationException("Timed out");
+            }
+            case "dead" -> throw new CommunicationException("Connection refused");
+            default -> {
+                return DESCRIPTOR;
+            }
+        }
+    }
+}
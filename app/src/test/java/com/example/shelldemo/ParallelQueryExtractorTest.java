@@ -0,0 +1,106 @@
+package com.example.shelldemo;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.example.shelldemo.exception.DatabaseException;
+import com.example.shelldemo.partition.KeyRange;
+import com.example.shelldemo.partition.KeyRangeSplitter;
+import com.example.shelldemo.partition.ParallelQueryExtractor;
+
+@DisplayName("Parallel Query Extractor Tests")
+class ParallelQueryExtractorTest {
+    private static final String DATABASE = "extract";
+    private static final int ROWS = 20_000;
+
+    @BeforeAll
+    static void setUp() throws SQLException {
+        try (Connection conn = DriverManager.getConnection("jdbc:h2:mem:" + DATABASE + ";DB_CLOSE_DELAY=-1", "sa", "sa");
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("DROP TABLE IF EXISTS events");
+            stmt.execute("CREATE TABLE events (id BIGINT PRIMARY KEY, kind VARCHAR(10), score INT)");
+            stmt.execute("INSERT INTO events SELECT x, CASE WHEN MOD(x, 2) = 0 THEN 'even' ELSE 'odd' END, "
+                + "CASE WHEN MOD(x, 100) = 0 THEN NULL ELSE MOD(x, 97) END FROM SYSTEM_RANGE(1, " + ROWS + ")");
+        }
+    }
+
+    @Test
+    @DisplayName("Should merge every row of all ranges exactly once")
+    void testParallelExtract() {
+        Set<Object> ids = new HashSet<>();
+        try (UnifiedDatabaseOperation operation = newOperation()) {
+            long rows = operation.executeParallelQuery(
+                "SELECT id, kind FROM events WHERE kind = ?", "id", 4, row -> ids.add(row.get("ID")), "even");
+
+            assertEquals(ROWS / 2, rows);
+            assertEquals(ROWS / 2, ids.size(), "No row should be returned twice");
+        }
+    }
+
+    @Test
+    @DisplayName("Should include rows with a NULL partition key")
+    void testNullPartitionKeys() {
+        long[] nulls = new long[1];
+        try (UnifiedDatabaseOperation operation = newOperation()) {
+            long rows = operation.executeParallelQuery("SELECT id, score FROM events", "score", 3,
+                row -> { if (row.get("SCORE") == null) nulls[0]++; });
+
+            assertEquals(ROWS, rows);
+            assertEquals(ROWS / 100, nulls[0]);
+        }
+    }
+
+    @Test
+    @DisplayName("Should split on explicit bounds without dropping rows outside them")
+    void testExplicitBounds() throws SQLException {
+        ParallelQueryExtractor extractor = ParallelQueryExtractor.builder()
+            .connectionProvider(() -> DriverManager.getConnection("jdbc:h2:mem:" + DATABASE, "sa", "sa"))
+            .query("SELECT id FROM events")
+            .partitionColumn("id")
+            .parallelism(4)
+            .bounds(new BigDecimal(101), new BigDecimal(200))
+            .fetchSize(7)
+            .build();
+
+        assertEquals(ROWS, extractor.extract(row -> { }));
+
+        List<KeyRange> ranges = new KeyRangeSplitter("events", "id", 4).withBounds(101, 200).split(null);
+        assertEquals("#0 (-inf, 126)", ranges.get(0).toString());
+        assertEquals("#3 [176, +inf)", ranges.get(3).toString());
+        assertTrue(ranges.get(4).isNullRange());
+    }
+
+    @Test
+    @DisplayName("Should surface handler failures as database exceptions")
+    void testHandlerFailure() {
+        try (UnifiedDatabaseOperation operation = newOperation()) {
+            DatabaseException e = assertThrows(DatabaseException.class, () -> operation.executeParallelQuery(
+                "SELECT id FROM events", "id", 4, (Map<String, Object> row) -> {
+                    throw new IllegalStateException("consumer failed");
+                }));
+            assertEquals(DatabaseException.ErrorType.OP_QUERY, e.getErrorType());
+        }
+    }
+
+    private static UnifiedDatabaseOperation newOperation() {
+        return UnifiedDatabaseOperation.builder()
+            .dbType("h2")
+            .host("localhost")
+            .username("sa")
+            .password("sa")
+            .serviceName(DATABASE)
+            .build();
+    }
+}
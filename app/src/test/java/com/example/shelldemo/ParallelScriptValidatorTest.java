@@ -0,0 +1,154 @@
+package com.example.shelldemo;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.example.shelldemo.validate.ParallelScriptValidator;
+import com.example.shelldemo.validate.ValidationCache;
+
+import picocli.CommandLine;
+
+@DisplayName("Parallel Script Validator Tests")
+class ParallelScriptValidatorTest {
+    private static final String URL = "jdbc:h2:mem:parallelvalidate;DB_CLOSE_DELAY=-1";
+
+    @BeforeAll
+    static void createSchema() throws SQLException {
+        try (Connection conn = DriverManager.getConnection(URL, "sa", "sa");
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS orders (id INT PRIMARY KEY, amount DECIMAL(10, 2))");
+        }
+    }
+
+    @Test
+    @DisplayName("Should report every invalid statement in script order")
+    void testCollectsAllFailuresInOrder() {
+        Map<Integer, String> statements = new TreeMap<>();
+        for (int i = 1; i <= 40; i++) {
+            statements.put(i, i % 10 == 0
+                ? "SELECT amount FROM missing_table_" + i
+                : "SELECT amount FROM orders WHERE id = " + i);
+        }
+        statements.put(41, "UPDATE orders SET amount = amount * 2 WHERE id = 1");
+        statements.put(42, "CREATE INDEX orders_amount ON orders (amount)");
+        statements.put(43, "SELEKT 1");
+        AtomicInteger opened = new AtomicInteger();
+
+        ParallelScriptValidator.Report report = ParallelScriptValidator.builder()
+            .connectionProvider(() -> {
+                opened.incrementAndGet();
+                return DriverManager.getConnection(URL, "sa", "sa");
+            })
+            .dbType("h2")
+            .parallelism(4)
+            .build()
+            .validate(statements);
+
+        assertEquals(43, report.results().size());
+        assertEquals(statements.keySet().stream().toList(),
+            report.results().stream().map(ParallelScriptValidator.Result::ordinal).toList());
+        assertEquals(List.of(10, 20, 30, 40, 43),
+            report.failures().stream().map(ParallelScriptValidator.Result::ordinal).toList());
+        assertTrue(report.failures().get(0).error().toUpperCase().contains("MISSING_TABLE_10"));
+        assertEquals(List.of(42), report.skipped().stream().map(ParallelScriptValidator.Result::ordinal).toList(),
+            "DDL should be reported as not validated rather than valid");
+        assertFalse(report.results().get(41).valid());
+        assertFalse(report.valid());
+        assertEquals(4, opened.get());
+    }
+
+    @Test
+    @DisplayName("Should reuse cached outcomes until a referenced table changes")
+    void testValidationCache(@TempDir Path tempDir) throws SQLException {
+        try (Connection conn = DriverManager.getConnection(URL, "sa", "sa");
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE cache_items (id INT)");
+        }
+        Map<Integer, String> statements = new TreeMap<>(Map.of(
+            1, "SELECT id FROM cache_items WHERE id = 1",
+            2, "SELECT name FROM cache_items",
+            3, "SELECT 1"));
+        ValidationCache cache = new ValidationCache(tempDir, Duration.ofDays(1));
+        AtomicInteger opened = new AtomicInteger();
+        ParallelScriptValidator validator = ParallelScriptValidator.builder()
+            .connectionProvider(() -> {
+                opened.incrementAndGet();
+                return DriverManager.getConnection(URL, "sa", "sa");
+            })
+            .dbType("h2")
+            .parallelism(2)
+            .cache(cache)
+            .build();
+
+        ParallelScriptValidator.Report first = validator.validate(statements);
+        assertEquals(List.of(2), first.failures().stream().map(ParallelScriptValidator.Result::ordinal).toList());
+        assertTrue(first.results().stream().noneMatch(ParallelScriptValidator.Result::cached));
+
+        opened.set(0);
+        statements.put(1, "select id  from cache_items where id = 2");
+        ParallelScriptValidator.Report second = validator.validate(statements);
+        assertTrue(second.results().stream().allMatch(ParallelScriptValidator.Result::cached));
+        assertEquals(first.failures().get(0).error(), second.failures().get(0).error());
+        assertEquals(1, opened.get(), "only the schema version query needs a connection");
+
+        try (Connection conn = DriverManager.getConnection(URL, "sa", "sa");
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("ALTER TABLE cache_items ADD COLUMN name VARCHAR(20)");
+        }
+        ParallelScriptValidator.Report third = validator.validate(statements);
+        assertTrue(third.valid());
+        assertEquals(List.of(false, false, true),
+            third.results().stream().map(ParallelScriptValidator.Result::cached).toList());
+    }
+
+    @Test
+    @DisplayName("Should only cache errors that depend on the statement and the schema")
+    void testDeterministicErrors() {
+        assertTrue(ValidationCache.isDeterministic(new SQLException("ORA-00942: table or view does not exist", "42000", 942)));
+        assertTrue(ValidationCache.isDeterministic(new SQLException("ORA-00904: invalid identifier", null, 904)));
+        assertTrue(ValidationCache.isDeterministic(new SQLException("Column not found", "42S22", 42122)));
+        assertFalse(ValidationCache.isDeterministic(new SQLException("IO Error: Connection reset", "08006", 17002)));
+        assertFalse(ValidationCache.isDeterministic(new SQLException("ORA-01013: user requested cancel", "72000", 1013)));
+        assertFalse(ValidationCache.isDeterministic(new SQLException("ORA-04021: timeout waiting to lock", "61000", 4021)));
+    }
+
+    @Test
+    @DisplayName("Should fail pre-flight with parallel validation when a statement is invalid")
+    void testPreFlightExitCode(@TempDir Path tempDir) throws Exception {
+        Path valid = Files.writeString(tempDir.resolve("valid.sql"), """
+            SELECT 1;
+            SELECT 2;
+            """);
+        Path invalid = Files.writeString(tempDir.resolve("invalid.sql"), """
+            SELECT 1;
+            SELECT * FROM no_such_table;
+            """);
+        String[] common = {"-t", "h2", "-H", "localhost", "-u", "sa", "-p", "sa", "-d", "preflight",
+            "--pre-flight", "--validate-parallelism", "2"};
+
+        assertEquals(0, new CommandLine(new UnifiedDatabaseRunner()).execute(append(common, valid.toString())));
+        assertEquals(1, new CommandLine(new UnifiedDatabaseRunner()).execute(append(common, invalid.toString())));
+    }
+
+    private static String[] append(String[] args, String last) {
+        String[] result = Arrays.copyOf(args, args.length + 1);
+        result[args.length] = last;
+        return result;
+    }
+}
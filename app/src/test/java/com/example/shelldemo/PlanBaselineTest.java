@@ -0,0 +1,123 @@
+package com.example.shelldemo;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.List;
+
+import com.example.shelldemo.parser.StatementFingerprint;
+import com.example.shelldemo.validate.PlanBaseline;
+import com.example.shelldemo.validate.PlanShape;
+
+import picocli.CommandLine;
+
+@DisplayName("Plan Baseline Tests")
+class PlanBaselineTest {
+    private static final String TARGET = PlanBaseline.target("oracle", "scott", "db1", 1521, "orcl");
+    private static final String ORACLE_PLAN = """
+        Plan hash value: 3956160932
+
+        --------------------------------------------------------------------------
+        | Id  | Operation         | Name | Rows  | Bytes | Cost (%%CPU)| Time     |
+        --------------------------------------------------------------------------
+        |   0 | SELECT STATEMENT  |      |    14 |   518 | %s   (0)| 00:00:01 |
+        |*  1 |  %s| EMP  |    14 |   518 |     3   (0)| 00:00:01 |
+        --------------------------------------------------------------------------
+        """;
+
+    @Test
+    @DisplayName("Should read access paths and cost from dialect plans")
+    void testPlanShapes() {
+        PlanShape oracle = PlanShape.parse("oracle", ORACLE_PLAN.formatted("   3", "TABLE ACCESS FULL"));
+        assertEquals(List.of("SELECT STATEMENT", "TABLE ACCESS FULL EMP"), oracle.accessPaths());
+        assertEquals(3.0, oracle.cost());
+        assertEquals(12_000.0, PlanShape.parse("oracle", ORACLE_PLAN.formatted(" 12K", "TABLE ACCESS FULL")).cost());
+
+        PlanShape postgres = PlanShape.parse("postgresql", """
+            Hash Join  (cost=1.09..2.23 rows=4 width=8)
+              Hash Cond: (o.customer_id = c.id)
+              ->  Seq Scan on orders o  (cost=0.00..1.08 rows=8 width=8)
+              ->  Hash  (cost=1.04..1.04 rows=4 width=4)
+                    ->  Index Scan using customers_pkey on customers c  (cost=0.00..1.04 rows=4 width=4)
+            """);
+        assertEquals(List.of("Hash Join", "Seq Scan on orders o", "Hash", "Index Scan using customers_pkey on customers c"),
+            postgres.accessPaths());
+        assertEquals(2.23, postgres.cost());
+    }
+
+    @Test
+    @DisplayName("Should flag changed access paths and cost jumps against the baseline")
+    void testRegressions(@TempDir Path tempDir) throws Exception {
+        Path file = tempDir.resolve("plans.json");
+        String sql = "SELECT * FROM emp WHERE deptno = 10";
+        PlanBaseline baseline = PlanBaseline.load(file, TARGET, 2, false);
+        assertNull(baseline.check("oracle", 1, sql, ORACLE_PLAN.formatted("   3", "TABLE ACCESS FULL")));
+        baseline.save();
+
+        PlanBaseline reloaded = PlanBaseline.load(file, TARGET, 2, false);
+        assertEquals(1, reloaded.size());
+        assertNull(reloaded.check("oracle", 1, "SELECT * FROM emp WHERE deptno = 20",
+            ORACLE_PLAN.formatted("   5", "TABLE ACCESS FULL")), "cost below the factor");
+        PlanBaseline.Regression costJump = reloaded.check("oracle", 1, sql, ORACLE_PLAN.formatted("   9", "TABLE ACCESS FULL"));
+        assertNotNull(costJump);
+        assertEquals(StatementFingerprint.of(sql), costJump.fingerprint());
+        assertTrue(costJump.reasons().get(0).contains("3.0x"), costJump.reasons().toString());
+        PlanBaseline.Regression flip = reloaded.check("oracle", 1, sql,
+            ORACLE_PLAN.formatted("   3", "INDEX RANGE SCAN "));
+        assertTrue(flip.reasons().get(0).startsWith("access paths changed"));
+    }
+
+    @Test
+    @DisplayName("Should keep separate baselines per statement position and per connection target")
+    void testBaselineKeys(@TempDir Path tempDir) throws Exception {
+        Path file = tempDir.resolve("plans.json");
+        String sql = "SELECT * FROM emp WHERE deptno = 10";
+        String fullScan = ORACLE_PLAN.formatted("   3", "TABLE ACCESS FULL");
+        String indexScan = ORACLE_PLAN.formatted("   3", "INDEX RANGE SCAN ");
+        PlanBaseline baseline = PlanBaseline.load(file, TARGET, 2, false);
+        assertNull(baseline.check("oracle", 1, sql, fullScan));
+        assertNull(baseline.check("oracle", 2, sql, indexScan), "same shape at another position");
+        baseline.save();
+
+        PlanBaseline other = PlanBaseline.load(file, PlanBaseline.target("oracle", "scott", "db2", 1521, "orcl"), 2, false);
+        assertEquals(0, other.size());
+        assertNull(other.check("oracle", 1, sql, indexScan), "another database starts its own baseline");
+        other.save();
+
+        PlanBaseline reloaded = PlanBaseline.load(file, TARGET, 2, false);
+        assertEquals(2, reloaded.size());
+        assertNull(reloaded.check("oracle", 1, sql, fullScan));
+        assertNotNull(reloaded.check("oracle", 2, sql, fullScan));
+    }
+
+    @Test
+    @DisplayName("Should detect a plan flip in pre-flight after an index is created")
+    void testPreFlightDetectsPlanFlip(@TempDir Path tempDir) throws Exception {
+        String url = "jdbc:h2:mem:planflip;DB_CLOSE_DELAY=-1";
+        try (Connection conn = DriverManager.getConnection(url, "sa", "sa");
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE plan_items AS SELECT x AS id, MOD(x, 10) AS v FROM SYSTEM_RANGE(1, 100)");
+        }
+        Path script = Files.writeString(tempDir.resolve("plans.sql"), "SELECT id FROM plan_items WHERE v = 5;\n");
+        Path baseline = tempDir.resolve("baseline/plans.json");
+        String[] args = {"-t", "h2", "-H", "localhost", "-u", "sa", "-p", "sa", "-d", "planflip", "--pre-flight",
+            "--plan-baseline", baseline.toString(), "--fail-on-plan-regression", script.toString()};
+
+        assertEquals(0, new CommandLine(new UnifiedDatabaseRunner()).execute(args));
+        assertTrue(Files.readString(baseline).contains(StatementFingerprint.of("SELECT id FROM plan_items WHERE v = 5")));
+        assertEquals(0, new CommandLine(new UnifiedDatabaseRunner()).execute(args), "unchanged plan");
+
+        try (Connection conn = DriverManager.getConnection(url, "sa", "sa");
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE INDEX plan_items_v ON plan_items (v)");
+        }
+        assertEquals(1, new CommandLine(new UnifiedDatabaseRunner()).execute(args));
+    }
+}
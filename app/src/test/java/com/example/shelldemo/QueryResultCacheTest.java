@@ -0,0 +1,210 @@
+package com.example.shelldemo;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.example.shelldemo.cache.CacheStats;
+import com.example.shelldemo.cache.QueryResultCache;
+import com.example.shelldemo.parser.SqlTableExtractor;
+
+@DisplayName("Query Result Cache Tests")
+class QueryResultCacheTest {
+    private static final String DB = "h2://sa@localhost:0/cache";
+    private static final String DATABASE = "querycache";
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeAll
+    static void setUp() throws SQLException {
+        try (Connection conn = DriverManager.getConnection("jdbc:h2:mem:" + DATABASE + ";DB_CLOSE_DELAY=-1", "sa", "sa");
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("DROP TABLE IF EXISTS countries");
+            stmt.execute("CREATE TABLE countries (code VARCHAR(2) PRIMARY KEY, name VARCHAR(40))");
+            stmt.execute("INSERT INTO countries VALUES ('DE', 'Germany'), ('FR', 'France')");
+        }
+    }
+
+    @Test
+    @DisplayName("Should find the tables read and written by statements")
+    void testTableExtraction() {
+        assertEquals(Set.of("orders", "customers", "regions"), SqlTableExtractor.referencedTables(
+            "SELECT * FROM app.orders o JOIN \"CUSTOMERS\" c ON c.id = o.cid, regions r -- FROM ignored\n WHERE x = 'from y'"));
+        assertEquals(Set.of("orders"), SqlTableExtractor.modifiedTables("INSERT INTO orders SELECT * FROM staging"));
+        assertEquals(Set.of("orders"), SqlTableExtractor.modifiedTables("update orders set x = 1"));
+        assertEquals(Set.of("orders"), SqlTableExtractor.modifiedTables("DELETE orders WHERE id = 1"));
+        assertEquals(Set.of("orders"), SqlTableExtractor.modifiedTables("DROP TABLE IF EXISTS orders"));
+        assertTrue(SqlTableExtractor.modifiedTables("BEGIN do_work; END;").isEmpty());
+        assertTrue(SqlTableExtractor.isQuery("WITH x AS (SELECT 1 FROM dual) SELECT * FROM x"));
+    }
+
+    @Test
+    @DisplayName("Should only cache queries whose result depends on nothing but the tables they read")
+    void testDeterministicQueries() {
+        assertTrue(SqlTableExtractor.isDeterministicQuery(
+            "SELECT UPPER(name), COUNT(*) FROM countries WHERE code IN ('DE') GROUP BY name"));
+        assertTrue(SqlTableExtractor.isDeterministicQuery("SELECT * FROM t OFFSET 10 ROWS FETCH NEXT 5 ROWS ONLY"));
+        assertFalse(SqlTableExtractor.isDeterministicQuery("SELECT * FROM orders WHERE id = 1 FOR UPDATE"));
+        assertFalse(SqlTableExtractor.isDeterministicQuery("SELECT * FROM orders FOR SHARE"));
+        assertFalse(SqlTableExtractor.isDeterministicQuery("SELECT order_seq.NEXTVAL FROM dual"));
+        assertFalse(SqlTableExtractor.isDeterministicQuery("SELECT * FROM orders WHERE created > SYSDATE - 1"));
+        assertFalse(SqlTableExtractor.isDeterministicQuery("SELECT CURRENT_TIMESTAMP FROM orders"));
+        assertFalse(SqlTableExtractor.isDeterministicQuery("SELECT DBMS_RANDOM.VALUE FROM orders"));
+        assertFalse(SqlTableExtractor.isDeterministicQuery("SELECT price_of(id) FROM orders"));
+        assertFalse(SqlTableExtractor.isDeterministicQuery("SELECT NEXT VALUE FOR order_seq"));
+
+        String writingCte = "WITH moved AS (SELECT id FROM staging) INSERT INTO orders SELECT id FROM moved";
+        assertFalse(SqlTableExtractor.isQuery(writingCte));
+        assertFalse(SqlTableExtractor.isDeterministicQuery(writingCte));
+        assertTrue(SqlTableExtractor.isQuery("SELECT * FROM orders FOR UPDATE"), "A locking read writes nothing");
+
+        QueryResultCache cache = QueryResultCache.builder().build();
+        cache.put(DB, "SELECT * FROM orders WHERE created > SYSDATE - 1", new Object[0], rows(1));
+        cache.put(DB, "SELECT * FROM orders FOR UPDATE", new Object[0], rows(1));
+        assertEquals(0, cache.stats().entries());
+    }
+
+    @Test
+    @DisplayName("Should drop every entry of the database on a write, since views hide what a query reads")
+    void testWriteClearsDatabase() {
+        QueryResultCache cache = QueryResultCache.builder().build();
+        cache.put(DB, "SELECT * FROM open_orders", new Object[0], rows(1));
+        cache.put("other", "SELECT * FROM open_orders", new Object[0], rows(1));
+
+        cache.invalidateFor(DB, "UPDATE orders SET status = 'closed'");
+
+        assertNull(cache.get(DB, "SELECT * FROM open_orders"), "The view may read the updated table");
+        assertNotNull(cache.get("other", "SELECT * FROM open_orders"));
+    }
+
+    @Test
+    @DisplayName("Should serve repeated queries from the cache until a table is updated")
+    void testHitAndInvalidation() {
+        QueryResultCache cache = QueryResultCache.builder().build();
+        try (UnifiedDatabaseOperation operation = newOperation(cache)) {
+            String sql = "SELECT name FROM countries WHERE code = ?";
+            assertEquals("Germany", operation.executeQuery(sql, "DE").get(0).get("NAME"));
+            assertEquals("Germany", operation.executeQuery(sql, "DE").get(0).get("NAME"));
+            assertEquals("France", operation.executeQuery(sql, "FR").get(0).get("NAME"));
+
+            CacheStats stats = cache.stats();
+            assertEquals(1, stats.hits());
+            assertEquals(2, stats.misses(), "Different parameters should be separate entries");
+            assertEquals(2, stats.entries());
+            assertTrue(stats.bytes() > 0);
+
+            operation.executeUpdate("UPDATE countries SET name = ? WHERE code = ?", "Deutschland", "DE");
+
+            assertEquals("Deutschland", operation.executeQuery(sql, "DE").get(0).get("NAME"));
+            assertEquals(2, cache.stats().invalidations());
+            operation.executeUpdate("UPDATE countries SET name = ? WHERE code = ?", "Germany", "DE");
+        }
+    }
+
+    @Test
+    @DisplayName("Should evict least recently used entries beyond the byte bound")
+    void testByteBoundEviction() {
+        QueryResultCache cache = QueryResultCache.builder().maxBytes(4_000).build();
+        for (int i = 0; i < 20; i++) {
+            cache.put(DB, "SELECT * FROM t" + i, new Object[0], rows(5));
+            cache.get(DB, "SELECT * FROM t0");
+        }
+
+        CacheStats stats = cache.stats();
+        assertTrue(stats.bytes() <= 4_000, "Cache should stay within its byte bound");
+        assertTrue(stats.evictions() > 0);
+        assertNotNull(cache.get(DB, "SELECT * FROM t0"), "Recently used entries should survive eviction");
+        assertNull(cache.get(DB, "SELECT * FROM t1"));
+    }
+
+    @Test
+    @DisplayName("Should expire entries after their TTL")
+    void testTtl() throws InterruptedException {
+        QueryResultCache cache = QueryResultCache.builder().build();
+        cache.put(DB, "SELECT * FROM t", new Object[0], rows(1), Duration.ofMillis(50));
+        assertNotNull(cache.get(DB, "SELECT * FROM t"));
+
+        Thread.sleep(100);
+
+        assertNull(cache.get(DB, "SELECT * FROM t"));
+        assertEquals(1, cache.stats().expirations());
+    }
+
+    @Test
+    @DisplayName("Should share results and invalidations through the disk tier")
+    void testDiskTier() throws InterruptedException {
+        QueryResultCache first = QueryResultCache.builder().directory(tempDir).build();
+        QueryResultCache second = QueryResultCache.builder().directory(tempDir).build();
+        first.put(DB, "SELECT * FROM t WHERE id = ?", new Object[] {1}, rows(3));
+
+        List<Map<String, Object>> shared = second.get(DB, "SELECT * FROM t WHERE id = ?", 1);
+        assertNotNull(shared, "A second cache on the same directory should see the entry");
+        assertEquals(3, shared.size());
+        assertEquals(1, second.stats().diskHits());
+
+        Thread.sleep(5);
+        QueryResultCache third = QueryResultCache.builder().directory(tempDir).build();
+        second.invalidateFor(DB, "DELETE FROM t WHERE id = 1");
+        assertNull(third.get(DB, "SELECT * FROM t WHERE id = ?", 1),
+            "Modifications recorded by another cache should invalidate disk entries");
+    }
+
+    @Test
+    @DisplayName("Should keep results and invalidations of different databases apart")
+    void testDatabaseIsolation() throws InterruptedException {
+        String dev = "oracle://app@dev-db:1521/ORCL";
+        String prod = "oracle://app@prod-db:1521/ORCL";
+        QueryResultCache first = QueryResultCache.builder().directory(tempDir).build();
+        first.put(dev, "SELECT * FROM t", new Object[0], rows(1));
+        first.put(prod, "SELECT * FROM t", new Object[0], rows(2));
+
+        QueryResultCache second = QueryResultCache.builder().directory(tempDir).build();
+        assertEquals(1, second.get(dev, "SELECT * FROM t").size());
+        assertEquals(2, second.get(prod, "SELECT * FROM t").size());
+
+        Thread.sleep(5);
+        first.invalidateFor(dev, "DELETE FROM t");
+        first.invalidateFor(dev, "BEGIN cleanup; END;");
+        assertNull(first.get(dev, "SELECT * FROM t"));
+        assertNotNull(first.get(prod, "SELECT * FROM t"), "Writes to one database keep entries of another");
+        QueryResultCache third = QueryResultCache.builder().directory(tempDir).build();
+        assertNull(third.get(dev, "SELECT * FROM t"));
+        assertEquals(2, third.get(prod, "SELECT * FROM t").size());
+    }
+
+    private static List<Map<String, Object>> rows(int count) {
+        List<Map<String, Object>> rows = new java.util.ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("ID", i);
+            row.put("NAME", "name " + i);
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private static UnifiedDatabaseOperation newOperation(QueryResultCache cache) {
+        return UnifiedDatabaseOperation.builder()
+            .dbType("h2")
+            .host("localhost")
+            .username("sa")
+            .password("sa")
+            .serviceName(DATABASE)
+            .queryCache(cache)
+            .build();
+    }
+}
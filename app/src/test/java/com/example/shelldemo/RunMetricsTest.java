@@ -0,0 +1,129 @@
+package com.example.shelldemo;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import com.example.shelldemo.metrics.LatencyHistogram;
+import com.example.shelldemo.metrics.MetricsHttpServer;
+import com.example.shelldemo.metrics.Phase;
+import com.example.shelldemo.metrics.RunMetrics;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import picocli.CommandLine;
+
+@DisplayName("Run Metrics Tests")
+class RunMetricsTest {
+
+    @Test
+    @DisplayName("Should report percentiles within the histogram precision")
+    void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int millis = 1; millis <= 1000; millis++) {
+            histogram.record(TimeUnit.MILLISECONDS.toNanos(millis));
+        }
+
+        assertEquals(1000, histogram.count());
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(1000), histogram.maxNanos());
+        assertWithin(500, histogram.percentileNanos(50));
+        assertWithin(990, histogram.percentileNanos(99));
+        assertEquals(histogram.maxNanos(), histogram.percentileNanos(100));
+        assertEquals(0, new LatencyHistogram().percentileNanos(50));
+        assertTrue(histogram.countAtOrBelow(TimeUnit.MILLISECONDS.toNanos(100)) <= 100);
+    }
+
+    @Test
+    @DisplayName("Should not lose recordings from concurrent threads")
+    void testConcurrentRecording() throws Exception {
+        RunMetrics metrics = new RunMetrics();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    metrics.record(Phase.EXECUTE, 1_000_000);
+                    metrics.rowFetched(new Object[] {"abcd", 42});
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        assertEquals(80_000, metrics.histogram(Phase.EXECUTE).count());
+        assertEquals(80_000, metrics.rows());
+        assertEquals(80_000 * 12, metrics.bytes());
+    }
+
+    @Test
+    @DisplayName("Should write a JSON and Prometheus report for a script run")
+    void testReportForScriptRun(@TempDir Path tempDir) throws Exception {
+        Path script = Files.writeString(tempDir.resolve("report.sql"), """
+            CREATE TABLE report_items AS SELECT x AS id FROM SYSTEM_RANGE(1, 25);
+            SELECT id FROM report_items;
+            """);
+        Path reportDir = tempDir.resolve("report");
+
+        int exitCode = new CommandLine(new UnifiedDatabaseRunner()).execute(
+            "-t", "h2", "-H", "localhost", "-u", "sa", "-p", "sa", "-d", "metrics",
+            "--metrics-report", reportDir.toString(), script.toString());
+
+        assertEquals(0, exitCode);
+        JsonNode report = new ObjectMapper().readTree(reportDir.resolve("metrics.json").toFile());
+        assertEquals(2, report.get("statements").asLong());
+        assertEquals(25, report.get("rowsFetched").asLong());
+        assertEquals(1, report.get("phases").get("connect").get("count").asLong());
+        assertEquals(2, report.get("phases").get("execute").get("count").asLong());
+        assertEquals(1, report.get("phases").get("fetch").get("count").asLong());
+
+        String prometheus = Files.readString(reportDir.resolve("metrics.prom"));
+        assertTrue(prometheus.contains("# TYPE dbscriptrunner_phase_duration_seconds histogram"));
+        assertTrue(prometheus.contains("dbscriptrunner_phase_duration_seconds_count{phase=\"execute\"} 2"));
+        assertTrue(prometheus.contains("dbscriptrunner_rows_fetched_total 25"));
+    }
+
+    @Test
+    @DisplayName("Should serve live metrics over HTTP")
+    void testHttpEndpoint() throws Exception {
+        RunMetrics metrics = new RunMetrics();
+        metrics.record(Phase.EXECUTE, 2_000_000);
+        metrics.statementCompleted(false);
+
+        try (MetricsHttpServer server = MetricsHttpServer.start(metrics, 0)) {
+            HttpClient client = HttpClient.newHttpClient();
+            HttpResponse<String> text = client.send(
+                HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + server.port() + "/metrics")).build(),
+                HttpResponse.BodyHandlers.ofString());
+            HttpResponse<String> json = client.send(
+                HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + server.port() + "/metrics.json")).build(),
+                HttpResponse.BodyHandlers.ofString());
+
+            assertEquals(200, text.statusCode());
+            assertTrue(text.body().contains("dbscriptrunner_statements_total{result=\"failed\"} 1"));
+            assertEquals(200, json.statusCode());
+            assertEquals(1, new ObjectMapper().readTree(json.body()).get("failedStatements").asLong());
+        }
+    }
+
+    private static void assertWithin(long expectedMillis, long actualNanos) {
+        double actualMillis = actualNanos / 1e6;
+        assertTrue(Math.abs(actualMillis - expectedMillis) <= expectedMillis * 0.07,
+            "Expected about " + expectedMillis + " ms, got " + actualMillis);
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.shelldemo;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.time.Duration;
+
+import com.example.shelldemo.config.ConfigurationHolder;
+import com.example.shelldemo.parser.StatementFingerprint;
+import com.example.shelldemo.sqlhandling.SlowStatementLog;
+
+import picocli.CommandLine;
+
+@DisplayName("Slow Statement Log Tests")
+class SlowStatementLogTest {
+
+    @Test
+    @DisplayName("Should write slow script statements with their plan")
+    void testLogsSlowStatementsWithPlan(@TempDir Path tempDir) throws Exception {
+        Path script = Files.writeString(tempDir.resolve("slow.sql"), """
+            CREATE TABLE slow_items AS SELECT x AS id FROM SYSTEM_RANGE(1, 10);
+            SELECT id FROM slow_items WHERE id > 5;
+            """);
+        Path slowLog = tempDir.resolve("logs/slow.log");
+
+        int exitCode = new CommandLine(new UnifiedDatabaseRunner()).execute(
+            "-t", "h2", "-H", "localhost", "-u", "sa", "-p", "sa", "-d", "slowlog",
+            "--slow-log", slowLog.toString(), "--slow-threshold", "0", script.toString());
+
+        assertEquals(0, exitCode);
+        String log = Files.readString(slowLog);
+        String query = "SELECT id FROM slow_items WHERE id > 5";
+        assertTrue(log.contains("statement #2 fingerprint " + StatementFingerprint.of(query)), log);
+        assertTrue(log.contains(query));
+        // H2 answers EXPLAIN with the optimized query, which names the table it scans
+        assertTrue(log.toUpperCase().contains("PUBLIC.SLOW_ITEMS"), log);
+    }
+
+    @Test
+    @DisplayName("Should skip fast statements and note plans that cannot be fetched")
+    void testThresholdAndMissingPlan(@TempDir Path tempDir) throws Exception {
+        assertEquals("EXPLAIN %s", ConfigurationHolder.getInstance().getSqlTemplate("h2", "validation.explain"));
+        SlowStatementLog log = SlowStatementLog.builder()
+            .file(tempDir.resolve("slow.log"))
+            .threshold(Duration.ofMillis(100))
+            .build();
+
+        assertFalse(log.record(1, "SELECT 1", Duration.ofMillis(99).toNanos()));
+        assertTrue(log.record(2, "SELECT * FROM no_such_table", Duration.ofMillis(100).toNanos()));
+        assertFalse(Files.exists(log.file()), "Plans should only be fetched once the script is done");
+
+        try (Connection conn = DriverManager.getConnection("jdbc:h2:mem:slowlog_missing", "sa", "sa")) {
+            assertEquals(1, log.explainPending(conn, "h2"));
+        }
+        assertEquals(0, log.explainPending(null, "h2"), "Explained statements should not be written twice");
+        assertTrue(Files.readString(log.file()).contains("-- not available:"));
+    }
+}
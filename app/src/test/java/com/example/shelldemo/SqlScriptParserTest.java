@@ -15,6 +15,7 @@ import java.util.Map;
 
 import com.example.shelldemo.exception.DatabaseException;
 import com.example.shelldemo.parser.SqlScriptParser;
+import com.example.shelldemo.parser.StatementFingerprint;
 
 @DisplayName("SQL Script Parser Tests")
 class SqlScriptParserTest {
@@ -269,4 +270,29 @@ class SqlScriptParserTest {
             assertTrue(statements.isEmpty(), "Should handle unclosed comments gracefully");
         }
     }
-} 
\ No newline at end of file
+
+    @Nested
+    @DisplayName("Statement Fingerprints")
+    class StatementFingerprintTests {
+
+        @Test
+        @DisplayName("Should ignore literals, comments, whitespace and keyword case")
+        void testSameShapeSameFingerprint() {
+            String first = "SELECT name FROM emp WHERE id = 42 AND dept = 'SALES';";
+            String second = "select name\n  from EMP -- by id\n where id = 7 and dept = 'it''s'";
+
+            assertEquals("select name from emp where id = ? and dept = ?", StatementFingerprint.normalize(first));
+            assertEquals(StatementFingerprint.of(first), StatementFingerprint.of(second));
+            assertEquals(16, StatementFingerprint.of(first).length());
+        }
+
+        @Test
+        @DisplayName("Should keep identifiers and quoted names apart")
+        void testDifferentShapes() {
+            assertEquals("select c1 from \"T1\" where x > ?",
+                StatementFingerprint.normalize("SELECT c1 FROM \"T1\" WHERE x > 1.5e-3"));
+            assertNotEquals(StatementFingerprint.of("SELECT a FROM t1"), StatementFingerprint.of("SELECT a FROM t2"));
+            assertNotEquals(StatementFingerprint.of("SELECT a FROM \"T\""), StatementFingerprint.of("SELECT a FROM \"t\""));
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.shelldemo;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+@DisplayName("Startup Stages Tests")
+class StartupStagesTest {
+
+    @Test
+    @DisplayName("Should run independent stages concurrently and dependent stages afterwards")
+    void testStageOrdering() throws Exception {
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        try (StartupStages stages = new StartupStages()) {
+            CompletableFuture<String> first = stages.start("first", () -> {
+                bothStarted.countDown();
+                assertTrue(bothStarted.await(5, TimeUnit.SECONDS), "Independent stages should overlap");
+                return "a";
+            });
+            CompletableFuture<String> second = stages.start("second", () -> {
+                bothStarted.countDown();
+                assertTrue(bothStarted.await(5, TimeUnit.SECONDS), "Independent stages should overlap");
+                return "b";
+            });
+            CompletableFuture<String> joined = stages.after("joined", () -> first.join() + second.join(), first, second);
+
+            assertEquals("ab", StartupStages.join(joined));
+        }
+    }
+
+    @Test
+    @DisplayName("Should surface the original failure of a stage and skip its dependents")
+    void testStageFailure() {
+        try (StartupStages stages = new StartupStages()) {
+            CompletableFuture<String> failing = stages.start("failing", () -> {
+                throw new java.io.IOException("no vault");
+            });
+            CompletableFuture<String> dependent = stages.after("dependent", () -> "never", failing);
+
+            java.io.IOException e = assertThrows(java.io.IOException.class, () -> StartupStages.join(dependent));
+            assertEquals("no vault", e.getMessage());
+        }
+    }
+}
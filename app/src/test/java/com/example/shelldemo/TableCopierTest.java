@@ -0,0 +1,214 @@
+package com.example.shelldemo;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import picocli.CommandLine;
+
+import com.example.shelldemo.connection.ConnectionConfig;
+import com.example.shelldemo.connection.ConnectionProvider;
+import com.example.shelldemo.connection.DatabaseConnectionFactory;
+import com.example.shelldemo.copy.CopyResult;
+import com.example.shelldemo.copy.TableCopier;
+import com.example.shelldemo.exception.DatabaseException;
+import com.example.shelldemo.load.BulkWriter;
+import com.example.shelldemo.load.JdbcBatchBulkWriter;
+
+@DisplayName("Table Copier Tests")
+class TableCopierTest {
+    private static final int ROWS = 10_000;
+
+    @TempDir
+    Path tempDir;
+
+    private ConnectionProvider source;
+    private ConnectionProvider target;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        source = provider("copysrc");
+        target = provider("copydst");
+
+        try (Connection conn = source.getConnection(); Statement stmt = conn.createStatement()) {
+            stmt.execute("DROP TABLE IF EXISTS orders");
+            stmt.execute("CREATE TABLE orders (id INT PRIMARY KEY, customer VARCHAR(20), created TIMESTAMP)");
+            try (PreparedStatement insert = conn.prepareStatement("INSERT INTO orders VALUES (?, ?, ?)")) {
+                for (int i = 1; i <= ROWS; i++) {
+                    insert.setInt(1, i);
+                    insert.setString(2, i % 3 == 0 ? null : "c" + (i % 50));
+                    insert.setTimestamp(3, new java.sql.Timestamp(1_700_000_000_000L + i * 60_000L));
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+            }
+        }
+        try (Connection conn = target.getConnection(); Statement stmt = conn.createStatement()) {
+            stmt.execute("DROP TABLE IF EXISTS orders");
+            stmt.execute("CREATE TABLE orders (id INT PRIMARY KEY, customer VARCHAR(20), created TIMESTAMP)");
+        }
+    }
+
+    @Test
+    @DisplayName("Should copy every row through parallel key ranges")
+    void testCopyByKeyRanges() throws SQLException {
+        CopyResult result = newCopier().build().copy();
+
+        assertEquals(ROWS, result.rows());
+        assertEquals(0, result.skippedRanges());
+        assertEquals(ROWS, queryLong("SELECT COUNT(*) FROM orders"));
+        assertEquals((long) ROWS * (ROWS + 1) / 2, queryLong("SELECT SUM(id) FROM orders"));
+        assertEquals(ROWS / 3, queryLong("SELECT COUNT(*) FROM orders WHERE customer IS NULL"),
+            "Null values should be copied as NULL");
+    }
+
+    @Test
+    @DisplayName("Should split on a timestamp column")
+    void testCopyByTimestampRanges() throws SQLException {
+        CopyResult result = newCopier().splitColumn("created").build().copy();
+
+        assertEquals(ROWS, result.rows());
+        assertEquals(ROWS, queryLong("SELECT COUNT(*) FROM orders"));
+    }
+
+    @Test
+    @DisplayName("Should resume an interrupted copy from its checkpoint")
+    void testResumeFromCheckpoint() throws SQLException {
+        Path checkpoint = tempDir.resolve("orders.checkpoint.json");
+        TableCopier failing = newCopier()
+            .parallelism(1)
+            .checkpointFile(checkpoint)
+            .writer(new FailingWriter(7))
+            .build();
+
+        assertThrows(DatabaseException.class, failing::copy);
+        assertTrue(Files.exists(checkpoint), "Checkpoint should survive a failed copy");
+        long copiedBeforeFailure = queryLong("SELECT COUNT(*) FROM orders");
+        assertTrue(copiedBeforeFailure > 0 && copiedBeforeFailure < ROWS);
+
+        CopyResult result = newCopier().checkpointFile(checkpoint).build().copy();
+
+        assertTrue(result.skippedRanges() > 0, "Completed ranges should not be copied again");
+        assertEquals(ROWS, queryLong("SELECT COUNT(*) FROM orders"));
+        assertEquals((long) ROWS * (ROWS + 1) / 2, queryLong("SELECT SUM(id) FROM orders"));
+        assertFalse(Files.exists(checkpoint), "Checkpoint should be removed after a complete copy");
+    }
+
+    @Test
+    @DisplayName("Should copy committed ranges not yet marked as completed exactly once on resume")
+    void testResumeReplaysUnrecordedRanges() throws Exception {
+        Path checkpoint = tempDir.resolve("orders.checkpoint.json");
+        assertThrows(DatabaseException.class, newCopier()
+            .parallelism(1)
+            .checkpointFile(checkpoint)
+            .writer(new FailingWriter(7))
+            .build()::copy);
+        // As if the process died after committing each range but before recording it
+        Files.writeString(checkpoint, Files.readString(checkpoint).replaceAll("\"completed\":\\[[^]]*]", "\"completed\":[]"));
+
+        CopyResult result = newCopier().checkpointFile(checkpoint).build().copy();
+
+        assertEquals(0, result.skippedRanges());
+        assertEquals(ROWS, queryLong("SELECT COUNT(*) FROM orders"));
+        assertEquals((long) ROWS * (ROWS + 1) / 2, queryLong("SELECT SUM(id) FROM orders"));
+    }
+
+    @Test
+    @DisplayName("Should refuse a checkpoint with physical ranges")
+    void testCheckpointRequiresSplitColumn() {
+        TableCopier.Builder builder = newCopier().splitColumn(null).checkpointFile(tempDir.resolve("physical.json"));
+        assertThrows(IllegalArgumentException.class, builder::build);
+    }
+
+    @Test
+    @DisplayName("Should run the copy subcommand with source and target options")
+    void testCopySubcommand() throws SQLException {
+        int exitCode = new CommandLine(new UnifiedDatabaseRunner()).execute(
+            "-t", "h2", "-H", "localhost", "-u", "sa", "-p", "sa", "-d", "copysrc",
+            "copy", "--table", "orders", "--split-column", "id", "--threads", "2",
+            "--target-username", "sa", "--target-password", "sa", "--target-database", "copydst");
+
+        assertEquals(0, exitCode, "Copy subcommand should succeed");
+        assertEquals(ROWS, queryLong("SELECT COUNT(*) FROM orders"));
+    }
+
+    private TableCopier.Builder newCopier() {
+        return TableCopier.builder()
+            .source(source)
+            .sourceDbType("h2")
+            .target(target)
+            .targetDbType("h2")
+            .table("orders")
+            .splitColumn("id")
+            .parallelism(3)
+            .ranges(12)
+            .batchSize(250);
+    }
+
+    private static ConnectionProvider provider(String database) {
+        ConnectionConfig config = new ConnectionConfig();
+        config.setDbType("h2");
+        config.setHost("localhost");
+        config.setUsername("sa");
+        config.setPassword("sa");
+        config.setServiceName(database);
+        return new DatabaseConnectionFactory().connectionProvider(config);
+    }
+
+    private long queryLong(String sql) throws SQLException {
+        try (Connection conn = target.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            assertTrue(rs.next());
+            return rs.getLong(1);
+        }
+    }
+
+    /**
+     * Generic writer that commits after every batch and fails after a number of batches,
+     * leaving a partially copied range behind.
+     */
+    private static final class FailingWriter extends JdbcBatchBulkWriter {
+        private final AtomicInteger remaining;
+
+        FailingWriter(int batches) {
+            this.remaining = new AtomicInteger(batches);
+        }
+
+        @Override
+        public Sink open(Connection connection, LoadTarget loadTarget) throws SQLException {
+            Sink delegate = super.open(connection, loadTarget);
+            return new Sink() {
+                @Override
+                public void write(List<Object[]> rows) throws SQLException {
+                    if (remaining.decrementAndGet() < 0) {
+                        throw new SQLException("Simulated target failure");
+                    }
+                    delegate.write(rows);
+                }
+
+                @Override
+                public boolean requiresCommitAfterWrite() {
+                    return true;
+                }
+
+                @Override
+                public void close() throws SQLException {
+                    delegate.close();
+                }
+            };
+        }
+    }
+}
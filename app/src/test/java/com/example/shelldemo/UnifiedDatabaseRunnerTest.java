@@ -1,6 +1,10 @@
 package com.example.shelldemo;
 import static org.junit.jupiter.api.Assertions.*;
 import java.nio.file.*;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
 import java.util.List;
 import java.util.Arrays;
 
@@ -189,6 +193,27 @@ class UnifiedDatabaseRunnerTest extends BaseDbTest {
             result.getCombinedOutput().contains("Executing DML statements non-transactionally")
         );
     }
-}
 
+    @Test
+    @Order(8)
+    @DisplayName("Should run a script once all startup stages are ready")
+    void testScriptRunAfterStartupStages() throws Exception {
+        Path sqlFile = createSqlFile("setup.sql", String.join("\n",
+            "CREATE TABLE staged_items (id INT PRIMARY KEY, name VARCHAR(20));",
+            "INSERT INTO staged_items VALUES (1, 'one');",
+            "INSERT INTO staged_items VALUES (2, 'two');"
+        ));
+
+        ExecutionResult result = executeCommandWithArgs(new String[] {
+            "-t", "h2", "-H", "localhost", "-u", "sa", "-p", "sa", "-d", "staged", sqlFile.toString()
+        });
 
+        assertEquals(0, result.exitCode(), "Script run should succeed");
+        try (Connection conn = DriverManager.getConnection("jdbc:h2:mem:staged;DB_CLOSE_DELAY=-1", "sa", "sa");
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM staged_items")) {
+            assertTrue(rs.next());
+            assertEquals(2, rs.getInt(1));
+        }
+    }
+}
@@ -284,10 +284,12 @@ create_custom_jre() {
         log_info "Creating custom JRE"
         # Remove existing runtime directory if it exists
         [ -d "$BUNDLE_NAME/runtime" ] && rm -rf "$BUNDLE_NAME/runtime"
-        # Create JRE with all necessary modules for database connections
-        jlink --add-modules java.base,java.logging,java.xml,java.management,java.naming,jdk.unsupported,java.sql,java.desktop,java.security.jgss,java.security.sasl,java.net.http,java.compiler,jdk.crypto.ec \
+        # Create JRE with all necessary modules for database connections; the CDS archive of the
+        # JDK classes is generated at build time so that every launch maps it instead of loading classes
+        jlink --add-modules java.base,java.logging,java.xml,java.management,java.naming,jdk.unsupported,java.sql,java.desktop,java.security.jgss,java.security.sasl,java.net.http,java.compiler,jdk.crypto.ec,jdk.httpserver,jdk.jfr \
          --output "$BUNDLE_NAME/runtime" \
-          --strip-debug --no-man-pages --no-header-files --compress zip-2 || log_warn "jlink failed"
+          --strip-debug --no-man-pages --no-header-files --compress zip-2 \
+          --generate-cds-archive || log_warn "jlink failed"
     fi
 }
 
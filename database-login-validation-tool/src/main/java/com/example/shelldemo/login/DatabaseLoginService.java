@@ -1,31 +1,73 @@
 package com.example.shelldemo.login;
 
-import com.example.shelldemo.UnifiedDatabaseOperation;
-import com.example.shelldemo.UnifiedDatabaseOperationBuilder;
+import com.example.shelldemo.config.ConfigurationHolder;
+import com.example.shelldemo.connection.ConnectionConfig;
+import com.example.shelldemo.connection.DatabaseConnectionFactory;
 import com.example.shelldemo.exception.DatabaseException;
 
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.io.FileWriter;
+import java.io.BufferedWriter;
 import java.io.IOException;
 
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
 
 /**
  * Service for handling database login operations.
+ *
+ * <p>Every target of an inventory is probed on its own virtual thread: it logs in, pings the new connection and runs
+ * the test query of its database type. At most {@code maxConcurrency} probes run at once, and at most
+ * {@code perHostConcurrency} against the same host, so that a large inventory neither exhausts local resources nor
+ * floods one server with logins. Results are appended to the CSV file as each probe completes.</p>
+ *
+ * <p>The timeouts are passed on to the driver as its connect and read timeouts, so that a login to a hanging server
+ * ends in the driver rather than only in this service. A login that outlives the connect timeout is reported as
+ * timed out, but its probe keeps the concurrency permits until the driver gives up on it, so hanging servers cannot
+ * collect more logins than the limits allow.</p>
  */
 public class DatabaseLoginService {
     private static final Logger logger = LogManager.getLogger(DatabaseLoginService.class);
-    private static final int DEFAULT_THREAD_COUNT = 10;
-    private final ExecutorService executorService;
-    private final int threadCount;
+    private static final int DEFAULT_MAX_CONCURRENCY = 100;
+    private static final int DEFAULT_PER_HOST_CONCURRENCY = 4;
+    private static final Duration DEFAULT_CONNECT_TIMEOUT = Duration.ofSeconds(10);
+    private static final Duration DEFAULT_QUERY_TIMEOUT = Duration.ofSeconds(5);
+    // SQLSTATE for "timeout expired"
+    private static final String TIMEOUT_SQL_STATE = "HYT00";
+    // SQLSTATE for "communication link failure"
+    private static final String LINK_FAILURE_SQL_STATE = "08S01";
+    // Logins run detached so that a login still hanging after its timeout does not hold up the end of the run
+    private static final Executor LOGIN_THREADS = task -> Thread.ofVirtual().name("login").start(task);
+
+    private final int maxConcurrency;
+    private final int perHostConcurrency;
+    private final Duration connectTimeout;
+    private final Duration queryTimeout;
+    private final Login login;
 
     private static final Map<String, String> TEST_QUERIES = Map.of(
         "oracle", "SELECT 1 FROM DUAL",
@@ -35,89 +77,339 @@ public class DatabaseLoginService {
     );
 
     public DatabaseLoginService() {
-        this(DEFAULT_THREAD_COUNT);
+        this(DEFAULT_MAX_CONCURRENCY);
+    }
+
+    public DatabaseLoginService(int maxConcurrency) {
+        this(maxConcurrency, DEFAULT_PER_HOST_CONCURRENCY, DEFAULT_CONNECT_TIMEOUT, DEFAULT_QUERY_TIMEOUT);
+    }
+
+    /**
+     * @param maxConcurrency probes running at once across all targets
+     * @param perHostConcurrency probes running at once against one host
+     * @param connectTimeout how long a login may take before the target is reported as failed
+     * @param queryTimeout how long the test query may run; applied in whole seconds, at least one
+     */
+    public DatabaseLoginService(int maxConcurrency, int perHostConcurrency, Duration connectTimeout, Duration queryTimeout) {
+        this(maxConcurrency, perHostConcurrency, connectTimeout, queryTimeout, new DatabaseConnectionFactory()::createConnection);
+    }
+
+    DatabaseLoginService(int maxConcurrency, int perHostConcurrency, Duration connectTimeout, Duration queryTimeout,
+                         Login login) {
+        if (maxConcurrency < 1 || perHostConcurrency < 1) {
+            throw new IllegalArgumentException("Concurrency limits must be positive");
+        }
+        if (connectTimeout.isNegative() || connectTimeout.isZero() || queryTimeout.isNegative() || queryTimeout.isZero()) {
+            throw new IllegalArgumentException("Timeouts must be positive");
+        }
+        this.maxConcurrency = maxConcurrency;
+        this.perHostConcurrency = perHostConcurrency;
+        this.connectTimeout = connectTimeout;
+        this.queryTimeout = queryTimeout;
+        this.login = login;
+        logger.info("Initialized DatabaseLoginService with {} concurrent logins, {} per host", maxConcurrency, perHostConcurrency);
     }
 
-    public DatabaseLoginService(int threadCount) {
-        this.threadCount = threadCount;
-        this.executorService = Executors.newFixedThreadPool(threadCount);
-        logger.info("Initialized DatabaseLoginService with {} threads", threadCount);
+    /**
+     * Logs in to one target.
+     */
+    @FunctionalInterface
+    interface Login {
+        Connection connect(ConnectionConfig config) throws SQLException;
     }
 
+    /**
+     * Probes the local test database the service was hard-wired to before it read an inventory.
+     *
+     * @deprecated use {@link #runTests(String, String)} with an inventory file
+     */
+    @Deprecated
     public void runTests(String outputFile) throws IOException {
-        logger.info("Starting database tests with {} virtual threads", threadCount);
-        
-        // Create virtual thread executor
+        Path inventory = Files.createTempFile("login-inventory", ".csv");
+        try {
+            Files.writeString(inventory, "test,oracle,localhost,1521,test,user,pass\n", StandardCharsets.UTF_8);
+            runTests(inventory.toString(), outputFile);
+        } finally {
+            Files.deleteIfExists(inventory);
+        }
+    }
+
+    /**
+     * Probes all targets of the inventory and writes one CSV record per target to the output file.
+     *
+     * @param inventoryFile inventory as described in {@link LoginTarget}
+     * @param outputFile CSV file to create; records are in completion order
+     * @return the number of targets whose login or test query failed
+     */
+    public int runTests(String inventoryFile, String outputFile) throws IOException {
+        List<LoginTarget> targets = LoginTarget.readInventory(Path.of(inventoryFile));
+        logger.info("Starting database tests for {} targets", targets.size());
+
+        AtomicInteger failed = new AtomicInteger();
+        AtomicReference<IOException> writeError = new AtomicReference<>();
+        long startTime = System.currentTimeMillis();
+
+        try (BufferedWriter writer = Files.newBufferedWriter(Path.of(outputFile), StandardCharsets.UTF_8)) {
+            writer.write(DatabaseLoginServiceTestResult.getCsvHeader() + "\n");
+            writer.flush();
+            probeAll(targets, (target, probe) -> {
+                if (!probe.success()) {
+                    failed.incrementAndGet();
+                }
+                writeResult(writer, buildResult(target, probe), writeError);
+            });
+        }
+        if (writeError.get() != null) {
+            throw new IOException("Failed to write test results to " + outputFile, writeError.get());
+        }
+
+        logger.info("Tested {} targets in {} ms, {} failed", targets.size(), System.currentTimeMillis() - startTime, failed.get());
+        return failed.get();
+    }
+
+    /**
+     * Probes every target on its own virtual thread within the concurrency limits and hands each probe to
+     * {@code onProbe} as soon as it completes. {@code onProbe} is called from several threads at once. Returns when
+     * all targets have been probed.
+     */
+    void probeAll(List<LoginTarget> targets, BiConsumer<LoginTarget, Probe> onProbe) {
+        Semaphore global = new Semaphore(maxConcurrency);
+        Map<String, Semaphore> perHost = new ConcurrentHashMap<>();
         try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
-            DatabaseLoginServiceTestResult result = executor.submit(this::testDatabase).get();
-            List<DatabaseLoginServiceTestResult> results = List.of(result);
-            writeResultsToCsv(results, outputFile);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            logger.error("Database test interrupted", e);
-            throw new IOException("Database test interrupted", e);
-        } catch (Exception e) {
-            logger.error("Error running database tests", e);
-            throw new IOException("Failed to run database tests", e);
+            for (LoginTarget target : targets) {
+                executor.submit(() -> {
+                    Semaphore host = perHost.computeIfAbsent(target.hostKey(), key -> new Semaphore(perHostConcurrency));
+                    // Wait for the host before taking a global permit, so that targets queued behind a busy host
+                    // do not hold permits other hosts could use
+                    host.acquire();
+                    try {
+                        global.acquire();
+                        try {
+                            onProbe.accept(target, probe(target));
+                        } finally {
+                            global.release();
+                        }
+                    } finally {
+                        host.release();
+                    }
+                    return null;
+                });
+            }
         }
     }
 
+    /**
+     * Does nothing: probes run on virtual threads that end with each run.
+     *
+     * @deprecated there is nothing to shut down
+     */
+    @Deprecated
+    public void shutdown() {
+        logger.debug("DatabaseLoginService holds no threads between runs");
+    }
+
     private String getTestQuery(String dbType) {
         return TEST_QUERIES.getOrDefault(dbType, "SELECT 1");
     }
 
-    private DatabaseLoginServiceTestResult testDatabase() {
-        long startTime = System.currentTimeMillis();
-        
-        try (UnifiedDatabaseOperation operation = new UnifiedDatabaseOperationBuilder()
-                .dbType("oracle")
-                .host("localhost")
-                .port(1521)
-                .username("user")
-                .password("pass")
-                .build()) {
-            operation.executeQuery(getTestQuery("oracle")); // Execute query without storing results
-            return buildResult(true, startTime, null);
-        } catch (Exception e) {
-            logger.error("Error testing database: {}", e.getMessage());
-            String sqlState = (e instanceof DatabaseException && e.getCause() instanceof SQLException) 
-                ? ((SQLException) e.getCause()).getSQLState() 
-                : "ERROR";
-            return buildResult(false, startTime, new ErrorInfo(e.getMessage(), sqlState));
-        }
-    }
-
-    private void writeResultsToCsv(List<DatabaseLoginServiceTestResult> results, String outputFile) throws IOException {
-        try (FileWriter writer = new FileWriter(outputFile)) {
-            writer.write(DatabaseLoginServiceTestResult.getCsvHeader() + "\n");
-            for (DatabaseLoginServiceTestResult result : results) {
-                writer.write(result.toCsvRecord() + "\n");
+    /**
+     * Logs in, pings the new connection and runs the test query of the target, timing each phase.
+     *
+     * <p>The ping is the driver's own round trip, {@link Connection#isValid}, rather than a bare TCP connect to the
+     * listener: listeners log every connect that sends no packet as TNS-12537, and MySQL blocks a host after
+     * {@code max_connect_errors} of them.</p>
+     */
+    Probe probe(LoginTarget target) throws InterruptedException {
+        long authenticateNanos = -1;
+        long pingNanos = -1;
+        long queryNanos = -1;
+        try {
+            ConnectionConfig config = new ConnectionConfig();
+            config.setDbType(target.dbType());
+            config.setHost(target.host());
+            config.setPort(target.port() > 0 ? target.port() : ConfigurationHolder.getInstance().getDefaultPort(target.dbType()));
+            config.setServiceName(target.serviceName());
+            config.setUsername(target.username());
+            config.setPassword(target.password());
+            driverTimeouts(target.dbType()).forEach(config::setDriverProperty);
+            long start = System.nanoTime();
+            try (Connection conn = connect(config)) {
+                authenticateNanos = System.nanoTime() - start;
+                start = System.nanoTime();
+                if (!conn.isValid(queryTimeoutSeconds())) {
+                    throw new SQLException("Connection did not answer a ping within " + queryTimeout.toMillis() + " ms",
+                        LINK_FAILURE_SQL_STATE);
+                }
+                pingNanos = System.nanoTime() - start;
+                start = System.nanoTime();
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.setQueryTimeout(queryTimeoutSeconds());
+                    stmt.execute(getTestQuery(target.dbType()));
+                }
+                queryNanos = System.nanoTime() - start;
             }
+            return new Probe(authenticateNanos, pingNanos, queryNanos, null);
+        } catch (TimeoutException e) {
+            logger.warn("Login to {} timed out after {} ms", target, connectTimeout.toMillis());
+            return new Probe(authenticateNanos, pingNanos, queryNanos,
+                new ErrorInfo("Login timed out after " + connectTimeout.toMillis() + " ms", TIMEOUT_SQL_STATE));
+        } catch (SQLException | RuntimeException e) {
+            logger.error("Error testing database {}: {}", target, e.getMessage());
+            return new Probe(authenticateNanos, pingNanos, queryNanos, new ErrorInfo(e.getMessage(), sqlState(e)));
         }
     }
 
     /**
-     * Shuts down the executor service.
+     * Driver properties that bound the login and every read of the connection. The read timeout leaves the query
+     * timeout room to cancel the test query first. {@code DriverManager.setLoginTimeout} is not used: it applies to
+     * every connection of the process, and the Oracle driver ignores it.
      */
-    public void shutdown() {
-        logger.info("Shutting down DatabaseLoginService");
-        executorService.shutdown();
+    Map<String, String> driverTimeouts(String dbType) {
+        long connectMillis = connectTimeout.toMillis();
+        long readMillis = connectMillis + queryTimeout.toMillis();
+        return switch (dbType.toLowerCase(Locale.ROOT)) {
+            case "oracle" -> Map.of(
+                "oracle.net.CONNECT_TIMEOUT", String.valueOf(connectMillis),
+                "oracle.jdbc.ReadTimeout", String.valueOf(readMillis));
+            case "mysql" -> Map.of(
+                "connectTimeout", String.valueOf(connectMillis),
+                "socketTimeout", String.valueOf(readMillis));
+            // PostgreSQL takes seconds
+            case "postgresql" -> Map.of(
+                "connectTimeout", String.valueOf(seconds(connectMillis)),
+                "loginTimeout", String.valueOf(seconds(connectMillis)),
+                "socketTimeout", String.valueOf(seconds(readMillis)));
+            case "sqlserver" -> Map.of(
+                "loginTimeout", String.valueOf(seconds(connectMillis)),
+                "socketTimeout", String.valueOf(readMillis));
+            default -> Map.of();
+        };
     }
 
-    private record ErrorInfo(String message, String sqlState) {}
+    private int queryTimeoutSeconds() {
+        return (int) Math.max(1, queryTimeout.toSeconds());
+    }
+
+    Duration connectTimeout() {
+        return connectTimeout;
+    }
+
+    Duration queryTimeout() {
+        return queryTimeout;
+    }
+
+    private static long seconds(long millis) {
+        return Math.max(1, TimeUnit.MILLISECONDS.toSeconds(millis + 999));
+    }
+
+    /**
+     * Logs in on a separate virtual thread and waits at most the connect timeout, which the driver timeouts may not
+     * enforce exactly, e.g. while a directory server is consulted. On a timeout the caller still waits for the login
+     * to end, bounded by the driver timeouts, and closes it if it succeeded late.
+     */
+    private Connection connect(ConnectionConfig config) throws SQLException, TimeoutException, InterruptedException {
+        CompletableFuture<Connection> attempt = CompletableFuture.supplyAsync(() -> {
+            try {
+                return login.connect(config);
+            } catch (SQLException e) {
+                throw new CompletionException(e);
+            }
+        }, LOGIN_THREADS);
+        try {
+            return attempt.get(connectTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            awaitAbandoned(attempt);
+            throw e;
+        } catch (InterruptedException e) {
+            attempt.thenAccept(DatabaseLoginService::closeQuietly);
+            throw e;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof SQLException sqlException) {
+                throw sqlException;
+            }
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new SQLException("Login failed", e.getCause());
+        }
+    }
+
+    private static void awaitAbandoned(CompletableFuture<Connection> attempt) throws InterruptedException {
+        CompletableFuture<Void> ended = attempt.handle((conn, error) -> {
+            if (conn != null) {
+                closeQuietly(conn);
+            }
+            return null;
+        });
+        try {
+            ended.get();
+        } catch (ExecutionException e) {
+            logger.debug("Abandoned login failed: {}", e.getMessage());
+        }
+    }
+
+    private static void closeQuietly(Connection conn) {
+        try {
+            conn.close();
+        } catch (SQLException e) {
+            logger.debug("Failed to close late connection: {}", e.getMessage());
+        }
+    }
+
+    private static String sqlState(Exception e) {
+        if (e instanceof SQLException sqlException && sqlException.getSQLState() != null) {
+            return sqlException.getSQLState();
+        }
+        if (e instanceof DatabaseException && e.getCause() instanceof SQLException cause && cause.getSQLState() != null) {
+            return cause.getSQLState();
+        }
+        return "ERROR";
+    }
+
+    private static void writeResult(BufferedWriter writer, DatabaseLoginServiceTestResult result,
+                                    AtomicReference<IOException> writeError) {
+        synchronized (writer) {
+            if (writeError.get() != null) {
+                return;
+            }
+            try {
+                writer.write(result.toCsvRecord() + "\n");
+                writer.flush();
+            } catch (IOException e) {
+                writeError.set(e);
+            }
+        }
+    }
 
-    private DatabaseLoginServiceTestResult buildResult(boolean success, long startTime, ErrorInfo error) {
+    record ErrorInfo(String message, String sqlState) {}
+
+    /**
+     * Durations of the phases of one probe in nanoseconds: the login, a ping on the new connection and the test
+     * query. Phases that were not reached because of a failure are -1, and {@code error} describes the failure.
+     */
+    record Probe(long authenticateNanos, long pingNanos, long queryNanos, ErrorInfo error) {
+        boolean success() {
+            return error == null;
+        }
+
+        long totalNanos() {
+            return Math.max(authenticateNanos, 0) + Math.max(pingNanos, 0) + Math.max(queryNanos, 0);
+        }
+    }
+
+    private DatabaseLoginServiceTestResult buildResult(LoginTarget target, Probe probe) {
         DatabaseLoginServiceTestResult.Builder builder = new DatabaseLoginServiceTestResult.Builder()
-            .databaseName("test")
-            .serviceName("test")
-            .dbType("oracle")
-            .success(success)
-            .responseTimeMs(System.currentTimeMillis() - startTime);
-        
-        if (error != null) {
-            builder.error(error.message(), error.sqlState());
-        }
-        
+            .databaseName(target.databaseName())
+            .serviceName(target.serviceName())
+            .dbType(target.dbType())
+            .host(target.host())
+            .success(probe.success())
+            .responseTimeMs(TimeUnit.NANOSECONDS.toMillis(probe.totalNanos()));
+
+        if (probe.error() != null) {
+            builder.error(probe.error().message() != null ? probe.error().message() : "Unknown error", probe.error().sqlState());
+        }
+
         return builder.build();
     }
-} 
\ No newline at end of file
+}
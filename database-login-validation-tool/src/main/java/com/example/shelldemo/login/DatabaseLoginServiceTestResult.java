@@ -10,11 +10,12 @@ import java.util.StringJoiner;
 public class DatabaseLoginServiceTestResult {
     private static final Logger logger = LogManager.getLogger(DatabaseLoginServiceTestResult.class);
     private static final String CSV_DELIMITER = ",";
-    private static final String CSV_HEADER = "Database,Service,Type,Success,Response Time (ms),Error Message,SQL State";
+    private static final String CSV_HEADER = "Database,Service,Type,Host,Success,Response Time (ms),Error Message,SQL State";
 
     private final String databaseName;
     private final String serviceName;
     private final String dbType;
+    private final String host;
     private final boolean success;
     private final long responseTimeMs;
     private final String errorMessage;
@@ -24,6 +25,7 @@ public class DatabaseLoginServiceTestResult {
         this.databaseName = builder.databaseName;
         this.serviceName = builder.serviceName;
         this.dbType = builder.dbType;
+        this.host = builder.host;
         this.success = builder.success;
         this.responseTimeMs = builder.responseTimeMs;
         this.errorMessage = builder.errorMessage;
@@ -48,6 +50,10 @@ public class DatabaseLoginServiceTestResult {
         return dbType;
     }
 
+    public String getHost() {
+        return host;
+    }
+
     public boolean isSuccess() {
         return success;
     }
@@ -74,6 +80,7 @@ public class DatabaseLoginServiceTestResult {
             .add(escapeField(databaseName))
             .add(escapeField(serviceName))
             .add(escapeField(dbType))
+            .add(escapeField(host))
             .add(String.valueOf(success))
             .add(String.valueOf(responseTimeMs))
             .add(escapeField(errorMessage))
@@ -85,9 +92,10 @@ public class DatabaseLoginServiceTestResult {
         if (field == null) {
             return "";
         }
-        // Escape quotes and wrap in quotes if contains delimiter
+        // Escape quotes and wrap in quotes if contains delimiter, quotes or line breaks
         String escaped = field.replace("\"", "\"\"");
-        return field.contains(CSV_DELIMITER) ? "\"" + escaped + "\"" : escaped;
+        boolean quote = field.contains(CSV_DELIMITER) || field.contains("\"") || field.contains("\n") || field.contains("\r");
+        return quote ? "\"" + escaped + "\"" : escaped;
     }
 
     @Override
@@ -104,6 +112,7 @@ public class DatabaseLoginServiceTestResult {
         private String databaseName;
         private String serviceName;
         private String dbType;
+        private String host;
         private boolean success;
         private long responseTimeMs;
         private String errorMessage;
@@ -124,6 +133,11 @@ public class DatabaseLoginServiceTestResult {
             return this;
         }
 
+        public Builder host(String host) {
+            this.host = host;
+            return this;
+        }
+
         public Builder success(boolean success) {
             this.success = success;
             return this;
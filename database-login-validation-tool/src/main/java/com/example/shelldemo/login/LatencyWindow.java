@@ -0,0 +1,53 @@
+package com.example.shelldemo.login;
+
+import java.util.Arrays;
+
+/**
+ * The most recent latencies of one probe phase, in nanoseconds.
+ *
+ * <p>A target is probed once per monitoring round, so a window holds a few dozen samples at most. Keeping the
+ * samples themselves gives exact percentiles and needs far less memory per target than a bucketed histogram,
+ * which matters with thousands of targets and three phases each.</p>
+ */
+final class LatencyWindow {
+    private final long[] samples;
+    private int next;
+    private int size;
+
+    LatencyWindow(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.samples = new long[capacity];
+    }
+
+    /**
+     * Adds a sample, replacing the oldest one once the window is full.
+     */
+    void add(long nanos) {
+        samples[next] = nanos;
+        next = (next + 1) % samples.length;
+        size = Math.min(size + 1, samples.length);
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isFull() {
+        return size == samples.length;
+    }
+
+    /**
+     * Returns the sample at the given percentile (0-100) by nearest rank, or 0 if the window is empty.
+     */
+    long percentileNanos(double percentile) {
+        if (size == 0) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(samples, size);
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(percentile / 100.0 * size);
+        return sorted[Math.max(rank, 1) - 1];
+    }
+}
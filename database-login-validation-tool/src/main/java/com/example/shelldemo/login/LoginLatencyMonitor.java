@@ -0,0 +1,347 @@
+package com.example.shelldemo.login;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Probes a fleet of databases on a schedule and tracks the login latency of every target, as an early warning
+ * for slow listeners or directory servers.
+ *
+ * <p>Each round probes all targets through {@link DatabaseLoginService}, which times the login, a ping on the new
+ * connection and the test query separately. Per target and phase the last {@code window} latencies are kept, and the
+ * first {@code baselineSamples} successful latencies form the target's baseline. A phase that fails or times out
+ * counts as a sample at its timeout, so a target that stops answering shows up as slow instead of dropping out of
+ * the percentiles; such samples never enter the baseline. After each round a p50/p95/p99 summary per target and
+ * phase is appended to the summary file. A phase is flagged as degraded when its p95 over the window is at least
+ * {@code degradationFactor} times its baseline p95; the transition is logged as a warning.</p>
+ *
+ * <p>Baselines are collected anew after {@link #rebaseline()}, e.g. once a change of the network or the servers made
+ * the new latencies the expected ones, and every {@code rebaselineInterval} if one is set.</p>
+ */
+public final class LoginLatencyMonitor {
+    private static final Logger logger = LogManager.getLogger(LoginLatencyMonitor.class);
+    private static final String CSV_HEADER =
+        "Time,Database,Host,Phase,Samples,p50 (ms),p95 (ms),p99 (ms),Baseline p95 (ms),Failures,Degraded";
+    // Below this increase a phase is not flagged whatever the ratio, so that 1 ms becoming 3 ms raises no alarm
+    private static final long MIN_DEGRADATION_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+    private static final int MIN_WINDOW_SAMPLES = 3;
+
+    private final DatabaseLoginService service;
+    private final Duration interval;
+    private final int window;
+    private final int baselineSamples;
+    private final double degradationFactor;
+    private final Path summaryFile;
+    private final Duration rebaselineInterval;
+    private final Map<LoginTarget, TargetStats> stats = new ConcurrentHashMap<>();
+    private volatile boolean rebaselineRequested;
+
+    /**
+     * Phases of a login probe.
+     */
+    public enum Phase {
+        AUTHENTICATE, PING, QUERY
+    }
+
+    /**
+     * Latency of one phase of a target over the current window.
+     *
+     * @param failures failed probes of the target within the window
+     * @param degraded whether the p95 exceeds the baseline p95 by the degradation factor
+     */
+    public record Summary(LoginTarget target, Phase phase, int samples, long p50Nanos, long p95Nanos, long p99Nanos,
+                          long baselineP95Nanos, int failures, boolean degraded) {
+    }
+
+    private LoginLatencyMonitor(Builder builder) {
+        this.service = builder.service;
+        this.interval = builder.interval;
+        this.window = builder.window;
+        this.baselineSamples = builder.baselineSamples;
+        this.degradationFactor = builder.degradationFactor;
+        this.summaryFile = builder.summaryFile;
+        this.rebaselineInterval = builder.rebaselineInterval;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Probes the targets every interval and appends the summaries of each round to the summary file.
+     *
+     * @param rounds number of rounds to run, or 0 to run until the thread is interrupted
+     * @throws InterruptedException if the thread is interrupted between or during rounds
+     */
+    public void run(List<LoginTarget> targets, int rounds) throws IOException, InterruptedException {
+        logger.info("Monitoring login latency of {} targets every {} ms", targets.size(), interval.toMillis());
+        try (BufferedWriter writer = Files.newBufferedWriter(summaryFile, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            if (Files.size(summaryFile) == 0) {
+                writer.write(CSV_HEADER + "\n");
+            }
+            long baselineStart = System.nanoTime();
+            for (int round = 1; rounds == 0 || round <= rounds; round++) {
+                long start = System.nanoTime();
+                if (!rebaselineInterval.isZero() && start - baselineStart >= rebaselineInterval.toNanos()) {
+                    rebaseline();
+                    baselineStart = start;
+                }
+                List<Summary> summaries = probeRound(targets);
+                writeSummaries(writer, summaries);
+                long degraded = summaries.stream().filter(Summary::degraded).map(Summary::target).distinct().count();
+                logger.info("Monitoring round {} done in {} ms, {} targets degraded", round,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), degraded);
+                if (round == rounds) {
+                    break;
+                }
+                long remaining = interval.toNanos() - (System.nanoTime() - start);
+                if (remaining > 0) {
+                    TimeUnit.NANOSECONDS.sleep(remaining);
+                } else {
+                    logger.warn("Monitoring round {} took longer than the {} ms interval", round, interval.toMillis());
+                }
+            }
+        }
+    }
+
+    /**
+     * Discards the baselines of all targets; the next {@code baselineSamples} successful probes of each target form
+     * its new baseline. Takes effect with the next round and may be called from any thread.
+     */
+    public void rebaseline() {
+        rebaselineRequested = true;
+    }
+
+    /**
+     * Probes every target once and returns the updated summaries.
+     */
+    public List<Summary> probeRound(List<LoginTarget> targets) throws InterruptedException {
+        if (rebaselineRequested) {
+            rebaselineRequested = false;
+            logger.info("Collecting new latency baselines over the next {} probes of each target", baselineSamples);
+            stats.values().forEach(TargetStats::resetBaseline);
+        }
+        service.probeAll(targets, (target, probe) ->
+            stats.computeIfAbsent(target, key -> new TargetStats()).record(probe));
+        if (Thread.currentThread().isInterrupted()) {
+            throw new InterruptedException("Monitoring interrupted");
+        }
+
+        List<Summary> summaries = new ArrayList<>();
+        for (LoginTarget target : targets) {
+            TargetStats targetStats = stats.get(target);
+            if (targetStats != null) {
+                targetStats.summarize(target, summaries);
+            }
+        }
+        return summaries;
+    }
+
+    private static void writeSummaries(BufferedWriter writer, List<Summary> summaries) throws IOException {
+        String time = Instant.now().toString();
+        for (Summary summary : summaries) {
+            StringJoiner joiner = new StringJoiner(",")
+                .add(time)
+                .add(summary.target().databaseName())
+                .add(summary.target().host())
+                .add(summary.phase().name().toLowerCase(Locale.ROOT))
+                .add(String.valueOf(summary.samples()))
+                .add(millis(summary.samples(), summary.p50Nanos()))
+                .add(millis(summary.samples(), summary.p95Nanos()))
+                .add(millis(summary.samples(), summary.p99Nanos()))
+                .add(millis(summary.baselineP95Nanos(), summary.baselineP95Nanos()))
+                .add(String.valueOf(summary.failures()))
+                .add(String.valueOf(summary.degraded()));
+            writer.write(joiner + "\n");
+        }
+        writer.flush();
+    }
+
+    private static String millis(long present, long nanos) {
+        return present == 0 ? "" : String.format(Locale.ROOT, "%.3f", nanos / 1_000_000.0);
+    }
+
+    /**
+     * Latency windows of one target. Each target is probed once per round, so a probe is never recorded while
+     * another one of the same target is.
+     */
+    private final class TargetStats {
+        private final Map<Phase, LatencyWindow> recent = new EnumMap<>(Phase.class);
+        private final Map<Phase, LatencyWindow> baseline = new EnumMap<>(Phase.class);
+        private final Map<Phase, Boolean> degraded = new EnumMap<>(Phase.class);
+        private final boolean[] failed = new boolean[window];
+        private int probes;
+
+        void record(DatabaseLoginService.Probe probe) {
+            failed[probes % window] = !probe.success();
+            probes++;
+            long[] nanos = {probe.authenticateNanos(), probe.pingNanos(), probe.queryNanos()};
+            for (Phase phase : Phase.values()) {
+                long phaseNanos = nanos[phase.ordinal()];
+                if (phaseNanos >= 0) {
+                    add(phase, phaseNanos, true);
+                } else if (!probe.success()) {
+                    // The phase the probe failed in; the phases after it were not reached
+                    add(phase, timeout(phase).toNanos(), false);
+                    return;
+                }
+            }
+        }
+
+        private Duration timeout(Phase phase) {
+            return phase == Phase.AUTHENTICATE ? service.connectTimeout() : service.queryTimeout();
+        }
+
+        private void add(Phase phase, long nanos, boolean succeeded) {
+            recent.computeIfAbsent(phase, key -> new LatencyWindow(window)).add(nanos);
+            LatencyWindow phaseBaseline = baseline.computeIfAbsent(phase, key -> new LatencyWindow(baselineSamples));
+            if (succeeded && !phaseBaseline.isFull()) {
+                phaseBaseline.add(nanos);
+            }
+        }
+
+        void resetBaseline() {
+            baseline.clear();
+        }
+
+        /**
+         * Adds a summary per phase probed so far.
+         */
+        void summarize(LoginTarget target, List<Summary> summaries) {
+            int failures = 0;
+            for (int i = 0; i < Math.min(probes, window); i++) {
+                failures += failed[i] ? 1 : 0;
+            }
+            for (Phase phase : Phase.values()) {
+                LatencyWindow phaseRecent = recent.get(phase);
+                if (phaseRecent == null) {
+                    continue;
+                }
+                int samples = phaseRecent.size();
+                long p95 = phaseRecent.percentileNanos(95);
+                LatencyWindow phaseBaseline = baseline.get(phase);
+                long baselineP95 = phaseBaseline != null && phaseBaseline.isFull() ? phaseBaseline.percentileNanos(95) : 0;
+                boolean isDegraded = baselineP95 > 0 && samples >= MIN_WINDOW_SAMPLES
+                    && p95 >= baselineP95 * degradationFactor && p95 - baselineP95 >= MIN_DEGRADATION_NANOS;
+                updateDegraded(target, phase, isDegraded, p95, baselineP95);
+                summaries.add(new Summary(target, phase, samples, phaseRecent.percentileNanos(50), p95,
+                    phaseRecent.percentileNanos(99), baselineP95, failures, isDegraded));
+            }
+        }
+
+        private void updateDegraded(LoginTarget target, Phase phase, boolean isDegraded, long p95, long baselineP95) {
+            boolean wasDegraded = degraded.getOrDefault(phase, false);
+            if (isDegraded && !wasDegraded) {
+                logger.warn("{} latency of {} degraded: p95 {} ms against a baseline of {} ms",
+                    phase.name().toLowerCase(Locale.ROOT), target,
+                    TimeUnit.NANOSECONDS.toMillis(p95), TimeUnit.NANOSECONDS.toMillis(baselineP95));
+            } else if (!isDegraded && wasDegraded) {
+                logger.info("{} latency of {} back to normal", phase.name().toLowerCase(Locale.ROOT), target);
+            }
+            degraded.put(phase, isDegraded);
+        }
+    }
+
+    /**
+     * Builder for LoginLatencyMonitor.
+     */
+    public static class Builder {
+        private DatabaseLoginService service;
+        private Duration interval = Duration.ofMinutes(1);
+        private int window = 20;
+        private int baselineSamples = 20;
+        private double degradationFactor = 2.0;
+        private Path summaryFile;
+        private Duration rebaselineInterval = Duration.ZERO;
+
+        /**
+         * Service that probes the targets; its concurrency limits and timeouts apply to every round.
+         */
+        public Builder service(DatabaseLoginService service) {
+            this.service = service;
+            return this;
+        }
+
+        public Builder interval(Duration interval) {
+            this.interval = interval;
+            return this;
+        }
+
+        /**
+         * Number of recent probes per target the percentiles are computed over.
+         */
+        public Builder window(int window) {
+            this.window = window;
+            return this;
+        }
+
+        /**
+         * Number of first probes per target that form its baseline.
+         */
+        public Builder baselineSamples(int baselineSamples) {
+            this.baselineSamples = baselineSamples;
+            return this;
+        }
+
+        public Builder degradationFactor(double degradationFactor) {
+            this.degradationFactor = degradationFactor;
+            return this;
+        }
+
+        /**
+         * CSV file the summaries are appended to; created if it does not exist.
+         */
+        public Builder summaryFile(Path summaryFile) {
+            this.summaryFile = summaryFile;
+            return this;
+        }
+
+        /**
+         * How often the baselines are collected anew; zero, the default, keeps the first baseline.
+         */
+        public Builder rebaselineInterval(Duration rebaselineInterval) {
+            this.rebaselineInterval = rebaselineInterval;
+            return this;
+        }
+
+        public LoginLatencyMonitor build() {
+            if (service == null) {
+                throw new IllegalArgumentException("Service cannot be null");
+            }
+            if (summaryFile == null) {
+                throw new IllegalArgumentException("Summary file cannot be null");
+            }
+            if (interval == null || interval.isNegative() || interval.isZero()) {
+                throw new IllegalArgumentException("Interval must be positive");
+            }
+            if (rebaselineInterval == null || rebaselineInterval.isNegative()) {
+                throw new IllegalArgumentException("Rebaseline interval must not be negative");
+            }
+            if (window < 1 || baselineSamples < 1) {
+                throw new IllegalArgumentException("Window and baseline sizes must be positive");
+            }
+            if (degradationFactor <= 1) {
+                throw new IllegalArgumentException("Degradation factor must be greater than 1");
+            }
+            return new LoginLatencyMonitor(this);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.shelldemo.login;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import picocli.CommandLine;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.Parameters;
+
+/**
+ * Command line entry point of the login latency monitor.
+ */
+@Command(name = "login-monitor", mixinStandardHelpOptions = true,
+         description = "Probe the logins of an inventory on a schedule and report latency percentiles and degradations")
+public class LoginMonitorCommand implements Callable<Integer> {
+    private static final Logger logger = LogManager.getLogger(LoginMonitorCommand.class);
+
+    @Parameters(index = "0", description = "Inventory file (database,type,host,port,service,username,password)")
+    private File inventory;
+
+    @Option(names = {"--summary"}, required = true, description = "CSV file the per-round summaries are appended to")
+    private File summary;
+
+    @Option(names = {"--interval-seconds"}, defaultValue = "60", description = "Seconds between rounds (default: 60)")
+    private long intervalSeconds;
+
+    @Option(names = {"--rounds"}, defaultValue = "0", description = "Rounds to run (default: 0, until interrupted)")
+    private int rounds;
+
+    @Option(names = {"--window"}, defaultValue = "20", description = "Recent probes per target the percentiles cover (default: 20)")
+    private int window;
+
+    @Option(names = {"--baseline-samples"}, defaultValue = "20", description = "Successful probes per target that form its baseline (default: 20)")
+    private int baselineSamples;
+
+    @Option(names = {"--degradation-factor"}, defaultValue = "2.0", description = "p95 over baseline p95 that counts as degraded (default: 2.0)")
+    private double degradationFactor;
+
+    @Option(names = {"--rebaseline-minutes"}, defaultValue = "0", description = "Collect new baselines every this many minutes (default: 0, never)")
+    private long rebaselineMinutes;
+
+    @Option(names = {"--max-concurrency"}, defaultValue = "100", description = "Probes running at once (default: 100)")
+    private int maxConcurrency;
+
+    @Option(names = {"--per-host-concurrency"}, defaultValue = "4", description = "Probes running at once against one host (default: 4)")
+    private int perHostConcurrency;
+
+    @Option(names = {"--connect-timeout-seconds"}, defaultValue = "10", description = "Login timeout (default: 10)")
+    private long connectTimeoutSeconds;
+
+    @Option(names = {"--query-timeout-seconds"}, defaultValue = "5", description = "Ping and test query timeout (default: 5)")
+    private long queryTimeoutSeconds;
+
+    @Override
+    public Integer call() {
+        try {
+            List<LoginTarget> targets = LoginTarget.readInventory(inventory.toPath());
+            DatabaseLoginService service = new DatabaseLoginService(maxConcurrency, perHostConcurrency,
+                Duration.ofSeconds(connectTimeoutSeconds), Duration.ofSeconds(queryTimeoutSeconds));
+            LoginLatencyMonitor.builder()
+                .service(service)
+                .interval(Duration.ofSeconds(intervalSeconds))
+                .window(window)
+                .baselineSamples(baselineSamples)
+                .degradationFactor(degradationFactor)
+                .rebaselineInterval(Duration.ofMinutes(rebaselineMinutes))
+                .summaryFile(summary.toPath())
+                .build()
+                .run(targets, rounds);
+            return 0;
+        } catch (IllegalArgumentException e) {
+            logger.error(e.getMessage());
+            return 2;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.info("Login monitoring stopped");
+            return 0;
+        } catch (IOException e) {
+            logger.error("Login monitoring failed: {}", e.getMessage(), e);
+            return 1;
+        }
+    }
+
+    public static void main(String[] args) {
+        System.exit(new CommandLine(new LoginMonitorCommand()).execute(args));
+    }
+}
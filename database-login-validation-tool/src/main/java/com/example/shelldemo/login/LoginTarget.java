@@ -0,0 +1,95 @@
+package com.example.shelldemo.login;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * One database of the login inventory.
+ *
+ * <p>The inventory is a comma separated file with the columns
+ * {@code database,type,host,port,service,username,password}. Blank lines and lines starting with {@code #} are
+ * skipped, as is a header line starting with {@code database}. An empty port uses the default port of the
+ * database type. A password of the form {@code env:NAME} is read from the environment variable {@code NAME} so
+ * that the inventory does not need to hold secrets.</p>
+ */
+public record LoginTarget(String databaseName, String dbType, String host, int port, String serviceName,
+                          String username, String password) {
+    private static final int COLUMNS = 7;
+    private static final String ENV_PREFIX = "env:";
+
+    /**
+     * Reads all targets of an inventory file.
+     *
+     * @throws IllegalArgumentException if a line is malformed; the message names the line
+     */
+    public static List<LoginTarget> readInventory(Path file) throws IOException {
+        List<LoginTarget> targets = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                String trimmed = line.strip();
+                if (trimmed.isEmpty() || trimmed.startsWith("#")
+                        || (lineNumber == 1 && trimmed.toLowerCase(Locale.ROOT).startsWith("database,"))) {
+                    continue;
+                }
+                try {
+                    targets.add(parse(trimmed));
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException(
+                        String.format("Invalid inventory line %d in %s: %s", lineNumber, file, e.getMessage()), e);
+                }
+            }
+        }
+        return targets;
+    }
+
+    static LoginTarget parse(String line) {
+        String[] fields = line.split(",", -1);
+        if (fields.length != COLUMNS) {
+            throw new IllegalArgumentException(String.format("expected %d columns but found %d", COLUMNS, fields.length));
+        }
+        for (int i = 0; i < fields.length; i++) {
+            fields[i] = fields[i].strip();
+        }
+        int port;
+        try {
+            port = fields[3].isEmpty() ? 0 : Integer.parseInt(fields[3]);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("port is not a number: " + fields[3]);
+        }
+        return new LoginTarget(fields[0], fields[1].toLowerCase(Locale.ROOT), fields[2], port, fields[4], fields[5],
+            resolvePassword(fields[6]));
+    }
+
+    private static String resolvePassword(String value) {
+        if (!value.startsWith(ENV_PREFIX)) {
+            return value;
+        }
+        String variable = value.substring(ENV_PREFIX.length());
+        String password = System.getenv(variable);
+        if (password == null) {
+            throw new IllegalArgumentException("environment variable " + variable + " is not set");
+        }
+        return password;
+    }
+
+    /**
+     * Key of the concurrency limit shared by all targets on the same server.
+     */
+    String hostKey() {
+        return host.toLowerCase(Locale.ROOT);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s (%s at %s:%d/%s)", databaseName, dbType, host, port, serviceName);
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.shelldemo.login;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@DisplayName("Database Login Service Tests")
+class DatabaseLoginServiceTest {
+    private static final String URL = "jdbc:h2:mem:loginservice;DB_CLOSE_DELAY=-1";
+
+    // Stands in for the listeners of the targets; connections wait in the backlog and are never accepted
+    private static ServerSocket listener;
+
+    @BeforeAll
+    static void startListener() throws IOException {
+        listener = new ServerSocket(0, 200, InetAddress.getLoopbackAddress());
+    }
+
+    @AfterAll
+    static void stopListener() throws IOException {
+        listener.close();
+    }
+
+    @Test
+    @DisplayName("Should never run more logins at once than the global and per-host limits allow")
+    void testConcurrencyLimits() {
+        List<LoginTarget> targets = new ArrayList<>();
+        for (int i = 0; i < 24; i++) {
+            targets.add(target("db" + i, i % 2 == 0 ? "localhost" : "127.0.0.1"));
+        }
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        Map<String, AtomicInteger> runningPerHost = new ConcurrentHashMap<>();
+        Map<String, AtomicInteger> maxPerHost = new ConcurrentHashMap<>();
+        DatabaseLoginService service = new DatabaseLoginService(3, 2, Duration.ofSeconds(5), Duration.ofSeconds(5),
+            config -> {
+                AtomicInteger host = runningPerHost.computeIfAbsent(config.getHost(), key -> new AtomicInteger());
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                maxPerHost.computeIfAbsent(config.getHost(), key -> new AtomicInteger())
+                    .accumulateAndGet(host.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(50);
+                    return DriverManager.getConnection(URL, "sa", "sa");
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new SQLException("Interrupted", e);
+                } finally {
+                    host.decrementAndGet();
+                    running.decrementAndGet();
+                }
+            });
+        Map<String, DatabaseLoginService.Probe> probes = new ConcurrentHashMap<>();
+
+        service.probeAll(targets, (target, probe) -> probes.put(target.databaseName(), probe));
+
+        assertEquals(24, probes.size());
+        assertTrue(probes.values().stream().allMatch(DatabaseLoginService.Probe::success), probes.toString());
+        assertEquals(3, maxRunning.get());
+        assertTrue(maxPerHost.values().stream().allMatch(max -> max.get() <= 2), maxPerHost.toString());
+    }
+
+    @Test
+    @DisplayName("Should keep the permits of a timed out login until the login ends")
+    void testTimedOutLoginKeepsPermits() {
+        List<LoginTarget> targets = List.of(target("slow1", "localhost"), target("slow2", "localhost"),
+            target("slow3", "localhost"));
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        DatabaseLoginService service = new DatabaseLoginService(10, 1, Duration.ofMillis(50), Duration.ofSeconds(1),
+            config -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(300);
+                    return DriverManager.getConnection(URL, "sa", "sa");
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new SQLException("Interrupted", e);
+                } finally {
+                    running.decrementAndGet();
+                }
+            });
+        List<DatabaseLoginService.Probe> probes = new ArrayList<>();
+
+        service.probeAll(targets, (target, probe) -> {
+            synchronized (probes) {
+                probes.add(probe);
+            }
+        });
+
+        assertEquals(3, probes.size());
+        for (DatabaseLoginService.Probe probe : probes) {
+            assertFalse(probe.success());
+            assertEquals("HYT00", probe.error().sqlState());
+        }
+        assertEquals(1, maxRunning.get(), "Abandoned logins must not pile up on the host");
+    }
+
+    @Test
+    @DisplayName("Should pass the timeouts on to the driver")
+    void testDriverTimeouts() {
+        Map<String, Map<String, String>> seen = new ConcurrentHashMap<>();
+        DatabaseLoginService service = new DatabaseLoginService(1, 1, Duration.ofMillis(2500), Duration.ofSeconds(5),
+            config -> {
+                seen.put(config.getDbType(), Map.copyOf(config.getDriverProperties()));
+                return DriverManager.getConnection(URL, "sa", "sa");
+            });
+
+        service.probeAll(List.of(target("orcl", "localhost")), (target, probe) -> assertTrue(probe.success()));
+
+        assertEquals(Map.of("oracle.net.CONNECT_TIMEOUT", "2500", "oracle.jdbc.ReadTimeout", "7500"), seen.get("oracle"));
+        assertEquals(Map.of("connectTimeout", "3", "loginTimeout", "3", "socketTimeout", "8"),
+            service.driverTimeouts("postgresql"));
+        assertEquals(Map.of("connectTimeout", "2500", "socketTimeout", "7500"), service.driverTimeouts("mysql"));
+    }
+
+    @Test
+    @DisplayName("Should quote error messages in the CSV report")
+    void testCsvReport(@TempDir Path tempDir) throws Exception {
+        Path inventory = Files.writeString(tempDir.resolve("inventory.csv"), String.format("""
+            database,type,host,port,service,username,password
+            good,oracle,localhost,%1$d,ORCL,app,secret
+            bad,oracle,localhost,%1$d,ORCL,app,wrong
+            """, listener.getLocalPort()));
+        Path output = tempDir.resolve("results.csv");
+        DatabaseLoginService service = new DatabaseLoginService(2, 2, Duration.ofSeconds(5), Duration.ofSeconds(5),
+            config -> {
+                if (config.getPassword().equals("wrong")) {
+                    throw new SQLException("ORA-01017: invalid \"username\", password;\nlogon denied", "28000", 1017);
+                }
+                return DriverManager.getConnection(URL, "sa", "sa");
+            });
+
+        assertEquals(1, service.runTests(inventory.toString(), output.toString()));
+
+        List<String> lines = Files.readAllLines(output);
+        assertEquals(DatabaseLoginServiceTestResult.getCsvHeader(), lines.get(0));
+        String report = Files.readString(output);
+        assertTrue(report.contains("good,ORCL,oracle,localhost,true,"), report);
+        assertTrue(report.contains("bad,ORCL,oracle,localhost,false,"), report);
+        assertTrue(report.contains(",\"ORA-01017: invalid \"\"username\"\", password;\nlogon denied\",28000\n"), report);
+    }
+
+    private static LoginTarget target(String name, String host) {
+        return new LoginTarget(name, "oracle", host, listener.getLocalPort(), "ORCL", "app", "secret");
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.shelldemo.login;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import picocli.CommandLine;
+
+@DisplayName("Login Latency Monitor Tests")
+class LoginLatencyMonitorTest {
+    private static final String URL = "jdbc:h2:mem:loginmonitor;DB_CLOSE_DELAY=-1";
+    private static final LoginTarget TARGET = new LoginTarget("orcl", "oracle", "localhost", 1521, "ORCL", "app", "secret");
+
+    private final AtomicLong loginMillis = new AtomicLong();
+    private final AtomicBoolean rejectLogins = new AtomicBoolean();
+
+    @BeforeEach
+    void warmUp(@TempDir Path tempDir) throws InterruptedException {
+        // Keeps the first login of a test, which loads the driver and creates the database, out of its baseline
+        rounds(monitor(tempDir), 1);
+    }
+
+    @Test
+    @DisplayName("Should count failed logins as samples at the timeout")
+    void testFailuresCountAtTimeout(@TempDir Path tempDir) throws Exception {
+        LoginLatencyMonitor monitor = monitor(tempDir);
+        rounds(monitor, 3);
+
+        rejectLogins.set(true);
+        LoginLatencyMonitor.Summary authenticate = rounds(monitor, 3);
+
+        assertEquals(LoginLatencyMonitor.Phase.AUTHENTICATE, authenticate.phase());
+        assertEquals(3, authenticate.failures());
+        assertEquals(Duration.ofSeconds(2).toNanos(), authenticate.p95Nanos());
+        assertTrue(authenticate.baselineP95Nanos() < Duration.ofSeconds(1).toNanos(),
+            "Failures must not enter the baseline");
+        assertTrue(authenticate.degraded());
+    }
+
+    @Test
+    @DisplayName("Should accept the current latency as normal after a rebaseline")
+    void testRebaseline(@TempDir Path tempDir) throws Exception {
+        LoginLatencyMonitor monitor = monitor(tempDir);
+        rounds(monitor, 3);
+
+        loginMillis.set(100);
+        assertTrue(rounds(monitor, 3).degraded());
+
+        monitor.rebaseline();
+        LoginLatencyMonitor.Summary authenticate = rounds(monitor, 3);
+        assertTrue(authenticate.baselineP95Nanos() >= Duration.ofMillis(100).toNanos());
+        assertFalse(authenticate.degraded());
+    }
+
+    @Test
+    @DisplayName("Should append a summary per phase from the command line")
+    void testCommandLine(@TempDir Path tempDir) throws Exception {
+        int closedPort;
+        try (ServerSocket socket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            closedPort = socket.getLocalPort();
+        }
+        Path inventory = Files.writeString(tempDir.resolve("inventory.csv"),
+            "down,oracle,127.0.0.1," + closedPort + ",ORCL,app,secret\n");
+        Path summary = tempDir.resolve("summary.csv");
+
+        int exitCode = new CommandLine(new LoginMonitorCommand()).execute(inventory.toString(),
+            "--summary", summary.toString(), "--rounds", "2", "--interval-seconds", "1",
+            "--connect-timeout-seconds", "2");
+
+        assertEquals(0, exitCode);
+        List<String> lines = Files.readAllLines(summary);
+        assertEquals(3, lines.size(), lines.toString());
+        assertTrue(lines.get(0).startsWith("Time,Database,Host,Phase"));
+        assertTrue(lines.get(2).contains(",down,127.0.0.1,authenticate,2,2000.000,2000.000,2000.000,,2,false"), lines.get(2));
+        assertEquals(2, new CommandLine(new LoginMonitorCommand()).execute(inventory.toString(),
+            "--summary", summary.toString(), "--degradation-factor", "1"));
+    }
+
+    private LoginLatencyMonitor monitor(Path tempDir) {
+        DatabaseLoginService service = new DatabaseLoginService(1, 1, Duration.ofSeconds(2), Duration.ofSeconds(2),
+            config -> {
+                if (rejectLogins.get()) {
+                    throw new SQLException("ORA-01017: invalid username/password; logon denied", "28000", 1017);
+                }
+                try {
+                    Thread.sleep(loginMillis.get());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return DriverManager.getConnection(URL, "sa", "sa");
+            });
+        return LoginLatencyMonitor.builder()
+            .service(service)
+            .window(3)
+            .baselineSamples(3)
+            .summaryFile(tempDir.resolve("summary.csv"))
+            .build();
+    }
+
+    /**
+     * Runs the rounds and returns the last authenticate summary.
+     */
+    private static LoginLatencyMonitor.Summary rounds(LoginLatencyMonitor monitor, int rounds) throws InterruptedException {
+        List<LoginLatencyMonitor.Summary> summaries = List.of();
+        for (int i = 0; i < rounds; i++) {
+            summaries = monitor.probeRound(List.of(TARGET));
+        }
+        return summaries.stream()
+            .filter(summary -> summary.phase() == LoginLatencyMonitor.Phase.AUTHENTICATE)
+            .findFirst()
+            .orElseThrow();
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.shelldemo.login;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+@DisplayName("Login Target Tests")
+class LoginTargetTest {
+
+    @Test
+    @DisplayName("Should read targets and skip the header, comments and blank lines")
+    void testReadInventory(@TempDir Path tempDir) throws Exception {
+        Path inventory = Files.writeString(tempDir.resolve("inventory.csv"), """
+            database,type,host,port,service,username,password
+            # production
+            sales, Oracle ,db1.example.com,1522,SALES,app,secret
+
+            hr,postgresql,db2.example.com,,hr,reader,
+            """);
+
+        List<LoginTarget> targets = LoginTarget.readInventory(inventory);
+
+        assertEquals(List.of(
+            new LoginTarget("sales", "oracle", "db1.example.com", 1522, "SALES", "app", "secret"),
+            new LoginTarget("hr", "postgresql", "db2.example.com", 0, "hr", "reader", "")), targets);
+    }
+
+    @Test
+    @DisplayName("Should name the line of a malformed target")
+    void testMalformedLines(@TempDir Path tempDir) throws Exception {
+        Path columns = Files.writeString(tempDir.resolve("columns.csv"), "sales,oracle,db1,1521,SALES,app\n");
+        Path port = Files.writeString(tempDir.resolve("port.csv"), "# comment\nsales,oracle,db1,abc,SALES,app,secret\n");
+        Path env = Files.writeString(tempDir.resolve("env.csv"),
+            "sales,oracle,db1,1521,SALES,app,env:LOGIN_TARGET_TEST_UNSET_VARIABLE\n");
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> LoginTarget.readInventory(columns));
+        assertTrue(e.getMessage().contains("line 1") && e.getMessage().contains("expected 7 columns but found 6"),
+            e.getMessage());
+        e = assertThrows(IllegalArgumentException.class, () -> LoginTarget.readInventory(port));
+        assertTrue(e.getMessage().contains("line 2") && e.getMessage().contains("port is not a number"), e.getMessage());
+        e = assertThrows(IllegalArgumentException.class, () -> LoginTarget.readInventory(env));
+        assertTrue(e.getMessage().contains("LOGIN_TARGET_TEST_UNSET_VARIABLE is not set"), e.getMessage());
+    }
+
+    @Test
+    @DisplayName("Should share the per-host limit regardless of host name case")
+    void testHostKey() {
+        assertEquals(LoginTarget.parse("a,oracle,DB1.example.com,1521,a,u,p").hostKey(),
+            LoginTarget.parse("b,oracle,db1.EXAMPLE.com,1521,b,u,p").hostKey());
+    }
+}
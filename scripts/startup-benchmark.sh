@@ -0,0 +1,150 @@
+#!/bin/bash
+#
+# Measures CLI startup: wall time, time to first statement and peak RSS of a short script run
+# against an in-memory H2 database. Results of each invocation are written to
+# <out>/runs-<label>.csv and a summary line is appended to <out>/history.csv, so that runs for
+# different releases can be compared. With --baseline the run fails if the median time to first
+# statement regressed by more than --threshold percent against the baseline label.
+#
+# Usage:
+#   scripts/startup-benchmark.sh [-n runs] [--jar app.jar | --native path/to/db] [--driver h2.jar]
+#                                [--label name] [--out dir] [--baseline label] [--threshold pct]
+#                                [-- extra JVM options]
+
+set -eu
+
+PROJECT_ROOT="$(cd "$(dirname "${BASH_SOURCE[0]}")/.." && pwd)"
+RUNS=10
+JAR="$PROJECT_ROOT/app/target/dbscriptrunner-1.0-SNAPSHOT.jar"
+NATIVE=""
+DRIVER=""
+LABEL="$(git -C "$PROJECT_ROOT" describe --tags --always --dirty 2>/dev/null || echo local)"
+OUT="$PROJECT_ROOT/target/startup-benchmark"
+BASELINE=""
+THRESHOLD=15
+JVM_OPTS=()
+
+while [ $# -gt 0 ]; do
+    case "$1" in
+        -n) RUNS="$2"; shift 2 ;;
+        --jar) JAR="$2"; shift 2 ;;
+        --native) NATIVE="$2"; shift 2 ;;
+        --driver) DRIVER="$2"; shift 2 ;;
+        --label) LABEL="$2"; shift 2 ;;
+        --out) OUT="$2"; shift 2 ;;
+        --baseline) BASELINE="$2"; shift 2 ;;
+        --threshold) THRESHOLD="$2"; shift 2 ;;
+        --) shift; JVM_OPTS=("$@"); break ;;
+        *) echo "Unknown option: $1" >&2; exit 2 ;;
+    esac
+done
+
+if [ -z "$NATIVE" ]; then
+    [ -f "$JAR" ] || { echo "Application jar not found: $JAR (run mvn package first)" >&2; exit 2; }
+    if [ -z "$DRIVER" ]; then
+        DRIVER="$(find "$HOME/.m2/repository/com/h2database/h2" -name 'h2-*.jar' 2>/dev/null | sort | tail -n 1)"
+    fi
+    [ -f "$DRIVER" ] || { echo "H2 driver jar not found, pass --driver" >&2; exit 2; }
+fi
+
+WORK="$(mktemp -d)"
+trap 'rm -rf "$WORK"' EXIT
+mkdir -p "$OUT"
+
+cat > "$WORK/application.yaml" <<'EOF'
+databases:
+  types:
+    h2:
+      defaultPort: 0
+      templates:
+        jdbc:
+          default: "jdbc:h2:mem:%3$s"
+      defaults:
+        port: 0
+EOF
+cat > "$WORK/first.sql" <<'EOF'
+SELECT 1;
+EOF
+
+TIME_BIN=""
+if [ -x /usr/bin/time ]; then
+    TIME_BIN=/usr/bin/time
+fi
+
+run_once() {
+    local report="$WORK/report.csv"
+    rm -f "$report"
+    local cmd
+    if [ -n "$NATIVE" ]; then
+        cmd=("$NATIVE" "-Ddb.startup.report=$report" "-Dapp.config=$WORK/application.yaml"
+             -t h2 -H localhost -u sa -p sa -d bench "$WORK/first.sql")
+    else
+        cmd=(java "${JVM_OPTS[@]+"${JVM_OPTS[@]}"}" "-Ddb.startup.report=$report" "-Dapp.config=$WORK/application.yaml"
+             -jar "$JAR" -t h2 -H localhost -u sa -p sa -d bench --driver-path "$DRIVER" "$WORK/first.sql")
+    fi
+
+    local start end rss="" status=0
+    start=$(date +%s%N)
+    if [ -n "$TIME_BIN" ]; then
+        "$TIME_BIN" -f "%M" -o "$WORK/rss" "${cmd[@]}" >"$WORK/output.log" 2>&1 || status=$?
+        rss="$(tail -n 1 "$WORK/rss")"
+    else
+        "${cmd[@]}" >"$WORK/output.log" 2>&1 || status=$?
+    fi
+    end=$(date +%s%N)
+
+    if [ "$status" -ne 0 ] || [ ! -f "$report" ]; then
+        echo "Benchmark run failed (exit $status):" >&2
+        tail -n 20 "$WORK/output.log" >&2
+        exit 1
+    fi
+    # The report holds the epoch millis at which the first statement was about to run
+    local ready
+    ready="$(cut -d, -f1 "$report" | head -n 1)"
+    echo "$(( (end - start) / 1000000 )),$(( ready - start / 1000000 )),${rss:-}"
+}
+
+# Percentile of a column read from stdin (nearest rank)
+percentile() {
+    sort -n | awk -v p="$1" '{ v[NR] = $1 } END { if (NR == 0) { print ""; exit } i = int((p / 100) * NR + 0.999); if (i < 1) i = 1; print v[i] }'
+}
+
+RUNS_FILE="$OUT/runs-$LABEL.csv"
+echo "run,wall_ms,first_statement_ms,peak_rss_kb" > "$RUNS_FILE"
+
+echo "Warming up (page cache, CDS archive)..."
+run_once > /dev/null
+
+for i in $(seq 1 "$RUNS"); do
+    echo "$i,$(run_once)" >> "$RUNS_FILE"
+done
+
+WALL_P50=$(tail -n +2 "$RUNS_FILE" | cut -d, -f2 | percentile 50)
+WALL_P90=$(tail -n +2 "$RUNS_FILE" | cut -d, -f2 | percentile 90)
+FIRST_P50=$(tail -n +2 "$RUNS_FILE" | cut -d, -f3 | percentile 50)
+FIRST_P90=$(tail -n +2 "$RUNS_FILE" | cut -d, -f3 | percentile 90)
+RSS_MAX=$(tail -n +2 "$RUNS_FILE" | cut -d, -f4 | grep -v '^$' | percentile 100 || true)
+
+HISTORY="$OUT/history.csv"
+[ -f "$HISTORY" ] || echo "label,date,runs,wall_p50_ms,wall_p90_ms,first_statement_p50_ms,first_statement_p90_ms,peak_rss_kb" > "$HISTORY"
+echo "$LABEL,$(date -u +%Y-%m-%dT%H:%M:%SZ),$RUNS,$WALL_P50,$WALL_P90,$FIRST_P50,$FIRST_P90,${RSS_MAX:-}" >> "$HISTORY"
+
+echo "Startup benchmark ($LABEL, $RUNS runs)"
+echo "  wall time           p50 ${WALL_P50} ms, p90 ${WALL_P90} ms"
+echo "  time to first stmt  p50 ${FIRST_P50} ms, p90 ${FIRST_P90} ms"
+echo "  peak RSS            ${RSS_MAX:-n/a} KB"
+echo "  per-run results in  $RUNS_FILE"
+
+if [ -n "$BASELINE" ]; then
+    BASE_P50=$(grep "^$BASELINE," "$HISTORY" | tail -n 1 | cut -d, -f6)
+    if [ -z "$BASE_P50" ]; then
+        echo "Baseline $BASELINE not found in $HISTORY" >&2
+        exit 2
+    fi
+    LIMIT=$(( BASE_P50 * (100 + THRESHOLD) / 100 ))
+    if [ "$FIRST_P50" -gt "$LIMIT" ]; then
+        echo "REGRESSION: time to first statement p50 ${FIRST_P50} ms exceeds ${LIMIT} ms (baseline $BASELINE ${BASE_P50} ms + ${THRESHOLD}%)" >&2
+        exit 1
+    fi
+    echo "  within ${THRESHOLD}% of baseline $BASELINE (${BASE_P50} ms)"
+fi
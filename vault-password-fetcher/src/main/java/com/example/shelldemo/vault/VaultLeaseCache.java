@@ -0,0 +1,354 @@
+package com.example.shelldemo.vault;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+import javax.crypto.Cipher;
+import javax.crypto.Mac;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Client tokens and secrets fetched from Vault, kept until shortly before their lease runs out.
+ *
+ * <p>Leases are grouped by {@link Scope}, the Vault server and AppRole they were obtained with. A lease is reused
+ * until less than a third of its TTL remains; after that the next {@link #get} loads it again, handing the loader
+ * the old lease while it is still valid so that a token can be renewed instead of replaced. Concurrent callers
+ * asking for the same lease share a single load, so a burst of fetches performs one login.</p>
+ *
+ * <p>With a directory, the leases of each scope are also written to a file there, so that back-to-back runs reuse
+ * them. The file is encrypted with AES-GCM under a key derived from the AppRole secret ID: whoever can read it
+ * without the secret ID learns nothing, and whoever has the secret ID could log in anyway. A file that cannot be
+ * decrypted, for example after the secret ID was rotated, is ignored and overwritten.</p>
+ */
+public final class VaultLeaseCache {
+    private static final Logger logger = LogManager.getLogger(VaultLeaseCache.class);
+    private static final byte FILE_VERSION = 1;
+    private static final int IV_BYTES = 12;
+    private static final int TAG_BITS = 128;
+    private static final TypeReference<Map<String, Lease>> LEASES = new TypeReference<>() {};
+
+    private final Path directory;
+    private final Clock clock;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final SecureRandom random = new SecureRandom();
+    private final Map<String, ScopeLeases> scopes = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<Lease>> loading = new ConcurrentHashMap<>();
+
+    /**
+     * Vault server and AppRole credentials a lease belongs to.
+     */
+    record Scope(String baseUrl, String roleId, String secretId) {
+        @Override
+        public String toString() {
+            return baseUrl + " (role " + roleId + ")";
+        }
+    }
+
+    /**
+     * A token or secret with the time its lease ends.
+     *
+     * @param expiresAtMillis end of the lease in epoch milliseconds, or 0 if the lease is unknown and the value
+     *                        must not be cached
+     */
+    record Lease(String value, long expiresAtMillis, long ttlSeconds, boolean renewable) {
+        static Lease of(String value, long ttlSeconds, boolean renewable, long nowMillis) {
+            return new Lease(value, ttlSeconds > 0 ? nowMillis + ttlSeconds * 1000 : 0, ttlSeconds, renewable);
+        }
+
+        boolean validAt(long nowMillis) {
+            return expiresAtMillis > nowMillis;
+        }
+
+        /**
+         * Whether the lease can be used as is; leases are refreshed once less than a third of their TTL remains.
+         */
+        boolean freshAt(long nowMillis) {
+            return expiresAtMillis - ttlSeconds * 1000 / 3 > nowMillis;
+        }
+    }
+
+    @FunctionalInterface
+    interface Loader {
+        /**
+         * @param current the previous lease if it has not expired yet, otherwise null
+         */
+        Lease load(Lease current) throws Exception;
+    }
+
+    /**
+     * Creates a cache that lives as long as the process.
+     */
+    public VaultLeaseCache() {
+        this(null, Clock.systemUTC());
+    }
+
+    /**
+     * Creates a cache that is also kept in encrypted files in the given directory.
+     */
+    public VaultLeaseCache(Path directory) {
+        this(directory, Clock.systemUTC());
+    }
+
+    VaultLeaseCache(Path directory, Clock clock) {
+        this.directory = directory;
+        this.clock = clock;
+    }
+
+    /**
+     * @return the default disk location, {@code $XDG_CACHE_HOME/dbscriptrunner/vault} or
+     *         {@code ~/.cache/dbscriptrunner/vault}
+     */
+    public static Path defaultDirectory() {
+        String xdgCache = System.getenv("XDG_CACHE_HOME");
+        Path base = xdgCache != null && !xdgCache.isBlank()
+            ? Path.of(xdgCache)
+            : Path.of(System.getProperty("user.home"), ".cache");
+        return base.resolve("dbscriptrunner").resolve("vault");
+    }
+
+    long now() {
+        return clock.millis();
+    }
+
+    /**
+     * Returns the lease if it is fresh, otherwise loads it, sharing the load with concurrent callers.
+     */
+    Lease get(Scope scope, String name, Loader loader) throws Exception {
+        ScopeLeases leases = leases(scope);
+        Lease cached = leases.entries.get(name);
+        if (cached != null && cached.freshAt(now())) {
+            return cached;
+        }
+
+        String key = leases.id + '\n' + name;
+        CompletableFuture<Lease> load = new CompletableFuture<>();
+        CompletableFuture<Lease> running = loading.putIfAbsent(key, load);
+        if (running != null) {
+            return await(running);
+        }
+        try {
+            // Another caller may have finished a load between the check above and registering this one
+            Lease latest = leases.entries.get(name);
+            Lease lease;
+            if (latest != null && latest.freshAt(now())) {
+                lease = latest;
+            } else {
+                lease = loader.load(latest != null && latest.validAt(now()) ? latest : null);
+                store(leases, name, lease);
+            }
+            load.complete(lease);
+            return lease;
+        } catch (Exception e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(key, load);
+        }
+    }
+
+    /**
+     * Returns the lease if it is fresh, without loading it otherwise.
+     */
+    Lease fresh(Scope scope, String name) {
+        Lease cached = leases(scope).entries.get(name);
+        return cached != null && cached.freshAt(now()) ? cached : null;
+    }
+
+    /**
+     * Stores leases loaded outside of {@link #get}, writing the cache file once for all of them.
+     */
+    void putAll(Scope scope, Map<String, Lease> loaded) {
+        ScopeLeases leases = leases(scope);
+        loaded.forEach((name, lease) -> {
+            if (lease.expiresAtMillis() != 0) {
+                leases.entries.put(name, lease);
+            }
+        });
+        persist(leases);
+    }
+
+    /**
+     * Drops a lease, e.g. a token Vault no longer accepts.
+     */
+    void invalidate(Scope scope, String name) {
+        ScopeLeases leases = leases(scope);
+        if (leases.entries.remove(name) != null) {
+            persist(leases);
+        }
+    }
+
+    private void store(ScopeLeases leases, String name, Lease lease) {
+        if (lease.expiresAtMillis() == 0) {
+            leases.entries.remove(name);
+            return;
+        }
+        leases.entries.put(name, lease);
+        persist(leases);
+    }
+
+    private static Lease await(CompletableFuture<Lease> running) throws Exception {
+        try {
+            return running.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private ScopeLeases leases(Scope scope) {
+        String id = digest(scope.baseUrl() + '\n' + scope.roleId() + '\n' + scope.secretId());
+        return scopes.computeIfAbsent(id, key -> {
+            ScopeLeases leases = new ScopeLeases(key, file(scope), encryptionKey(scope));
+            read(leases);
+            return leases;
+        });
+    }
+
+    private Path file(Scope scope) {
+        return directory != null ? directory.resolve(digest(scope.baseUrl() + '\n' + scope.roleId()) + ".lease") : null;
+    }
+
+    private void read(ScopeLeases leases) {
+        if (leases.file == null || !Files.isRegularFile(leases.file)) {
+            return;
+        }
+        try {
+            ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(leases.file));
+            if (data.remaining() <= 1 + IV_BYTES || data.get() != FILE_VERSION) {
+                logger.warn("Ignoring Vault lease cache {} of unknown format", leases.file);
+                return;
+            }
+            byte[] iv = new byte[IV_BYTES];
+            data.get(iv);
+            byte[] encrypted = new byte[data.remaining()];
+            data.get(encrypted);
+            Cipher cipher = cipher(Cipher.DECRYPT_MODE, leases, iv);
+            Map<String, Lease> stored = mapper.readValue(cipher.doFinal(encrypted), LEASES);
+            long now = now();
+            stored.forEach((name, lease) -> {
+                if (lease.validAt(now)) {
+                    leases.entries.put(name, lease);
+                }
+            });
+            logger.debug("Loaded {} Vault leases from {}", leases.entries.size(), leases.file);
+        } catch (GeneralSecurityException e) {
+            logger.debug("Vault lease cache {} was written with other credentials, ignoring it", leases.file);
+        } catch (IOException e) {
+            logger.warn("Failed to read Vault lease cache {}: {}", leases.file, e.getMessage());
+        }
+    }
+
+    private void persist(ScopeLeases leases) {
+        if (leases.file == null) {
+            return;
+        }
+        synchronized (leases) {
+            try {
+                long now = now();
+                Map<String, Lease> valid = new HashMap<>();
+                leases.entries.forEach((name, lease) -> {
+                    if (lease.validAt(now)) {
+                        valid.put(name, lease);
+                    }
+                });
+                byte[] iv = new byte[IV_BYTES];
+                random.nextBytes(iv);
+                byte[] encrypted = cipher(Cipher.ENCRYPT_MODE, leases, iv).doFinal(mapper.writeValueAsBytes(valid));
+
+                createDirectory();
+                // Temporary files are created readable by the owner only
+                Path temp = Files.createTempFile(directory, "lease", ".tmp");
+                try {
+                    Files.write(temp, ByteBuffer.allocate(1 + IV_BYTES + encrypted.length)
+                        .put(FILE_VERSION).put(iv).put(encrypted).array());
+                    Files.move(temp, leases.file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } finally {
+                    Files.deleteIfExists(temp);
+                }
+            } catch (IOException | GeneralSecurityException e) {
+                logger.warn("Failed to write Vault lease cache {}: {}", leases.file, e.getMessage());
+            }
+        }
+    }
+
+    private void createDirectory() throws IOException {
+        if (Files.isDirectory(directory)) {
+            return;
+        }
+        if (directory.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+            Files.createDirectories(directory, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rwx------")));
+        } else {
+            Files.createDirectories(directory);
+        }
+    }
+
+    /**
+     * The file name is bound to the ciphertext so that a file cannot be swapped in for another scope's.
+     */
+    private static Cipher cipher(int mode, ScopeLeases leases, byte[] iv) throws GeneralSecurityException {
+        Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+        cipher.init(mode, leases.key, new GCMParameterSpec(TAG_BITS, iv));
+        cipher.updateAAD(leases.file.getFileName().toString().getBytes(StandardCharsets.UTF_8));
+        return cipher;
+    }
+
+    private static SecretKeySpec encryptionKey(Scope scope) {
+        try {
+            // The secret ID is a random UUID, so a single HMAC is enough to turn it into a key
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(scope.secretId().getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            byte[] key = mac.doFinal(("vault-lease-cache\n" + scope.baseUrl() + '\n' + scope.roleId())
+                .getBytes(StandardCharsets.UTF_8));
+            return new SecretKeySpec(key, "AES");
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 not available", e);
+        }
+    }
+
+    private static String digest(String text) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static final class ScopeLeases {
+        private final String id;
+        private final Path file;
+        private final SecretKeySpec key;
+        private final Map<String, Lease> entries = new ConcurrentHashMap<>();
+
+        private ScopeLeases(String id, Path file, SecretKeySpec key) {
+            this.id = id;
+            this.file = file;
+            this.key = key;
+        }
+    }
+}
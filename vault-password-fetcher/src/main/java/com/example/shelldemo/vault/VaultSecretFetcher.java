@@ -6,31 +6,196 @@ import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.net.http.HttpRequest.BodyPublishers;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+/**
+ * Fetches database passwords from Vault with AppRole authentication.
+ *
+ * <p>Client tokens and secrets are kept in a {@link VaultLeaseCache} for as long as their leases allow. A token
+ * nearing the end of its lease is renewed when Vault marks it renewable, and replaced by a new login otherwise.</p>
+ *
+ * <p>{@link #fetchOraclePasswords} reads many secrets at once with {@link HttpClient#sendAsync}. The client
+ * prefers HTTP/2, so against a Vault server that offers it the reads share one connection as concurrent
+ * streams instead of waiting for each other.</p>
+ */
 public class VaultSecretFetcher {
+    private static final String TOKEN = "token";
+    private static final String SECRET = "secret:";
+    private static final int FORBIDDEN = 403;
+
     private final HttpClient client;
     private final ObjectMapper mapper;
+    private final VaultLeaseCache cache;
+
+    /**
+     * Outcome of a batch fetch.
+     *
+     * @param passwords passwords by database name, for the secrets that could be read
+     * @param errors failures by database name, for the others
+     */
+    public record SecretBatch(Map<String, String> passwords, Map<String, VaultSecretFetcherException> errors) {
+    }
 
-    VaultSecretFetcher(HttpClient client, ObjectMapper mapper) {
-        this.client = client != null ? client : HttpClient.newHttpClient();
+    VaultSecretFetcher(HttpClient client, ObjectMapper mapper, VaultLeaseCache cache) {
+        this.client = client != null ? client : HttpClient.newBuilder().version(HttpClient.Version.HTTP_2).build();
         this.mapper = mapper != null ? mapper : new ObjectMapper();
+        this.cache = cache != null ? cache : new VaultLeaseCache();
     }
 
     public VaultSecretFetcher() {
-        this(null, null);
+        this(null, null, null);
     }
 
     public String fetchOraclePassword(String vaultBaseUrl, String roleId, String secretId, String dbName, String ait) throws Exception {
-        String clientToken = authenticateToVault(vaultBaseUrl, roleId, secretId);
-        String secretResponse = fetchOracleSecret(vaultBaseUrl, clientToken, dbName, ait);
-        return parsePasswordFromResponse(secretResponse);
+        VaultLeaseCache.Scope scope = new VaultLeaseCache.Scope(vaultBaseUrl, roleId, secretId);
+        String secretPath = secretPath(dbName, ait);
+        return cache.get(scope, SECRET + secretPath, current -> fetchOracleSecret(scope, secretPath)).value();
     }
 
-    private String authenticateToVault(String vaultBaseUrl, String roleId, String secretId) throws Exception {
-        String loginUrl = vaultBaseUrl + "/v1/auth/approle/login";
-        String loginBody = String.format("{\"role_id\":\"%s\",\"secret_id\":\"%s\"}", roleId, secretId);
+    /**
+     * Drops the cached password of a database, e.g. one the database rejected because it was rotated before its
+     * lease ran out, so that the next {@link #fetchOraclePassword} reads it from Vault again.
+     */
+    public void invalidateOraclePassword(String vaultBaseUrl, String roleId, String secretId, String dbName, String ait) {
+        cache.invalidate(new VaultLeaseCache.Scope(vaultBaseUrl, roleId, secretId), SECRET + secretPath(dbName, ait));
+    }
+
+    /**
+     * Fetches the passwords of many databases, sending up to {@code maxConcurrency} secret reads at once.
+     * Secrets still in the cache are not read again. A secret that cannot be read is reported in
+     * {@link SecretBatch#errors()} and does not affect the others.
+     *
+     * @throws VaultSecretFetcherException if no client token can be obtained
+     */
+    public SecretBatch fetchOraclePasswords(String vaultBaseUrl, String roleId, String secretId, List<String> dbNames,
+                                            String ait, int maxConcurrency) throws Exception {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("maxConcurrency must be positive");
+        }
+        VaultLeaseCache.Scope scope = new VaultLeaseCache.Scope(vaultBaseUrl, roleId, secretId);
+        Map<String, String> passwords = new LinkedHashMap<>();
+        Map<String, VaultSecretFetcherException> errors = new LinkedHashMap<>();
+        Map<String, String> pending = new LinkedHashMap<>();
+        for (String dbName : new LinkedHashSet<>(dbNames)) {
+            VaultLeaseCache.Lease cached = cache.fresh(scope, SECRET + secretPath(dbName, ait));
+            if (cached != null) {
+                passwords.put(dbName, cached.value());
+            } else {
+                pending.put(dbName, secretPath(dbName, ait));
+            }
+        }
+        if (pending.isEmpty()) {
+            return new SecretBatch(passwords, errors);
+        }
+
+        Map<String, VaultLeaseCache.Lease> leases = new LinkedHashMap<>();
+        List<String> forbidden = collect(readSecrets(scope, pending, clientToken(scope), maxConcurrency), true, leases, errors);
+        if (!forbidden.isEmpty()) {
+            // A cached token may have been revoked before its lease ended; log in again once
+            cache.invalidate(scope, TOKEN);
+            Map<String, String> retry = new LinkedHashMap<>();
+            forbidden.forEach(dbName -> retry.put(dbName, pending.get(dbName)));
+            collect(readSecrets(scope, retry, clientToken(scope), maxConcurrency), false, leases, errors);
+        }
+
+        Map<String, VaultLeaseCache.Lease> byName = new LinkedHashMap<>();
+        leases.forEach((dbName, lease) -> {
+            passwords.put(dbName, lease.value());
+            byName.put(SECRET + pending.get(dbName), lease);
+        });
+        cache.putAll(scope, byName);
+        return new SecretBatch(passwords, errors);
+    }
+
+    private static String secretPath(String dbName, String ait) {
+        return String.format("/v1/secrets/database/oracle/static-creds/%s-%s", ait, dbName);
+    }
+
+    /**
+     * Sends the reads asynchronously, holding a permit per read in flight, and waits for all of them. The first
+     * read is sent alone: requests issued before a connection to the server exists would each open their own.
+     */
+    private Map<String, CompletableFuture<HttpResponse<String>>> readSecrets(VaultLeaseCache.Scope scope,
+            Map<String, String> secretPaths, String clientToken, int maxConcurrency) throws InterruptedException {
+        Semaphore permits = new Semaphore(maxConcurrency);
+        Map<String, CompletableFuture<HttpResponse<String>>> responses = new LinkedHashMap<>();
+        for (Map.Entry<String, String> secret : secretPaths.entrySet()) {
+            permits.acquire();
+            CompletableFuture<HttpResponse<String>> response = client
+                .sendAsync(secretRequest(scope, secret.getValue(), clientToken), HttpResponse.BodyHandlers.ofString())
+                .whenComplete((result, failure) -> permits.release());
+            if (responses.isEmpty()) {
+                response.exceptionally(failure -> null).join();
+            }
+            responses.put(secret.getKey(), response);
+        }
+        CompletableFuture.allOf(responses.values().toArray(CompletableFuture[]::new)).exceptionally(failure -> null).join();
+        return responses;
+    }
+
+    /**
+     * Sorts the responses into leases and errors.
+     *
+     * @param deferForbidden whether to return refused reads for a retry instead of reporting them as errors
+     * @return the database names whose read was refused and deferred
+     */
+    private List<String> collect(Map<String, CompletableFuture<HttpResponse<String>>> responses, boolean deferForbidden,
+                                 Map<String, VaultLeaseCache.Lease> leases, Map<String, VaultSecretFetcherException> errors) {
+        List<String> forbidden = new ArrayList<>();
+        responses.forEach((dbName, response) -> {
+            try {
+                HttpResponse<String> secretResponse = response.join();
+                if (secretResponse.statusCode() == FORBIDDEN && deferForbidden) {
+                    forbidden.add(dbName);
+                } else if (secretResponse.statusCode() != 200) {
+                    errors.put(dbName, new VaultSecretFetcherException("Vault secret fetch failed: " + secretResponse.body()));
+                } else {
+                    leases.put(dbName, parsePasswordFromResponse(secretResponse.body()));
+                }
+            } catch (VaultSecretFetcherException e) {
+                errors.put(dbName, e);
+            } catch (CompletionException e) {
+                errors.put(dbName, new VaultSecretFetcherException("Vault secret fetch failed: " + e.getCause().getMessage(), e.getCause()));
+            } catch (Exception e) {
+                errors.put(dbName, new VaultSecretFetcherException("Invalid Vault secret response: " + e.getMessage(), e));
+            }
+        });
+        return forbidden;
+    }
+
+    private String clientToken(VaultLeaseCache.Scope scope) throws Exception {
+        return cache.get(scope, TOKEN, current -> current != null && current.renewable()
+            ? renewOrAuthenticate(scope, current)
+            : authenticateToVault(scope)).value();
+    }
+
+    private VaultLeaseCache.Lease renewOrAuthenticate(VaultLeaseCache.Scope scope, VaultLeaseCache.Lease current) throws Exception {
+        HttpRequest renewRequest = HttpRequest.newBuilder()
+                .uri(URI.create(scope.baseUrl() + "/v1/auth/token/renew-self"))
+                .header("content-type", "application/json")
+                .header("x-vault-token", current.value())
+                .POST(BodyPublishers.ofString("{}", StandardCharsets.UTF_8))
+                .build();
+        HttpResponse<String> renewResponse = client.send(renewRequest, HttpResponse.BodyHandlers.ofString());
+        if (renewResponse.statusCode() != 200) {
+            // The token reached its maximum TTL or was revoked
+            return authenticateToVault(scope);
+        }
+        return tokenLease(renewResponse.body());
+    }
+
+    private VaultLeaseCache.Lease authenticateToVault(VaultLeaseCache.Scope scope) throws Exception {
+        String loginUrl = scope.baseUrl() + "/v1/auth/approle/login";
+        String loginBody = String.format("{\"role_id\":\"%s\",\"secret_id\":\"%s\"}", scope.roleId(), scope.secretId());
         HttpRequest loginRequest = HttpRequest.newBuilder()
                 .uri(URI.create(loginUrl))
                 .header("content-type", "application/json")
@@ -40,32 +205,57 @@ public class VaultSecretFetcher {
         if (loginResponse.statusCode() != 200) {
             throw new VaultSecretFetcherException("Vault login failed: " + loginResponse.body());
         }
-        String clientToken = mapper.readTree(loginResponse.body()).at("/auth/client_token").asText();
+        return tokenLease(loginResponse.body());
+    }
+
+    private VaultLeaseCache.Lease tokenLease(String responseBody) throws Exception {
+        JsonNode auth = mapper.readTree(responseBody).path("auth");
+        String clientToken = auth.path("client_token").asText();
         if (clientToken == null || clientToken.isEmpty()) {
             throw new VaultSecretFetcherException("No client token received from Vault");
         }
-        return clientToken;
+        return VaultLeaseCache.Lease.of(clientToken, auth.path("lease_duration").asLong(0),
+            auth.path("renewable").asBoolean(false), cache.now());
     }
 
-    private String fetchOracleSecret(String vaultBaseUrl, String clientToken, String dbName, String ait) throws Exception {
-        String secretPath = String.format("%s/v1/secrets/database/oracle/static-creds/%s-%s", vaultBaseUrl, ait, dbName);
-        HttpRequest secretRequest = HttpRequest.newBuilder()
-                .uri(URI.create(secretPath))
-                .header("x-vault-token", clientToken)
-                .GET()
-                .build();
-        HttpResponse<String> secretResponse = client.send(secretRequest, HttpResponse.BodyHandlers.ofString());
+    private VaultLeaseCache.Lease fetchOracleSecret(VaultLeaseCache.Scope scope, String secretPath) throws Exception {
+        HttpResponse<String> secretResponse = readSecret(scope, secretPath, clientToken(scope));
+        if (secretResponse.statusCode() == FORBIDDEN) {
+            // A cached token may have been revoked before its lease ended; log in again once
+            cache.invalidate(scope, TOKEN);
+            secretResponse = readSecret(scope, secretPath, clientToken(scope));
+        }
         if (secretResponse.statusCode() != 200) {
             throw new VaultSecretFetcherException("Vault secret fetch failed: " + secretResponse.body());
         }
-        return secretResponse.body();
+        return parsePasswordFromResponse(secretResponse.body());
+    }
+
+    private HttpResponse<String> readSecret(VaultLeaseCache.Scope scope, String secretPath, String clientToken) throws Exception {
+        return client.send(secretRequest(scope, secretPath, clientToken), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static HttpRequest secretRequest(VaultLeaseCache.Scope scope, String secretPath, String clientToken) {
+        return HttpRequest.newBuilder()
+                .uri(URI.create(scope.baseUrl() + secretPath))
+                .header("x-vault-token", clientToken)
+                .GET()
+                .build();
     }
 
-    private String parsePasswordFromResponse(String secretResponseBody) throws Exception {
-        String password = mapper.readTree(secretResponseBody).at("/data/password").asText();
+    /**
+     * Static credentials have no lease of their own; their {@code ttl} is the time left until the next rotation.
+     */
+    private VaultLeaseCache.Lease parsePasswordFromResponse(String secretResponseBody) throws Exception {
+        JsonNode secret = mapper.readTree(secretResponseBody);
+        String password = secret.at("/data/password").asText();
         if (password == null || password.isEmpty()) {
             throw new VaultSecretFetcherException("No password found in Vault secret");
         }
-        return password;
+        long ttlSeconds = secret.path("lease_duration").asLong(0);
+        if (ttlSeconds <= 0) {
+            ttlSeconds = secret.at("/data/ttl").asLong(0);
+        }
+        return VaultLeaseCache.Lease.of(password, ttlSeconds, secret.path("renewable").asBoolean(false), cache.now());
     }
-} 
\ No newline at end of file
+}
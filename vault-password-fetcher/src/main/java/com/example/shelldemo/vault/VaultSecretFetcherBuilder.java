@@ -6,6 +6,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 public class VaultSecretFetcherBuilder {
     private HttpClient client;
     private ObjectMapper mapper;
+    private VaultLeaseCache leaseCache;
 
     public VaultSecretFetcherBuilder httpClient(HttpClient client) {
         this.client = client;
@@ -17,7 +18,16 @@ public class VaultSecretFetcherBuilder {
         return this;
     }
 
+    /**
+     * Cache for tokens and secrets, e.g. one shared by several fetchers or kept on disk; by default each
+     * fetcher keeps its own in memory.
+     */
+    public VaultSecretFetcherBuilder leaseCache(VaultLeaseCache leaseCache) {
+        this.leaseCache = leaseCache;
+        return this;
+    }
+
     public VaultSecretFetcher build() {
-        return new VaultSecretFetcher(client, mapper);
+        return new VaultSecretFetcher(client, mapper, leaseCache);
     }
 } 
\ No newline at end of file
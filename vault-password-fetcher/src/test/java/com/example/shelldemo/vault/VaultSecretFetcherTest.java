@@ -0,0 +1,240 @@
+package com.example.shelldemo.vault;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+@DisplayName("Vault Secret Fetcher Tests")
+class VaultSecretFetcherTest {
+    private static final String ROLE_ID = "role";
+    private static final String SECRET_ID = "6f1c2d8e-5a7b-4c3d-9e0f-1a2b3c4d5e6f";
+
+    private final AtomicInteger logins = new AtomicInteger();
+    private final AtomicInteger renewals = new AtomicInteger();
+    private final AtomicInteger reads = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private final AtomicLong clockMillis = new AtomicLong(Instant.parse("2026-01-01T00:00:00Z").toEpochMilli());
+    private HttpServer server;
+    private String baseUrl;
+
+    @BeforeEach
+    void startVault() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/v1/auth/approle/login", exchange -> {
+            int login = logins.incrementAndGet();
+            sleep();
+            respond(exchange, 200, "{\"auth\":{\"client_token\":\"token-" + login + "\",\"lease_duration\":60,\"renewable\":true}}");
+        });
+        server.createContext("/v1/auth/token/renew-self", exchange -> {
+            renewals.incrementAndGet();
+            String token = exchange.getRequestHeaders().getFirst("x-vault-token");
+            respond(exchange, 200, "{\"auth\":{\"client_token\":\"" + token + "\",\"lease_duration\":60,\"renewable\":true}}");
+        });
+        server.createContext("/v1/secrets/database/oracle/static-creds/", exchange -> {
+            reads.incrementAndGet();
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                sleep();
+                String token = exchange.getRequestHeaders().getFirst("x-vault-token");
+                String path = exchange.getRequestURI().getPath();
+                String db = path.substring(path.lastIndexOf('/') + 1);
+                if (token == null || !token.startsWith("token-")) {
+                    respond(exchange, 403, "{\"errors\":[\"permission denied\"]}");
+                } else if (db.endsWith("missing")) {
+                    respond(exchange, 404, "{\"errors\":[]}");
+                } else {
+                    respond(exchange, 200, "{\"lease_duration\":0,\"data\":{\"password\":\"pw-" + db + "\",\"ttl\":3600}}");
+                }
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        });
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    void stopVault() {
+        server.stop(0);
+    }
+
+    @Test
+    @DisplayName("Should share one login and one secret read between concurrent fetches")
+    void testConcurrentFetchesShareLogin() throws Exception {
+        VaultSecretFetcher fetcher = fetcher(new VaultLeaseCache(null, clock()));
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<String>> passwords = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 20; i++) {
+                passwords.add(executor.submit(() -> {
+                    start.await();
+                    return fetch(fetcher, "orcl");
+                }));
+            }
+            start.countDown();
+            for (Future<String> password : passwords) {
+                assertEquals("pw-app-orcl", password.get());
+            }
+        }
+        assertEquals(1, logins.get());
+        assertEquals(1, reads.get());
+
+        assertEquals("pw-app-other", fetch(fetcher, "other"));
+        assertEquals(1, logins.get(), "token reused for another secret");
+        assertEquals(2, reads.get());
+    }
+
+    @Test
+    @DisplayName("Should renew the token ahead of expiry and log in again once it expired")
+    void testTokenRenewal() throws Exception {
+        VaultSecretFetcher fetcher = fetcher(new VaultLeaseCache(null, clock()));
+        fetch(fetcher, "db1");
+
+        clockMillis.addAndGet(45_000);
+        fetch(fetcher, "db2");
+        assertEquals(1, logins.get());
+        assertEquals(1, renewals.get(), "renewed with a third of the 60 s lease left");
+
+        clockMillis.addAndGet(61_000);
+        fetch(fetcher, "db3");
+        assertEquals(2, logins.get(), "expired token replaced by a new login");
+        assertEquals(1, renewals.get());
+        assertEquals(3, reads.get(), "secrets reused within their TTL");
+    }
+
+    @Test
+    @DisplayName("Should reuse encrypted leases from disk in a new process")
+    void testDiskCache(@TempDir Path tempDir) throws Exception {
+        assertEquals("pw-app-orcl", fetch(fetcher(new VaultLeaseCache(tempDir, clock())), "orcl"));
+        assertEquals(1, reads.get());
+
+        assertEquals("pw-app-orcl", fetch(fetcher(new VaultLeaseCache(tempDir, clock())), "orcl"));
+        assertEquals(1, logins.get());
+        assertEquals(1, reads.get());
+
+        try (var files = Files.list(tempDir)) {
+            for (Path file : files.toList()) {
+                String content = new String(Files.readAllBytes(file), StandardCharsets.ISO_8859_1);
+                assertFalse(content.contains("pw-app-orcl") || content.contains("token-1"), "cache file is encrypted");
+            }
+        }
+
+        VaultSecretFetcher rotated = new VaultSecretFetcherBuilder().leaseCache(new VaultLeaseCache(tempDir, clock())).build();
+        assertEquals("pw-app-orcl", rotated.fetchOraclePassword(baseUrl, ROLE_ID, "another-secret-id", "orcl", "app"));
+        assertEquals(2, logins.get(), "leases of other credentials are not readable");
+    }
+
+    @Test
+    @DisplayName("Should read an invalidated secret again, also from disk, but keep the token")
+    void testInvalidatePassword(@TempDir Path tempDir) throws Exception {
+        VaultSecretFetcher fetcher = fetcher(new VaultLeaseCache(tempDir, clock()));
+        fetch(fetcher, "orcl");
+        fetch(fetcher, "other");
+
+        fetcher.invalidateOraclePassword(baseUrl, ROLE_ID, SECRET_ID, "orcl", "app");
+        assertEquals("pw-app-orcl", fetch(fetcher(new VaultLeaseCache(tempDir, clock())), "orcl"));
+        assertEquals(3, reads.get());
+        assertEquals(1, logins.get());
+
+        fetch(fetcher, "other");
+        assertEquals(3, reads.get(), "other secrets stay cached");
+    }
+
+    @Test
+    @DisplayName("Should fetch a batch of secrets concurrently and report failures per secret")
+    void testBatchFetch() throws Exception {
+        VaultSecretFetcher fetcher = fetcher(new VaultLeaseCache(null, clock()));
+        assertEquals("pw-app-db0", fetch(fetcher, "db0"));
+        List<String> dbNames = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            dbNames.add("db" + i);
+        }
+        dbNames.add("missing");
+
+        VaultSecretFetcher.SecretBatch batch = fetcher.fetchOraclePasswords(baseUrl, ROLE_ID, SECRET_ID, dbNames, "app", 4);
+        assertEquals(30, batch.passwords().size());
+        assertEquals("pw-app-db29", batch.passwords().get("db29"));
+        assertEquals(1, batch.errors().size());
+        assertTrue(batch.errors().get("missing").getMessage().contains("secret fetch failed"));
+        assertEquals(1, logins.get());
+        assertEquals(31, reads.get(), "cached secret not read again");
+        assertTrue(maxInFlight.get() > 1 && maxInFlight.get() <= 4, "reads in flight: " + maxInFlight.get());
+
+        batch = fetcher.fetchOraclePasswords(baseUrl, ROLE_ID, SECRET_ID, dbNames, "app", 4);
+        assertEquals(30, batch.passwords().size());
+        assertEquals(32, reads.get(), "only the failed secret is read again");
+    }
+
+    private VaultSecretFetcher fetcher(VaultLeaseCache cache) {
+        return new VaultSecretFetcherBuilder().leaseCache(cache).build();
+    }
+
+    private String fetch(VaultSecretFetcher fetcher, String dbName) throws Exception {
+        return fetcher.fetchOraclePassword(baseUrl, ROLE_ID, SECRET_ID, dbName, "app");
+    }
+
+    private Clock clock() {
+        return new Clock() {
+            @Override
+            public ZoneOffset getZone() {
+                return ZoneOffset.UTC;
+            }
+
+            @Override
+            public Clock withZone(ZoneId zone) {
+                return this;
+            }
+
+            @Override
+            public Instant instant() {
+                return Instant.ofEpochMilli(clockMillis.get());
+            }
+        };
+    }
+
+    /**
+     * Keeps requests in flight long enough for concurrent fetches to overlap.
+     */
+    private static void sleep() {
+        try {
+            Thread.sleep(50);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("content-type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (var out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}